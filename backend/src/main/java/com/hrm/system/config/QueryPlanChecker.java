@@ -0,0 +1,322 @@
+package com.hrm.system.config;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Parameter;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.data.repository.core.RepositoryInformation;
+import org.springframework.data.repository.support.Repositories;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Startup check that runs H2 EXPLAIN on the SQL behind every repository query method
+ * and logs the ones that scan a whole table.
+ * Each query method is invoked with placeholder arguments while a statement inspector
+ * captures the generated SQL and aborts the statement, so no data is read.
+ * JPQL queries are run directly with placeholders of the types Hibernate binds their parameters as,
+ * which can differ from the method signature (a String compared with an enum attribute is bound as the enum).
+ * Off unless app.diagnostics.query-plan-check.enabled is set, as it runs every query once at startup.
+ */
+@Component
+@ConditionalOnProperty(name = "app.diagnostics.query-plan-check.enabled", havingValue = "true")
+public class QueryPlanChecker {
+
+    private static final Logger logger = LoggerFactory.getLogger(QueryPlanChecker.class);
+
+    private static final Pattern TABLE_SCAN = Pattern.compile("/\\* (\\S+)\\.tableScan");
+
+    private static final CapturingStatementInspector inspector = new CapturingStatementInspector();
+
+    @Autowired
+    private ApplicationContext applicationContext;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Bean
+    static HibernatePropertiesCustomizer queryPlanStatementInspector() {
+        return properties -> SqlStatementMetrics.addStatementInspector(properties, inspector);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void checkQueryPlans() {
+        String database = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                connection.getMetaData().getDatabaseProductName());
+        if (database == null || !database.contains("H2")) {
+            logger.info("Skipping query plan check, database is {}", database);
+            return;
+        }
+
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(true);
+
+        Repositories repositories = new Repositories(applicationContext);
+        int explained = 0;
+        int scanning = 0;
+        for (Class<?> domainType : repositories) {
+            RepositoryInformation information = repositories.getRequiredRepositoryInformation(domainType);
+            Object repository = repositories.getRepositoryFor(domainType).orElse(null);
+            if (repository == null) {
+                continue;
+            }
+            for (Method method : information.getQueryMethods()) {
+                String name = information.getRepositoryInterface().getSimpleName() + "." + method.getName();
+                if (method.isAnnotationPresent(Modifying.class) || method.getName().startsWith("delete")) {
+                    continue;
+                }
+
+                String sql = captureSql(transactionTemplate, repository, method, name);
+                if (sql == null) {
+                    continue;
+                }
+
+                Set<String> scannedTables = explain(sql);
+                explained++;
+                if (!scannedTables.isEmpty()) {
+                    scanning++;
+                    logger.warn("Table scan on {} in {}", String.join(", ", scannedTables), name);
+                }
+            }
+        }
+        logger.info("Query plan check explained {} repository queries, {} use a table scan", explained, scanning);
+    }
+
+    private String captureSql(TransactionTemplate transactionTemplate, Object repository, Method method, String name) {
+        List<String> statements = new ArrayList<>();
+        transactionTemplate.executeWithoutResult(status -> {
+            status.setRollbackOnly();
+            Query query = method.getAnnotation(Query.class);
+            boolean jpql = query != null && !query.nativeQuery() && !query.value().isEmpty();
+            Object[] arguments = placeholderArguments(method);
+            if (!jpql && arguments == null) {
+                logger.debug("Query plan check skipped {}, unsupported parameter type", name);
+                return;
+            }
+            inspector.begin(statements);
+            try {
+                if (jpql) {
+                    runQuery(query.value(), method, repository, arguments);
+                } else {
+                    method.invoke(repository, arguments);
+                }
+            } catch (Exception e) {
+                // The inspector aborts the statement once it has been captured
+                if (statements.isEmpty()) {
+                    Throwable cause = e instanceof InvocationTargetException ? e.getCause() : e;
+                    logger.debug("Query plan check could not run {}: {}", name, cause.getMessage());
+                }
+            } finally {
+                inspector.end();
+            }
+        });
+        return statements.isEmpty() ? null : statements.get(0);
+    }
+
+    private Set<String> explain(String sql) {
+        Set<String> tables = new TreeSet<>();
+        try {
+            String plan = jdbcTemplate.execute((ConnectionCallback<String>) connection -> {
+                try (var statement = connection.prepareStatement("EXPLAIN " + sql);
+                     var resultSet = statement.executeQuery()) {
+                    return resultSet.next() ? resultSet.getString(1) : "";
+                }
+            });
+            Matcher matcher = TABLE_SCAN.matcher(plan != null ? plan : "");
+            while (matcher.find()) {
+                tables.add(matcher.group(1));
+            }
+        } catch (Exception e) {
+            logger.debug("Could not explain query: {}", e.getMessage());
+        }
+        return tables;
+    }
+
+    /**
+     * Run a JPQL query with a placeholder for each parameter, of the type the query binds it as.
+     * Queries using Spring Data's extensions to JPQL, such as LIKE %:name%, go through the repository method.
+     */
+    private void runQuery(String jpql, Method method, Object repository, Object[] arguments) throws Exception {
+        jakarta.persistence.Query query;
+        try {
+            query = entityManager.createQuery(jpql);
+        } catch (IllegalArgumentException e) {
+            if (arguments == null) {
+                throw e;
+            }
+            method.invoke(repository, arguments);
+            return;
+        }
+        for (Parameter<?> parameter : query.getParameters()) {
+            Class<?> type = parameter.getParameterType();
+            Type genericType = type;
+            if (type == null) {
+                int index = parameterIndex(method, parameter);
+                if (index < 0) {
+                    throw new IllegalArgumentException("No method parameter for query parameter " + parameter);
+                }
+                type = method.getParameterTypes()[index];
+                genericType = method.getGenericParameterTypes()[index];
+            }
+            Object value = placeholder(type, genericType);
+            if (value == null) {
+                throw new IllegalArgumentException("Unsupported parameter type " + type.getName());
+            }
+            if (parameter.getName() != null) {
+                query.setParameter(parameter.getName(), value);
+            } else {
+                query.setParameter(parameter.getPosition(), value);
+            }
+        }
+        query.setMaxResults(1).getResultList();
+    }
+
+    private static int parameterIndex(Method method, Parameter<?> parameter) {
+        if (parameter.getName() == null) {
+            return parameter.getPosition() != null ? parameter.getPosition() - 1 : -1;
+        }
+        java.lang.reflect.Parameter[] parameters = method.getParameters();
+        for (int i = 0; i < parameters.length; i++) {
+            Param param = parameters[i].getAnnotation(Param.class);
+            String name = param != null ? param.value() : parameters[i].getName();
+            if (parameter.getName().equals(name)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Build placeholder arguments for a query method, or null when a parameter type is not supported
+     */
+    private Object[] placeholderArguments(Method method) {
+        Class<?>[] types = method.getParameterTypes();
+        Type[] genericTypes = method.getGenericParameterTypes();
+        Object[] arguments = new Object[types.length];
+        for (int i = 0; i < types.length; i++) {
+            Object value = placeholder(types[i], genericTypes[i]);
+            if (value == null) {
+                return null;
+            }
+            arguments[i] = value;
+        }
+        return arguments;
+    }
+
+    private Object placeholder(Class<?> type, Type genericType) {
+        if (type == Long.class || type == long.class) {
+            return 1L;
+        }
+        if (type == Integer.class || type == int.class) {
+            return 1;
+        }
+        if (type == Double.class || type == double.class) {
+            return 0.0;
+        }
+        if (type == Boolean.class || type == boolean.class) {
+            return Boolean.FALSE;
+        }
+        if (type == String.class) {
+            return "x";
+        }
+        if (type == LocalDate.class) {
+            return LocalDate.now();
+        }
+        if (type == LocalDateTime.class) {
+            return LocalDateTime.now();
+        }
+        if (type == LocalTime.class) {
+            return LocalTime.NOON;
+        }
+        if (type == YearMonth.class) {
+            return YearMonth.now();
+        }
+        if (type.isAnnotationPresent(Entity.class)) {
+            return entityManager.getReference(type, 1L);
+        }
+        if (type.isEnum()) {
+            return type.getEnumConstants()[0];
+        }
+        if (Pageable.class.isAssignableFrom(type)) {
+            return PageRequest.of(0, 1);
+        }
+        if (type == Sort.class) {
+            return Sort.unsorted();
+        }
+        if (Collection.class.isAssignableFrom(type) && genericType instanceof ParameterizedType parameterized
+                && parameterized.getActualTypeArguments()[0] instanceof Class<?> elementType) {
+            Object element = placeholder(elementType, elementType);
+            return element != null ? List.of(element) : null;
+        }
+        return null;
+    }
+
+    /**
+     * Records the SQL of the current thread's statement and aborts it while a capture is active
+     */
+    static class CapturingStatementInspector implements StatementInspector {
+
+        private static final long serialVersionUID = 1L;
+
+        private final ThreadLocal<List<String>> captured = new ThreadLocal<>();
+
+        void begin(List<String> statements) {
+            captured.set(statements);
+        }
+
+        void end() {
+            captured.remove();
+        }
+
+        @Override
+        public String inspect(String sql) {
+            List<String> statements = captured.get();
+            if (statements == null) {
+                return sql;
+            }
+            statements.add(sql);
+            throw new IllegalStateException("Statement captured for query plan check");
+        }
+    }
+}
@@ -0,0 +1,243 @@
+package com.hrm.system.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+
+/**
+ * Counts the SQL statements each controller method issues, including lazy loads while the response is written
+ * and statements issued while a streamed body is produced on the async executor.
+ * The count is recorded in the hrm.sql.statements histogram tagged by handler, a statement repeated within
+ * one request is logged as a likely N+1, and a request over the statement budget is logged or, with
+ * fail-on-exceed, failed at the first statement past the budget.
+ */
+@Component
+@ConditionalOnProperty(name = "app.diagnostics.statement-budget.enabled", havingValue = "true", matchIfMissing = true)
+public class SqlStatementMetrics implements AsyncHandlerInterceptor, CallableProcessingInterceptor, WebMvcConfigurer {
+
+    private static final Logger logger = LoggerFactory.getLogger(SqlStatementMetrics.class);
+
+    static final String STATEMENT_INSPECTOR = "hibernate.session_factory.statement_inspector";
+
+    /**
+     * Carries a request's count across threads while it is handled asynchronously
+     */
+    private static final String STATEMENTS_ATTRIBUTE = SqlStatementMetrics.class.getName() + ".statements";
+
+    private static final CountingStatementInspector inspector = new CountingStatementInspector();
+
+    private final MeterRegistry meterRegistry;
+
+    private final int maxPerRequest;
+
+    private final boolean failOnExceed;
+
+    private final int repeatedThreshold;
+
+    public SqlStatementMetrics(MeterRegistry meterRegistry,
+                               @Value("${app.diagnostics.statement-budget.max-per-request:50}") int maxPerRequest,
+                               @Value("${app.diagnostics.statement-budget.fail-on-exceed:false}") boolean failOnExceed,
+                               @Value("${app.diagnostics.statement-budget.repeated-threshold:10}") int repeatedThreshold) {
+        this.meterRegistry = meterRegistry;
+        this.maxPerRequest = maxPerRequest;
+        this.failOnExceed = failOnExceed;
+        this.repeatedThreshold = repeatedThreshold;
+    }
+
+    @Bean
+    static HibernatePropertiesCustomizer statementCountingInspector() {
+        return properties -> addStatementInspector(properties, inspector);
+    }
+
+    /**
+     * Hibernate takes a single statement inspector, so one added next to another is chained after it
+     */
+    static void addStatementInspector(Map<String, Object> properties, StatementInspector added) {
+        properties.merge(STATEMENT_INSPECTOR, added, (existing, next) -> {
+            StatementInspector first = (StatementInspector) existing;
+            StatementInspector second = (StatementInspector) next;
+            return (StatementInspector) sql -> {
+                String inspected = first.inspect(sql);
+                return second.inspect(inspected != null ? inspected : sql);
+            };
+        });
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(this);
+    }
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.registerCallableInterceptors(this);
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        // The async dispatch that completes a request continues the count started on its first dispatch
+        if (request.getAttribute(STATEMENTS_ATTRIBUTE) instanceof RequestStatements resumed) {
+            request.removeAttribute(STATEMENTS_ATTRIBUTE);
+            inspector.begin(resumed);
+        } else if (handler instanceof HandlerMethod method) {
+            String name = method.getBeanType().getSimpleName() + "." + method.getMethod().getName();
+            inspector.begin(new RequestStatements(name, failOnExceed ? maxPerRequest : 0));
+        }
+        return true;
+    }
+
+    /**
+     * Runs on the request thread before a Callable (such as a StreamingResponseBody) is handed to the async executor
+     */
+    @Override
+    public <T> void beforeConcurrentHandling(NativeWebRequest request, Callable<T> task) {
+        suspend(request);
+    }
+
+    @Override
+    public <T> void preProcess(NativeWebRequest request, Callable<T> task) {
+        if (request.getAttribute(STATEMENTS_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST) instanceof RequestStatements statements) {
+            inspector.begin(statements);
+        }
+    }
+
+    @Override
+    public <T> void postProcess(NativeWebRequest request, Callable<T> task, Object concurrentResult) {
+        inspector.end();
+    }
+
+    /**
+     * afterCompletion is not called on this dispatch, so the worker thread must not keep the count
+     */
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        RequestStatements statements = inspector.end();
+        if (statements != null) {
+            request.setAttribute(STATEMENTS_ATTRIBUTE, statements);
+        }
+    }
+
+    private static void suspend(NativeWebRequest request) {
+        RequestStatements statements = inspector.end();
+        if (statements != null) {
+            request.setAttribute(STATEMENTS_ATTRIBUTE, statements, RequestAttributes.SCOPE_REQUEST);
+        }
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        RequestStatements statements = inspector.end();
+        if (statements == null) {
+            return;
+        }
+        DistributionSummary.builder("hrm.sql.statements")
+                .description("SQL statements issued per request")
+                .baseUnit("statements")
+                .tag("handler", statements.handler)
+                .publishPercentileHistogram()
+                .maximumExpectedValue(1000.0)
+                .register(meterRegistry)
+                .record(statements.total);
+
+        if (maxPerRequest > 0 && statements.total > maxPerRequest) {
+            logger.warn("{} issued {} SQL statements, over the budget of {}", statements.handler, statements.total, maxPerRequest);
+        }
+        Map.Entry<String, Integer> repeated = statements.mostRepeated();
+        if (repeated != null && repeated.getValue() >= repeatedThreshold) {
+            Counter.builder("hrm.sql.repeated")
+                    .description("Requests that issued one statement repeatedly, likely an N+1 query")
+                    .tag("handler", statements.handler)
+                    .register(meterRegistry)
+                    .increment();
+            logger.warn("Possible N+1 in {}: statement issued {} times: {}", statements.handler, repeated.getValue(), repeated.getKey());
+        }
+    }
+
+    /**
+     * Statements of one request, counted per distinct SQL
+     */
+    static class RequestStatements {
+
+        private final String handler;
+
+        private final int failAbove;
+
+        private final Map<String, Integer> countsBySql = new HashMap<>();
+
+        private int total;
+
+        RequestStatements(String handler, int failAbove) {
+            this.handler = handler;
+            this.failAbove = failAbove;
+        }
+
+        void add(String sql) {
+            total++;
+            countsBySql.merge(sql, 1, Integer::sum);
+            if (failAbove > 0 && total > failAbove) {
+                throw new RuntimeException(handler + " exceeded the budget of " + failAbove + " SQL statements per request");
+            }
+        }
+
+        Map.Entry<String, Integer> mostRepeated() {
+            Map.Entry<String, Integer> most = null;
+            for (Map.Entry<String, Integer> entry : countsBySql.entrySet()) {
+                if (most == null || entry.getValue() > most.getValue()) {
+                    most = entry;
+                }
+            }
+            return most;
+        }
+    }
+
+    /**
+     * Adds every statement of the current thread to its request while one is being handled
+     */
+    static class CountingStatementInspector implements StatementInspector {
+
+        private static final long serialVersionUID = 1L;
+
+        private final ThreadLocal<RequestStatements> current = new ThreadLocal<>();
+
+        void begin(RequestStatements statements) {
+            current.set(statements);
+        }
+
+        RequestStatements end() {
+            RequestStatements statements = current.get();
+            current.remove();
+            return statements;
+        }
+
+        @Override
+        public String inspect(String sql) {
+            RequestStatements statements = current.get();
+            if (statements != null) {
+                statements.add(sql);
+            }
+            return sql;
+        }
+    }
+}
@@ -1,8 +1,11 @@
 package com.hrm.system.controller;
 
 import com.hrm.system.dto.AttendanceDto;
+import com.hrm.system.dto.CursorPage;
 import com.hrm.system.entity.Attendance;
+import com.hrm.system.entity.User;
 import com.hrm.system.service.AttendanceService;
+import com.hrm.system.service.impl.PunchIngestionQueue;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -13,13 +16,18 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
 
 /**
  * REST Controller for Attendance management
@@ -33,6 +41,10 @@ public class AttendanceController {
     @Autowired
     private AttendanceService attendanceService;
 
+    /** Present only when buffered punch ingestion is enabled */
+    @Autowired(required = false)
+    private PunchIngestionQueue punchIngestionQueue;
+
     /**
      * Punch in for a user
      */
@@ -46,8 +58,15 @@ public class AttendanceController {
             @RequestParam(required = false) Double longitude) {
 
         try {
+            if (punchIngestionQueue != null) {
+                User principal = (User) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+                AttendanceDto accepted = punchIngestionQueue.submitPunchIn(principal, location, latitude, longitude);
+                return ResponseEntity.status(HttpStatus.ACCEPTED).body(accepted);
+            }
             AttendanceDto attendance = attendanceService.punchIn(userId, location, latitude, longitude);
             return ResponseEntity.ok(attendance);
+        } catch (RejectedExecutionException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "1").build();
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().build();
         }
@@ -66,13 +85,36 @@ public class AttendanceController {
             @RequestParam(required = false) Double longitude) {
 
         try {
+            if (punchIngestionQueue != null) {
+                User principal = (User) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+                AttendanceDto accepted = punchIngestionQueue.submitPunchOut(principal, location, latitude, longitude);
+                return ResponseEntity.status(HttpStatus.ACCEPTED).body(accepted);
+            }
             AttendanceDto attendance = attendanceService.punchOut(userId, location, latitude, longitude);
             return ResponseEntity.ok(attendance);
+        } catch (RejectedExecutionException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "1").build();
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().build();
         }
     }
 
+    /**
+     * Status of the punches a user had acknowledged with 202 Accepted
+     */
+    @GetMapping("/punch-status/{userId}")
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER') or #userId == authentication.principal.id")
+    @Operation(summary = "Punch status", description = "Whether a user's queued punches on a date (default today) are pending, written or failed")
+    public ResponseEntity<PunchIngestionQueue.PunchStatus> getPunchStatus(
+            @PathVariable Long userId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+
+        if (punchIngestionQueue == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(punchIngestionQueue.statusOf(userId, date != null ? date : LocalDate.now()));
+    }
+
     /**
      * Create attendance record
      */
@@ -88,6 +130,29 @@ public class AttendanceController {
         }
     }
 
+    /**
+     * Scroll attendance records with cursor pagination and filters
+     */
+    @GetMapping("/scroll")
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER')")
+    @Operation(summary = "Scroll attendance", description = "Get attendance records a page at a time without counting them; pass nextCursor back for the following page")
+    public ResponseEntity<CursorPage<AttendanceDto>> scrollAttendance(
+            @Parameter(description = "Cursor from the previous page") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size") @RequestParam(defaultValue = "10") int size,
+            @Parameter(description = "Sort field: date or id") @RequestParam(defaultValue = "date") String sortBy,
+            @Parameter(description = "Sort direction") @RequestParam(defaultValue = "DESC") String sortDir,
+            @Parameter(description = "Filter by date (YYYY-MM-DD)") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            @Parameter(description = "Filter by status") @RequestParam(required = false) Attendance.AttendanceStatus status,
+            @Parameter(description = "Filter by user ID") @RequestParam(required = false) Long userId) {
+
+        try {
+            return ResponseEntity.ok(attendanceService.scrollAttendance(cursor, sortBy, Sort.Direction.fromString(sortDir),
+                    Math.max(1, Math.min(size, 100)), date, status, userId));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
     /**
      * Get all attendance records with pagination and filters
      */
@@ -278,41 +343,176 @@ public class AttendanceController {
     }
 
     /**
-     * Get attendance statistics
+     * Get attendance statistics, for today unless a date window is given
      */
     @GetMapping("/statistics")
     @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER')")
     @Operation(summary = "Get attendance statistics", description = "Get attendance statistics for dashboard")
-    public ResponseEntity<AttendanceService.AttendanceStatistics> getAttendanceStatistics() {
-        AttendanceService.AttendanceStatistics statistics = attendanceService.getAttendanceStatistics();
+    public ResponseEntity<AttendanceService.AttendanceStatistics> getAttendanceStatistics(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+        LocalDate end = endDate != null ? endDate : LocalDate.now();
+        LocalDate start = startDate != null ? startDate : end;
+        AttendanceService.AttendanceStatistics statistics = attendanceService.getAttendanceStatistics(start, end);
         return ResponseEntity.ok(statistics);
     }
 
     /**
-     * Get user attendance statistics
+     * Get user attendance statistics, for the last 30 days unless a date window is given
      */
     @GetMapping("/statistics/user/{userId}")
     @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER') or #userId == authentication.principal.id")
     @Operation(summary = "Get user attendance statistics", description = "Get attendance statistics for a specific user")
     public ResponseEntity<AttendanceService.UserAttendanceStatistics> getUserAttendanceStatistics(
-            @PathVariable Long userId) {
-        AttendanceService.UserAttendanceStatistics statistics = attendanceService.getUserAttendanceStatistics(userId);
+            @PathVariable Long userId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+        LocalDate end = endDate != null ? endDate : LocalDate.now();
+        LocalDate start = startDate != null ? startDate : end.minusDays(30);
+        AttendanceService.UserAttendanceStatistics statistics = attendanceService.getUserAttendanceStatistics(userId,
+                start, end);
         return ResponseEntity.ok(statistics);
     }
 
     /**
-     * Get department attendance statistics
+     * Get department attendance statistics, for today unless a date window is given
      */
     @GetMapping("/statistics/department/{department}")
     @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER')")
     @Operation(summary = "Get department attendance statistics", description = "Get attendance statistics for a specific department")
     public ResponseEntity<AttendanceService.DepartmentAttendanceStatistics> getDepartmentAttendanceStatistics(
-            @PathVariable String department) {
+            @PathVariable String department,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+        LocalDate end = endDate != null ? endDate : LocalDate.now();
+        LocalDate start = startDate != null ? startDate : end;
         AttendanceService.DepartmentAttendanceStatistics statistics = attendanceService
-                .getDepartmentAttendanceStatistics(department);
+                .getDepartmentAttendanceStatistics(department, start, end);
         return ResponseEntity.ok(statistics);
     }
 
+    /**
+     * Get a user's monthly attendance summary, for the current month unless one is given
+     */
+    @GetMapping("/summary/user/{userId}")
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER') or #userId == authentication.principal.id")
+    @Operation(summary = "Get monthly attendance summary", description = "Get a user's attendance rollup for a month")
+    public ResponseEntity<AttendanceService.MonthlyAttendanceSummary> getMonthlySummary(
+            @PathVariable Long userId,
+            @RequestParam(required = false) Integer year,
+            @RequestParam(required = false) Integer month) {
+        LocalDate today = LocalDate.now();
+        try {
+            return ResponseEntity.ok(attendanceService.getMonthlySummary(userId,
+                    year != null ? year : today.getYear(), month != null ? month : today.getMonthValue()));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * Get every user's monthly attendance summary, for the current month unless one is given
+     */
+    @GetMapping("/summary")
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER')")
+    @Operation(summary = "Get monthly attendance summaries", description = "Get every user's attendance rollup for a month")
+    public ResponseEntity<List<AttendanceService.MonthlyAttendanceSummary>> getMonthlySummaries(
+            @RequestParam(required = false) Integer year,
+            @RequestParam(required = false) Integer month) {
+        LocalDate today = LocalDate.now();
+        return ResponseEntity.ok(attendanceService.getMonthlySummaries(
+                year != null ? year : today.getYear(), month != null ? month : today.getMonthValue()));
+    }
+
+    /**
+     * Rebuild a month's attendance summaries from attendance records
+     */
+    @PostMapping("/summary/rebuild")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Rebuild monthly attendance summaries", description = "Verify a month's attendance rollups against attendance records and correct them, or only report the drift with dryRun")
+    public ResponseEntity<AttendanceService.SummaryRebuildResult> rebuildMonthlySummaries(
+            @RequestParam int year,
+            @RequestParam int month,
+            @RequestParam(defaultValue = "false") boolean dryRun) {
+        try {
+            return ResponseEntity.ok(attendanceService.rebuildMonthlySummaries(year, month, dryRun));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * Get records on a date below the configured minimum working hours
+     */
+    @GetMapping("/reports/short-hours/{date}")
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER')")
+    @Operation(summary = "Get short working days", description = "Get attendance on a date with fewer working hours than the configured minimum")
+    public ResponseEntity<List<AttendanceDto>> getShortWorkingHours(
+            @PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        return ResponseEntity.ok(attendanceService.getShortWorkingHours(date));
+    }
+
+    /**
+     * Get records on a date above the configured maximum working hours
+     */
+    @GetMapping("/reports/overtime/{date}")
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER')")
+    @Operation(summary = "Get overtime", description = "Get attendance on a date with more working hours than the configured maximum")
+    public ResponseEntity<List<AttendanceDto>> getOvertime(
+            @PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        return ResponseEntity.ok(attendanceService.getOvertime(date));
+    }
+
+    /**
+     * Get late arrivals and overtime per department and day, for the current quarter unless a date window is given
+     */
+    @GetMapping("/reports/department-daily")
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER')")
+    @Operation(summary = "Get department late and overtime report", description = "Get late arrivals, short days and overtime per department and day")
+    public ResponseEntity<List<AttendanceService.DepartmentDayReport>> getDepartmentDayReport(
+            @RequestParam(required = false) String department,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+        LocalDate today = LocalDate.now();
+        LocalDate quarterStart = today.withMonth((today.getMonthValue() - 1) / 3 * 3 + 1).withDayOfMonth(1);
+        LocalDate start = startDate != null ? startDate : quarterStart;
+        LocalDate end = endDate != null ? endDate : quarterStart.plusMonths(3).minusDays(1);
+        try {
+            return ResponseEntity.ok(attendanceService.getDepartmentDayReport(department, start, end));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * Export attendance for a date window as CSV
+     */
+    @GetMapping("/export")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Export attendance", description = "Stream attendance for a date window as CSV, optionally scoped to a department")
+    public ResponseEntity<StreamingResponseBody> exportAttendance(
+            @RequestParam(required = false) String department,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+        // Check the inputs while an error can still be returned; once streaming starts the status is sent
+        User.Department dept;
+        try {
+            dept = department != null ? User.Department.valueOf(department.toUpperCase()) : null;
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        if (endDate.isBefore(startDate)) {
+            return ResponseEntity.badRequest().build();
+        }
+        StreamingResponseBody body = outputStream ->
+                attendanceService.exportAttendanceCsv(dept, startDate, endDate, outputStream);
+        String scope = dept != null ? dept.name().toLowerCase() + "-" : "";
+        return ResponseEntity.ok()
+                .header("Content-Disposition", "attachment; filename=attendance-" + scope + startDate + "-" + endDate + ".csv")
+                .contentType(MediaType.parseMediaType("text/csv"))
+                .body(body);
+    }
+
     /**
      * Check if user has punched in for the day
      */
@@ -379,12 +579,12 @@ public class AttendanceController {
      */
     @PostMapping("/update-status-for-date/{date}")
     @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER')")
-    @Operation(summary = "Update attendance status for date", description = "Update all attendance records for a specific date based on working hours")
-    public ResponseEntity<String> updateAttendanceStatusForDate(
-            @PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+    @Operation(summary = "Update attendance status for date", description = "Update all attendance records for a specific date based on working hours, or preview the changes with dryRun")
+    public ResponseEntity<?> updateAttendanceStatusForDate(
+            @PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            @RequestParam(defaultValue = "false") boolean dryRun) {
         try {
-            attendanceService.updateAllAttendanceStatusForDate(date);
-            return ResponseEntity.ok("Attendance status updated successfully for " + date);
+            return ResponseEntity.ok(attendanceService.updateAllAttendanceStatusForDate(date, dryRun));
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().body("Failed to update attendance status: " + e.getMessage());
         }
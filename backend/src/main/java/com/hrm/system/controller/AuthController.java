@@ -3,6 +3,7 @@ package com.hrm.system.controller;
 import com.hrm.system.entity.User;
 import com.hrm.system.repository.UserRepository;
 import com.hrm.system.security.JwtTokenProvider;
+import com.hrm.system.service.UserService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
@@ -38,6 +39,9 @@ public class AuthController {
     @Autowired
     private JwtTokenProvider tokenProvider;
     
+    @Autowired
+    private UserService userService;
+    
 
 
     /**
@@ -67,8 +71,7 @@ public class AuthController {
             }
             
             // Update last login
-            user.setLastLoginAt(LocalDateTime.now());
-            userRepository.save(user);
+            user = userService.updateLastLogin(user);
             
             // Generate tokens
             String jwt = tokenProvider.generateToken(user);
@@ -116,7 +119,7 @@ public class AuthController {
         user.setDateOfJoining(LocalDateTime.now());
         user.setStatus(User.UserStatus.ACTIVE);
         
-        User savedUser = userRepository.save(user);
+        User savedUser = userService.registerUser(user);
         
         String jwt = tokenProvider.generateToken(savedUser);
         String refreshToken = tokenProvider.generateRefreshToken(savedUser.getEmail());
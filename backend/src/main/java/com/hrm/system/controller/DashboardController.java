@@ -4,10 +4,12 @@ import com.hrm.system.dto.DashboardActivityDto;
 import com.hrm.system.dto.RecentActivitiesResponse;
 import com.hrm.system.service.DashboardService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
@@ -21,9 +23,11 @@ public class DashboardController {
     @GetMapping("/activities")
     @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER')")
     public ResponseEntity<RecentActivitiesResponse> getRecentActivities(
-            @RequestParam(defaultValue = "10") int limit) {
+            @RequestParam(defaultValue = "10") int limit,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime before,
+            @RequestParam(required = false) Long beforeId) {
         try {
-            List<DashboardActivityDto> activities = dashboardService.getRecentActivities(limit);
+            List<DashboardActivityDto> activities = dashboardService.getRecentActivities(limit, before, beforeId);
             RecentActivitiesResponse response = new RecentActivitiesResponse();
             response.setActivities(activities);
             response.setTotalCount(activities.size());
@@ -37,9 +41,11 @@ public class DashboardController {
     @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER')")
     public ResponseEntity<RecentActivitiesResponse> getUserActivities(
             @PathVariable Long userId,
-            @RequestParam(defaultValue = "10") int limit) {
+            @RequestParam(defaultValue = "10") int limit,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime before,
+            @RequestParam(required = false) Long beforeId) {
         try {
-            List<DashboardActivityDto> activities = dashboardService.getUserActivities(userId, limit);
+            List<DashboardActivityDto> activities = dashboardService.getUserActivities(userId, limit, before, beforeId);
             RecentActivitiesResponse response = new RecentActivitiesResponse();
             response.setActivities(activities);
             response.setTotalCount(activities.size());
@@ -53,9 +59,11 @@ public class DashboardController {
     @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER')")
     public ResponseEntity<RecentActivitiesResponse> getDepartmentActivities(
             @PathVariable String department,
-            @RequestParam(defaultValue = "10") int limit) {
+            @RequestParam(defaultValue = "10") int limit,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime before,
+            @RequestParam(required = false) Long beforeId) {
         try {
-            List<DashboardActivityDto> activities = dashboardService.getDepartmentActivities(department, limit);
+            List<DashboardActivityDto> activities = dashboardService.getDepartmentActivities(department, limit, before, beforeId);
             RecentActivitiesResponse response = new RecentActivitiesResponse();
             response.setActivities(activities);
             response.setTotalCount(activities.size());
@@ -1,5 +1,6 @@
 package com.hrm.system.controller;
 
+import com.hrm.system.dto.CursorPage;
 import com.hrm.system.dto.LeaveDto;
 import com.hrm.system.entity.Leave;
 import com.hrm.system.service.LeaveService;
@@ -12,11 +13,13 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
 import java.util.List;
 import com.hrm.system.entity.User;
 import com.hrm.system.repository.LeaveRepository;
@@ -77,15 +80,35 @@ public class LeaveController {
         Sort sort = Sort.by(Sort.Direction.fromString(sortDir), sortBy);
         Pageable pageable = PageRequest.of(page, size, sort);
 
-        // Apply filters if provided
-        if (userId != null || leaveType != null || status != null || startDate != null || endDate != null
-                || query != null) {
-            Page<LeaveDto> leaves = leaveService.getAllLeavesWithFilters(pageable, userId, leaveType, status, startDate,
-                    endDate, query);
-            return ResponseEntity.ok(leaves);
-        } else {
-            Page<LeaveDto> leaves = leaveService.getAllLeaves(pageable);
+        Page<LeaveDto> leaves = leaveService.getAllLeavesWithFilters(pageable, userId, leaveType, status, startDate,
+                endDate, query);
+        return ResponseEntity.ok(leaves);
+    }
+
+    /**
+     * Scroll leaves with keyset pagination and filters
+     */
+    @GetMapping("/scroll")
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER')")
+    @Operation(summary = "Scroll leaves", description = "Get leave requests a page at a time without counting them; pass nextCursor back for the following page")
+    public ResponseEntity<CursorPage<LeaveDto>> scrollLeaves(
+            @Parameter(description = "Cursor from the previous page") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size") @RequestParam(defaultValue = "10") int size,
+            @Parameter(description = "Sort field: startDate, endDate or id") @RequestParam(defaultValue = "startDate") String sortBy,
+            @Parameter(description = "Sort direction") @RequestParam(defaultValue = "DESC") String sortDir,
+            @Parameter(description = "Filter by user ID") @RequestParam(required = false) Long userId,
+            @Parameter(description = "Filter by leave type") @RequestParam(required = false) Leave.LeaveType leaveType,
+            @Parameter(description = "Filter by status") @RequestParam(required = false) Leave.LeaveStatus status,
+            @Parameter(description = "Filter by start date") @RequestParam(required = false) String startDate,
+            @Parameter(description = "Filter by end date") @RequestParam(required = false) String endDate,
+            @Parameter(description = "Search query") @RequestParam(required = false) String query) {
+
+        try {
+            CursorPage<LeaveDto> leaves = leaveService.scrollLeavesWithFilters(cursor, sortBy, Sort.Direction.fromString(sortDir),
+                    Math.max(1, Math.min(size, 100)), userId, leaveType, status, startDate, endDate, query);
             return ResponseEntity.ok(leaves);
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().build();
         }
     }
 
@@ -192,6 +215,40 @@ public class LeaveController {
         return ResponseEntity.ok(leaves);
     }
 
+    /**
+     * Get approved and pending leave counts per day
+     */
+    @GetMapping("/calendar")
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER', 'EMPLOYEE')")
+    @Operation(summary = "Get leave calendar", description = "Get approved and pending leave counts for every day of a date range")
+    public ResponseEntity<List<LeaveService.LeaveCalendarDay>> getLeaveCalendar(
+            @Parameter(description = "Start date (yyyy-MM-dd)") @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @Parameter(description = "End date (yyyy-MM-dd)") @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @Parameter(description = "Department, admins only") @RequestParam(required = false) String department) {
+        try {
+            return ResponseEntity.ok(leaveService.getLeaveCalendar(department, startDate, endDate));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * Get who is off in a date range
+     */
+    @GetMapping("/off")
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER', 'EMPLOYEE')")
+    @Operation(summary = "Get employees on leave", description = "Get approved and pending leaves overlapping a date range")
+    public ResponseEntity<List<LeaveService.LeaveOff>> getLeavesOff(
+            @Parameter(description = "Start date (yyyy-MM-dd)") @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @Parameter(description = "End date (yyyy-MM-dd), defaults to the start date") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @Parameter(description = "Department, admins only") @RequestParam(required = false) String department) {
+        try {
+            return ResponseEntity.ok(leaveService.getLeavesOff(department, startDate, endDate != null ? endDate : startDate));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
     /**
      * Approve leave request
      */
@@ -207,6 +264,16 @@ public class LeaveController {
         }
     }
 
+    /**
+     * Approve several leave requests at once
+     */
+    @PostMapping("/approve-batch")
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER')")
+    @Operation(summary = "Approve leave requests in bulk", description = "Approve several leave requests in one transaction and report the outcome of each")
+    public ResponseEntity<LeaveService.LeaveBatchResult> approveLeaves(@RequestBody LeaveService.BatchApprovalRequest request) {
+        return ResponseEntity.ok(leaveService.approveLeaves(request));
+    }
+
     /**
      * Reject leave request
      */
@@ -290,6 +357,19 @@ public class LeaveController {
         return ResponseEntity.ok(statistics);
     }
 
+    /**
+     * Get user leave balances
+     */
+    @GetMapping("/balance/user/{userId}")
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER') or #userId == authentication.principal.id")
+    @Operation(summary = "Get user leave balances", description = "Get entitled, used, pending and remaining days per leave type for a year")
+    public ResponseEntity<List<LeaveService.LeaveBalanceSummary>> getLeaveBalances(
+            @PathVariable Long userId,
+            @Parameter(description = "Year, defaults to the current year") @RequestParam(required = false) Integer year) {
+        int balanceYear = year != null ? year : LocalDate.now().getYear();
+        return ResponseEntity.ok(leaveService.getLeaveBalances(userId, balanceYear));
+    }
+
     /**
      * Get current user's leaves
      */
@@ -1,7 +1,11 @@
 package com.hrm.system.controller;
 
+import com.hrm.system.dto.CursorPage;
 import com.hrm.system.dto.PayrollDto;
+import com.hrm.system.dto.PayrollRunDto;
 import com.hrm.system.entity.Payroll;
+import com.hrm.system.entity.User;
+import com.hrm.system.service.PayrollRunService;
 import com.hrm.system.service.PayrollService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -13,10 +17,14 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.DateTimeException;
+import java.time.YearMonth;
 import java.util.List;
 
 /**
@@ -31,6 +39,9 @@ public class PayrollController {
     @Autowired
     private PayrollService payrollService;
     
+    @Autowired
+    private PayrollRunService payrollRunService;
+    
     /**
      * Create a new payroll record
      */
@@ -60,6 +71,27 @@ public class PayrollController {
         return ResponseEntity.ok(payroll);
     }
     
+    /**
+     * Scroll payroll records with cursor pagination
+     */
+    @GetMapping("/scroll")
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER')")
+    @Operation(summary = "Scroll payroll records", description = "Get payroll records a page at a time without counting them; pass nextCursor back for the following page")
+    public ResponseEntity<CursorPage<PayrollDto>> scrollPayroll(
+            @Parameter(description = "Cursor from the previous page") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size") @RequestParam(defaultValue = "10") int size,
+            @Parameter(description = "Sort field: payPeriod or id") @RequestParam(defaultValue = "id") String sortBy,
+            @Parameter(description = "Sort direction") @RequestParam(defaultValue = "DESC") String sortDir,
+            @Parameter(description = "Filter by user ID") @RequestParam(required = false) Long userId) {
+        
+        try {
+            return ResponseEntity.ok(payrollService.scrollPayroll(cursor, sortBy, Sort.Direction.fromString(sortDir),
+                    Math.max(1, Math.min(size, 100)), userId));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
     /**
      * Get payroll by ID
      */
@@ -159,12 +191,45 @@ public class PayrollController {
      */
     @PostMapping("/generate")
     @PreAuthorize("hasRole('ADMIN')")
-    @Operation(summary = "Generate payroll", description = "Generate payroll for all employees for a specific month")
-    public ResponseEntity<List<PayrollDto>> generatePayroll(
+    @Operation(summary = "Generate payroll", description = "Start a background payroll run for all active employees for a specific month")
+    public ResponseEntity<PayrollRunDto> generatePayroll(
             @RequestParam int month,
             @RequestParam int year) {
-        List<PayrollDto> generatedPayroll = payrollService.generatePayroll(month, year);
-        return ResponseEntity.status(HttpStatus.CREATED).body(generatedPayroll);
+        PayrollRunDto run = payrollRunService.startRun(month, year);
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(run);
+    }
+    
+    /**
+     * Get recent payroll runs
+     */
+    @GetMapping("/runs")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Get payroll runs", description = "Get the most recent payroll generation runs")
+    public ResponseEntity<List<PayrollRunDto>> getPayrollRuns() {
+        return ResponseEntity.ok(payrollRunService.getRecentRuns());
+    }
+    
+    /**
+     * Get payroll run progress
+     */
+    @GetMapping("/runs/{runId}")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Get payroll run", description = "Get status and progress of a payroll generation run")
+    public ResponseEntity<PayrollRunDto> getPayrollRun(@PathVariable Long runId) {
+        return payrollRunService.getRun(runId)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+    
+    /**
+     * Resume a failed payroll run
+     */
+    @PostMapping("/runs/{runId}/resume")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Resume payroll run", description = "Resume a failed payroll run from its last committed chunk")
+    public ResponseEntity<PayrollRunDto> resumePayrollRun(@PathVariable Long runId) {
+        PayrollRunDto run = payrollRunService.resumeRun(runId);
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(run);
     }
     
     /**
@@ -172,9 +237,13 @@ public class PayrollController {
      */
     @GetMapping("/statistics")
     @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER')")
-    @Operation(summary = "Get payroll statistics", description = "Get payroll statistics for dashboard")
-    public ResponseEntity<PayrollService.PayrollStatistics> getPayrollStatistics() {
-        PayrollService.PayrollStatistics statistics = payrollService.getPayrollStatistics();
+    @Operation(summary = "Get payroll statistics", description = "Get payroll statistics for dashboard, optionally for a pay period and department")
+    public ResponseEntity<PayrollService.PayrollStatistics> getPayrollStatistics(
+            @Parameter(description = "Pay period month (1-12)") @RequestParam(required = false) Integer month,
+            @Parameter(description = "Pay period year") @RequestParam(required = false) Integer year,
+            @Parameter(description = "Department") @RequestParam(required = false) User.Department department) {
+        YearMonth payPeriod = month != null && year != null ? YearMonth.of(year, month) : null;
+        PayrollService.PayrollStatistics statistics = payrollService.getPayrollStatistics(payPeriod, department);
         return ResponseEntity.ok(statistics);
     }
     
@@ -206,6 +275,29 @@ public class PayrollController {
         }
     }
     
+    /**
+     * Export all payslips for a pay period as a ZIP archive
+     */
+    @GetMapping("/payslips/export")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Export payslips", description = "Stream every payslip for a pay period as a ZIP archive")
+    public ResponseEntity<StreamingResponseBody> exportPayslips(
+            @RequestParam int month,
+            @RequestParam int year) {
+        // Reject a bad period before the response is committed
+        YearMonth payPeriod;
+        try {
+            payPeriod = YearMonth.of(year, month);
+        } catch (DateTimeException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        StreamingResponseBody body = outputStream -> payrollService.exportPayslips(payPeriod, outputStream);
+        return ResponseEntity.ok()
+                .header("Content-Disposition", "attachment; filename=payslips-" + payPeriod + ".zip")
+                .contentType(MediaType.parseMediaType("application/zip"))
+                .body(body);
+    }
+    
     /**
      * Get pending payroll count
      */
@@ -1,5 +1,6 @@
 package com.hrm.system.controller;
 
+import com.hrm.system.dto.CursorPage;
 import com.hrm.system.dto.UserDto;
 import com.hrm.system.entity.User;
 import com.hrm.system.service.UserService;
@@ -51,19 +52,45 @@ public class UserController {
      */
     @GetMapping
     @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER', 'EMPLOYEE')")
-    @Operation(summary = "Get all users", description = "Get paginated list of all users")
+    @Operation(summary = "Get all users", description = "Get paginated list of all users, or ranked search results when a query is given")
     public ResponseEntity<Page<UserDto>> getAllUsers(
             @Parameter(description = "Page number (0-based)") @RequestParam(defaultValue = "0") int page,
             @Parameter(description = "Page size") @RequestParam(defaultValue = "10") int size,
             @Parameter(description = "Sort field") @RequestParam(defaultValue = "id") String sortBy,
-            @Parameter(description = "Sort direction") @RequestParam(defaultValue = "ASC") String sortDir) {
+            @Parameter(description = "Sort direction") @RequestParam(defaultValue = "ASC") String sortDir,
+            @Parameter(description = "Search by name, email, employee ID or phone; results are ranked by relevance") @RequestParam(required = false) String query) {
         
+        if (query != null && !query.isBlank()) {
+            return ResponseEntity.ok(userService.searchUsers(query, PageRequest.of(page, size)));
+        }
         Sort sort = Sort.by(Sort.Direction.fromString(sortDir), sortBy);
         Pageable pageable = PageRequest.of(page, size, sort);
         Page<UserDto> users = userService.getAllUsers(pageable);
         return ResponseEntity.ok(users);
     }
     
+    /**
+     * Scroll users with cursor pagination
+     */
+    @GetMapping("/scroll")
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER')")
+    @Operation(summary = "Scroll users", description = "Get users a page at a time without counting them; pass nextCursor back for the following page")
+    public ResponseEntity<CursorPage<UserDto>> scrollUsers(
+            @Parameter(description = "Cursor from the previous page") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size") @RequestParam(defaultValue = "10") int size,
+            @Parameter(description = "Sort field: id, employeeId, email, firstName or lastName") @RequestParam(defaultValue = "id") String sortBy,
+            @Parameter(description = "Sort direction") @RequestParam(defaultValue = "ASC") String sortDir,
+            @Parameter(description = "Filter by department") @RequestParam(required = false) User.Department department,
+            @Parameter(description = "Filter by status") @RequestParam(required = false) User.UserStatus status) {
+        
+        try {
+            return ResponseEntity.ok(userService.scrollUsers(cursor, sortBy, Sort.Direction.fromString(sortDir),
+                    Math.max(1, Math.min(size, 100)), department, status));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
     /**
      * Get user by ID
      */
@@ -174,12 +201,26 @@ public class UserController {
         return ResponseEntity.ok(teamMembers);
     }
     
+    /**
+     * Get the org chart under a user
+     */
+    @GetMapping("/{id}/org-chart")
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER') or #id == authentication.principal.id")
+    @Operation(summary = "Get org chart", description = "Get a user's managers and one page of everyone reporting to them, directly or through others")
+    public ResponseEntity<UserService.OrgChart> getOrgChart(
+            @PathVariable Long id,
+            @Parameter(description = "Levels of reports to include; omit for the whole subtree") @RequestParam(required = false) Integer depth,
+            @Parameter(description = "Page number (0-based)") @RequestParam(defaultValue = "0") int page,
+            @Parameter(description = "Page size") @RequestParam(defaultValue = "50") int size) {
+        return ResponseEntity.ok(userService.getOrgChart(id, depth, PageRequest.of(page, size)));
+    }
+    
     /**
      * Search users
      */
     @GetMapping("/search")
     @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER')")
-    @Operation(summary = "Search users", description = "Search users by name, email, or employee ID")
+    @Operation(summary = "Search users", description = "Search users by name, email, employee ID or phone, best matches first")
     public ResponseEntity<List<UserDto>> searchUsers(@RequestParam String query) {
         List<UserDto> users = userService.searchUsers(query);
         return ResponseEntity.ok(users);
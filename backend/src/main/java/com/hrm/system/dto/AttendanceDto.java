@@ -47,6 +47,27 @@ public class AttendanceDto {
         this.updatedAt = attendance.getUpdatedAt();
     }
     
+    /**
+     * Projection constructor for list queries; see ProjectionQueries.ATTENDANCE
+     */
+    public AttendanceDto(Long id, Long userId, String firstName, String lastName, String employeeId, LocalDate date,
+                         LocalTime punchInTime, LocalTime punchOutTime, String punchInLocation, String punchOutLocation,
+                         Attendance.AttendanceStatus status, String notes, LocalDateTime createdAt, LocalDateTime updatedAt) {
+        this.id = id;
+        this.userId = userId;
+        this.employeeName = firstName + " " + lastName;
+        this.employeeId = employeeId;
+        this.date = date;
+        this.punchInTime = punchInTime;
+        this.punchOutTime = punchOutTime;
+        this.punchInLocation = punchInLocation;
+        this.punchOutLocation = punchOutLocation;
+        this.status = status;
+        this.notes = notes;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+    }
+    
     // Getters and Setters
     public Long getId() {
         return id;
@@ -0,0 +1,75 @@
+package com.hrm.system.dto;
+
+import com.hrm.system.repository.KeysetCursor;
+
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * One page of a cursor-paged list. Pass nextCursor back to get the following page;
+ * it is null on the last page. No total is counted.
+ */
+public class CursorPage<T> {
+    private List<T> content;
+    private int size;
+    private boolean hasNext;
+    private String nextCursor;
+
+    // Constructors
+    public CursorPage() {}
+
+    public CursorPage(List<T> content, int size, boolean hasNext, String nextCursor) {
+        this.content = content;
+        this.size = size;
+        this.hasNext = hasNext;
+        this.nextCursor = nextCursor;
+    }
+
+    /**
+     * Build a page from rows fetched after the cursor with a limit of size + 1; the extra row
+     * only tells that another page follows
+     */
+    public static <E, T> CursorPage<T> of(List<E> rows, int size, KeysetCursor cursor, Function<E, T> mapper) {
+        boolean hasNext = rows.size() > size;
+        List<T> content = rows.stream()
+                .limit(size)
+                .map(mapper)
+                .collect(Collectors.toList());
+        String nextCursor = hasNext ? cursor.after(rows.get(size - 1)).encode() : null;
+        return new CursorPage<>(content, size, hasNext, nextCursor);
+    }
+
+    // Getters and Setters
+    public List<T> getContent() {
+        return content;
+    }
+
+    public void setContent(List<T> content) {
+        this.content = content;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public void setSize(int size) {
+        this.size = size;
+    }
+
+    public boolean isHasNext() {
+        return hasNext;
+    }
+
+    public void setHasNext(boolean hasNext) {
+        this.hasNext = hasNext;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+}
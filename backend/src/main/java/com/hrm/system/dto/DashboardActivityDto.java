@@ -12,6 +12,8 @@ public class DashboardActivityDto {
     private String userName;
     private Long relatedId;
     private String icon;
+    // Activity log row ID, passed back as beforeId to page past this activity
+    private Long cursorId;
 
     // Constructors
     public DashboardActivityDto() {}
@@ -102,4 +104,12 @@ public class DashboardActivityDto {
     public void setIcon(String icon) {
         this.icon = icon;
     }
-} 
\ No newline at end of file
+
+    public Long getCursorId() {
+        return cursorId;
+    }
+
+    public void setCursorId(Long cursorId) {
+        this.cursorId = cursorId;
+    }
+}
@@ -1,6 +1,7 @@
 package com.hrm.system.dto;
 
 import com.hrm.system.entity.Leave;
+import com.hrm.system.entity.User;
 import jakarta.validation.constraints.NotNull;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
@@ -59,19 +60,49 @@ public class LeaveDto {
         this.approvedByName = leave.getApprovedBy() != null ? leave.getApprovedBy().getFullName() : null;
         this.approvedAt = leave.getApprovedAt();
         
-        // Set rejection reason only for rejected leaves, approval comments for approved leaves
-        if (leave.getStatus() == Leave.LeaveStatus.REJECTED) {
-            this.rejectionReason = leave.getApprovalComments();
-        } else if (leave.getStatus() == Leave.LeaveStatus.APPROVED && leave.getApprovalComments() != null) {
-            this.rejectionReason = leave.getApprovalComments(); // This will be displayed as "Approval Comments" in frontend
-        } else {
-            this.rejectionReason = null;
-        }
-        
+        this.rejectionReason = decisionComments(leave.getStatus(), leave.getApprovalComments());
         this.createdAt = leave.getCreatedAt();
         this.updatedAt = leave.getUpdatedAt();
     }
     
+    /**
+     * Projection constructor for list queries; see ProjectionQueries.LEAVE
+     */
+    public LeaveDto(Long id, Long userId, String firstName, String lastName, String employeeId, User.Department department,
+                    User.UserRole userRole, Leave.LeaveType leaveType, LocalDate startDate, LocalDate endDate, boolean halfDay,
+                    String reason, Leave.LeaveStatus status, Long approvedBy, String approverFirstName, String approverLastName, LocalDateTime approvedAt,
+                    String approvalComments, LocalDateTime createdAt, LocalDateTime updatedAt) {
+        this.id = id;
+        this.userId = userId;
+        this.employeeName = firstName + " " + lastName;
+        this.employeeId = employeeId;
+        this.department = department.name();
+        this.userRole = userRole.name();
+        this.leaveType = leaveType;
+        this.startDate = startDate;
+        this.endDate = endDate;
+        this.totalDays = Leave.workingDays(startDate, endDate, halfDay);
+        this.reason = reason;
+        this.status = status;
+        this.approvedBy = approvedBy;
+        this.approvedByName = approvedBy != null ? approverFirstName + " " + approverLastName : null;
+        this.approvedAt = approvedAt;
+        this.rejectionReason = decisionComments(status, approvalComments);
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+    }
+    
+    /**
+     * Rejection reason for rejected leaves, approval comments for approved leaves
+     * (displayed as "Approval Comments" in the frontend)
+     */
+    private static String decisionComments(Leave.LeaveStatus status, String approvalComments) {
+        if (status == Leave.LeaveStatus.REJECTED || status == Leave.LeaveStatus.APPROVED) {
+            return approvalComments;
+        }
+        return null;
+    }
+    
     // Getters and Setters
     public Long getId() {
         return id;
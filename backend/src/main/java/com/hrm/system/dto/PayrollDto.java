@@ -77,6 +77,45 @@ public class PayrollDto {
         this.remarks = payroll.getRemarks();
     }
     
+    /**
+     * Projection constructor for list queries; see ProjectionQueries.PAYROLL
+     */
+    public PayrollDto(Long id, Long userId, String firstName, String lastName, String employeeId, YearMonth payPeriod,
+                      BigDecimal basicSalary, BigDecimal netSalary, Payroll.PaymentStatus paymentStatus, LocalDate paymentDate,
+                      LocalDateTime createdAt, LocalDateTime updatedAt, BigDecimal houseRentAllowance,
+                      BigDecimal dearnessAllowance, BigDecimal conveyanceAllowance, BigDecimal medicalAllowance,
+                      BigDecimal specialAllowance, BigDecimal providentFund, BigDecimal incomeTax, BigDecimal professionalTax,
+                      BigDecimal overtime, BigDecimal bonus, BigDecimal incentives, BigDecimal otherDeductions,
+                      String paymentMethod, String bankAccountNumber, String transactionId, String remarks) {
+        this.id = id;
+        this.userId = userId;
+        this.employeeName = firstName + " " + lastName;
+        this.employeeId = employeeId;
+        this.payPeriod = payPeriod;
+        this.basicSalary = basicSalary;
+        this.netSalary = netSalary;
+        this.paymentStatus = paymentStatus;
+        this.paymentDate = paymentDate;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+        this.houseRentAllowance = houseRentAllowance;
+        this.dearnessAllowance = dearnessAllowance;
+        this.conveyanceAllowance = conveyanceAllowance;
+        this.medicalAllowance = medicalAllowance;
+        this.specialAllowance = specialAllowance;
+        this.providentFund = providentFund;
+        this.incomeTax = incomeTax;
+        this.professionalTax = professionalTax;
+        this.overtime = overtime;
+        this.bonus = bonus;
+        this.incentives = incentives;
+        this.otherDeductions = otherDeductions;
+        this.paymentMethod = paymentMethod;
+        this.bankAccountNumber = bankAccountNumber;
+        this.transactionId = transactionId;
+        this.remarks = remarks;
+    }
+    
     // Getters and Setters
     public Long getId() {
         return id;
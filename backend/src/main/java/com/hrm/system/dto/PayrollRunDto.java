@@ -0,0 +1,141 @@
+package com.hrm.system.dto;
+
+import com.hrm.system.entity.PayrollRun;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+
+/**
+ * DTO for PayrollRun entity
+ */
+public class PayrollRunDto {
+    
+    private Long id;
+    private YearMonth payPeriod;
+    private PayrollRun.RunStatus status;
+    private int chunkSize;
+    private long totalEmployees;
+    private long processedEmployees;
+    private int completedChunks;
+    private double progress;
+    private Long lastProcessedUserId;
+    private String errorMessage;
+    private LocalDateTime startedAt;
+    private LocalDateTime completedAt;
+    
+    public PayrollRunDto() {}
+    
+    public PayrollRunDto(PayrollRun run) {
+        this.id = run.getId();
+        this.payPeriod = run.getPayPeriod();
+        this.status = run.getStatus();
+        this.chunkSize = run.getChunkSize();
+        this.totalEmployees = run.getTotalEmployees();
+        this.processedEmployees = run.getProcessedEmployees();
+        this.completedChunks = run.getCompletedChunks();
+        this.progress = run.getTotalEmployees() > 0
+                ? Math.min(100.0, (double) run.getProcessedEmployees() / run.getTotalEmployees() * 100)
+                : (run.getStatus() == PayrollRun.RunStatus.COMPLETED ? 100.0 : 0.0);
+        this.lastProcessedUserId = run.getLastProcessedUserId();
+        this.errorMessage = run.getErrorMessage();
+        this.startedAt = run.getStartedAt();
+        this.completedAt = run.getCompletedAt();
+    }
+    
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public YearMonth getPayPeriod() {
+        return payPeriod;
+    }
+    
+    public void setPayPeriod(YearMonth payPeriod) {
+        this.payPeriod = payPeriod;
+    }
+    
+    public PayrollRun.RunStatus getStatus() {
+        return status;
+    }
+    
+    public void setStatus(PayrollRun.RunStatus status) {
+        this.status = status;
+    }
+    
+    public int getChunkSize() {
+        return chunkSize;
+    }
+    
+    public void setChunkSize(int chunkSize) {
+        this.chunkSize = chunkSize;
+    }
+    
+    public long getTotalEmployees() {
+        return totalEmployees;
+    }
+    
+    public void setTotalEmployees(long totalEmployees) {
+        this.totalEmployees = totalEmployees;
+    }
+    
+    public long getProcessedEmployees() {
+        return processedEmployees;
+    }
+    
+    public void setProcessedEmployees(long processedEmployees) {
+        this.processedEmployees = processedEmployees;
+    }
+    
+    public int getCompletedChunks() {
+        return completedChunks;
+    }
+    
+    public void setCompletedChunks(int completedChunks) {
+        this.completedChunks = completedChunks;
+    }
+    
+    public double getProgress() {
+        return progress;
+    }
+    
+    public void setProgress(double progress) {
+        this.progress = progress;
+    }
+    
+    public Long getLastProcessedUserId() {
+        return lastProcessedUserId;
+    }
+    
+    public void setLastProcessedUserId(Long lastProcessedUserId) {
+        this.lastProcessedUserId = lastProcessedUserId;
+    }
+    
+    public String getErrorMessage() {
+        return errorMessage;
+    }
+    
+    public void setErrorMessage(String errorMessage) {
+        this.errorMessage = errorMessage;
+    }
+    
+    public LocalDateTime getStartedAt() {
+        return startedAt;
+    }
+    
+    public void setStartedAt(LocalDateTime startedAt) {
+        this.startedAt = startedAt;
+    }
+    
+    public LocalDateTime getCompletedAt() {
+        return completedAt;
+    }
+    
+    public void setCompletedAt(LocalDateTime completedAt) {
+        this.completedAt = completedAt;
+    }
+}
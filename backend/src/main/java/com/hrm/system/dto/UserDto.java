@@ -71,6 +71,33 @@ public class UserDto {
         this.updatedAt = user.getUpdatedAt();
     }
     
+    /**
+     * Projection constructor for list queries; see ProjectionQueries.USER
+     */
+    public UserDto(Long id, String employeeId, String firstName, String lastName, String email, String phoneNumber,
+                   User.UserRole role, User.Department department, User.UserStatus status, String profileImage,
+                   LocalDate dateOfBirth, LocalDateTime dateOfJoining, String address, String emergencyContact,
+                   Long managerId, LocalDateTime lastLoginAt, LocalDateTime createdAt, LocalDateTime updatedAt) {
+        this.id = id;
+        this.employeeId = employeeId;
+        this.firstName = firstName;
+        this.lastName = lastName;
+        this.email = email;
+        this.phoneNumber = phoneNumber;
+        this.role = role;
+        this.department = department;
+        this.status = status;
+        this.profileImage = profileImage;
+        this.dateOfBirth = dateOfBirth;
+        this.dateOfJoining = dateOfJoining;
+        this.address = address;
+        this.emergencyContact = emergencyContact;
+        this.managerId = managerId;
+        this.lastLoginAt = lastLoginAt;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+    }
+    
     // Getters and Setters
     public Long getId() {
         return id;
@@ -0,0 +1,138 @@
+package com.hrm.system.entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Append-only activity log backing the dashboard feeds.
+ * User name and department are denormalized so feeds never join back to users.
+ */
+@Entity
+@Table(name = "activity_log", indexes = {
+    @Index(name = "idx_activity_log_occurred", columnList = "occurred_at, id"),
+    @Index(name = "idx_activity_log_user_occurred", columnList = "user_id, occurred_at, id"),
+    @Index(name = "idx_activity_log_department_occurred", columnList = "department, occurred_at, id")
+})
+public class ActivityLog {
+    
+    // Activity types
+    public static final String USER_CREATED = "USER_CREATED";
+    public static final String LEAVE_APPROVED = "LEAVE_APPROVED";
+    public static final String LEAVE_REJECTED = "LEAVE_REJECTED";
+    public static final String PERFORMANCE_REVIEW = "PERFORMANCE_REVIEW";
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.AUTO)
+    private Long id;
+    
+    @Column(nullable = false)
+    private String type;
+    
+    private String title;
+    
+    private String description;
+    
+    @Column(name = "user_id")
+    private Long userId;
+    
+    private String userName;
+    
+    @Enumerated(EnumType.STRING)
+    private User.Department department;
+    
+    private Long relatedId;
+    
+    private String icon;
+    
+    @Column(name = "occurred_at", nullable = false)
+    private LocalDateTime occurredAt;
+    
+    @PrePersist
+    protected void onCreate() {
+        if (occurredAt == null) {
+            occurredAt = LocalDateTime.now();
+        }
+    }
+    
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public String getType() {
+        return type;
+    }
+    
+    public void setType(String type) {
+        this.type = type;
+    }
+    
+    public String getTitle() {
+        return title;
+    }
+    
+    public void setTitle(String title) {
+        this.title = title;
+    }
+    
+    public String getDescription() {
+        return description;
+    }
+    
+    public void setDescription(String description) {
+        this.description = description;
+    }
+    
+    public Long getUserId() {
+        return userId;
+    }
+    
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+    
+    public String getUserName() {
+        return userName;
+    }
+    
+    public void setUserName(String userName) {
+        this.userName = userName;
+    }
+    
+    public User.Department getDepartment() {
+        return department;
+    }
+    
+    public void setDepartment(User.Department department) {
+        this.department = department;
+    }
+    
+    public Long getRelatedId() {
+        return relatedId;
+    }
+    
+    public void setRelatedId(Long relatedId) {
+        this.relatedId = relatedId;
+    }
+    
+    public String getIcon() {
+        return icon;
+    }
+    
+    public void setIcon(String icon) {
+        this.icon = icon;
+    }
+    
+    public LocalDateTime getOccurredAt() {
+        return occurredAt;
+    }
+    
+    public void setOccurredAt(LocalDateTime occurredAt) {
+        this.occurredAt = occurredAt;
+    }
+}
@@ -11,7 +11,14 @@ import java.time.LocalTime;
  * Attendance entity for tracking employee attendance
  */
 @Entity
-@Table(name = "attendance")
+@Table(name = "attendance", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_attendance_user_date", columnNames = {"user_id", "date"})
+}, indexes = {
+    @Index(name = "idx_attendance_date_status", columnList = "date, status"),
+    @Index(name = "idx_attendance_status_date", columnList = "status, date"),
+    @Index(name = "idx_attendance_date_minutes", columnList = "date, working_minutes"),
+    @Index(name = "idx_attendance_date_id", columnList = "date, id")
+})
 public class Attendance {
     
     @Id
@@ -47,6 +54,10 @@ public class Attendance {
     @Enumerated(EnumType.STRING)
     private AttendanceStatus status = AttendanceStatus.PRESENT;
     
+    /** Minutes between punch in and punch out, stored so reports can filter and sum it in SQL */
+    @Column(name = "working_minutes")
+    private Integer workingMinutes;
+    
     private String notes;
     
     @Column(columnDefinition = "TIMESTAMP")
@@ -59,11 +70,24 @@ public class Attendance {
     protected void onCreate() {
         createdAt = LocalDateTime.now();
         updatedAt = LocalDateTime.now();
+        workingMinutes = minutesBetween(punchInTime, punchOutTime);
     }
     
     @PreUpdate
     protected void onUpdate() {
         updatedAt = LocalDateTime.now();
+        workingMinutes = minutesBetween(punchInTime, punchOutTime);
+    }
+    
+    /**
+     * Whole minutes between punch in and punch out at the TIME column's second precision, or null while either is missing
+     */
+    public static Integer minutesBetween(LocalTime punchInTime, LocalTime punchOutTime) {
+        if (punchInTime == null || punchOutTime == null) {
+            return null;
+        }
+        return (int) (java.time.Duration.between(punchInTime.truncatedTo(java.time.temporal.ChronoUnit.SECONDS),
+                punchOutTime.truncatedTo(java.time.temporal.ChronoUnit.SECONDS)).getSeconds() / 60);
     }
     
     // Helper methods
@@ -83,10 +107,11 @@ public class Attendance {
     }
     
     public long getWorkingMinutes() {
-        if (punchInTime != null && punchOutTime != null) {
-            return java.time.Duration.between(punchInTime, punchOutTime).toMinutes();
+        if (workingMinutes != null) {
+            return workingMinutes;
         }
-        return 0;
+        Integer minutes = minutesBetween(punchInTime, punchOutTime);
+        return minutes != null ? minutes : 0;
     }
     
     // Enums
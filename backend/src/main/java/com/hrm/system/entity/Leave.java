@@ -10,7 +10,14 @@ import java.time.LocalDateTime;
  * Leave entity for managing employee leave requests
  */
 @Entity
-@Table(name = "leaves")
+@Table(name = "leaves", indexes = {
+    @Index(name = "idx_leaves_user_status_start", columnList = "user_id, status, start_date"),
+    @Index(name = "idx_leaves_type_status", columnList = "leave_type, status"),
+    @Index(name = "idx_leaves_status_start", columnList = "status, start_date"),
+    @Index(name = "idx_leaves_start_end", columnList = "start_date, end_date"),
+    @Index(name = "idx_leaves_start_id", columnList = "start_date, id"),
+    @Index(name = "idx_leaves_end_id", columnList = "end_date, id")
+})
 public class Leave {
     
     @Id
@@ -64,6 +71,13 @@ public class Leave {
     
     // Helper methods
     public int getNumberOfDays() {
+        return workingDays(startDate, endDate, isHalfDay);
+    }
+    
+    /**
+     * Weekdays from start to end inclusive, one less for a half-day leave
+     */
+    public static int workingDays(LocalDate startDate, LocalDate endDate, boolean halfDay) {
         if (startDate != null && endDate != null) {
             int days = 0;
             LocalDate current = startDate;
@@ -73,7 +87,7 @@ public class Leave {
                 }
                 current = current.plusDays(1);
             }
-            return isHalfDay ? days - 1 : days;
+            return halfDay ? days - 1 : days;
         }
         return 0;
     }
@@ -0,0 +1,128 @@
+package com.hrm.system.entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Leave balance ledger per employee, leave type and year.
+ * Days are moved between pending and used as leaves are requested, decided and cancelled;
+ * the version column makes concurrent decisions on the same balance fail instead of losing an update.
+ */
+@Entity
+@Table(name = "leave_balances", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_leave_balances_user_type_year", columnNames = {"user_id", "leave_type", "balance_year"})
+})
+public class LeaveBalance {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.AUTO)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "leave_type", nullable = false)
+    private Leave.LeaveType leaveType;
+
+    @Column(name = "balance_year", nullable = false)
+    private int year;
+
+    /** Days granted for the year, null when the leave type is not capped */
+    private Integer entitledDays;
+
+    private int usedDays;
+
+    private int pendingDays;
+
+    @Version
+    private Long version;
+
+    @Column(columnDefinition = "TIMESTAMP")
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    @PreUpdate
+    protected void onSave() {
+        updatedAt = LocalDateTime.now();
+    }
+
+    // Helper methods
+    public Integer getRemainingDays() {
+        return entitledDays != null ? entitledDays - usedDays - pendingDays : null;
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public Leave.LeaveType getLeaveType() {
+        return leaveType;
+    }
+
+    public void setLeaveType(Leave.LeaveType leaveType) {
+        this.leaveType = leaveType;
+    }
+
+    public int getYear() {
+        return year;
+    }
+
+    public void setYear(int year) {
+        this.year = year;
+    }
+
+    public Integer getEntitledDays() {
+        return entitledDays;
+    }
+
+    public void setEntitledDays(Integer entitledDays) {
+        this.entitledDays = entitledDays;
+    }
+
+    public int getUsedDays() {
+        return usedDays;
+    }
+
+    public void setUsedDays(int usedDays) {
+        this.usedDays = usedDays;
+    }
+
+    public int getPendingDays() {
+        return pendingDays;
+    }
+
+    public void setPendingDays(int pendingDays) {
+        this.pendingDays = pendingDays;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
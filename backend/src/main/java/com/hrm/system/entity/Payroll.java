@@ -13,7 +13,11 @@ import java.time.YearMonth;
  * Payroll entity for managing employee salary and compensation
  */
 @Entity
-@Table(name = "payroll")
+@Table(name = "payroll", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_payroll_user_period", columnNames = {"user_id", "pay_period"})
+}, indexes = {
+    @Index(name = "idx_payroll_period_id", columnList = "pay_period, id")
+})
 public class Payroll {
     
     @Id
@@ -0,0 +1,199 @@
+package com.hrm.system.entity;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+
+/**
+ * PayrollRun entity tracking a chunked payroll generation for a pay period
+ */
+@Entity
+@Table(name = "payroll_runs")
+public class PayrollRun {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.AUTO)
+    private Long id;
+    
+    @NotNull(message = "Pay period is required")
+    private YearMonth payPeriod;
+    
+    @Enumerated(EnumType.STRING)
+    private RunStatus status = RunStatus.PENDING;
+    
+    private int chunkSize;
+    
+    private long totalEmployees;
+    
+    private long processedEmployees;
+    
+    private int completedChunks;
+    
+    // Keyset cursor: highest user id whose chunk has been committed
+    private Long lastProcessedUserId;
+    
+    private String errorMessage;
+    
+    private Long startedBy;
+    
+    // Node executing the run; only that node may advance it or fail it on restart
+    private String ownerNode;
+    
+    private LocalDateTime startedAt;
+    
+    private LocalDateTime completedAt;
+    
+    private LocalDateTime createdAt;
+    
+    private LocalDateTime updatedAt;
+    
+    @Version
+    private Long version;
+    
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+        updatedAt = LocalDateTime.now();
+    }
+    
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
+    
+    // Enums
+    public enum RunStatus {
+        PENDING, RUNNING, COMPLETED, FAILED
+    }
+    
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public YearMonth getPayPeriod() {
+        return payPeriod;
+    }
+    
+    public void setPayPeriod(YearMonth payPeriod) {
+        this.payPeriod = payPeriod;
+    }
+    
+    public RunStatus getStatus() {
+        return status;
+    }
+    
+    public void setStatus(RunStatus status) {
+        this.status = status;
+    }
+    
+    public int getChunkSize() {
+        return chunkSize;
+    }
+    
+    public void setChunkSize(int chunkSize) {
+        this.chunkSize = chunkSize;
+    }
+    
+    public long getTotalEmployees() {
+        return totalEmployees;
+    }
+    
+    public void setTotalEmployees(long totalEmployees) {
+        this.totalEmployees = totalEmployees;
+    }
+    
+    public long getProcessedEmployees() {
+        return processedEmployees;
+    }
+    
+    public void setProcessedEmployees(long processedEmployees) {
+        this.processedEmployees = processedEmployees;
+    }
+    
+    public int getCompletedChunks() {
+        return completedChunks;
+    }
+    
+    public void setCompletedChunks(int completedChunks) {
+        this.completedChunks = completedChunks;
+    }
+    
+    public Long getLastProcessedUserId() {
+        return lastProcessedUserId;
+    }
+    
+    public void setLastProcessedUserId(Long lastProcessedUserId) {
+        this.lastProcessedUserId = lastProcessedUserId;
+    }
+    
+    public String getErrorMessage() {
+        return errorMessage;
+    }
+    
+    public void setErrorMessage(String errorMessage) {
+        this.errorMessage = errorMessage;
+    }
+    
+    public Long getStartedBy() {
+        return startedBy;
+    }
+    
+    public void setStartedBy(Long startedBy) {
+        this.startedBy = startedBy;
+    }
+    
+    public String getOwnerNode() {
+        return ownerNode;
+    }
+    
+    public void setOwnerNode(String ownerNode) {
+        this.ownerNode = ownerNode;
+    }
+    
+    public Long getVersion() {
+        return version;
+    }
+    
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+    
+    public LocalDateTime getStartedAt() {
+        return startedAt;
+    }
+    
+    public void setStartedAt(LocalDateTime startedAt) {
+        this.startedAt = startedAt;
+    }
+    
+    public LocalDateTime getCompletedAt() {
+        return completedAt;
+    }
+    
+    public void setCompletedAt(LocalDateTime completedAt) {
+        this.completedAt = completedAt;
+    }
+    
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+    
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+    
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+    
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
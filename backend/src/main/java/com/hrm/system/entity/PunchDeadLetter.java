@@ -0,0 +1,146 @@
+package com.hrm.system.entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+/**
+ * A queued punch that was acknowledged but could not be written.
+ * Kept until a retry writes it or a later punch of the user supersedes it.
+ */
+@Entity
+@Table(name = "punch_dead_letters", indexes = {
+    @Index(name = "idx_punch_dead_letters_user_date", columnList = "user_id, punch_date"),
+    @Index(name = "idx_punch_dead_letters_open", columnList = "resolved_at, punch_date")
+})
+public class PunchDeadLetter {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.AUTO)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "punch_date", nullable = false)
+    private LocalDate punchDate;
+
+    private boolean punchIn;
+
+    @Column(columnDefinition = "TIME")
+    private LocalTime punchTime;
+
+    private String location;
+
+    private Double latitude;
+
+    private Double longitude;
+
+    private int attempts;
+
+    private String lastError;
+
+    private LocalDateTime failedAt;
+
+    @Column(name = "resolved_at")
+    private LocalDateTime resolvedAt;
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public LocalDate getPunchDate() {
+        return punchDate;
+    }
+
+    public void setPunchDate(LocalDate punchDate) {
+        this.punchDate = punchDate;
+    }
+
+    public boolean isPunchIn() {
+        return punchIn;
+    }
+
+    public void setPunchIn(boolean punchIn) {
+        this.punchIn = punchIn;
+    }
+
+    public LocalTime getPunchTime() {
+        return punchTime;
+    }
+
+    public void setPunchTime(LocalTime punchTime) {
+        this.punchTime = punchTime;
+    }
+
+    public String getLocation() {
+        return location;
+    }
+
+    public void setLocation(String location) {
+        this.location = location;
+    }
+
+    public Double getLatitude() {
+        return latitude;
+    }
+
+    public void setLatitude(Double latitude) {
+        this.latitude = latitude;
+    }
+
+    public Double getLongitude() {
+        return longitude;
+    }
+
+    public void setLongitude(Double longitude) {
+        this.longitude = longitude;
+    }
+
+    public int getAttempts() {
+        return attempts;
+    }
+
+    public void setAttempts(int attempts) {
+        this.attempts = attempts;
+    }
+
+    public String getLastError() {
+        return lastError;
+    }
+
+    public void setLastError(String lastError) {
+        this.lastError = lastError;
+    }
+
+    public LocalDateTime getFailedAt() {
+        return failedAt;
+    }
+
+    public void setFailedAt(LocalDateTime failedAt) {
+        this.failedAt = failedAt;
+    }
+
+    public LocalDateTime getResolvedAt() {
+        return resolvedAt;
+    }
+
+    public void setResolvedAt(LocalDateTime resolvedAt) {
+        this.resolvedAt = resolvedAt;
+    }
+}
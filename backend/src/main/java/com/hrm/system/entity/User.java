@@ -19,7 +19,13 @@ import java.util.List;
  * Implements UserDetails for Spring Security integration
  */
 @Entity
-@Table(name = "users")
+@Table(name = "users", indexes = {
+    @Index(name = "idx_users_department", columnList = "department"),
+    @Index(name = "idx_users_employee_id_id", columnList = "employee_id, id"),
+    @Index(name = "idx_users_email_id", columnList = "email, id"),
+    @Index(name = "idx_users_first_name_id", columnList = "first_name, id"),
+    @Index(name = "idx_users_last_name_id", columnList = "last_name, id")
+})
 public class User implements UserDetails {
     
     @Id
@@ -0,0 +1,48 @@
+package com.hrm.system.repository;
+
+import com.hrm.system.entity.ActivityLog;
+import com.hrm.system.entity.User;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Repository interface for ActivityLog entity.
+ * Feeds are keyset-paginated on (occurredAt, id) descending. The position is written as a bound on
+ * occurredAt plus the tie-break on id, so the database range-scans the (occurred_at, id) indexes;
+ * the equivalent single OR predicate is evaluated with a table scan.
+ */
+@Repository
+public interface ActivityLogRepository extends JpaRepository<ActivityLog, Long> {
+    
+    /**
+     * Find the latest activities across the company
+     */
+    @Query("SELECT a FROM ActivityLog a WHERE a.occurredAt <= :before AND (a.occurredAt < :before OR a.id < :beforeId) " +
+           "ORDER BY a.occurredAt DESC, a.id DESC")
+    List<ActivityLog> findRecent(@Param("before") LocalDateTime before, @Param("beforeId") Long beforeId, Pageable pageable);
+    
+    /**
+     * Find the latest activities of the given types for a user
+     */
+    @Query("SELECT a FROM ActivityLog a WHERE a.userId = :userId AND a.type IN :types " +
+           "AND a.occurredAt <= :before AND (a.occurredAt < :before OR a.id < :beforeId) " +
+           "ORDER BY a.occurredAt DESC, a.id DESC")
+    List<ActivityLog> findRecentByUser(@Param("userId") Long userId, @Param("types") Collection<String> types,
+                                       @Param("before") LocalDateTime before, @Param("beforeId") Long beforeId, Pageable pageable);
+    
+    /**
+     * Find the latest activities of the given types for a department
+     */
+    @Query("SELECT a FROM ActivityLog a WHERE a.department = :department AND a.type IN :types " +
+           "AND a.occurredAt <= :before AND (a.occurredAt < :before OR a.id < :beforeId) " +
+           "ORDER BY a.occurredAt DESC, a.id DESC")
+    List<ActivityLog> findRecentByDepartment(@Param("department") User.Department department, @Param("types") Collection<String> types,
+                                             @Param("before") LocalDateTime before, @Param("beforeId") Long beforeId, Pageable pageable);
+}
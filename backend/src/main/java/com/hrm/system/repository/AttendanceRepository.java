@@ -2,21 +2,55 @@ package com.hrm.system.repository;
 
 import com.hrm.system.entity.Attendance;
 import com.hrm.system.entity.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.time.YearMonth;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Repository interface for Attendance entity
  */
 @Repository
-public interface AttendanceRepository extends JpaRepository<Attendance, Long> {
+public interface AttendanceRepository extends JpaRepository<Attendance, Long>, JpaSpecificationExecutor<Attendance> {
+    
+    /**
+     * Worked seconds between punch in and punch out, computed in the database
+     */
+    String WORKED_SECONDS = "((HOUR(a.punchOutTime) * 3600 + MINUTE(a.punchOutTime) * 60 + SECOND(a.punchOutTime)) - " +
+            "(HOUR(a.punchInTime) * 3600 + MINUTE(a.punchInTime) * 60 + SECOND(a.punchInTime)))";
+    
+    /**
+     * Status derived from working hours: under a minute is ABSENT, under 4 hours HALF_DAY, otherwise PRESENT
+     */
+    String COMPUTED_STATUS = "CASE " +
+            "WHEN a.punchInTime IS NULL OR a.punchOutTime IS NULL THEN com.hrm.system.entity.Attendance$AttendanceStatus.ABSENT " +
+            "WHEN " + WORKED_SECONDS + " < 60 THEN com.hrm.system.entity.Attendance$AttendanceStatus.ABSENT " +
+            "WHEN " + WORKED_SECONDS + " < 14400 THEN com.hrm.system.entity.Attendance$AttendanceStatus.HALF_DAY " +
+            "ELSE com.hrm.system.entity.Attendance$AttendanceStatus.PRESENT END";
+    
+    /**
+     * Rows the hours-based status applies to: leave, holiday and weekend rows are set elsewhere,
+     * and a punch-in without a punch-out is still in progress
+     */
+    String RECOMPUTABLE = "(a.status IS NULL OR a.status IN (" +
+            "com.hrm.system.entity.Attendance$AttendanceStatus.PRESENT, " +
+            "com.hrm.system.entity.Attendance$AttendanceStatus.HALF_DAY, " +
+            "com.hrm.system.entity.Attendance$AttendanceStatus.ABSENT)) " +
+            "AND NOT (a.punchInTime IS NOT NULL AND a.punchOutTime IS NULL)";
     
     /**
      * Find attendance by user and date
@@ -143,23 +177,34 @@ public interface AttendanceRepository extends JpaRepository<Attendance, Long> {
     @Query("SELECT a FROM Attendance a WHERE a.date = :date AND a.punchInTime IS NOT NULL AND a.punchOutTime IS NULL")
     List<Attendance> findIncompleteAttendance(@Param("date") LocalDate date);
     
+    /**
+     * Find attendance records in a date range
+     */
+    @Query("SELECT a FROM Attendance a WHERE a.date BETWEEN :startDate AND :endDate ORDER BY a.date DESC, a.user.firstName ASC")
+    List<Attendance> findByDateBetween(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+    
     /**
      * Find attendance records by month and year
      */
-    @Query("SELECT a FROM Attendance a WHERE YEAR(a.date) = :year AND MONTH(a.date) = :month ORDER BY a.date DESC, a.user.firstName ASC")
-    List<Attendance> findByMonthAndYear(@Param("month") int month, @Param("year") int year);
+    default List<Attendance> findByMonthAndYear(int month, int year) {
+        YearMonth period = YearMonth.of(year, month);
+        return findByDateBetween(period.atDay(1), period.atEndOfMonth());
+    }
     
     /**
      * Find attendance records by user, month, and year
      */
-    @Query("SELECT a FROM Attendance a WHERE a.user.id = :userId AND YEAR(a.date) = :year AND MONTH(a.date) = :month ORDER BY a.date DESC")
-    List<Attendance> findByUserIdAndMonthAndYear(@Param("userId") Long userId, @Param("month") int month, @Param("year") int year);
+    default List<Attendance> findByUserIdAndMonthAndYear(Long userId, int month, int year) {
+        YearMonth period = YearMonth.of(year, month);
+        return findByUserIdAndDateBetween(userId, period.atDay(1), period.atEndOfMonth());
+    }
     
     /**
      * Find attendance records by user and year
      */
-    @Query("SELECT a FROM Attendance a WHERE a.user.id = :userId AND YEAR(a.date) = :year ORDER BY a.date DESC")
-    List<Attendance> findByUserIdAndYear(@Param("userId") Long userId, @Param("year") int year);
+    default List<Attendance> findByUserIdAndYear(Long userId, int year) {
+        return findByUserIdAndDateBetween(userId, LocalDate.of(year, 1, 1), LocalDate.of(year, 12, 31));
+    }
     
     /**
      * Check if user has attendance record for a specific date
@@ -173,16 +218,16 @@ public interface AttendanceRepository extends JpaRepository<Attendance, Long> {
     boolean existsByUserIdAndDate(@Param("userId") Long userId, @Param("date") LocalDate date);
     
     /**
-     * Find attendance records with working hours less than specified
+     * Find completed attendance records with fewer working minutes than specified
      */
-    @Query("SELECT a FROM Attendance a WHERE a.date = :date AND a.punchInTime IS NOT NULL AND a.punchOutTime IS NOT NULL AND (a.punchOutTime - a.punchInTime) < :minHours ORDER BY a.user.firstName ASC")
-    List<Attendance> findShortWorkingHours(@Param("date") LocalDate date, @Param("minHours") long minHours);
+    @Query("SELECT a FROM Attendance a WHERE a.date = :date AND a.workingMinutes < :minMinutes ORDER BY a.user.firstName ASC")
+    List<Attendance> findShortWorkingHours(@Param("date") LocalDate date, @Param("minMinutes") int minMinutes);
     
     /**
-     * Find attendance records with overtime (working hours more than specified)
+     * Find attendance records with overtime (more working minutes than specified)
      */
-    @Query("SELECT a FROM Attendance a WHERE a.date = :date AND a.punchInTime IS NOT NULL AND a.punchOutTime IS NOT NULL AND (a.punchOutTime - a.punchInTime) > :maxHours ORDER BY a.user.firstName ASC")
-    List<Attendance> findOvertime(@Param("date") LocalDate date, @Param("maxHours") long maxHours);
+    @Query("SELECT a FROM Attendance a WHERE a.date = :date AND a.workingMinutes > :maxMinutes ORDER BY a.user.firstName ASC")
+    List<Attendance> findOvertime(@Param("date") LocalDate date, @Param("maxMinutes") int maxMinutes);
     
     // Paginated methods for filtering
     /**
@@ -226,4 +271,199 @@ public interface AttendanceRepository extends JpaRepository<Attendance, Long> {
      */
     @Query("SELECT a FROM Attendance a WHERE a.user.id = :userId ORDER BY a.date DESC")
     org.springframework.data.domain.Page<Attendance> findByUserId(@Param("userId") Long userId, org.springframework.data.domain.Pageable pageable);
-} 
\ No newline at end of file
+    
+    /**
+     * Count attendance records for a date grouped by status, optionally scoped to a department
+     */
+    @Query("SELECT a.status AS status, COUNT(a) AS total FROM Attendance a " +
+           "WHERE a.date = :date AND (:department IS NULL OR a.user.department = :department) GROUP BY a.status")
+    List<StatusCount> countByDateGroupedByStatus(@Param("date") LocalDate date, @Param("department") User.Department department);
+    
+    /**
+     * Recompute status from working hours for every completed or absent record on a date in one statement.
+     * Only rows whose status changes are written; leave, holiday, weekend and open punch-in rows are left alone.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Attendance a SET a.status = " + COMPUTED_STATUS + ", a.updatedAt = :now " +
+           "WHERE a.date = :date AND " + RECOMPUTABLE + " AND (a.status IS NULL OR a.status <> " + COMPUTED_STATUS + ")")
+    int recomputeStatusForDate(@Param("date") LocalDate date, @Param("now") LocalDateTime now);
+    
+    /**
+     * Count records on a date whose status would change on recompute
+     */
+    @Query("SELECT COUNT(a) FROM Attendance a " +
+           "WHERE a.date = :date AND " + RECOMPUTABLE + " AND (a.status IS NULL OR a.status <> " + COMPUTED_STATUS + ")")
+    long countStatusChangesForDate(@Param("date") LocalDate date);
+    
+    /**
+     * Count records on a date grouped by the status they would have after recompute
+     */
+    @Query("SELECT " + COMPUTED_STATUS + " AS status, COUNT(a) AS total FROM Attendance a " +
+           "WHERE a.date = :date AND " + RECOMPUTABLE + " GROUP BY " + COMPUTED_STATUS)
+    List<StatusCount> countByDateGroupedByComputedStatus(@Param("date") LocalDate date);
+    
+    /**
+     * Count a user's records in a date window grouped by status, with the punched duration summed in the database
+     */
+    @Query("SELECT a.status AS status, COUNT(a) AS total, " +
+           "COALESCE(SUM(CASE WHEN a.punchInTime IS NOT NULL AND a.punchOutTime IS NOT NULL THEN " + WORKED_SECONDS + " ELSE 0 END), 0) AS workedSeconds " +
+           "FROM Attendance a WHERE a.user.id = :userId AND a.date BETWEEN :startDate AND :endDate GROUP BY a.status")
+    List<StatusTotals> summarizeByUser(@Param("userId") Long userId, @Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+    
+    /**
+     * Count records in a date window grouped by status, optionally scoped to a department,
+     * with the punched duration summed in the database
+     */
+    @Query("SELECT a.status AS status, COUNT(a) AS total, " +
+           "COALESCE(SUM(CASE WHEN a.punchInTime IS NOT NULL AND a.punchOutTime IS NOT NULL THEN " + WORKED_SECONDS + " ELSE 0 END), 0) AS workedSeconds " +
+           "FROM Attendance a WHERE a.date BETWEEN :startDate AND :endDate " +
+           "AND (:department IS NULL OR a.user.department = :department) GROUP BY a.status")
+    List<StatusTotals> summarizeByDepartment(@Param("department") User.Department department, @Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+    
+    /**
+     * Find attendance by user ID and date with the user fetched in the same query
+     */
+    @Query("SELECT a FROM Attendance a JOIN FETCH a.user WHERE a.user.id = :userId AND a.date = :date")
+    Optional<Attendance> findWithUserByUserIdAndDate(@Param("userId") Long userId, @Param("date") LocalDate date);
+    
+    /**
+     * Find the records of several users on a date
+     */
+    @Query("SELECT a FROM Attendance a WHERE a.date = :date AND a.user.id IN :userIds")
+    List<Attendance> findByDateAndUserIdIn(@Param("date") LocalDate date, @Param("userIds") Collection<Long> userIds);
+    
+    /**
+     * Punch times of every record on a date, used to warm the punch state index
+     */
+    @Query("SELECT a.user.id AS userId, a.punchInTime AS punchInTime, a.punchOutTime AS punchOutTime FROM Attendance a WHERE a.date = :date")
+    List<PunchRow> findPunchRowsByDate(@Param("date") LocalDate date);
+    
+    /**
+     * Record a punch-out and its resulting status in one statement, unless the user already punched out
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Attendance a SET a.punchOutTime = :punchOutTime, a.punchOutLocation = :location, " +
+           "a.punchOutLatitude = :latitude, a.punchOutLongitude = :longitude, a.status = :status, " +
+           "a.workingMinutes = :workingMinutes, a.updatedAt = :now " +
+           "WHERE a.user.id = :userId AND a.date = :date AND a.punchOutTime IS NULL")
+    int punchOut(@Param("userId") Long userId, @Param("date") LocalDate date, @Param("punchOutTime") LocalTime punchOutTime,
+                 @Param("location") String location, @Param("latitude") Double latitude, @Param("longitude") Double longitude,
+                 @Param("status") Attendance.AttendanceStatus status, @Param("workingMinutes") Integer workingMinutes,
+                 @Param("now") LocalDateTime now);
+    
+    /**
+     * Fill in working minutes for completed records written before the column existed
+     */
+    @Modifying
+    @Query("UPDATE Attendance a SET a.workingMinutes = CAST(" + WORKED_SECONDS + " AS Integer) / 60 " +
+           "WHERE a.workingMinutes IS NULL AND a.punchInTime IS NOT NULL AND a.punchOutTime IS NOT NULL")
+    int backfillWorkingMinutes();
+    
+    /**
+     * Late arrivals, short days and overtime per department and day, computed in one grouped query
+     */
+    @Query("SELECT a.date AS date, u.department AS department, COUNT(a) AS records, " +
+           "SUM(CASE WHEN a.punchInTime > :lateTime THEN 1 ELSE 0 END) AS lateArrivals, " +
+           "SUM(CASE WHEN a.workingMinutes < :minMinutes THEN 1 ELSE 0 END) AS shortDays, " +
+           "SUM(CASE WHEN a.workingMinutes > :maxMinutes THEN 1 ELSE 0 END) AS overtimeDays, " +
+           "COALESCE(SUM(CASE WHEN a.workingMinutes > :maxMinutes THEN a.workingMinutes ELSE 0 END), 0) AS overtimeWorkedMinutes " +
+           "FROM Attendance a JOIN a.user u WHERE a.date BETWEEN :startDate AND :endDate " +
+           "AND (:department IS NULL OR u.department = :department) " +
+           "GROUP BY a.date, u.department ORDER BY a.date, u.department")
+    List<DepartmentDayTotals> summarizeByDepartmentAndDay(@Param("department") User.Department department,
+                                                          @Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate,
+                                                          @Param("lateTime") LocalTime lateTime, @Param("minMinutes") int minMinutes,
+                                                          @Param("maxMinutes") int maxMinutes);
+    
+    /**
+     * Monthly rollup figures per user computed from raw rows, used to rebuild and verify AttendanceSummary
+     */
+    @Query("SELECT a.user.id AS userId, " +
+           "SUM(CASE WHEN a.status = com.hrm.system.entity.Attendance$AttendanceStatus.PRESENT THEN 1 ELSE 0 END) AS presentDays, " +
+           "SUM(CASE WHEN a.status = com.hrm.system.entity.Attendance$AttendanceStatus.ABSENT THEN 1 ELSE 0 END) AS absentDays, " +
+           "SUM(CASE WHEN a.status = com.hrm.system.entity.Attendance$AttendanceStatus.HALF_DAY THEN 1 ELSE 0 END) AS halfDays, " +
+           "SUM(CASE WHEN a.status = com.hrm.system.entity.Attendance$AttendanceStatus.LEAVE THEN 1 ELSE 0 END) AS leaveDays, " +
+           "COALESCE(SUM(CASE WHEN a.punchInTime IS NOT NULL AND a.punchOutTime IS NOT NULL THEN CAST(" + WORKED_SECONDS + " AS Integer) / 60 ELSE 0 END), 0) AS totalMinutes, " +
+           "SUM(CASE WHEN a.punchInTime > :lateTime THEN 1 ELSE 0 END) AS lateArrivals, " +
+           "SUM(CASE WHEN a.punchOutTime < :earlyTime THEN 1 ELSE 0 END) AS earlyDepartures " +
+           "FROM Attendance a WHERE a.date BETWEEN :startDate AND :endDate GROUP BY a.user.id")
+    List<MonthlyTotals> summarizeMonthByUser(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate,
+                                             @Param("lateTime") LocalTime lateTime, @Param("earlyTime") LocalTime earlyTime);
+    
+    /**
+     * Earliest attendance date on record
+     */
+    @Query("SELECT MIN(a.date) FROM Attendance a")
+    Optional<LocalDate> findEarliestDate();
+    
+    /**
+     * Latest attendance date on record
+     */
+    @Query("SELECT MAX(a.date) FROM Attendance a")
+    Optional<LocalDate> findLatestDate();
+    
+    /**
+     * Stream attendance with employees for a date window through a forward-only cursor, optionally scoped to a department
+     */
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT a FROM Attendance a JOIN FETCH a.user u WHERE a.date BETWEEN :startDate AND :endDate " +
+           "AND (:department IS NULL OR u.department = :department) ORDER BY a.date, a.id")
+    Stream<Attendance> streamByDepartmentAndDateBetween(@Param("department") User.Department department,
+                                                        @Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+    
+    /**
+     * Grouped count projection for attendance statuses
+     */
+    interface StatusCount {
+        Attendance.AttendanceStatus getStatus();
+        Long getTotal();
+    }
+    
+    /**
+     * Grouped count and worked-seconds projection for attendance statuses
+     */
+    interface StatusTotals {
+        Attendance.AttendanceStatus getStatus();
+        Long getTotal();
+        Long getWorkedSeconds();
+    }
+    
+    /**
+     * Punch times projection
+     */
+    interface PunchRow {
+        Long getUserId();
+        LocalTime getPunchInTime();
+        LocalTime getPunchOutTime();
+    }
+    
+    /**
+     * Monthly rollup projection per user
+     */
+    interface MonthlyTotals {
+        Long getUserId();
+        Long getPresentDays();
+        Long getAbsentDays();
+        Long getHalfDays();
+        Long getLeaveDays();
+        Long getTotalMinutes();
+        Long getLateArrivals();
+        Long getEarlyDepartures();
+    }
+    
+    /**
+     * Late and overtime figures per department and day
+     */
+    interface DepartmentDayTotals {
+        LocalDate getDate();
+        User.Department getDepartment();
+        Long getRecords();
+        Long getLateArrivals();
+        Long getShortDays();
+        Long getOvertimeDays();
+        Long getOvertimeWorkedMinutes();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,51 @@
+package com.hrm.system.repository;
+
+import com.hrm.system.entity.AttendanceSummary;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Repository interface for the monthly AttendanceSummary rollup
+ */
+@Repository
+public interface AttendanceSummaryRepository extends JpaRepository<AttendanceSummary, Long> {
+
+    /**
+     * Find a user's rollup for a month
+     */
+    Optional<AttendanceSummary> findByUserIdAndYearAndMonth(Long userId, int year, int month);
+
+    /**
+     * Find every user's rollup for a month
+     */
+    List<AttendanceSummary> findByYearAndMonthOrderByUserId(int year, int month);
+
+    /**
+     * Find and write-lock every user's rollup for a month, in user order
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM AttendanceSummary s WHERE s.year = :year AND s.month = :month ORDER BY s.userId")
+    List<AttendanceSummary> findByYearAndMonthForUpdate(@Param("year") int year, @Param("month") int month);
+
+    /**
+     * Add a delta to a user's rollup in place. Returns 0 when the rollup row does not exist yet.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE AttendanceSummary s SET s.presentDays = s.presentDays + :present, s.absentDays = s.absentDays + :absent, " +
+           "s.halfDays = s.halfDays + :halfDay, s.leaveDays = s.leaveDays + :leave, s.totalMinutes = s.totalMinutes + :minutes, " +
+           "s.lateArrivals = s.lateArrivals + :late, s.earlyDepartures = s.earlyDepartures + :early, s.updatedAt = :now " +
+           "WHERE s.userId = :userId AND s.year = :year AND s.month = :month")
+    int addDelta(@Param("userId") Long userId, @Param("year") int year, @Param("month") int month,
+                 @Param("present") long present, @Param("absent") long absent, @Param("halfDay") long halfDay,
+                 @Param("leave") long leave, @Param("minutes") long minutes, @Param("late") long late,
+                 @Param("early") long early, @Param("now") LocalDateTime now);
+}
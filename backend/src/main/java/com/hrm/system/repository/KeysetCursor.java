@@ -0,0 +1,110 @@
+package com.hrm.system.repository;
+
+import org.springframework.beans.BeanWrapperImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import jakarta.persistence.criteria.Path;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.Base64;
+import java.util.Set;
+
+/**
+ * Position in a list ordered by (sort key, id), passed to clients as an opaque token.
+ * A page continues strictly after the last row of the previous one, so every page costs the same
+ * index seek however deep it is and no count query is needed.
+ */
+public record KeysetCursor(String sortBy, Sort.Direction direction, Long id, String key) {
+
+    /**
+     * Resume from a token, or start from the top in the requested order when there is none.
+     * A token keeps the order it was issued for; it is rejected when its sort field is not allowed.
+     */
+    public static KeysetCursor decode(String token, String sortBy, Sort.Direction direction, Set<String> sortable) {
+        KeysetCursor cursor;
+        if (token == null || token.isBlank()) {
+            cursor = new KeysetCursor(sortBy, direction, null, null);
+        } else {
+            try {
+                String[] parts = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8).split("\n", 4);
+                cursor = new KeysetCursor(parts[0], Sort.Direction.valueOf(parts[1]), Long.valueOf(parts[2]), parts[3]);
+            } catch (RuntimeException e) {
+                throw new RuntimeException("Invalid cursor", e);
+            }
+        }
+        if (!sortable.contains(cursor.sortBy())) {
+            throw new RuntimeException("Cannot page by " + cursor.sortBy() + "; use one of " + sortable);
+        }
+        return cursor;
+    }
+
+    public String encode() {
+        String value = sortBy + "\n" + direction + "\n" + id + "\n" + key;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * The cursor just after the given row
+     */
+    public KeysetCursor after(Object row) {
+        BeanWrapperImpl wrapper = new BeanWrapperImpl(row);
+        return new KeysetCursor(sortBy, direction, (Long) wrapper.getPropertyValue("id"),
+                String.valueOf(wrapper.getPropertyValue(sortBy)));
+    }
+
+    public Sort sort() {
+        return "id".equals(sortBy) ? Sort.by(direction, "id") : Sort.by(direction, sortBy, "id");
+    }
+
+    /**
+     * Rows strictly after this cursor in its order
+     */
+    public <T> Specification<T> remaining() {
+        if (id == null) {
+            return (root, query, cb) -> cb.conjunction();
+        }
+        boolean ascending = direction.isAscending();
+        if ("id".equals(sortBy)) {
+            return (root, query, cb) -> ascending ? cb.greaterThan(root.get("id"), id) : cb.lessThan(root.get("id"), id);
+        }
+        // (key, id) > (:key, :id) written as key >= :key AND (key > :key OR id > :id), so the leading conjunct
+        // bounds a range scan of the (key, id) index; Hibernate cannot compare a tuple of parameters directly
+        return (root, query, cb) -> {
+            Path<Comparable<Object>> path = root.get(sortBy);
+            Comparable<Object> value = parse(key, path.getJavaType());
+            return cb.and(
+                    ascending ? cb.greaterThanOrEqualTo(path, value) : cb.lessThanOrEqualTo(path, value),
+                    cb.or(ascending ? cb.greaterThan(path, value) : cb.lessThan(path, value),
+                            ascending ? cb.greaterThan(root.get("id"), id) : cb.lessThan(root.get("id"), id)));
+        };
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Comparable<Object> parse(String key, Class<?> type) {
+        Object value;
+        if (type == String.class) {
+            value = key;
+        } else if (type == Long.class) {
+            value = Long.valueOf(key);
+        } else if (type == Integer.class) {
+            value = Integer.valueOf(key);
+        } else if (type == BigDecimal.class) {
+            value = new BigDecimal(key);
+        } else if (type == LocalDate.class) {
+            value = LocalDate.parse(key);
+        } else if (type == LocalDateTime.class) {
+            value = LocalDateTime.parse(key);
+        } else if (type == YearMonth.class) {
+            value = YearMonth.parse(key);
+        } else if (type.isEnum()) {
+            value = Enum.valueOf((Class<Enum>) type, key);
+        } else {
+            throw new RuntimeException("Cannot page by a value of type " + type.getSimpleName());
+        }
+        return (Comparable<Object>) value;
+    }
+}
@@ -0,0 +1,32 @@
+package com.hrm.system.repository;
+
+import com.hrm.system.entity.Leave;
+import com.hrm.system.entity.LeaveBalance;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Repository interface for the LeaveBalance ledger
+ */
+@Repository
+public interface LeaveBalanceRepository extends JpaRepository<LeaveBalance, Long> {
+
+    /**
+     * Find a user's balance for one leave type and year
+     */
+    Optional<LeaveBalance> findByUserIdAndLeaveTypeAndYear(Long userId, Leave.LeaveType leaveType, int year);
+
+    /**
+     * Find all of a user's balances for a year
+     */
+    List<LeaveBalance> findByUserIdAndYearOrderByLeaveType(Long userId, int year);
+
+    /**
+     * Find the balances of several users and years in one query
+     */
+    List<LeaveBalance> findByUserIdInAndYearIn(Collection<Long> userIds, Collection<Integer> years);
+}
@@ -2,12 +2,15 @@ package com.hrm.system.repository;
 
 import com.hrm.system.entity.Leave;
 import com.hrm.system.entity.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
-import java.time.LocalDateTime;
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -15,7 +18,7 @@ import java.util.Optional;
  * Repository interface for Leave entity
  */
 @Repository
-public interface LeaveRepository extends JpaRepository<Leave, Long> {
+public interface LeaveRepository extends JpaRepository<Leave, Long>, JpaSpecificationExecutor<Leave> {
     
     /**
      * Find leaves by user
@@ -63,14 +66,14 @@ public interface LeaveRepository extends JpaRepository<Leave, Long> {
     /**
      * Find leaves by date range
      */
-    @Query("SELECT l FROM Leave l WHERE l.startDate BETWEEN :startDate AND :endDate OR l.endDate BETWEEN :startDate AND :endDate ORDER BY l.startDate DESC")
-    List<Leave> findByDateRange(@Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate);
+    @Query("SELECT l FROM Leave l WHERE l.startDate <= :endDate AND l.endDate >= :startDate ORDER BY l.startDate DESC")
+    List<Leave> findByDateRange(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
     
     /**
      * Find leaves by user and date range
      */
-    @Query("SELECT l FROM Leave l WHERE l.user.id = :userId AND (l.startDate BETWEEN :startDate AND :endDate OR l.endDate BETWEEN :startDate AND :endDate) ORDER BY l.startDate DESC")
-    List<Leave> findByUserIdAndDateRange(@Param("userId") Long userId, @Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate);
+    @Query("SELECT l FROM Leave l WHERE l.user.id = :userId AND l.startDate <= :endDate AND l.endDate >= :startDate ORDER BY l.startDate DESC")
+    List<Leave> findByUserIdAndDateRange(@Param("userId") Long userId, @Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
     
     /**
      * Find leaves by department
@@ -182,16 +185,23 @@ public interface LeaveRepository extends JpaRepository<Leave, Long> {
      * Find overlapping leaves for a user
      */
     @Query("SELECT l FROM Leave l WHERE l.user.id = :userId AND l.status IN ('PENDING', 'APPROVED') AND " +
-           "((l.startDate BETWEEN :startDate AND :endDate) OR (l.endDate BETWEEN :startDate AND :endDate) OR " +
-           "(:startDate BETWEEN l.startDate AND l.endDate) OR (:endDate BETWEEN l.startDate AND l.endDate))")
-    List<Leave> findOverlappingLeaves(@Param("userId") Long userId, @Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate);
+           "l.startDate <= :endDate AND l.endDate >= :startDate")
+    List<Leave> findOverlappingLeaves(@Param("userId") Long userId, @Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+    
+    /**
+     * Whether a user has a pending or approved leave other than excludingId overlapping a date range
+     */
+    @Query("SELECT COUNT(l) > 0 FROM Leave l WHERE l.user.id = :userId AND l.status IN ('PENDING', 'APPROVED') AND " +
+           "l.startDate <= :endDate AND l.endDate >= :startDate AND (:excludingId IS NULL OR l.id <> :excludingId)")
+    boolean existsOverlapping(@Param("userId") Long userId, @Param("startDate") LocalDate startDate,
+                              @Param("endDate") LocalDate endDate, @Param("excludingId") Long excludingId);
     
     /**
      * Find leaves by department and date range
      */
     @Query("SELECT l FROM Leave l WHERE l.user.department = :department AND " +
-           "(l.startDate BETWEEN :startDate AND :endDate OR l.endDate BETWEEN :startDate AND :endDate) ORDER BY l.startDate DESC")
-    List<Leave> findByDepartmentAndDateRange(@Param("department") User.Department department, @Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate);
+           "l.startDate <= :endDate AND l.endDate >= :startDate ORDER BY l.startDate DESC")
+    List<Leave> findByDepartmentAndDateRange(@Param("department") User.Department department, @Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
     
     /**
      * Find leaves by role
@@ -209,22 +219,22 @@ public interface LeaveRepository extends JpaRepository<Leave, Long> {
      * Find leaves by role and date range
      */
     @Query("SELECT l FROM Leave l WHERE l.user.role = :role AND " +
-           "(l.startDate BETWEEN :startDate AND :endDate OR l.endDate BETWEEN :startDate AND :endDate) ORDER BY l.startDate DESC")
-    List<Leave> findByUserRoleAndDateRange(@Param("role") User.UserRole role, @Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate);
+           "l.startDate <= :endDate AND l.endDate >= :startDate ORDER BY l.startDate DESC")
+    List<Leave> findByUserRoleAndDateRange(@Param("role") User.UserRole role, @Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
     
     /**
      * Find leaves by status and date range
      */
     @Query("SELECT l FROM Leave l WHERE l.status = :status AND " +
-           "(l.startDate BETWEEN :startDate AND :endDate OR l.endDate BETWEEN :startDate AND :endDate) ORDER BY l.startDate DESC")
-    List<Leave> findByStatusAndDateRange(@Param("status") Leave.LeaveStatus status, @Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate);
+           "l.startDate <= :endDate AND l.endDate >= :startDate ORDER BY l.startDate DESC")
+    List<Leave> findByStatusAndDateRange(@Param("status") Leave.LeaveStatus status, @Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
     
     /**
      * Find leaves by leave type and date range
      */
     @Query("SELECT l FROM Leave l WHERE l.leaveType = :leaveType AND " +
-           "(l.startDate BETWEEN :startDate AND :endDate OR l.endDate BETWEEN :startDate AND :endDate) ORDER BY l.startDate DESC")
-    List<Leave> findByLeaveTypeAndDateRange(@Param("leaveType") Leave.LeaveType leaveType, @Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate);
+           "l.startDate <= :endDate AND l.endDate >= :startDate ORDER BY l.startDate DESC")
+    List<Leave> findByLeaveTypeAndDateRange(@Param("leaveType") Leave.LeaveType leaveType, @Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
     
     /**
      * Find leaves by leave type and status
@@ -235,8 +245,8 @@ public interface LeaveRepository extends JpaRepository<Leave, Long> {
      * Find leaves by leave type, status, and date range
      */
     @Query("SELECT l FROM Leave l WHERE l.leaveType = :leaveType AND l.status = :status AND " +
-           "(l.startDate BETWEEN :startDate AND :endDate OR l.endDate BETWEEN :startDate AND :endDate) ORDER BY l.startDate DESC")
-    List<Leave> findByLeaveTypeAndStatusAndDateRange(@Param("leaveType") Leave.LeaveType leaveType, @Param("status") Leave.LeaveStatus status, @Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate);
+           "l.startDate <= :endDate AND l.endDate >= :startDate ORDER BY l.startDate DESC")
+    List<Leave> findByLeaveTypeAndStatusAndDateRange(@Param("leaveType") Leave.LeaveType leaveType, @Param("status") Leave.LeaveStatus status, @Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
     
     /**
      * Find leaves by user ID
@@ -268,120 +278,41 @@ public interface LeaveRepository extends JpaRepository<Leave, Long> {
      */
     boolean existsByIdAndUserId(Long id, Long userId);
     
-    // Paginated methods for filtering
-    /**
-     * Find leaves by user ID with pagination
-     */
-    org.springframework.data.domain.Page<Leave> findByUserId(Long userId, org.springframework.data.domain.Pageable pageable);
-    
     /**
-     * Find leaves by leave type with pagination
+     * Find leaves by department with pagination
      */
-    org.springframework.data.domain.Page<Leave> findByLeaveType(Leave.LeaveType leaveType, org.springframework.data.domain.Pageable pageable);
-    
-    /**
-     * Find leaves by status with pagination
-     */
-    org.springframework.data.domain.Page<Leave> findByStatus(Leave.LeaveStatus status, org.springframework.data.domain.Pageable pageable);
-    
-    /**
-     * Find leaves by user ID and leave type with pagination
-     */
-    org.springframework.data.domain.Page<Leave> findByUserIdAndLeaveType(Long userId, Leave.LeaveType leaveType, org.springframework.data.domain.Pageable pageable);
+    org.springframework.data.domain.Page<Leave> findByUser_Department(User.Department department, org.springframework.data.domain.Pageable pageable);
     
     /**
-     * Find leaves by user ID and status with pagination
+     * Count leaves grouped by status, optionally scoped to the requester's department
      */
-    org.springframework.data.domain.Page<Leave> findByUserIdAndStatus(Long userId, Leave.LeaveStatus status, org.springframework.data.domain.Pageable pageable);
+    @Query("SELECT l.status AS status, COUNT(l) AS total FROM Leave l " +
+           "WHERE (:department IS NULL OR l.user.department = :department) GROUP BY l.status")
+    List<StatusCount> countGroupedByStatus(@Param("department") User.Department department);
     
     /**
-     * Find leaves by leave type and status with pagination
+     * Find leaves in the given statuses with their users, for warming the leave calendar index
      */
-    org.springframework.data.domain.Page<Leave> findByLeaveTypeAndStatus(Leave.LeaveType leaveType, Leave.LeaveStatus status, org.springframework.data.domain.Pageable pageable);
+    @Query("SELECT l FROM Leave l JOIN FETCH l.user WHERE l.status IN :statuses")
+    List<Leave> findWithUserByStatusIn(@Param("statuses") Collection<Leave.LeaveStatus> statuses);
     
     /**
-     * Find leaves by reason containing search query with pagination
+     * Find leaves by ID with their users in one query
      */
-    org.springframework.data.domain.Page<Leave> findByReasonContainingIgnoreCase(String query, org.springframework.data.domain.Pageable pageable);
+    @Query("SELECT l FROM Leave l JOIN FETCH l.user WHERE l.id IN :ids")
+    List<Leave> findWithUserByIdIn(@Param("ids") Collection<Long> ids);
     
     /**
-     * Find leaves by user ID, leave type, and status with pagination
+     * Find the next chunk of leaves with their users, keyed by ascending ID
      */
-    org.springframework.data.domain.Page<Leave> findByUserIdAndLeaveTypeAndStatus(Long userId, Leave.LeaveType leaveType, Leave.LeaveStatus status, org.springframework.data.domain.Pageable pageable);
+    @Query("SELECT l FROM Leave l JOIN FETCH l.user WHERE l.id > :afterId ORDER BY l.id")
+    List<Leave> findWithUserAfterId(@Param("afterId") Long afterId, Pageable pageable);
     
     /**
-     * Find leaves by user ID, leave type, status, start date range, and reason containing search query with pagination
+     * Grouped count projection for leave statuses
      */
-    @Query("SELECT l FROM Leave l WHERE l.user.id = :userId AND l.leaveType = :leaveType AND l.status = :status AND l.startDate BETWEEN :startDate AND :endDate AND l.reason LIKE %:query%")
-    org.springframework.data.domain.Page<Leave> findByUserIdAndLeaveTypeAndStatusAndStartDateBetweenAndReasonContainingIgnoreCase(
-        @Param("userId") Long userId, 
-        @Param("leaveType") Leave.LeaveType leaveType, 
-        @Param("status") Leave.LeaveStatus status, 
-        @Param("startDate") java.time.LocalDate startDate, 
-        @Param("endDate") java.time.LocalDate endDate, 
-        @Param("query") String query, 
-        org.springframework.data.domain.Pageable pageable);
-
-    // Pageable queries for department filtering
-    org.springframework.data.domain.Page<Leave> findByUser_Department(User.Department department, org.springframework.data.domain.Pageable pageable);
-    org.springframework.data.domain.Page<Leave> findByUser_DepartmentAndStatus(User.Department department, Leave.LeaveStatus status, org.springframework.data.domain.Pageable pageable);
-    
-    // Additional department-scoped methods for manager filtering
-    @Query("SELECT l FROM Leave l WHERE l.user.department = :department AND l.user.id = :userId")
-    org.springframework.data.domain.Page<Leave> findByUser_DepartmentAndUserId(
-        @Param("department") User.Department department, 
-        @Param("userId") Long userId, 
-        org.springframework.data.domain.Pageable pageable);
-    
-    @Query("SELECT l FROM Leave l WHERE l.user.department = :department AND l.leaveType = :leaveType")
-    org.springframework.data.domain.Page<Leave> findByUser_DepartmentAndLeaveType(
-        @Param("department") User.Department department, 
-        @Param("leaveType") Leave.LeaveType leaveType, 
-        org.springframework.data.domain.Pageable pageable);
-    
-    @Query("SELECT l FROM Leave l WHERE l.user.department = :department AND l.reason LIKE %:query%")
-    org.springframework.data.domain.Page<Leave> findByUser_DepartmentAndReasonContainingIgnoreCase(
-        @Param("department") User.Department department, 
-        @Param("query") String query, 
-        org.springframework.data.domain.Pageable pageable);
-    
-    @Query("SELECT l FROM Leave l WHERE l.user.department = :department AND l.user.id = :userId AND l.leaveType = :leaveType")
-    org.springframework.data.domain.Page<Leave> findByUser_DepartmentAndUserIdAndLeaveType(
-        @Param("department") User.Department department, 
-        @Param("userId") Long userId, 
-        @Param("leaveType") Leave.LeaveType leaveType, 
-        org.springframework.data.domain.Pageable pageable);
-    
-    @Query("SELECT l FROM Leave l WHERE l.user.department = :department AND l.user.id = :userId AND l.status = :status")
-    org.springframework.data.domain.Page<Leave> findByUser_DepartmentAndUserIdAndStatus(
-        @Param("department") User.Department department, 
-        @Param("userId") Long userId, 
-        @Param("status") Leave.LeaveStatus status, 
-        org.springframework.data.domain.Pageable pageable);
-    
-    @Query("SELECT l FROM Leave l WHERE l.user.department = :department AND l.leaveType = :leaveType AND l.status = :status")
-    org.springframework.data.domain.Page<Leave> findByUser_DepartmentAndLeaveTypeAndStatus(
-        @Param("department") User.Department department, 
-        @Param("leaveType") Leave.LeaveType leaveType, 
-        @Param("status") Leave.LeaveStatus status, 
-        org.springframework.data.domain.Pageable pageable);
-    
-    @Query("SELECT l FROM Leave l WHERE l.user.department = :department AND l.user.id = :userId AND l.leaveType = :leaveType AND l.status = :status")
-    org.springframework.data.domain.Page<Leave> findByUser_DepartmentAndUserIdAndLeaveTypeAndStatus(
-        @Param("department") User.Department department, 
-        @Param("userId") Long userId, 
-        @Param("leaveType") Leave.LeaveType leaveType, 
-        @Param("status") Leave.LeaveStatus status, 
-        org.springframework.data.domain.Pageable pageable);
-    
-    @Query("SELECT l FROM Leave l WHERE l.user.department = :department AND l.user.id = :userId AND l.leaveType = :leaveType AND l.status = :status AND l.startDate BETWEEN :startDate AND :endDate AND l.reason LIKE %:query%")
-    org.springframework.data.domain.Page<Leave> findByUser_DepartmentAndUserIdAndLeaveTypeAndStatusAndStartDateBetweenAndReasonContainingIgnoreCase(
-        @Param("department") User.Department department,
-        @Param("userId") Long userId, 
-        @Param("leaveType") Leave.LeaveType leaveType, 
-        @Param("status") Leave.LeaveStatus status, 
-        @Param("startDate") java.time.LocalDate startDate, 
-        @Param("endDate") java.time.LocalDate endDate, 
-        @Param("query") String query, 
-        org.springframework.data.domain.Pageable pageable);
+    interface StatusCount {
+        Leave.LeaveStatus getStatus();
+        Long getTotal();
+    }
 } 
\ No newline at end of file
@@ -0,0 +1,52 @@
+package com.hrm.system.repository;
+
+import com.hrm.system.entity.Leave;
+import com.hrm.system.entity.User;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDate;
+
+/**
+ * Composable predicates for leave filtering.
+ * Each factory covers a single filter so callers only add the predicates that are present.
+ */
+public final class LeaveSpecifications {
+
+    private LeaveSpecifications() {
+    }
+
+    public static Specification<Leave> forUser(Long userId) {
+        return (root, query, cb) -> cb.equal(root.get("user").get("id"), userId);
+    }
+
+    public static Specification<Leave> inDepartment(User.Department department) {
+        return (root, query, cb) -> cb.equal(root.get("user").get("department"), department);
+    }
+
+    public static Specification<Leave> hasLeaveType(Leave.LeaveType leaveType) {
+        return (root, query, cb) -> cb.equal(root.get("leaveType"), leaveType);
+    }
+
+    public static Specification<Leave> hasStatus(Leave.LeaveStatus status) {
+        return (root, query, cb) -> cb.equal(root.get("status"), status);
+    }
+
+    /**
+     * Leaves still running on or after the given date
+     */
+    public static Specification<Leave> endsOnOrAfter(LocalDate date) {
+        return (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("endDate"), date);
+    }
+
+    /**
+     * Leaves starting on or before the given date
+     */
+    public static Specification<Leave> startsOnOrBefore(LocalDate date) {
+        return (root, query, cb) -> cb.lessThanOrEqualTo(root.get("startDate"), date);
+    }
+
+    public static Specification<Leave> reasonContains(String text) {
+        String pattern = "%" + text.toLowerCase() + "%";
+        return (root, query, cb) -> cb.like(cb.lower(root.get("reason")), pattern);
+    }
+}
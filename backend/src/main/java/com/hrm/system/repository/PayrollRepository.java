@@ -1,19 +1,26 @@
 package com.hrm.system.repository;
 
 import com.hrm.system.entity.Payroll;
+import com.hrm.system.entity.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
 import java.time.YearMonth;
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * Repository interface for Payroll entity
  */
 @Repository
-public interface PayrollRepository extends JpaRepository<Payroll, Long> {
+public interface PayrollRepository extends JpaRepository<Payroll, Long>, JpaSpecificationExecutor<Payroll> {
     
     /**
      * Find payroll by user ID ordered by pay period descending
@@ -94,5 +101,30 @@ public interface PayrollRepository extends JpaRepository<Payroll, Long> {
     @Query("SELECT p FROM Payroll p WHERE p.user.id = :userId AND p.payPeriod BETWEEN :startPeriod AND :endPeriod ORDER BY p.payPeriod DESC")
     List<Payroll> findByUserIdAndPayPeriodBetweenOrderByPayPeriodDesc(@Param("userId") Long userId, @Param("startPeriod") YearMonth startPeriod, @Param("endPeriod") YearMonth endPeriod);
     
-
+    /**
+     * Count and sum net salary grouped by payment status, optionally scoped to a pay period and department
+     */
+    @Query("SELECT p.paymentStatus AS status, COUNT(p) AS total, SUM(p.netSalary) AS netSalary FROM Payroll p " +
+           "WHERE (:payPeriod IS NULL OR p.payPeriod = :payPeriod) " +
+           "AND (:department IS NULL OR p.user.department = :department) GROUP BY p.paymentStatus")
+    List<StatusTotals> sumNetSalaryGroupedByStatus(@Param("payPeriod") YearMonth payPeriod, @Param("department") User.Department department);
+    
+    /**
+     * Stream payroll with employees for a pay period through a forward-only cursor
+     */
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "200"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT p FROM Payroll p JOIN FETCH p.user WHERE p.payPeriod = :payPeriod ORDER BY p.user.employeeId")
+    Stream<Payroll> streamByPayPeriod(@Param("payPeriod") YearMonth payPeriod);
+    
+    /**
+     * Grouped totals projection for payment statuses
+     */
+    interface StatusTotals {
+        Payroll.PaymentStatus getStatus();
+        Long getTotal();
+        BigDecimal getNetSalary();
+    }
 } 
\ No newline at end of file
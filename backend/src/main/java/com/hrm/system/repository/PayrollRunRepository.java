@@ -0,0 +1,31 @@
+package com.hrm.system.repository;
+
+import com.hrm.system.entity.PayrollRun;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.YearMonth;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Repository interface for PayrollRun entity
+ */
+@Repository
+public interface PayrollRunRepository extends JpaRepository<PayrollRun, Long> {
+    
+    /**
+     * Find the most recent payroll runs
+     */
+    List<PayrollRun> findTop20ByOrderByIdDesc();
+    
+    /**
+     * Find runs in one of the given states
+     */
+    List<PayrollRun> findByStatusIn(Collection<PayrollRun.RunStatus> statuses);
+    
+    /**
+     * Check if a run for the pay period is in one of the given states
+     */
+    boolean existsByPayPeriodAndStatusIn(YearMonth payPeriod, Collection<PayrollRun.RunStatus> statuses);
+}
@@ -1,6 +1,8 @@
 package com.hrm.system.repository;
 
 import com.hrm.system.entity.Performance;
+import com.hrm.system.entity.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -151,4 +153,25 @@ public interface PerformanceRepository extends JpaRepository<Performance, Long>
      */
     @Query("SELECT COUNT(p) FROM Performance p WHERE p.user.id = :userId AND YEAR(p.reviewPeriod) = :year AND MONTH(p.reviewPeriod) = :month")
     long countByUserIdAndMonthAndYear(@Param("userId") Long userId, @Param("month") int month, @Param("year") int year);
+    
+    /**
+     * Count performance reviews grouped by status, optionally scoped to the reviewee's department
+     */
+    @Query("SELECT p.status AS status, COUNT(p) AS total FROM Performance p " +
+           "WHERE (:department IS NULL OR p.user.department = :department) GROUP BY p.status")
+    List<StatusCount> countGroupedByStatus(@Param("department") User.Department department);
+    
+    /**
+     * Find the next chunk of performance reviews with their users, keyed by ascending ID
+     */
+    @Query("SELECT p FROM Performance p JOIN FETCH p.user WHERE p.id > :afterId ORDER BY p.id")
+    List<Performance> findWithUserAfterId(@Param("afterId") Long afterId, Pageable pageable);
+    
+    /**
+     * Grouped count projection for performance statuses
+     */
+    interface StatusCount {
+        Performance.PerformanceStatus getStatus();
+        Long getTotal();
+    }
 } 
\ No newline at end of file
@@ -0,0 +1,184 @@
+package com.hrm.system.repository;
+
+import com.hrm.system.dto.AttendanceDto;
+import com.hrm.system.dto.LeaveDto;
+import com.hrm.system.dto.PayrollDto;
+import com.hrm.system.dto.UserDto;
+import com.hrm.system.entity.Attendance;
+import com.hrm.system.entity.Leave;
+import com.hrm.system.entity.Payroll;
+import com.hrm.system.entity.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.From;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * List queries that build DTOs with a constructor expression over the displayed columns, with the employee
+ * name columns joined in SQL. No entities are loaded, so nothing is kept in the persistence context and
+ * no association is fetched lazily. Filters reuse the Specifications of the entity queries.
+ */
+@Repository
+public class ProjectionQueries {
+
+    /**
+     * The DTO built from one row of an entity query; the columns are in the order of the DTO's projection constructor.
+     * Pages of a projection that joins other tables are cut on the IDs first (see {@link #findPage}).
+     */
+    public record Projection<E, D>(Class<E> entityType, Class<D> dtoType, Function<D, Long> idOf, boolean pageByIds,
+                                   BiFunction<CriteriaBuilder, Root<E>, Selection<?>[]> columns) {
+    }
+
+    public static final Projection<Attendance, AttendanceDto> ATTENDANCE = new Projection<>(
+            Attendance.class, AttendanceDto.class, AttendanceDto::getId, true,
+            (cb, root) -> {
+                Path<User> user = root.get("user");
+                return new Selection<?>[]{root.get("id"), user.get("id"), user.get("firstName"), user.get("lastName"),
+                        user.get("employeeId"), root.get("date"), root.get("punchInTime"), root.get("punchOutTime"),
+                        root.get("punchInLocation"), root.get("punchOutLocation"), root.get("status"), root.get("notes"),
+                        root.get("createdAt"), root.get("updatedAt")};
+            });
+
+    public static final Projection<Leave, LeaveDto> LEAVE = new Projection<>(
+            Leave.class, LeaveDto.class, LeaveDto::getId, true,
+            (cb, root) -> {
+                Path<User> user = root.get("user");
+                From<Leave, User> approver = root.join("approvedBy", JoinType.LEFT);
+                return new Selection<?>[]{root.get("id"), user.get("id"), user.get("firstName"), user.get("lastName"),
+                        user.get("employeeId"), user.get("department"), user.get("role"), root.get("leaveType"),
+                        root.get("startDate"), root.get("endDate"), root.get("isHalfDay"), root.get("reason"), root.get("status"),
+                        approver.get("id"), approver.get("firstName"), approver.get("lastName"), root.get("approvedAt"),
+                        root.get("approvalComments"), root.get("createdAt"), root.get("updatedAt")};
+            });
+
+    public static final Projection<Payroll, PayrollDto> PAYROLL = new Projection<>(
+            Payroll.class, PayrollDto.class, PayrollDto::getId, true,
+            (cb, root) -> {
+                Path<User> user = root.get("user");
+                return new Selection<?>[]{root.get("id"), user.get("id"), user.get("firstName"), user.get("lastName"),
+                        user.get("employeeId"), root.get("payPeriod"), root.get("basicSalary"), root.get("netSalary"),
+                        root.get("paymentStatus"), root.get("paymentDate"), root.get("createdAt"), root.get("updatedAt"),
+                        root.get("houseRentAllowance"), root.get("dearnessAllowance"), root.get("conveyanceAllowance"),
+                        root.get("medicalAllowance"), root.get("specialAllowance"), root.get("providentFund"), root.get("incomeTax"),
+                        root.get("professionalTax"), root.get("overtime"), root.get("bonus"), root.get("incentives"),
+                        root.get("otherDeductions"), root.get("paymentMethod"), root.get("bankAccountNumber"),
+                        root.get("transactionId"), root.get("remarks")};
+            });
+
+    public static final Projection<User, UserDto> USER = new Projection<>(
+            User.class, UserDto.class, UserDto::getId, false,
+            (cb, root) -> new Selection<?>[]{root.get("id"), root.get("employeeId"), root.get("firstName"), root.get("lastName"),
+                    root.get("email"), root.get("phoneNumber"), root.get("role"), root.get("department"), root.get("status"),
+                    root.get("profileImage"), root.get("dateOfBirth"), root.get("dateOfJoining"), root.get("address"),
+                    root.get("emergencyContact"), root.join("manager", JoinType.LEFT).get("id"), root.get("lastLoginAt"),
+                    root.get("createdAt"), root.get("updatedAt")});
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * One page of DTOs; the count query is skipped when the page itself shows the total.
+     * With pageByIds the page is cut on the IDs alone and only its rows are joined and projected,
+     * so a deep offset does not join every row before it.
+     */
+    public <E, D> Page<D> findPage(Projection<E, D> projection, Specification<E> filter, Pageable pageable) {
+        List<D> content;
+        if (projection.pageByIds()) {
+            List<Long> ids = entityManager.createQuery(select(projection.entityType(), Long.class, filter, pageable.getSort(),
+                            (cb, root) -> root.get("id")))
+                    .setFirstResult((int) pageable.getOffset())
+                    .setMaxResults(pageable.getPageSize())
+                    .getResultList();
+            content = findAllById(projection, ids);
+        } else {
+            content = entityManager.createQuery(select(projection.entityType(), projection.dtoType(), filter, pageable.getSort(),
+                            construct(projection)))
+                    .setFirstResult((int) pageable.getOffset())
+                    .setMaxResults(pageable.getPageSize())
+                    .getResultList();
+        }
+        return PageableExecutionUtils.getPage(content, pageable, () -> count(projection.entityType(), filter));
+    }
+
+    /**
+     * Up to limit DTOs in the given order
+     */
+    public <E, D> List<D> findAll(Projection<E, D> projection, Specification<E> filter, Sort sort, int limit) {
+        return entityManager.createQuery(select(projection.entityType(), projection.dtoType(), filter, sort, construct(projection)))
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    /**
+     * The DTOs of the given IDs, in the order of the IDs; missing IDs are skipped
+     */
+    public <E, D> List<D> findAllById(Projection<E, D> projection, Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Specification<E> byId = (root, query, cb) -> root.get("id").in(ids);
+        Map<Long, D> rows = new HashMap<>();
+        for (D row : entityManager.createQuery(select(projection.entityType(), projection.dtoType(), byId, Sort.unsorted(),
+                construct(projection))).getResultList()) {
+            rows.put(projection.idOf().apply(row), row);
+        }
+        return ids.stream()
+                .map(rows::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    private static <E, D> BiFunction<CriteriaBuilder, Root<E>, Selection<? extends D>> construct(Projection<E, D> projection) {
+        return (cb, root) -> cb.construct(projection.dtoType(), projection.columns().apply(cb, root));
+    }
+
+    private <E, R> CriteriaQuery<R> select(Class<E> entityType, Class<R> resultType, Specification<E> filter, Sort sort,
+                                           BiFunction<CriteriaBuilder, Root<E>, Selection<? extends R>> selection) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<R> query = cb.createQuery(resultType);
+        Root<E> root = query.from(entityType);
+        query.select(selection.apply(cb, root));
+        Predicate where = filter != null ? filter.toPredicate(root, query, cb) : null;
+        if (where != null) {
+            query.where(where);
+        }
+        if (sort.isSorted()) {
+            query.orderBy(QueryUtils.toOrders(sort, root, cb));
+        }
+        return query;
+    }
+
+    private <E> long count(Class<E> entityType, Specification<E> filter) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<E> root = query.from(entityType);
+        query.select(cb.count(root));
+        Predicate where = filter != null ? filter.toPredicate(root, query, cb) : null;
+        if (where != null) {
+            query.where(where);
+        }
+        return entityManager.createQuery(query).getSingleResult();
+    }
+}
@@ -0,0 +1,39 @@
+package com.hrm.system.repository;
+
+import com.hrm.system.entity.PunchDeadLetter;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Repository interface for PunchDeadLetter entity
+ */
+@Repository
+public interface PunchDeadLetterRepository extends JpaRepository<PunchDeadLetter, Long> {
+
+    /**
+     * Find the failed punches of a user on a date
+     */
+    List<PunchDeadLetter> findByUserIdAndPunchDateOrderById(Long userId, LocalDate punchDate);
+
+    /**
+     * Find unresolved failed punches of a date that have attempts left, oldest first
+     */
+    @Query("SELECT d FROM PunchDeadLetter d WHERE d.resolvedAt IS NULL AND d.punchDate = :punchDate " +
+           "AND d.attempts < :maxAttempts ORDER BY d.id")
+    List<PunchDeadLetter> findRetryable(@Param("punchDate") LocalDate punchDate, @Param("maxAttempts") int maxAttempts);
+
+    /**
+     * Mark failed punches as resolved
+     */
+    @Modifying
+    @Query("UPDATE PunchDeadLetter d SET d.resolvedAt = :resolvedAt WHERE d.id IN :ids AND d.resolvedAt IS NULL")
+    int markResolved(@Param("ids") Collection<Long> ids, @Param("resolvedAt") LocalDateTime resolvedAt);
+}
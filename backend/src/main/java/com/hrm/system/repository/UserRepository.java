@@ -1,12 +1,17 @@
 package com.hrm.system.repository;
 
 import com.hrm.system.entity.User;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.time.YearMonth;
 import java.util.List;
 import java.util.Optional;
 
@@ -14,13 +19,20 @@ import java.util.Optional;
  * Repository interface for User entity
  */
 @Repository
-public interface UserRepository extends JpaRepository<User, Long> {
+public interface UserRepository extends JpaRepository<User, Long>, JpaSpecificationExecutor<User> {
     
     /**
      * Find user by email
      */
     Optional<User> findByEmail(String email);
     
+    /**
+     * Find and write-lock a user, serializing writes that check the user's other rows
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT u FROM User u WHERE u.id = :id")
+    Optional<User> findByIdForUpdate(@Param("id") Long id);
+    
     /**
      * Find user by employee ID
      */
@@ -177,4 +189,54 @@ public interface UserRepository extends JpaRepository<User, Long> {
      */
     @Query("SELECT COUNT(u) FROM User u WHERE YEAR(u.dateOfJoining) = YEAR(CURRENT_DATE) AND MONTH(u.dateOfJoining) = MONTH(CURRENT_DATE)")
     long countNewHiresThisMonth();
+    
+    /**
+     * Count users grouped by status, optionally scoped to a department
+     */
+    @Query("SELECT u.status AS status, COUNT(u) AS total FROM User u " +
+           "WHERE (:department IS NULL OR u.department = :department) GROUP BY u.status")
+    List<StatusCount> countGroupedByStatus(@Param("department") User.Department department);
+    
+    /**
+     * Find the next chunk of users with a status and no payroll for the pay period, keyed by ascending ID
+     */
+    @Query("SELECT u FROM User u WHERE u.status = :status AND u.id > :afterId " +
+           "AND NOT EXISTS (SELECT p.id FROM Payroll p WHERE p.user = u AND p.payPeriod = :payPeriod) ORDER BY u.id")
+    List<User> findByStatusWithoutPayrollAfterId(@Param("status") User.UserStatus status, @Param("payPeriod") YearMonth payPeriod,
+                                                @Param("afterId") Long afterId, Pageable pageable);
+    
+    /**
+     * Count users with a status and no payroll for the pay period
+     */
+    @Query("SELECT COUNT(u) FROM User u WHERE u.status = :status " +
+           "AND NOT EXISTS (SELECT p.id FROM Payroll p WHERE p.user = u AND p.payPeriod = :payPeriod)")
+    long countByStatusWithoutPayroll(@Param("status") User.UserStatus status, @Param("payPeriod") YearMonth payPeriod);
+    
+    /**
+     * Find every user's ID with the ID of their manager, for building the org chart
+     */
+    @Query("SELECT u.id AS id, m.id AS managerId FROM User u LEFT JOIN u.manager m")
+    List<ManagerLink> findManagerLinks();
+    
+    /**
+     * Find the next chunk of users, keyed by ascending ID
+     */
+    @Query("SELECT u FROM User u WHERE u.id > :afterId ORDER BY u.id")
+    List<User> findAfterId(@Param("afterId") Long afterId, Pageable pageable);
+    
+    /**
+     * Grouped count projection for user statuses
+     */
+    interface StatusCount {
+        User.UserStatus getStatus();
+        Long getTotal();
+    }
+    
+    /**
+     * Projection of a user and their manager
+     */
+    interface ManagerLink {
+        Long getId();
+        Long getManagerId();
+    }
 } 
\ No newline at end of file
@@ -0,0 +1,164 @@
+package com.hrm.system.security;
+
+import com.hrm.system.entity.User;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Short-lived cache of authenticated principals keyed by token subject (email).
+ * Entries expire after a TTL and are evicted whenever the user is modified,
+ * so the JWT filter can skip the users table on most requests.
+ */
+@Component
+public class AuthenticatedPrincipalCache {
+    
+    @Value("${app.security.principal-cache.ttl-ms:60000}")
+    private long ttlMs;
+    
+    @Value("${app.security.principal-cache.max-size:10000}")
+    private int maxSize;
+    
+    @Value("${app.security.principal-cache.claims-only:false}")
+    private boolean claimsOnly;
+    
+    @Value("${jwt.expiration}")
+    private long jwtExpirationMs;
+    
+    private final Map<String, CachedPrincipal> principals = new ConcurrentHashMap<>();
+    
+    // Last modification time per user id, used to reject claims issued before a change
+    private final Map<Long, Long> modifiedAt = new ConcurrentHashMap<>();
+    
+    /**
+     * Get a cached principal by email if present and not expired
+     */
+    public User get(String email) {
+        CachedPrincipal cached = principals.get(email);
+        if (cached == null) {
+            return null;
+        }
+        if (cached.expiresAt() < System.currentTimeMillis()) {
+            principals.remove(email, cached);
+            return null;
+        }
+        return cached.user();
+    }
+    
+    /**
+     * Cache a principal loaded from the database
+     */
+    public void put(User user) {
+        if (user == null || user.getEmail() == null) {
+            return;
+        }
+        if (principals.size() >= maxSize) {
+            evictExpired();
+        }
+        if (principals.size() >= maxSize) {
+            Iterator<String> iterator = principals.keySet().iterator();
+            if (iterator.hasNext()) {
+                iterator.next();
+                iterator.remove();
+            }
+        }
+        principals.put(user.getEmail(), new CachedPrincipal(user, System.currentTimeMillis() + ttlMs));
+    }
+    
+    /**
+     * Evict a user now and again once the surrounding transaction commits
+     */
+    public void invalidate(Long userId) {
+        if (userId == null) {
+            return;
+        }
+        evict(userId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(userId);
+                }
+            });
+        }
+    }
+    
+    /**
+     * Evict a user's cached principal after a write that leaves the token claims as they were, such as a login.
+     * Unlike {@link #invalidate} it does not mark the user modified, so tokens already issued keep their claims-only path.
+     */
+    public void evictCached(Long userId) {
+        if (userId == null) {
+            return;
+        }
+        evictPrincipal(userId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evictPrincipal(userId);
+                }
+            });
+        }
+    }
+    
+    /**
+     * Build a principal straight from token claims when the claims-only mode is enabled
+     * and the user has not been modified since the token was issued.
+     * Returns null when the caller should fall back to the cache or database.
+     */
+    public User fromClaims(JwtTokenProvider.ParsedToken token) {
+        if (!claimsOnly) {
+            return null;
+        }
+        Long userId = token.userId();
+        String role = token.role();
+        String department = token.department();
+        if (userId == null || role == null || department == null || token.issuedAt() == null) {
+            return null;
+        }
+        Long lastModified = modifiedAt.get(userId);
+        if (lastModified != null && lastModified >= token.issuedAt().getTime()) {
+            return null;
+        }
+        
+        User user = new User();
+        user.setId(userId);
+        user.setEmail(token.subject());
+        user.setEmployeeId(token.employeeId());
+        String fullName = token.fullName();
+        if (fullName != null) {
+            int space = fullName.indexOf(' ');
+            user.setFirstName(space > 0 ? fullName.substring(0, space) : fullName);
+            user.setLastName(space > 0 ? fullName.substring(space + 1) : "");
+        }
+        user.setRole(User.UserRole.valueOf(role));
+        user.setDepartment(User.Department.valueOf(department));
+        user.setStatus(User.UserStatus.ACTIVE);
+        return user;
+    }
+    
+    private void evict(Long userId) {
+        long now = System.currentTimeMillis();
+        modifiedAt.put(userId, now);
+        evictPrincipal(userId);
+        // Modification marks only matter while tokens issued before them are still valid
+        modifiedAt.values().removeIf(time -> time < now - jwtExpirationMs);
+    }
+    
+    private void evictPrincipal(Long userId) {
+        principals.values().removeIf(cached -> userId.equals(cached.user().getId()));
+    }
+    
+    private void evictExpired() {
+        long now = System.currentTimeMillis();
+        principals.values().removeIf(cached -> cached.expiresAt() < now);
+    }
+    
+    private record CachedPrincipal(User user, long expiresAt) {}
+}
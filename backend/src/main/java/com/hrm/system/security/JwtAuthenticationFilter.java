@@ -31,6 +31,12 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     @Autowired
     private UserRepository userRepository;
     
+    @Autowired
+    private LastSeenTracker lastSeenTracker;
+    
+    @Autowired
+    private AuthenticatedPrincipalCache principalCache;
+    
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
             throws ServletException, IOException {
@@ -38,9 +44,17 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             String jwt = getJwtFromRequest(request);
             
             if (StringUtils.hasText(jwt) && tokenProvider.validateToken(jwt)) {
-                String email = tokenProvider.getEmailFromToken(jwt);
+                JwtTokenProvider.ParsedToken token = tokenProvider.parseToken(jwt);
                 
-                User user = userRepository.findByEmail(email).orElse(null);
+                // Resolve the principal from claims, then the cache, then the database
+                User user = principalCache.fromClaims(token);
+                if (user == null) {
+                    user = principalCache.get(token.subject());
+                }
+                if (user == null) {
+                    user = userRepository.findByEmail(token.subject()).orElse(null);
+                    principalCache.put(user);
+                }
                 if (user != null && user.isEnabled()) {
                     UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
                             user, null, user.getAuthorities());
@@ -48,9 +62,8 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                     
                     SecurityContextHolder.getContext().setAuthentication(authentication);
                     
-                    // Update last login time
-                    user.setLastLoginAt(java.time.LocalDateTime.now());
-                    userRepository.save(user);
+                    // Buffer last-seen time, flushed in batches by the tracker
+                    lastSeenTracker.touch(user.getId());
                 }
             }
         } catch (Exception ex) {
@@ -3,16 +3,26 @@ package com.hrm.system.security;
 import com.hrm.system.entity.User;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SecurityException;
+import jakarta.annotation.PostConstruct;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
 
 import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 import java.util.Date;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 /**
@@ -32,8 +42,26 @@ public class JwtTokenProvider {
     @Value("${jwt.refresh-expiration}")
     private long refreshExpirationMs;
     
+    @Value("${app.security.token-cache.max-size:1024}")
+    private int tokenCacheMaxSize;
+    
+    private SecretKey signingKey;
+    
+    private JwtParser parser;
+    
+    /** Verified tokens keyed by their SHA-256 digest, so bearer tokens are not kept in memory */
+    private final Map<String, ParsedToken> verifiedTokens = new ConcurrentHashMap<>();
+    
+    @PostConstruct
+    public void init() {
+        this.signingKey = Keys.hmacShaKeyFor(jwtSecret.getBytes());
+        this.parser = Jwts.parserBuilder()
+                .setSigningKey(signingKey)
+                .build();
+    }
+    
     private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(jwtSecret.getBytes());
+        return signingKey;
     }
     
     /**
@@ -88,86 +116,76 @@ public class JwtTokenProvider {
                 .compact();
     }
     
+    /**
+     * Parse and verify a JWT token once, returning an immutable view of its claims.
+     * Recently verified tokens are served from a bounded cache until they expire.
+     */
+    public ParsedToken parseToken(String token) {
+        if (!StringUtils.hasText(token)) {
+            throw new IllegalArgumentException("JWT token is empty");
+        }
+        String digest = digest(token);
+        ParsedToken cached = verifiedTokens.get(digest);
+        if (cached != null) {
+            if (!cached.isExpired()) {
+                return cached;
+            }
+            verifiedTokens.remove(digest);
+        }
+        
+        Claims claims = parser.parseClaimsJws(token).getBody();
+        ParsedToken parsed = ParsedToken.from(claims);
+        cacheVerifiedToken(digest, parsed);
+        return parsed;
+    }
+    
     /**
      * Get user email from JWT token
      */
     public String getEmailFromToken(String token) {
-        return Jwts.parser()
-                .setSigningKey(getSigningKey())
-                .parseClaimsJws(token)
-                .getBody()
-                .getSubject();
+        return parseToken(token).subject();
     }
     
     /**
      * Get user ID from JWT token
      */
     public Long getUserIdFromToken(String token) {
-        Claims claims = Jwts.parser()
-                .setSigningKey(getSigningKey())
-                .parseClaimsJws(token)
-                .getBody();
-        
-        return claims.get("userId", Long.class);
+        return parseToken(token).userId();
     }
     
     /**
      * Get user role from JWT token
      */
     public String getRoleFromToken(String token) {
-        Claims claims = Jwts.parser()
-                .setSigningKey(getSigningKey())
-                .parseClaimsJws(token)
-                .getBody();
-        
-        return claims.get("role", String.class);
+        return parseToken(token).role();
     }
     
     /**
      * Get employee ID from JWT token
      */
     public String getEmployeeIdFromToken(String token) {
-        Claims claims = Jwts.parser()
-                .setSigningKey(getSigningKey())
-                .parseClaimsJws(token)
-                .getBody();
-        
-        return claims.get("employeeId", String.class);
+        return parseToken(token).employeeId();
     }
     
     /**
      * Get full name from JWT token
      */
     public String getFullNameFromToken(String token) {
-        Claims claims = Jwts.parser()
-                .setSigningKey(getSigningKey())
-                .parseClaimsJws(token)
-                .getBody();
-        
-        return claims.get("fullName", String.class);
+        return parseToken(token).fullName();
     }
     
     /**
      * Get department from JWT token
      */
     public String getDepartmentFromToken(String token) {
-        Claims claims = Jwts.parser()
-                .setSigningKey(getSigningKey())
-                .parseClaimsJws(token)
-                .getBody();
-        
-        return claims.get("department", String.class);
+        return parseToken(token).department();
     }
     
     /**
      * Get expiration date from JWT token
      */
     public Date getExpirationDateFromToken(String token) {
-        return Jwts.parser()
-                .setSigningKey(getSigningKey())
-                .parseClaimsJws(token)
-                .getBody()
-                .getExpiration();
+        return parseToken(token).expiration();
     }
     
     /**
@@ -175,8 +193,7 @@ public class JwtTokenProvider {
      */
     public boolean isTokenExpired(String token) {
         try {
-            Date expiration = getExpirationDateFromToken(token);
-            return expiration.before(new Date());
+            return parseToken(token).isExpired();
         } catch (Exception e) {
             return true;
         }
@@ -187,9 +204,7 @@ public class JwtTokenProvider {
      */
     public boolean validateToken(String token) {
         try {
-            Jwts.parser()
-                    .setSigningKey(getSigningKey())
-                    .parseClaimsJws(token);
+            parseToken(token);
             return true;
         } catch (SecurityException ex) {
             logger.error("Invalid JWT signature");
@@ -201,10 +216,35 @@ public class JwtTokenProvider {
             logger.error("Unsupported JWT token");
         } catch (IllegalArgumentException ex) {
             logger.error("JWT claims string is empty");
+        } catch (JwtException ex) {
+            logger.error("Invalid JWT token");
         }
         return false;
     }
     
+    private static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+    
+    private void cacheVerifiedToken(String digest, ParsedToken parsed) {
+        if (verifiedTokens.size() >= tokenCacheMaxSize) {
+            verifiedTokens.values().removeIf(ParsedToken::isExpired);
+        }
+        if (verifiedTokens.size() >= tokenCacheMaxSize) {
+            Iterator<String> iterator = verifiedTokens.keySet().iterator();
+            if (iterator.hasNext()) {
+                iterator.next();
+                iterator.remove();
+            }
+        }
+        verifiedTokens.put(digest, parsed);
+    }
+    
     /**
      * Get token expiration time in milliseconds
      */
@@ -218,4 +258,39 @@ public class JwtTokenProvider {
     public long getRefreshExpirationMs() {
         return refreshExpirationMs;
     }
+    
+    /**
+     * Immutable view of verified token claims
+     */
+    public record ParsedToken(
+        String subject,
+        Long userId,
+        String employeeId,
+        String fullName,
+        String role,
+        String department,
+        List<String> authorities,
+        Date issuedAt,
+        Date expiration
+    ) {
+        @SuppressWarnings("unchecked")
+        static ParsedToken from(Claims claims) {
+            List<String> authorities = claims.get("authorities", List.class);
+            return new ParsedToken(
+                claims.getSubject(),
+                claims.get("userId", Long.class),
+                claims.get("employeeId", String.class),
+                claims.get("fullName", String.class),
+                claims.get("role", String.class),
+                claims.get("department", String.class),
+                authorities != null ? List.copyOf(authorities) : List.of(),
+                claims.getIssuedAt(),
+                claims.getExpiration()
+            );
+        }
+        
+        public boolean isExpired() {
+            return expiration != null && expiration.before(new Date());
+        }
+    }
 } 
\ No newline at end of file
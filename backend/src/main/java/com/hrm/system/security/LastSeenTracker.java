@@ -0,0 +1,93 @@
+package com.hrm.system.security;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Write-behind buffer for user last-seen timestamps.
+ * Authenticated requests record activity in memory; a scheduled job flushes
+ * the latest timestamp per user with a single batched UPDATE.
+ */
+@Component
+public class LastSeenTracker {
+    
+    private static final Logger logger = LoggerFactory.getLogger(LastSeenTracker.class);
+    
+    private static final String UPDATE_SQL = "UPDATE users SET last_login_at = ? WHERE id = ?";
+    
+    private final ConcurrentHashMap<Long, LocalDateTime> pending = new ConcurrentHashMap<>();
+    
+    private final JdbcTemplate jdbcTemplate;
+    
+    private final Timer flushTimer;
+    
+    public LastSeenTracker(JdbcTemplate jdbcTemplate, MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.flushTimer = Timer.builder("hrm.last_seen.flush")
+                .description("Time taken to flush buffered last-seen timestamps")
+                .register(meterRegistry);
+        Gauge.builder("hrm.last_seen.buffer.size", pending, Map::size)
+                .description("Users with a last-seen timestamp waiting to be flushed")
+                .register(meterRegistry);
+    }
+    
+    /**
+     * Record that a user was seen now
+     */
+    public void touch(Long userId) {
+        if (userId != null) {
+            pending.put(userId, LocalDateTime.now());
+        }
+    }
+    
+    /**
+     * Flush buffered timestamps to the database
+     */
+    @Scheduled(fixedDelayString = "${app.security.last-seen.flush-interval-ms:30000}")
+    public void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        flushTimer.record(() -> {
+            List<Object[]> batch = new ArrayList<>();
+            for (Long userId : new ArrayList<>(pending.keySet())) {
+                LocalDateTime seenAt = pending.remove(userId);
+                if (seenAt != null) {
+                    batch.add(new Object[]{Timestamp.valueOf(seenAt), userId});
+                }
+            }
+            if (batch.isEmpty()) {
+                return;
+            }
+            try {
+                jdbcTemplate.batchUpdate(UPDATE_SQL, batch);
+                logger.debug("Flushed last-seen timestamps for {} users", batch.size());
+            } catch (Exception ex) {
+                // Put entries back unless a newer timestamp arrived meanwhile
+                for (Object[] row : batch) {
+                    pending.putIfAbsent((Long) row[1], ((Timestamp) row[0]).toLocalDateTime());
+                }
+                logger.error("Could not flush last-seen timestamps", ex);
+            }
+        });
+    }
+    
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+}
@@ -0,0 +1,33 @@
+package com.hrm.system.service;
+
+import com.hrm.system.entity.Leave;
+import com.hrm.system.entity.Performance;
+import com.hrm.system.entity.User;
+
+import java.util.List;
+
+/**
+ * Service interface for recording dashboard activities
+ */
+public interface ActivityLogService {
+    
+    /**
+     * Record that a new employee was added
+     */
+    void logUserCreated(User user);
+    
+    /**
+     * Record that a leave request was approved or rejected
+     */
+    void logLeaveDecision(Leave leave);
+    
+    /**
+     * Record several leave decisions made together
+     */
+    void logLeaveDecisions(List<Leave> leaves);
+    
+    /**
+     * Record that a performance review was completed or approved
+     */
+    void logPerformanceReview(Performance performance);
+}
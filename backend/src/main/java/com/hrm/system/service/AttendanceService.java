@@ -1,10 +1,15 @@
 package com.hrm.system.service;
 
 import com.hrm.system.dto.AttendanceDto;
+import com.hrm.system.dto.CursorPage;
 import com.hrm.system.entity.Attendance;
+import com.hrm.system.entity.User;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
@@ -46,6 +51,12 @@ public interface AttendanceService {
      */
     Page<AttendanceDto> getAllAttendance(Pageable pageable);
     
+    /**
+     * Scroll filtered attendance records by (sort field, id), continuing after the cursor when given
+     */
+    CursorPage<AttendanceDto> scrollAttendance(String cursor, String sortBy, Sort.Direction direction, int size,
+            LocalDate date, Attendance.AttendanceStatus status, Long userId);
+    
     /**
      * Get all attendance records with pagination and filters
      */
@@ -77,19 +88,19 @@ public interface AttendanceService {
     List<AttendanceDto> getAttendanceByStatus(Attendance.AttendanceStatus status);
     
     /**
-     * Get attendance statistics for dashboard
+     * Get attendance statistics for dashboard over a date window
      */
-    AttendanceStatistics getAttendanceStatistics();
+    AttendanceStatistics getAttendanceStatistics(LocalDate startDate, LocalDate endDate);
     
     /**
-     * Get attendance statistics for a user
+     * Get attendance statistics for a user over a date window
      */
-    UserAttendanceStatistics getUserAttendanceStatistics(Long userId);
+    UserAttendanceStatistics getUserAttendanceStatistics(Long userId, LocalDate startDate, LocalDate endDate);
     
     /**
-     * Get attendance statistics for a department
+     * Get attendance statistics for a department over a date window
      */
-    DepartmentAttendanceStatistics getDepartmentAttendanceStatistics(String department);
+    DepartmentAttendanceStatistics getDepartmentAttendanceStatistics(String department, LocalDate startDate, LocalDate endDate);
     
     /**
      * Mark attendance as absent
@@ -132,9 +143,47 @@ public interface AttendanceService {
     void updateAttendanceStatusBasedOnWorkingHours(Long userId, LocalDate date);
     
     /**
-     * Update all attendance records for a specific date based on working hours
+     * Update all attendance records for a specific date based on working hours.
+     * In dry-run mode nothing is written and only the expected changes are reported.
+     */
+    StatusRecomputeResult updateAllAttendanceStatusForDate(LocalDate date, boolean dryRun);
+    
+    /**
+     * Get a user's attendance rollup for a month
+     */
+    MonthlyAttendanceSummary getMonthlySummary(Long userId, int year, int month);
+    
+    /**
+     * Get every user's attendance rollup for a month
+     */
+    List<MonthlyAttendanceSummary> getMonthlySummaries(int year, int month);
+    
+    /**
+     * Rebuild a month's attendance rollups from raw attendance rows.
+     * In dry-run mode nothing is written and only the drift is reported.
+     */
+    SummaryRebuildResult rebuildMonthlySummaries(int year, int month, boolean dryRun);
+    
+    /**
+     * Write attendance for a date window as CSV, optionally scoped to a department
+     * @return Number of records written
+     */
+    long exportAttendanceCsv(User.Department department, LocalDate startDate, LocalDate endDate, OutputStream outputStream) throws IOException;
+    
+    /**
+     * Get records on a date with fewer working hours than app.attendance.min-working-hours
      */
-    void updateAllAttendanceStatusForDate(LocalDate date);
+    List<AttendanceDto> getShortWorkingHours(LocalDate date);
+    
+    /**
+     * Get records on a date with more working hours than app.attendance.max-working-hours
+     */
+    List<AttendanceDto> getOvertime(LocalDate date);
+    
+    /**
+     * Get late arrivals, short days and overtime per department and day over a date window
+     */
+    List<DepartmentDayReport> getDepartmentDayReport(String department, LocalDate startDate, LocalDate endDate);
     
     /**
      * Attendance statistics for dashboard
@@ -219,4 +268,135 @@ public interface AttendanceService {
         public long getAbsentEmployees() { return absentEmployees; }
         public double getAttendanceRate() { return attendanceRate; }
     }
+    
+    /**
+     * Result of a bulk attendance status recompute
+     */
+    class StatusRecomputeResult {
+        private LocalDate date;
+        private boolean dryRun;
+        private long totalRecords;
+        private long changedRecords;
+        private long presentCount;
+        private long halfDayCount;
+        private long absentCount;
+        
+        public StatusRecomputeResult(LocalDate date, boolean dryRun, long totalRecords, long changedRecords, long presentCount, long halfDayCount, long absentCount) {
+            this.date = date;
+            this.dryRun = dryRun;
+            this.totalRecords = totalRecords;
+            this.changedRecords = changedRecords;
+            this.presentCount = presentCount;
+            this.halfDayCount = halfDayCount;
+            this.absentCount = absentCount;
+        }
+        
+        // Getters
+        public LocalDate getDate() { return date; }
+        public boolean isDryRun() { return dryRun; }
+        public long getTotalRecords() { return totalRecords; }
+        public long getChangedRecords() { return changedRecords; }
+        public long getPresentCount() { return presentCount; }
+        public long getHalfDayCount() { return halfDayCount; }
+        public long getAbsentCount() { return absentCount; }
+    }
+    
+    /**
+     * Monthly attendance rollup for a user
+     */
+    class MonthlyAttendanceSummary {
+        private Long userId;
+        private int year;
+        private int month;
+        private long presentDays;
+        private long absentDays;
+        private long halfDays;
+        private long leaveDays;
+        private long totalWorkingMinutes;
+        private long lateArrivals;
+        private long earlyDepartures;
+        
+        public MonthlyAttendanceSummary(Long userId, int year, int month, long presentDays, long absentDays, long halfDays, long leaveDays, long totalWorkingMinutes, long lateArrivals, long earlyDepartures) {
+            this.userId = userId;
+            this.year = year;
+            this.month = month;
+            this.presentDays = presentDays;
+            this.absentDays = absentDays;
+            this.halfDays = halfDays;
+            this.leaveDays = leaveDays;
+            this.totalWorkingMinutes = totalWorkingMinutes;
+            this.lateArrivals = lateArrivals;
+            this.earlyDepartures = earlyDepartures;
+        }
+        
+        // Getters
+        public Long getUserId() { return userId; }
+        public int getYear() { return year; }
+        public int getMonth() { return month; }
+        public long getPresentDays() { return presentDays; }
+        public long getAbsentDays() { return absentDays; }
+        public long getHalfDays() { return halfDays; }
+        public long getLeaveDays() { return leaveDays; }
+        public long getTotalWorkingMinutes() { return totalWorkingMinutes; }
+        public long getLateArrivals() { return lateArrivals; }
+        public long getEarlyDepartures() { return earlyDepartures; }
+    }
+    
+    /**
+     * Result of rebuilding a month's attendance rollups
+     */
+    class SummaryRebuildResult {
+        private int year;
+        private int month;
+        private boolean dryRun;
+        private long checkedUsers;
+        private long mismatchedUsers;
+        
+        public SummaryRebuildResult(int year, int month, boolean dryRun, long checkedUsers, long mismatchedUsers) {
+            this.year = year;
+            this.month = month;
+            this.dryRun = dryRun;
+            this.checkedUsers = checkedUsers;
+            this.mismatchedUsers = mismatchedUsers;
+        }
+        
+        // Getters
+        public int getYear() { return year; }
+        public int getMonth() { return month; }
+        public boolean isDryRun() { return dryRun; }
+        public long getCheckedUsers() { return checkedUsers; }
+        public long getMismatchedUsers() { return mismatchedUsers; }
+    }
+    
+    /**
+     * Late arrivals and overtime of a department on one day
+     */
+    class DepartmentDayReport {
+        private LocalDate date;
+        private String department;
+        private long records;
+        private long lateArrivals;
+        private long shortDays;
+        private long overtimeDays;
+        private long overtimeMinutes;
+        
+        public DepartmentDayReport(LocalDate date, String department, long records, long lateArrivals, long shortDays, long overtimeDays, long overtimeMinutes) {
+            this.date = date;
+            this.department = department;
+            this.records = records;
+            this.lateArrivals = lateArrivals;
+            this.shortDays = shortDays;
+            this.overtimeDays = overtimeDays;
+            this.overtimeMinutes = overtimeMinutes;
+        }
+        
+        // Getters
+        public LocalDate getDate() { return date; }
+        public String getDepartment() { return department; }
+        public long getRecords() { return records; }
+        public long getLateArrivals() { return lateArrivals; }
+        public long getShortDays() { return shortDays; }
+        public long getOvertimeDays() { return overtimeDays; }
+        public long getOvertimeMinutes() { return overtimeMinutes; }
+    }
 } 
\ No newline at end of file
@@ -1,37 +1,61 @@
 package com.hrm.system.service;
 
 import com.hrm.system.dto.DashboardActivityDto;
+
+import java.time.LocalDateTime;
 import java.util.List;
-import java.util.Map;
 
 public interface DashboardService {
     
     /**
      * Get recent activities for the dashboard
      * @param limit Maximum number of activities to return
+     * @param before Only return activities older than this timestamp (optional cursor)
+     * @param beforeId Tie-breaker activity ID for the cursor timestamp (optional)
      * @return List of recent activities
      */
-    List<DashboardActivityDto> getRecentActivities(int limit);
+    List<DashboardActivityDto> getRecentActivities(int limit, LocalDateTime before, Long beforeId);
     
     /**
      * Get activities for a specific user
      * @param userId User ID
      * @param limit Maximum number of activities to return
+     * @param before Only return activities older than this timestamp (optional cursor)
+     * @param beforeId Tie-breaker activity ID for the cursor timestamp (optional)
      * @return List of user activities
      */
-    List<DashboardActivityDto> getUserActivities(Long userId, int limit);
+    List<DashboardActivityDto> getUserActivities(Long userId, int limit, LocalDateTime before, Long beforeId);
     
     /**
      * Get activities for a specific department
      * @param department Department name
      * @param limit Maximum number of activities to return
+     * @param before Only return activities older than this timestamp (optional cursor)
+     * @param beforeId Tie-breaker activity ID for the cursor timestamp (optional)
      * @return List of department activities
      */
-    List<DashboardActivityDto> getDepartmentActivities(String department, int limit);
+    List<DashboardActivityDto> getDepartmentActivities(String department, int limit, LocalDateTime before, Long beforeId);
+    
+    /**
+     * Get dashboard statistics, scoped to the caller's department for managers
+     * @return Dashboard statistics
+     */
+    DashboardStatistics getDashboardStatistics();
     
     /**
-     * Get dashboard statistics
-     * @return Map containing dashboard statistics
+     * Dashboard statistics record
      */
-    Map<String, Object> getDashboardStatistics();
+    record DashboardStatistics(
+        long totalUsers,
+        long activeUsers,
+        long totalLeaves,
+        long approvedLeaves,
+        long pendingLeaves,
+        long totalPerformance,
+        long completedPerformance,
+        long presentToday,
+        long absentToday,
+        long halfDayToday,
+        double attendanceRate
+    ) {}
 } 
\ No newline at end of file
@@ -1,9 +1,12 @@
 package com.hrm.system.service;
 
+import com.hrm.system.dto.CursorPage;
 import com.hrm.system.dto.LeaveDto;
 import com.hrm.system.entity.Leave;
+import com.hrm.system.entity.User;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 
 import java.time.LocalDate;
 import java.util.List;
@@ -29,6 +32,11 @@ public interface LeaveService {
      */
     Page<LeaveDto> getAllLeavesWithFilters(Pageable pageable, Long userId, Leave.LeaveType leaveType, Leave.LeaveStatus status, String startDate, String endDate, String query);
     
+    /**
+     * Scroll filtered leaves by (sort field, id), continuing after the cursor when given
+     */
+    CursorPage<LeaveDto> scrollLeavesWithFilters(String cursor, String sortBy, Sort.Direction direction, int size, Long userId, Leave.LeaveType leaveType, Leave.LeaveStatus status, String startDate, String endDate, String query);
+    
     /**
      * Get leave by ID
      */
@@ -78,6 +86,11 @@ public interface LeaveService {
      */
     LeaveDto cancelLeave(Long id);
     
+    /**
+     * Approve several leave requests in one transaction, reporting the outcome of each
+     */
+    LeaveBatchResult approveLeaves(BatchApprovalRequest request);
+    
     /**
      * Get leave statistics for dashboard
      */
@@ -88,6 +101,11 @@ public interface LeaveService {
      */
     UserLeaveStatistics getUserLeaveStatistics(Long userId);
     
+    /**
+     * Get a user's leave balances for a year
+     */
+    List<LeaveBalanceSummary> getLeaveBalances(Long userId, int year);
+    
     /**
      * Get pending leaves count
      */
@@ -108,6 +126,16 @@ public interface LeaveService {
      */
     boolean isOwner(Long leaveId, Long userId);
     
+    /**
+     * Get approved and pending leave counts per day, scoped to the requester's department unless admin
+     */
+    List<LeaveCalendarDay> getLeaveCalendar(String department, LocalDate startDate, LocalDate endDate);
+    
+    /**
+     * Get who is off (approved or pending) in a date range, scoped to the requester's department unless admin
+     */
+    List<LeaveOff> getLeavesOff(String department, LocalDate startDate, LocalDate endDate);
+    
     /**
      * Leave statistics for dashboard
      */
@@ -132,4 +160,74 @@ public interface LeaveService {
         long remainingLeaves,
         double approvalRate
     ) {}
+    
+    /**
+     * Leave counts for one calendar day
+     */
+    record LeaveCalendarDay(
+        LocalDate date,
+        int approved,
+        int pending
+    ) {}
+    
+    /**
+     * A pending or approved leave overlapping a calendar window
+     */
+    record LeaveOff(
+        Long leaveId,
+        Long userId,
+        String employeeName,
+        User.Department department,
+        Leave.LeaveType leaveType,
+        Leave.LeaveStatus status,
+        LocalDate startDate,
+        LocalDate endDate
+    ) {}
+    
+    /**
+     * Leave balance for one leave type and year; total and remaining are null for uncapped types
+     */
+    record LeaveBalanceSummary(
+        Long userId,
+        Leave.LeaveType leaveType,
+        int year,
+        Integer totalLeaves,
+        int usedLeaves,
+        int pendingLeaves,
+        Integer remainingLeaves
+    ) {}
+    
+    /**
+     * Leave requests to approve together
+     */
+    record BatchApprovalRequest(
+        List<Long> ids,
+        String comments
+    ) {}
+    
+    /**
+     * Outcome of one leave in a batch decision
+     */
+    enum DecisionOutcome {
+        APPROVED, NOT_FOUND, FORBIDDEN, NOT_PENDING
+    }
+    
+    /**
+     * Result for one leave in a batch decision; the leave is present only when it was approved
+     */
+    record LeaveDecisionResult(
+        Long leaveId,
+        DecisionOutcome outcome,
+        String message,
+        LeaveDto leave
+    ) {}
+    
+    /**
+     * Per-leave results of a batch approval
+     */
+    record LeaveBatchResult(
+        int requested,
+        int approved,
+        List<LeaveDecisionResult> results
+    ) {}
 } 
\ No newline at end of file
@@ -0,0 +1,32 @@
+package com.hrm.system.service;
+
+import com.hrm.system.dto.PayrollRunDto;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Service interface for chunked payroll generation runs
+ */
+public interface PayrollRunService {
+    
+    /**
+     * Start a payroll run for all active employees in the background
+     */
+    PayrollRunDto startRun(int month, int year);
+    
+    /**
+     * Resume a failed payroll run from its last committed chunk
+     */
+    PayrollRunDto resumeRun(Long runId);
+    
+    /**
+     * Get payroll run by ID
+     */
+    Optional<PayrollRunDto> getRun(Long runId);
+    
+    /**
+     * Get the most recent payroll runs
+     */
+    List<PayrollRunDto> getRecentRuns();
+}
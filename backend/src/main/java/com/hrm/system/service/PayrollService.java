@@ -1,10 +1,16 @@
 package com.hrm.system.service;
 
+import com.hrm.system.dto.CursorPage;
 import com.hrm.system.dto.PayrollDto;
 import com.hrm.system.entity.Payroll;
+import com.hrm.system.entity.User;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.YearMonth;
 import java.util.List;
 import java.util.Optional;
 
@@ -23,6 +29,11 @@ public interface PayrollService {
      */
     Page<PayrollDto> getAllPayroll(Pageable pageable);
     
+    /**
+     * Scroll payroll records by (sort field, id), continuing after the cursor when given
+     */
+    CursorPage<PayrollDto> scrollPayroll(String cursor, String sortBy, Sort.Direction direction, int size, Long userId);
+    
     /**
      * Get payroll by ID
      */
@@ -59,14 +70,9 @@ public interface PayrollService {
     PayrollDto markAsPaid(Long id);
     
     /**
-     * Generate payroll for all employees
+     * Get payroll statistics for dashboard, optionally scoped to a pay period and department
      */
-    List<PayrollDto> generatePayroll(int month, int year);
-    
-    /**
-     * Get payroll statistics for dashboard
-     */
-    PayrollStatistics getPayrollStatistics();
+    PayrollStatistics getPayrollStatistics(YearMonth payPeriod, User.Department department);
     
     /**
      * Get user payroll statistics
@@ -78,6 +84,12 @@ public interface PayrollService {
      */
     byte[] downloadPayslip(Long id);
     
+    /**
+     * Write the payslips of every employee for a pay period into a ZIP stream
+     * @return Number of payslips written
+     */
+    int exportPayslips(YearMonth payPeriod, OutputStream outputStream) throws IOException;
+    
     /**
      * Get pending payroll count
      */
@@ -1,9 +1,11 @@
 package com.hrm.system.service;
 
+import com.hrm.system.dto.CursorPage;
 import com.hrm.system.dto.UserDto;
 import com.hrm.system.entity.User;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 
 import java.util.List;
 import java.util.Optional;
@@ -15,6 +17,11 @@ public interface UserService {
      */
     UserDto createUser(UserDto userDto);
     
+    /**
+     * Save a self-registered user and add it to the activity log and the user indexes
+     */
+    User registerUser(User user);
+    
     /**
      * Update an existing user
      */
@@ -40,6 +47,12 @@ public interface UserService {
      */
     Page<UserDto> getAllUsers(Pageable pageable);
     
+    /**
+     * Scroll users by (sort field, id), continuing after the cursor when given
+     */
+    CursorPage<UserDto> scrollUsers(String cursor, String sortBy, Sort.Direction direction, int size,
+                                    User.Department department, User.UserStatus status);
+    
     /**
      * Get users by department
      */
@@ -60,11 +73,22 @@ public interface UserService {
      */
     List<UserDto> getTeamMembers(Long managerId);
     
+    /**
+     * Get a user's place in the org chart with one page of the people reporting to them,
+     * down to the given depth or the whole subtree when depth is null
+     */
+    OrgChart getOrgChart(Long userId, Integer depth, Pageable pageable);
+    
     /**
      * Search users by name or email
      */
     List<UserDto> searchUsers(String query);
     
+    /**
+     * Search users by name, email, employee ID or phone number, best matches first
+     */
+    Page<UserDto> searchUsers(String query, Pageable pageable);
+    
     /**
      * Delete user by ID
      */
@@ -98,7 +122,7 @@ public interface UserService {
     /**
      * Update last login time
      */
-    void updateLastLogin(Long userId);
+    User updateLastLogin(User user);
     
     /**
      * Get active users count
@@ -115,6 +139,18 @@ public interface UserService {
      */
     long getUsersCountByRole(User.UserRole role);
     
+    /**
+     * A user in the org chart; level 0 is the top of the organisation
+     */
+    record OrgChartNode(UserDto user, int level, int directReports, int totalReports) {
+    }
+    
+    /**
+     * A user's org chart: the user, their managers from the closest up, and a page of their reports
+     */
+    record OrgChart(OrgChartNode root, List<UserDto> managerChain, Page<OrgChartNode> reports) {
+    }
+    
     /**
      * User statistics for dashboard
      */
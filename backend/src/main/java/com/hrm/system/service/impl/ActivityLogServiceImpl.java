@@ -0,0 +1,201 @@
+package com.hrm.system.service.impl;
+
+import com.hrm.system.entity.ActivityLog;
+import com.hrm.system.entity.Leave;
+import com.hrm.system.entity.Performance;
+import com.hrm.system.entity.User;
+import com.hrm.system.repository.ActivityLogRepository;
+import com.hrm.system.repository.LeaveRepository;
+import com.hrm.system.repository.PerformanceRepository;
+import com.hrm.system.repository.UserRepository;
+import com.hrm.system.service.ActivityLogService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+@Service
+@Transactional
+public class ActivityLogServiceImpl implements ActivityLogService {
+    
+    private static final Logger logger = LoggerFactory.getLogger(ActivityLogServiceImpl.class);
+    
+    private static final int BACKFILL_PAGE_SIZE = 500;
+    
+    @Autowired
+    private ActivityLogRepository activityLogRepository;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private LeaveRepository leaveRepository;
+    
+    @Autowired
+    private PerformanceRepository performanceRepository;
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @Autowired
+    @Qualifier("applicationTaskExecutor")
+    private TaskExecutor taskExecutor;
+    
+    @Override
+    public void logUserCreated(User user) {
+        activityLogRepository.save(userCreated(user, LocalDateTime.now()));
+    }
+    
+    @Override
+    public void logLeaveDecision(Leave leave) {
+        ActivityLog activity = leaveDecision(leave, LocalDateTime.now());
+        if (activity != null) {
+            activityLogRepository.save(activity);
+        }
+    }
+    
+    @Override
+    public void logLeaveDecisions(List<Leave> leaves) {
+        LocalDateTime now = LocalDateTime.now();
+        List<ActivityLog> activities = new ArrayList<>();
+        for (Leave leave : leaves) {
+            ActivityLog activity = leaveDecision(leave, now);
+            if (activity != null) {
+                activities.add(activity);
+            }
+        }
+        activityLogRepository.saveAll(activities);
+    }
+    
+    @Override
+    public void logPerformanceReview(Performance performance) {
+        ActivityLog activity = performanceReview(performance, LocalDateTime.now());
+        if (activity != null) {
+            activityLogRepository.save(activity);
+        }
+    }
+    
+    /**
+     * Populate an empty activity log from existing users, leaves and performance reviews.
+     * The backfill runs on the task executor so startup does not wait on it; once the log has rows it is skipped.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillIfEmpty() {
+        if (activityLogRepository.count() > 0) {
+            return;
+        }
+        taskExecutor.execute(() -> {
+            try {
+                new TransactionTemplate(transactionManager).executeWithoutResult(status -> backfill());
+            } catch (RuntimeException e) {
+                logger.error("Activity log backfill failed", e);
+            }
+        });
+    }
+    
+    /**
+     * Rows are read in ID-keyed chunks with their users fetched in the same query, and the persistence
+     * context is flushed and cleared after each chunk so memory stays flat however large the tables are.
+     */
+    private void backfill() {
+        long total = backfill(afterId -> userRepository.findAfterId(afterId, PageRequest.of(0, BACKFILL_PAGE_SIZE)),
+                User::getId, user -> userCreated(user, user.getCreatedAt()));
+        total += backfill(afterId -> leaveRepository.findWithUserAfterId(afterId, PageRequest.of(0, BACKFILL_PAGE_SIZE)),
+                Leave::getId, leave -> leaveDecision(leave, leave.getUpdatedAt()));
+        total += backfill(afterId -> performanceRepository.findWithUserAfterId(afterId, PageRequest.of(0, BACKFILL_PAGE_SIZE)),
+                Performance::getId, performance -> performanceReview(performance, performance.getUpdatedAt()));
+        
+        logger.info("Backfilled activity log with {} entries", total);
+    }
+    
+    private <T> long backfill(Function<Long, List<T>> nextChunk, Function<T, Long> idOf, Function<T, ActivityLog> toActivity) {
+        long total = 0;
+        Long afterId = 0L;
+        List<T> chunk;
+        do {
+            chunk = nextChunk.apply(afterId);
+            List<ActivityLog> activities = new ArrayList<>();
+            for (T row : chunk) {
+                ActivityLog activity = toActivity.apply(row);
+                if (activity != null) {
+                    activities.add(activity);
+                }
+            }
+            total += activityLogRepository.saveAll(activities).size();
+            if (!chunk.isEmpty()) {
+                afterId = idOf.apply(chunk.get(chunk.size() - 1));
+            }
+            entityManager.flush();
+            entityManager.clear();
+        } while (chunk.size() == BACKFILL_PAGE_SIZE);
+        return total;
+    }
+    
+    private ActivityLog userCreated(User user, LocalDateTime occurredAt) {
+        return newActivity(ActivityLog.USER_CREATED,
+                "New Employee Added",
+                user.getFullName() + " joined the company",
+                user, user.getId(), "person_add", occurredAt);
+    }
+    
+    private ActivityLog leaveDecision(Leave leave, LocalDateTime occurredAt) {
+        User user = leave.getUser();
+        if (leave.getStatus() == Leave.LeaveStatus.APPROVED) {
+            return newActivity(ActivityLog.LEAVE_APPROVED,
+                    "Leave Request Approved",
+                    "Leave request approved for " + user.getFullName(),
+                    user, leave.getId(), "check_circle", occurredAt);
+        } else if (leave.getStatus() == Leave.LeaveStatus.REJECTED) {
+            return newActivity(ActivityLog.LEAVE_REJECTED,
+                    "Leave Request Rejected",
+                    "Leave request rejected for " + user.getFullName(),
+                    user, leave.getId(), "cancel", occurredAt);
+        }
+        return null;
+    }
+    
+    private ActivityLog performanceReview(Performance performance, LocalDateTime occurredAt) {
+        if (performance.getStatus() != Performance.PerformanceStatus.COMPLETED &&
+                performance.getStatus() != Performance.PerformanceStatus.APPROVED) {
+            return null;
+        }
+        User user = performance.getUser();
+        return newActivity(ActivityLog.PERFORMANCE_REVIEW,
+                "Performance Review Completed",
+                "Performance review completed for " + user.getFullName(),
+                user, performance.getId(), "assessment", occurredAt);
+    }
+    
+    private ActivityLog newActivity(String type, String title, String description, User user,
+                                    Long relatedId, String icon, LocalDateTime occurredAt) {
+        ActivityLog activity = new ActivityLog();
+        activity.setType(type);
+        activity.setTitle(title);
+        activity.setDescription(description);
+        activity.setUserId(user.getId());
+        activity.setUserName(user.getFullName());
+        activity.setDepartment(user.getDepartment());
+        activity.setRelatedId(relatedId);
+        activity.setIcon(icon);
+        activity.setOccurredAt(occurredAt != null ? occurredAt : LocalDateTime.now());
+        return activity;
+    }
+}
@@ -1,49 +1,114 @@
 package com.hrm.system.service.impl;
 
 import com.hrm.system.dto.AttendanceDto;
+import com.hrm.system.dto.CursorPage;
 import com.hrm.system.entity.Attendance;
+import com.hrm.system.entity.AttendanceSummary;
 import com.hrm.system.entity.User;
 import com.hrm.system.repository.AttendanceRepository;
+import com.hrm.system.repository.AttendanceSummaryRepository;
+import com.hrm.system.repository.KeysetCursor;
+import com.hrm.system.repository.ProjectionQueries;
 import com.hrm.system.repository.UserRepository;
 import com.hrm.system.service.AttendanceService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.EnumMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @Transactional
 public class AttendanceServiceImpl implements AttendanceService {
 
+    private static final Logger logger = LoggerFactory.getLogger(AttendanceServiceImpl.class);
+
+    private static final String CSV_HEADER = "id,employee_id,employee_name,department,date,punch_in,punch_out," +
+            "working_minutes,status,punch_in_location,punch_out_location,notes\n";
+
+    /** Rows streamed between persistence context clears during an export */
+    private static final int EXPORT_CLEAR_INTERVAL = 1000;
+
+    private static final Set<String> SCROLL_SORT_FIELDS = Set.of("date", "id");
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
     @Autowired
     private AttendanceRepository attendanceRepository;
 
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private PunchStateIndex punchStateIndex;
+
+    @Autowired
+    private AttendanceSummaryRollup attendanceSummaryRollup;
+
+    @Autowired
+    private AttendanceSummaryRepository attendanceSummaryRepository;
+
+    @Autowired
+    private ProjectionQueries projectionQueries;
+
+    @Value("${app.attendance.late-threshold:09:15}")
+    private LocalTime lateThreshold;
+
+    @Value("${app.attendance.min-working-hours:6}")
+    private int minWorkingHours;
+
+    @Value("${app.attendance.max-working-hours:12}")
+    private int maxWorkingHours;
+
     @Override
     public AttendanceDto punchIn(Long userId, String location, Double latitude, Double longitude) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new RuntimeException("User not found with ID: " + userId));
-
         LocalDate today = LocalDate.now();
-        LocalTime currentTime = LocalTime.now();
+        LocalTime currentTime = LocalTime.now().truncatedTo(ChronoUnit.SECONDS);
 
-        // Check if already punched in today
-        if (hasPunchedIn(userId, today)) {
+        // Claim the punch-in in memory; a second click or an existing record is rejected without a query
+        PunchStateIndex.Claim claim = punchStateIndex.tryBeginPunchIn(userId, today, currentTime);
+        if (claim == null) {
             throw new RuntimeException("User has already punched in today");
         }
+        punchStateIndex.completeWithTransaction(claim);
 
         // Create new attendance record
         Attendance attendance = new Attendance();
-        attendance.setUser(user);
+        attendance.setUser(resolveUser(userId));
         attendance.setDate(today);
         attendance.setPunchInTime(currentTime);
         attendance.setPunchInLocation(location);
@@ -56,41 +121,80 @@ public class AttendanceServiceImpl implements AttendanceService {
         attendance.setStatus(Attendance.AttendanceStatus.PRESENT);
 
         Attendance savedAttendance = attendanceRepository.save(attendance);
+        attendanceSummaryRollup.apply(null, AttendanceSummaryRollup.Snapshot.of(savedAttendance));
         return new AttendanceDto(savedAttendance);
     }
 
     @Override
     public AttendanceDto punchOut(Long userId, String location, Double latitude, Double longitude) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new RuntimeException("User not found with ID: " + userId));
-
         LocalDate today = LocalDate.now();
-        LocalTime currentTime = LocalTime.now();
+        LocalTime currentTime = LocalTime.now().truncatedTo(ChronoUnit.SECONDS);
 
-        // Find today's attendance record
-        Optional<Attendance> attendanceOpt = attendanceRepository.findByUserAndDate(user, today);
-        if (attendanceOpt.isEmpty()) {
+        PunchStateIndex.Claim claim = punchStateIndex.tryBeginPunchOut(userId, today);
+        if (claim == null) {
+            PunchStateIndex.PunchState state = punchStateIndex.stateOf(userId, today);
+            if (state != null && state.punchedOut()) {
+                throw new RuntimeException("User has already punched out today");
+            }
             throw new RuntimeException("No punch-in record found for today");
         }
-
-        Attendance attendance = attendanceOpt.get();
-
-        // Check if already punched out
-        if (hasPunchedOut(userId, today)) {
+        punchStateIndex.completeWithTransaction(claim);
+
+        Attendance attendance = attendanceRepository.findWithUserByUserIdAndDate(userId, today)
+                .orElseThrow(() -> new RuntimeException("No punch-in record found for today"));
+        AttendanceSummaryRollup.Snapshot before = AttendanceSummaryRollup.Snapshot.of(attendance);
+
+        // Write punch out information and the status derived from working hours in one statement
+        Attendance.AttendanceStatus status = statusForWorkingTime(claim.punchInTime(), currentTime);
+        LocalDateTime now = LocalDateTime.now();
+        int updated = attendanceRepository.punchOut(userId, today, currentTime, location, latitude, longitude, status,
+                Attendance.minutesBetween(claim.punchInTime(), currentTime), now);
+        if (updated == 0) {
             throw new RuntimeException("User has already punched out today");
         }
+        attendanceSummaryRollup.apply(before, new AttendanceSummaryRollup.Snapshot(userId, today, status,
+                attendance.getPunchInTime(), currentTime));
+
+        // The entity read above predates the update, so the response carries the written values
+        AttendanceDto result = new AttendanceDto(attendance);
+        result.setPunchOutTime(currentTime);
+        result.setPunchOutLocation(location);
+        result.setStatus(status);
+        result.setUpdatedAt(now);
+        return result;
+    }
 
-        // Update punch out information
-        attendance.setPunchOutTime(currentTime);
-        attendance.setPunchOutLocation(location);
-        attendance.setPunchOutLatitude(latitude);
-        attendance.setPunchOutLongitude(longitude);
-
-        // Automatically update status based on working hours
-        updateAttendanceStatusBasedOnWorkingHours(userId, today);
+    /**
+     * Use the authenticated principal when it is the user in question, avoiding a lookup
+     */
+    private User resolveUser(Long userId) {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth != null && auth.getPrincipal() instanceof User principal && userId.equals(principal.getId())) {
+            return principal;
+        }
+        return userRepository.findById(userId)
+                .orElseThrow(() -> new RuntimeException("User not found with ID: " + userId));
+    }
 
-        Attendance savedAttendance = attendanceRepository.save(attendance);
-        return new AttendanceDto(savedAttendance);
+    /**
+     * Status from working time: none is ABSENT, under 4 hours HALF_DAY, otherwise PRESENT
+     */
+    static Attendance.AttendanceStatus statusForWorkingTime(LocalTime punchInTime, LocalTime punchOutTime) {
+        long workingMinutes = punchInTime != null && punchOutTime != null
+                ? Duration.between(punchInTime, punchOutTime).toMinutes()
+                : 0;
+
+        // Calculate total working hours in decimal format
+        double totalWorkingHours = workingMinutes / 60 + (workingMinutes % 60) / 60.0;
+
+        if (totalWorkingHours <= 0.0) {
+            return Attendance.AttendanceStatus.ABSENT;
+        } else if (totalWorkingHours < 4.0) {
+            // Less than 4 hours = Half Day
+            return Attendance.AttendanceStatus.HALF_DAY;
+        }
+        // 4 hours or more = Present/Full Day
+        return Attendance.AttendanceStatus.PRESENT;
     }
 
     @Override
@@ -114,6 +218,8 @@ public class AttendanceServiceImpl implements AttendanceService {
         attendance.setNotes(attendanceDto.getNotes());
 
         Attendance savedAttendance = attendanceRepository.save(attendance);
+        punchStateIndex.record(savedAttendance);
+        attendanceSummaryRollup.apply(null, AttendanceSummaryRollup.Snapshot.of(savedAttendance));
         return new AttendanceDto(savedAttendance);
     }
 
@@ -125,6 +231,7 @@ public class AttendanceServiceImpl implements AttendanceService {
         }
 
         Attendance attendance = attendanceOpt.get();
+        AttendanceSummaryRollup.Snapshot before = AttendanceSummaryRollup.Snapshot.of(attendance);
         attendance.setPunchInTime(attendanceDto.getPunchInTime());
         attendance.setPunchOutTime(attendanceDto.getPunchOutTime());
         attendance.setPunchInLocation(attendanceDto.getPunchInLocation());
@@ -133,6 +240,8 @@ public class AttendanceServiceImpl implements AttendanceService {
         attendance.setNotes(attendanceDto.getNotes());
 
         Attendance updatedAttendance = attendanceRepository.save(attendance);
+        punchStateIndex.record(updatedAttendance);
+        attendanceSummaryRollup.apply(before, AttendanceSummaryRollup.Snapshot.of(updatedAttendance));
         return new AttendanceDto(updatedAttendance);
     }
 
@@ -147,49 +256,34 @@ public class AttendanceServiceImpl implements AttendanceService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Page<AttendanceDto> getAllAttendance(Pageable pageable) {
-        return attendanceRepository.findAll(pageable).map(AttendanceDto::new);
+        return projectionQueries.findPage(ProjectionQueries.ATTENDANCE, null, pageable);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<AttendanceDto> scrollAttendance(String cursor, String sortBy, Sort.Direction direction, int size,
+            LocalDate date, Attendance.AttendanceStatus status, Long userId) {
+        KeysetCursor position = KeysetCursor.decode(cursor, sortBy, direction, SCROLL_SORT_FIELDS);
+        Specification<Attendance> filter = filter(date, status, userId).and(position.remaining());
+        List<AttendanceDto> rows = projectionQueries.findAll(ProjectionQueries.ATTENDANCE, filter, position.sort(), size + 1);
+        return CursorPage.of(rows, size, position, row -> row);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Page<AttendanceDto> getAllAttendanceWithFilters(Pageable pageable, String date,
             Attendance.AttendanceStatus status, Long userId) {
-        if (date != null && status != null && userId != null) {
-            // Filter by date, status, and user
-            LocalDate filterDate = LocalDate.parse(date);
-            return attendanceRepository.findByDateAndStatusAndUserId(filterDate, status, userId, pageable)
-                    .map(AttendanceDto::new);
-        } else if (date != null && status != null) {
-            // Filter by date and status
-            LocalDate filterDate = LocalDate.parse(date);
-            return attendanceRepository.findByDateAndStatus(filterDate, status, pageable)
-                    .map(AttendanceDto::new);
-        } else if (date != null && userId != null) {
-            // Filter by date and user
-            LocalDate filterDate = LocalDate.parse(date);
-            return attendanceRepository.findByDateAndUserId(filterDate, userId, pageable)
-                    .map(AttendanceDto::new);
-        } else if (status != null && userId != null) {
-            // Filter by status and user
-            return attendanceRepository.findByStatusAndUserId(status, userId, pageable)
-                    .map(AttendanceDto::new);
-        } else if (date != null) {
-            // Filter by date only
-            LocalDate filterDate = LocalDate.parse(date);
-            return attendanceRepository.findByDate(filterDate, pageable)
-                    .map(AttendanceDto::new);
-        } else if (status != null) {
-            // Filter by status only
-            return attendanceRepository.findByStatus(status, pageable)
-                    .map(AttendanceDto::new);
-        } else if (userId != null) {
-            // Filter by user only
-            return attendanceRepository.findByUserId(userId, pageable)
-                    .map(AttendanceDto::new);
-        } else {
-            // No filters, return all
-            return attendanceRepository.findAll(pageable).map(AttendanceDto::new);
-        }
+        LocalDate filterDate = date != null ? LocalDate.parse(date) : null;
+        return projectionQueries.findPage(ProjectionQueries.ATTENDANCE, filter(filterDate, status, userId), pageable);
+    }
+
+    private static Specification<Attendance> filter(LocalDate date, Attendance.AttendanceStatus status, Long userId) {
+        return (root, query, cb) -> cb.and(
+                date != null ? cb.equal(root.get("date"), date) : cb.conjunction(),
+                status != null ? cb.equal(root.get("status"), status) : cb.conjunction(),
+                userId != null ? cb.equal(root.get("user").get("id"), userId) : cb.conjunction());
     }
 
     @Override
@@ -234,13 +328,14 @@ public class AttendanceServiceImpl implements AttendanceService {
     }
 
     @Override
-    public AttendanceStatistics getAttendanceStatistics() {
-        LocalDate today = LocalDate.now();
+    public AttendanceStatistics getAttendanceStatistics(LocalDate startDate, LocalDate endDate) {
+        Map<Attendance.AttendanceStatus, Long> counts = countsByStatus(
+                attendanceRepository.summarizeByDepartment(null, startDate, endDate));
 
-        long totalPresent = attendanceRepository.countByDateAndStatus(today, Attendance.AttendanceStatus.PRESENT);
-        long totalAbsent = attendanceRepository.countByDateAndStatus(today, Attendance.AttendanceStatus.ABSENT);
-        long totalHalfDay = attendanceRepository.countByDateAndStatus(today, Attendance.AttendanceStatus.HALF_DAY);
-        long totalLeave = attendanceRepository.countByDateAndStatus(today, Attendance.AttendanceStatus.LEAVE);
+        long totalPresent = counts.getOrDefault(Attendance.AttendanceStatus.PRESENT, 0L);
+        long totalAbsent = counts.getOrDefault(Attendance.AttendanceStatus.ABSENT, 0L);
+        long totalHalfDay = counts.getOrDefault(Attendance.AttendanceStatus.HALF_DAY, 0L);
+        long totalLeave = counts.getOrDefault(Attendance.AttendanceStatus.LEAVE, 0L);
 
         long totalEmployees = totalPresent + totalAbsent + totalHalfDay + totalLeave;
         double attendanceRate = totalEmployees > 0 ? (double) totalPresent / totalEmployees * 100 : 0;
@@ -249,39 +344,34 @@ public class AttendanceServiceImpl implements AttendanceService {
     }
 
     @Override
-    public UserAttendanceStatistics getUserAttendanceStatistics(Long userId) {
-        LocalDate startDate = LocalDate.now().minusDays(30); // Last 30 days
-        LocalDate endDate = LocalDate.now();
+    public UserAttendanceStatistics getUserAttendanceStatistics(Long userId, LocalDate startDate, LocalDate endDate) {
+        List<AttendanceRepository.StatusTotals> rows = attendanceRepository.summarizeByUser(userId, startDate, endDate);
+        Map<Attendance.AttendanceStatus, Long> counts = countsByStatus(rows);
 
-        long totalDays = attendanceRepository.countByUserIdAndDateBetween(userId, startDate, endDate);
-        long presentDays = attendanceRepository.countByUserIdAndDateBetweenAndStatus(userId, startDate, endDate,
-                Attendance.AttendanceStatus.PRESENT);
-        long absentDays = attendanceRepository.countByUserIdAndDateBetweenAndStatus(userId, startDate, endDate,
-                Attendance.AttendanceStatus.ABSENT);
-        long halfDays = attendanceRepository.countByUserIdAndDateBetweenAndStatus(userId, startDate, endDate,
-                Attendance.AttendanceStatus.HALF_DAY);
-        long leaveDays = attendanceRepository.countByUserIdAndDateBetweenAndStatus(userId, startDate, endDate,
-                Attendance.AttendanceStatus.LEAVE);
+        long totalDays = rows.stream().mapToLong(AttendanceRepository.StatusTotals::getTotal).sum();
+        long presentDays = counts.getOrDefault(Attendance.AttendanceStatus.PRESENT, 0L);
+        long absentDays = counts.getOrDefault(Attendance.AttendanceStatus.ABSENT, 0L);
+        long halfDays = counts.getOrDefault(Attendance.AttendanceStatus.HALF_DAY, 0L);
+        long leaveDays = counts.getOrDefault(Attendance.AttendanceStatus.LEAVE, 0L);
 
         double attendanceRate = totalDays > 0 ? (double) presentDays / totalDays * 100 : 0;
 
-        // Calculate total working hours
-        long totalWorkingHours = getTotalWorkingHours(userId, startDate, endDate);
+        long workedSeconds = rows.stream().mapToLong(AttendanceRepository.StatusTotals::getWorkedSeconds).sum();
+        long totalWorkingHours = workedSeconds / 3600;
 
         return new UserAttendanceStatistics(totalDays, presentDays, absentDays, halfDays, leaveDays, attendanceRate,
                 totalWorkingHours);
     }
 
     @Override
-    public DepartmentAttendanceStatistics getDepartmentAttendanceStatistics(String department) {
-        LocalDate today = LocalDate.now();
+    public DepartmentAttendanceStatistics getDepartmentAttendanceStatistics(String department, LocalDate startDate, LocalDate endDate) {
         User.Department dept = User.Department.valueOf(department.toUpperCase());
+        List<AttendanceRepository.StatusTotals> rows = attendanceRepository.summarizeByDepartment(dept, startDate, endDate);
+        Map<Attendance.AttendanceStatus, Long> counts = countsByStatus(rows);
 
-        long totalEmployees = attendanceRepository.countByDepartmentAndDate(dept, today);
-        long presentEmployees = attendanceRepository.countByDepartmentAndDateAndStatus(dept, today,
-                Attendance.AttendanceStatus.PRESENT);
-        long absentEmployees = attendanceRepository.countByDepartmentAndDateAndStatus(dept, today,
-                Attendance.AttendanceStatus.ABSENT);
+        long totalEmployees = rows.stream().mapToLong(AttendanceRepository.StatusTotals::getTotal).sum();
+        long presentEmployees = counts.getOrDefault(Attendance.AttendanceStatus.PRESENT, 0L);
+        long absentEmployees = counts.getOrDefault(Attendance.AttendanceStatus.ABSENT, 0L);
 
         double attendanceRate = totalEmployees > 0 ? (double) presentEmployees / totalEmployees * 100 : 0;
 
@@ -289,6 +379,16 @@ public class AttendanceServiceImpl implements AttendanceService {
                 attendanceRate);
     }
 
+    private static Map<Attendance.AttendanceStatus, Long> countsByStatus(List<AttendanceRepository.StatusTotals> rows) {
+        Map<Attendance.AttendanceStatus, Long> counts = new EnumMap<>(Attendance.AttendanceStatus.class);
+        for (AttendanceRepository.StatusTotals row : rows) {
+            if (row.getStatus() != null) {
+                counts.put(row.getStatus(), row.getTotal());
+            }
+        }
+        return counts;
+    }
+
     @Override
     public AttendanceDto markAbsent(Long userId, LocalDate date, String reason) {
         User user = userRepository.findById(userId)
@@ -307,6 +407,8 @@ public class AttendanceServiceImpl implements AttendanceService {
         attendance.setNotes(reason);
 
         Attendance savedAttendance = attendanceRepository.save(attendance);
+        punchStateIndex.record(savedAttendance);
+        attendanceSummaryRollup.apply(null, AttendanceSummaryRollup.Snapshot.of(savedAttendance));
         return new AttendanceDto(savedAttendance);
     }
 
@@ -328,24 +430,34 @@ public class AttendanceServiceImpl implements AttendanceService {
         attendance.setNotes(reason);
 
         Attendance savedAttendance = attendanceRepository.save(attendance);
+        punchStateIndex.record(savedAttendance);
+        attendanceSummaryRollup.apply(null, AttendanceSummaryRollup.Snapshot.of(savedAttendance));
         return new AttendanceDto(savedAttendance);
     }
 
     @Override
     public void deleteAttendance(Long id) {
-        if (!attendanceRepository.existsById(id)) {
-            throw new RuntimeException("Attendance record not found with ID: " + id);
-        }
-        attendanceRepository.deleteById(id);
+        Attendance attendance = attendanceRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Attendance record not found with ID: " + id));
+        attendanceRepository.delete(attendance);
+        punchStateIndex.remove(attendance.getUser().getId(), attendance.getDate());
+        attendanceSummaryRollup.apply(AttendanceSummaryRollup.Snapshot.of(attendance), null);
     }
 
     @Override
     public boolean hasPunchedIn(Long userId, LocalDate date) {
+        if (punchStateIndex.covers(date)) {
+            return punchStateIndex.stateOf(userId, date) != null;
+        }
         return attendanceRepository.existsByUserIdAndDate(userId, date);
     }
 
     @Override
     public boolean hasPunchedOut(Long userId, LocalDate date) {
+        if (punchStateIndex.covers(date)) {
+            PunchStateIndex.PunchState state = punchStateIndex.stateOf(userId, date);
+            return state != null && state.punchedOut();
+        }
         Optional<Attendance> attendance = attendanceRepository.findByUserIdAndDate(userId, date);
         return attendance.isPresent() && attendance.get().getPunchOutTime() != null;
     }
@@ -372,35 +484,183 @@ public class AttendanceServiceImpl implements AttendanceService {
         Optional<Attendance> attendanceOpt = attendanceRepository.findByUserIdAndDate(userId, date);
         if (attendanceOpt.isPresent()) {
             Attendance attendance = attendanceOpt.get();
-
-            // Get working hours and minutes
-            long workingHours = attendance.getWorkingHours();
-            long workingMinutes = attendance.getWorkingMinutes();
-
-            // Calculate total working hours in decimal format
-            double totalWorkingHours = workingHours + (workingMinutes % 60) / 60.0;
+            AttendanceSummaryRollup.Snapshot before = AttendanceSummaryRollup.Snapshot.of(attendance);
 
             // Update status based strictly on working hours
-            if (totalWorkingHours <= 0.0) {
-                attendance.setStatus(Attendance.AttendanceStatus.ABSENT);
-            } else if (totalWorkingHours < 4.0) {
-                // Less than 4 hours = Half Day
-                attendance.setStatus(Attendance.AttendanceStatus.HALF_DAY);
-            } else {
-                // 4 hours or more = Present/Full Day
-                attendance.setStatus(Attendance.AttendanceStatus.PRESENT);
-            }
+            attendance.setStatus(statusForWorkingTime(attendance.getPunchInTime(), attendance.getPunchOutTime()));
 
             // Save the updated attendance record
             attendanceRepository.save(attendance);
+            attendanceSummaryRollup.apply(before, AttendanceSummaryRollup.Snapshot.of(attendance));
         }
     }
 
     @Override
-    public void updateAllAttendanceStatusForDate(LocalDate date) {
-        List<Attendance> attendances = attendanceRepository.findByDateOrderByUserFirstNameAsc(date);
-        for (Attendance attendance : attendances) {
-            updateAttendanceStatusBasedOnWorkingHours(attendance.getUser().getId(), date);
+    public StatusRecomputeResult updateAllAttendanceStatusForDate(LocalDate date, boolean dryRun) {
+        // Expected outcome per status, computed with the same rule as the bulk update
+        Map<Attendance.AttendanceStatus, Long> computed = new EnumMap<>(Attendance.AttendanceStatus.class);
+        attendanceRepository.countByDateGroupedByComputedStatus(date)
+                .forEach(row -> computed.put(row.getStatus(), row.getTotal()));
+        long totalRecords = computed.values().stream().mapToLong(Long::longValue).sum();
+
+        long changedRecords = dryRun
+                ? attendanceRepository.countStatusChangesForDate(date)
+                : attendanceRepository.recomputeStatusForDate(date, LocalDateTime.now());
+        if (!dryRun && changedRecords > 0) {
+            // The bulk update bypasses the incremental rollup, so recompute the month it touched
+            attendanceSummaryRollup.recompute(YearMonth.from(date));
+        }
+
+        logger.info("Attendance status recompute for {} (dryRun={}): {} of {} records changed",
+                date, dryRun, changedRecords, totalRecords);
+
+        return new StatusRecomputeResult(
+                date,
+                dryRun,
+                totalRecords,
+                changedRecords,
+                computed.getOrDefault(Attendance.AttendanceStatus.PRESENT, 0L),
+                computed.getOrDefault(Attendance.AttendanceStatus.HALF_DAY, 0L),
+                computed.getOrDefault(Attendance.AttendanceStatus.ABSENT, 0L));
+    }
+
+    @Override
+    public MonthlyAttendanceSummary getMonthlySummary(Long userId, int year, int month) {
+        return attendanceSummaryRepository.findByUserIdAndYearAndMonth(userId, year, month)
+                .map(AttendanceServiceImpl::toMonthlySummary)
+                .orElseGet(() -> new MonthlyAttendanceSummary(userId, year, month, 0, 0, 0, 0, 0, 0, 0));
+    }
+
+    @Override
+    public List<MonthlyAttendanceSummary> getMonthlySummaries(int year, int month) {
+        return attendanceSummaryRepository.findByYearAndMonthOrderByUserId(year, month)
+                .stream()
+                .map(AttendanceServiceImpl::toMonthlySummary)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public SummaryRebuildResult rebuildMonthlySummaries(int year, int month, boolean dryRun) {
+        return attendanceSummaryRollup.rebuild(YearMonth.of(year, month), dryRun);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long exportAttendanceCsv(User.Department department, LocalDate startDate, LocalDate endDate,
+            OutputStream outputStream) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        writer.write(CSV_HEADER);
+
+        long count = 0;
+        try (Stream<Attendance> attendances = attendanceRepository.streamByDepartmentAndDateBetween(department, startDate, endDate)) {
+            Iterator<Attendance> iterator = attendances.iterator();
+            while (iterator.hasNext()) {
+                writeCsvRow(writer, iterator.next());
+                count++;
+
+                // Keep the persistence context small so memory stays flat however long the export runs
+                if (count % EXPORT_CLEAR_INTERVAL == 0) {
+                    entityManager.clear();
+                }
+            }
+        }
+        writer.flush();
+        return count;
+    }
+
+    private static void writeCsvRow(Writer writer, Attendance attendance) throws IOException {
+        User user = attendance.getUser();
+        writer.write(String.valueOf(attendance.getId()));
+        writer.write(',');
+        writer.write(csv(user.getEmployeeId()));
+        writer.write(',');
+        writer.write(csv(user.getFullName()));
+        writer.write(',');
+        writer.write(csv(user.getDepartment()));
+        writer.write(',');
+        writer.write(csv(attendance.getDate()));
+        writer.write(',');
+        writer.write(csv(attendance.getPunchInTime()));
+        writer.write(',');
+        writer.write(csv(attendance.getPunchOutTime()));
+        writer.write(',');
+        writer.write(String.valueOf(attendance.getWorkingMinutes()));
+        writer.write(',');
+        writer.write(csv(attendance.getStatus()));
+        writer.write(',');
+        writer.write(csv(attendance.getPunchInLocation()));
+        writer.write(',');
+        writer.write(csv(attendance.getPunchOutLocation()));
+        writer.write(',');
+        writer.write(csv(attendance.getNotes()));
+        writer.write('\n');
+    }
+
+    /**
+     * CSV field, quoted when it contains a separator, quote or line break
+     */
+    private static String csv(Object value) {
+        if (value == null) {
+            return "";
         }
+        String text = value.toString();
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+            return text;
+        }
+        return '"' + text.replace("\"", "\"\"") + '"';
+    }
+
+    @Override
+    public List<AttendanceDto> getShortWorkingHours(LocalDate date) {
+        return attendanceRepository.findShortWorkingHours(date, minWorkingHours * 60)
+                .stream()
+                .map(AttendanceDto::new)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public List<AttendanceDto> getOvertime(LocalDate date) {
+        return attendanceRepository.findOvertime(date, maxWorkingHours * 60)
+                .stream()
+                .map(AttendanceDto::new)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public List<DepartmentDayReport> getDepartmentDayReport(String department, LocalDate startDate, LocalDate endDate) {
+        User.Department dept = department != null ? User.Department.valueOf(department.toUpperCase()) : null;
+        int maxMinutes = maxWorkingHours * 60;
+        return attendanceRepository.summarizeByDepartmentAndDay(dept, startDate, endDate, lateThreshold,
+                        minWorkingHours * 60, maxMinutes)
+                .stream()
+                .map(row -> new DepartmentDayReport(row.getDate(), row.getDepartment().name(), row.getRecords(),
+                        row.getLateArrivals(), row.getShortDays(), row.getOvertimeDays(),
+                        row.getOvertimeWorkedMinutes() - row.getOvertimeDays() * maxMinutes))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Fill in stored working minutes for records completed before the column existed
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillWorkingMinutes() {
+        int updated = attendanceRepository.backfillWorkingMinutes();
+        if (updated > 0) {
+            logger.info("Backfilled working minutes on {} attendance records", updated);
+        }
+    }
+
+    private static MonthlyAttendanceSummary toMonthlySummary(AttendanceSummary summary) {
+        return new MonthlyAttendanceSummary(summary.getUserId(), summary.getYear(), summary.getMonth(),
+                summary.getPresentDays(), summary.getAbsentDays(), summary.getHalfDays(), summary.getLeaveDays(),
+                summary.getTotalMinutes(), summary.getLateArrivals(), summary.getEarlyDepartures());
+    }
+
+    /**
+     * End-of-day job recomputing today's attendance status
+     */
+    @Scheduled(cron = "${app.attendance.status-recompute.cron:0 55 23 * * *}")
+    public void recomputeTodayAttendanceStatus() {
+        updateAllAttendanceStatusForDate(LocalDate.now(), false);
     }
 }
\ No newline at end of file
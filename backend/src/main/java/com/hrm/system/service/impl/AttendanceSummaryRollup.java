@@ -0,0 +1,334 @@
+package com.hrm.system.service.impl;
+
+import com.hrm.system.entity.Attendance;
+import com.hrm.system.entity.AttendanceSummary;
+import com.hrm.system.repository.AttendanceRepository;
+import com.hrm.system.repository.AttendanceSummaryRepository;
+import com.hrm.system.service.AttendanceService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps the monthly AttendanceSummary rollup in step with attendance rows.
+ * Writers pass the row before and after the change; the difference is added to the rollup
+ * in the same transaction. A nightly job rebuilds recent months from raw rows and reports drift.
+ * A rebuild write-locks the month's rollup rows before reading the raw rows, so a delta added by a
+ * concurrent writer is either already in the raw rows it reads or applied on top of its result.
+ */
+@Component
+public class AttendanceSummaryRollup {
+
+    private static final Logger logger = LoggerFactory.getLogger(AttendanceSummaryRollup.class);
+
+    private static final String INSERT_SQL = "INSERT INTO attendance_summary (id, user_id, period_year, period_month, " +
+            "present_days, absent_days, half_days, leave_days, total_minutes, late_arrivals, early_departures, updated_at) " +
+            "VALUES (NEXT VALUE FOR attendance_summary_seq, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    /**
+     * The fields of an attendance row that feed the rollup
+     */
+    public record Snapshot(Long userId, LocalDate date, Attendance.AttendanceStatus status,
+                           LocalTime punchInTime, LocalTime punchOutTime) {
+
+        public static Snapshot of(Attendance attendance) {
+            return new Snapshot(attendance.getUser().getId(), attendance.getDate(), attendance.getStatus(),
+                    attendance.getPunchInTime(), attendance.getPunchOutTime());
+        }
+    }
+
+    private record Totals(long present, long absent, long halfDay, long leave, long minutes, long late, long early) {
+
+        static final Totals ZERO = new Totals(0, 0, 0, 0, 0, 0, 0);
+
+        Totals minus(Totals other) {
+            return new Totals(present - other.present, absent - other.absent, halfDay - other.halfDay,
+                    leave - other.leave, minutes - other.minutes, late - other.late, early - other.early);
+        }
+
+        static Totals of(AttendanceSummary summary) {
+            return new Totals(summary.getPresentDays(), summary.getAbsentDays(), summary.getHalfDays(),
+                    summary.getLeaveDays(), summary.getTotalMinutes(), summary.getLateArrivals(),
+                    summary.getEarlyDepartures());
+        }
+
+        static Totals of(AttendanceRepository.MonthlyTotals row) {
+            return new Totals(row.getPresentDays(), row.getAbsentDays(), row.getHalfDays(), row.getLeaveDays(),
+                    row.getTotalMinutes(), row.getLateArrivals(), row.getEarlyDepartures());
+        }
+    }
+
+    private final AttendanceRepository attendanceRepository;
+
+    private final AttendanceSummaryRepository summaryRepository;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final LocalTime lateThreshold;
+
+    private final LocalTime earlyDepartureThreshold;
+
+    private final Counter driftCounter;
+
+    public AttendanceSummaryRollup(AttendanceRepository attendanceRepository,
+                                   AttendanceSummaryRepository summaryRepository,
+                                   JdbcTemplate jdbcTemplate,
+                                   PlatformTransactionManager transactionManager,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${app.attendance.late-threshold:09:15}") LocalTime lateThreshold,
+                                   @Value("${app.attendance.early-departure-threshold:16:45}") LocalTime earlyDepartureThreshold) {
+        this.attendanceRepository = attendanceRepository;
+        this.summaryRepository = summaryRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.lateThreshold = lateThreshold;
+        this.earlyDepartureThreshold = earlyDepartureThreshold;
+        this.driftCounter = Counter.builder("hrm.attendance.summary.drift")
+                .description("Monthly attendance rollups found out of step with raw rows")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Apply the change of one attendance row to the rollup. Pass null for a row that was created or deleted.
+     * Must run inside the transaction writing the row.
+     */
+    public void apply(Snapshot before, Snapshot after) {
+        if (before != null && after != null && sameMonth(before, after)) {
+            add(after.userId(), YearMonth.from(after.date()), totals(after).minus(totals(before)));
+            return;
+        }
+        if (before != null) {
+            add(before.userId(), YearMonth.from(before.date()), Totals.ZERO.minus(totals(before)));
+        }
+        if (after != null) {
+            add(after.userId(), YearMonth.from(after.date()), totals(after));
+        }
+    }
+
+    private static boolean sameMonth(Snapshot before, Snapshot after) {
+        return before.userId().equals(after.userId()) && YearMonth.from(before.date()).equals(YearMonth.from(after.date()));
+    }
+
+    private void add(Long userId, YearMonth period, Totals delta) {
+        if (delta.equals(Totals.ZERO)) {
+            return;
+        }
+        if (addDelta(userId, period, delta) > 0 || insertIfAbsent(userId, period, delta)) {
+            return;
+        }
+        // A concurrent first write of the month created the row after our update missed it
+        if (addDelta(userId, period, delta) == 0) {
+            throw new IllegalStateException("Attendance rollup for user " + userId + " in " + period + " could not be written");
+        }
+    }
+
+    private int addDelta(Long userId, YearMonth period, Totals delta) {
+        return summaryRepository.addDelta(userId, period.getYear(), period.getMonthValue(), delta.present(),
+                delta.absent(), delta.halfDay(), delta.leave(), delta.minutes(), delta.late(), delta.early(),
+                LocalDateTime.now());
+    }
+
+    /**
+     * Insert a user's rollup for a month unless another transaction already has. The insert runs under a
+     * savepoint so losing the race on the unique key leaves the surrounding transaction usable.
+     */
+    private boolean insertIfAbsent(Long userId, YearMonth period, Totals totals) {
+        Boolean inserted = jdbcTemplate.execute((ConnectionCallback<Boolean>) connection -> {
+            Savepoint savepoint = connection.setSavepoint();
+            try (PreparedStatement statement = connection.prepareStatement(INSERT_SQL)) {
+                statement.setLong(1, userId);
+                statement.setInt(2, period.getYear());
+                statement.setInt(3, period.getMonthValue());
+                statement.setLong(4, totals.present());
+                statement.setLong(5, totals.absent());
+                statement.setLong(6, totals.halfDay());
+                statement.setLong(7, totals.leave());
+                statement.setLong(8, totals.minutes());
+                statement.setLong(9, totals.late());
+                statement.setLong(10, totals.early());
+                statement.setTimestamp(11, Timestamp.valueOf(LocalDateTime.now()));
+                statement.executeUpdate();
+                connection.releaseSavepoint(savepoint);
+                return true;
+            } catch (SQLException e) {
+                connection.rollback(savepoint);
+                if (jdbcTemplate.getExceptionTranslator().translate("insert rollup", INSERT_SQL, e) instanceof DuplicateKeyException) {
+                    return false;
+                }
+                throw e;
+            }
+        });
+        return Boolean.TRUE.equals(inserted);
+    }
+
+    /**
+     * Rollup figures of one row, matching the rebuild query in AttendanceRepository.summarizeMonthByUser
+     */
+    private Totals totals(Snapshot row) {
+        Attendance.AttendanceStatus status = row.status();
+        LocalTime in = row.punchInTime() != null ? row.punchInTime().truncatedTo(ChronoUnit.SECONDS) : null;
+        LocalTime out = row.punchOutTime() != null ? row.punchOutTime().truncatedTo(ChronoUnit.SECONDS) : null;
+        return new Totals(
+                status == Attendance.AttendanceStatus.PRESENT ? 1 : 0,
+                status == Attendance.AttendanceStatus.ABSENT ? 1 : 0,
+                status == Attendance.AttendanceStatus.HALF_DAY ? 1 : 0,
+                status == Attendance.AttendanceStatus.LEAVE ? 1 : 0,
+                in != null && out != null ? Duration.between(in, out).getSeconds() / 60 : 0,
+                in != null && in.isAfter(lateThreshold) ? 1 : 0,
+                out != null && out.isBefore(earlyDepartureThreshold) ? 1 : 0);
+    }
+
+    /**
+     * Rebuild a month from raw attendance rows, reporting and (unless dry-run) correcting every user whose rollup differs
+     */
+    public AttendanceService.SummaryRebuildResult rebuild(YearMonth period, boolean dryRun) {
+        AttendanceService.SummaryRebuildResult result = reconcile(period, dryRun);
+        if (result.getMismatchedUsers() > 0) {
+            driftCounter.increment(result.getMismatchedUsers());
+            logger.warn("Attendance rollup for {} had {} of {} users out of step{}", period, result.getMismatchedUsers(),
+                    result.getCheckedUsers(), dryRun ? "" : ", rebuilt from attendance rows");
+        }
+        return result;
+    }
+
+    /**
+     * Recompute a month from raw rows after a bulk update that bypassed {@link #apply}
+     */
+    public void recompute(YearMonth period) {
+        reconcile(period, false);
+    }
+
+    private AttendanceService.SummaryRebuildResult reconcile(YearMonth period, boolean dryRun) {
+        Map<Long, AttendanceSummary> stored = storedRollups(period, !dryRun);
+        List<AttendanceRepository.MonthlyTotals> rows = summarizeMonth(period);
+        if (!dryRun && rows.stream().anyMatch(row -> !stored.containsKey(row.getUserId()))) {
+            // Create missing rollups empty and lock them too, then read the raw rows again under the locks
+            for (AttendanceRepository.MonthlyTotals row : rows) {
+                if (!stored.containsKey(row.getUserId())) {
+                    insertIfAbsent(row.getUserId(), period, Totals.ZERO);
+                }
+            }
+            stored.clear();
+            stored.putAll(storedRollups(period, true));
+            rows = summarizeMonth(period);
+        }
+
+        long mismatched = 0;
+        for (AttendanceRepository.MonthlyTotals row : rows) {
+            Totals expected = Totals.of(row);
+            AttendanceSummary summary = stored.remove(row.getUserId());
+            if (summary != null && Totals.of(summary).equals(expected)) {
+                continue;
+            }
+            mismatched++;
+            if (!dryRun) {
+                if (summary == null) {
+                    summary = new AttendanceSummary();
+                    summary.setUserId(row.getUserId());
+                    summary.setYear(period.getYear());
+                    summary.setMonth(period.getMonthValue());
+                }
+                write(summary, expected);
+                summaryRepository.save(summary);
+            }
+        }
+
+        // Rollups left over have no attendance rows behind them
+        for (AttendanceSummary orphan : stored.values()) {
+            if (!Totals.of(orphan).equals(Totals.ZERO)) {
+                mismatched++;
+            }
+            if (!dryRun) {
+                summaryRepository.delete(orphan);
+            }
+        }
+        return new AttendanceService.SummaryRebuildResult(period.getYear(), period.getMonthValue(), dryRun,
+                rows.size(), mismatched);
+    }
+
+    private Map<Long, AttendanceSummary> storedRollups(YearMonth period, boolean lock) {
+        List<AttendanceSummary> summaries = lock
+                ? summaryRepository.findByYearAndMonthForUpdate(period.getYear(), period.getMonthValue())
+                : summaryRepository.findByYearAndMonthOrderByUserId(period.getYear(), period.getMonthValue());
+        Map<Long, AttendanceSummary> stored = new HashMap<>();
+        for (AttendanceSummary summary : summaries) {
+            stored.put(summary.getUserId(), summary);
+        }
+        return stored;
+    }
+
+    private List<AttendanceRepository.MonthlyTotals> summarizeMonth(YearMonth period) {
+        return attendanceRepository.summarizeMonthByUser(period.atDay(1), period.atEndOfMonth(), lateThreshold,
+                earlyDepartureThreshold);
+    }
+
+    private static void write(AttendanceSummary summary, Totals totals) {
+        summary.setPresentDays(totals.present());
+        summary.setAbsentDays(totals.absent());
+        summary.setHalfDays(totals.halfDay());
+        summary.setLeaveDays(totals.leave());
+        summary.setTotalMinutes(totals.minutes());
+        summary.setLateArrivals(totals.late());
+        summary.setEarlyDepartures(totals.early());
+    }
+
+    /**
+     * Nightly verification of the current and previous month
+     */
+    @Scheduled(cron = "${app.attendance.summary-verify.cron:0 30 2 * * *}")
+    public void verifyRecentMonths() {
+        YearMonth current = YearMonth.now();
+        transactionTemplate.executeWithoutResult(status -> {
+            rebuild(current.minusMonths(1), false);
+            rebuild(current, false);
+        });
+    }
+
+    /**
+     * Build the rollup for every month on record when it has never been populated
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillIfEmpty() {
+        if (summaryRepository.count() > 0) {
+            return;
+        }
+        LocalDate earliest = attendanceRepository.findEarliestDate().orElse(null);
+        LocalDate latest = attendanceRepository.findLatestDate().orElse(null);
+        if (earliest == null || latest == null) {
+            return;
+        }
+        YearMonth last = YearMonth.from(latest);
+        for (YearMonth period = YearMonth.from(earliest); !period.isAfter(last); period = period.plusMonths(1)) {
+            YearMonth month = period;
+            transactionTemplate.executeWithoutResult(status -> reconcile(month, false));
+        }
+        logger.info("Attendance rollup backfilled from {} to {}", YearMonth.from(earliest), last);
+    }
+}
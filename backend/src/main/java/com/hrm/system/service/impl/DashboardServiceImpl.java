@@ -1,10 +1,12 @@
 package com.hrm.system.service.impl;
 
 import com.hrm.system.dto.DashboardActivityDto;
+import com.hrm.system.entity.ActivityLog;
 import com.hrm.system.entity.User;
 import com.hrm.system.entity.Leave;
 import com.hrm.system.entity.Performance;
 import com.hrm.system.entity.Attendance;
+import com.hrm.system.repository.ActivityLogRepository;
 import com.hrm.system.repository.UserRepository;
 import com.hrm.system.repository.LeaveRepository;
 import com.hrm.system.repository.PerformanceRepository;
@@ -12,8 +14,6 @@ import com.hrm.system.repository.AttendanceRepository;
 import com.hrm.system.service.DashboardService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
@@ -26,6 +26,15 @@ import java.util.stream.Collectors;
 @Service
 public class DashboardServiceImpl implements DashboardService {
 
+    // Upper bound used when a feed is requested without a cursor
+    private static final LocalDateTime FEED_START = LocalDateTime.of(9999, 12, 31, 23, 59);
+
+    private static final List<String> USER_FEED_TYPES = List.of(
+            ActivityLog.LEAVE_APPROVED, ActivityLog.LEAVE_REJECTED, ActivityLog.PERFORMANCE_REVIEW);
+
+    private static final List<String> DEPARTMENT_FEED_TYPES = List.of(
+            ActivityLog.LEAVE_APPROVED, ActivityLog.PERFORMANCE_REVIEW);
+
     @Autowired
     private UserRepository userRepository;
 
@@ -38,206 +47,96 @@ public class DashboardServiceImpl implements DashboardService {
     @Autowired
     private AttendanceRepository attendanceRepository;
 
-    @Override
-    public List<DashboardActivityDto> getRecentActivities(int limit) {
-        List<DashboardActivityDto> activities = new ArrayList<>();
-
-        // Get recent users (new employees)
-        Pageable userPageable = PageRequest.of(0, limit, Sort.by(Sort.Direction.DESC, "createdAt"));
-        List<User> recentUsers = userRepository.findAll(userPageable).getContent();
-
-        for (User user : recentUsers) {
-            activities.add(new DashboardActivityDto(
-                    "user-" + user.getId(),
-                    "USER_CREATED",
-                    "New Employee Added",
-                    user.getFirstName() + " " + user.getLastName() + " joined the company",
-                    user.getCreatedAt(),
-                    user.getId(),
-                    user.getFirstName() + " " + user.getLastName(),
-                    null,
-                    "person_add"));
-        }
-
-        // Get recent leave activities
-        Pageable leavePageable = PageRequest.of(0, limit, Sort.by(Sort.Direction.DESC, "updatedAt"));
-        List<Leave> recentLeaves = leaveRepository.findAll(leavePageable).getContent();
-
-        for (Leave leave : recentLeaves) {
-            if (leave.getStatus().name().equals("APPROVED")) {
-                activities.add(new DashboardActivityDto(
-                        "leave-" + leave.getId(),
-                        "LEAVE_APPROVED",
-                        "Leave Request Approved",
-                        "Leave request approved for " + leave.getUser().getFirstName() + " "
-                                + leave.getUser().getLastName(),
-                        leave.getUpdatedAt(),
-                        leave.getUser().getId(),
-                        leave.getUser().getFirstName() + " " + leave.getUser().getLastName(),
-                        leave.getId(),
-                        "check_circle"));
-            } else if (leave.getStatus().name().equals("REJECTED")) {
-                activities.add(new DashboardActivityDto(
-                        "leave-" + leave.getId(),
-                        "LEAVE_REJECTED",
-                        "Leave Request Rejected",
-                        "Leave request rejected for " + leave.getUser().getFirstName() + " "
-                                + leave.getUser().getLastName(),
-                        leave.getUpdatedAt(),
-                        leave.getUser().getId(),
-                        leave.getUser().getFirstName() + " " + leave.getUser().getLastName(),
-                        leave.getId(),
-                        "cancel"));
-            }
-        }
-
-        // Get recent performance reviews
-        Pageable performancePageable = PageRequest.of(0, limit, Sort.by(Sort.Direction.DESC, "updatedAt"));
-        List<Performance> recentPerformance = performanceRepository.findAll(performancePageable).getContent();
-
-        for (Performance performance : recentPerformance) {
-            if (performance.getStatus().name().equals("COMPLETED") ||
-                    performance.getStatus().name().equals("APPROVED")) {
-                activities.add(new DashboardActivityDto(
-                        "performance-" + performance.getId(),
-                        "PERFORMANCE_REVIEW",
-                        "Performance Review Completed",
-                        "Performance review completed for " + performance.getUser().getFirstName() + " "
-                                + performance.getUser().getLastName(),
-                        performance.getUpdatedAt(),
-                        performance.getUser().getId(),
-                        performance.getUser().getFirstName() + " " + performance.getUser().getLastName(),
-                        performance.getId(),
-                        "assessment"));
-            }
-        }
+    @Autowired
+    private ActivityLogRepository activityLogRepository;
 
-        // Sort by timestamp (most recent first) and limit
-        return activities.stream()
-                .sorted(Comparator.comparing(DashboardActivityDto::getTimestamp).reversed())
-                .limit(limit)
+    @Override
+    public List<DashboardActivityDto> getRecentActivities(int limit, LocalDateTime before, Long beforeId) {
+        return activityLogRepository.findRecent(
+                        cursorTime(before), cursorId(before, beforeId), PageRequest.of(0, limit))
+                .stream()
+                .map(activity -> toDto(activity, activity.getDescription()))
                 .collect(Collectors.toList());
     }
 
     @Override
-    public List<DashboardActivityDto> getUserActivities(Long userId, int limit) {
-        List<DashboardActivityDto> activities = new ArrayList<>();
-
-        // Get user's leaves
-        List<Leave> userLeaves = leaveRepository.findByUserIdOrderByStartDateDesc(userId);
-        for (Leave leave : userLeaves) {
-            if (leave.getStatus().name().equals("APPROVED")) {
-                activities.add(new DashboardActivityDto(
-                        "leave-" + leave.getId(),
-                        "LEAVE_APPROVED",
-                        "Leave Request Approved",
-                        "Your leave request was approved",
-                        leave.getUpdatedAt(),
-                        userId,
-                        leave.getUser().getFirstName() + " " + leave.getUser().getLastName(),
-                        leave.getId(),
-                        "check_circle"));
-            } else if (leave.getStatus().name().equals("REJECTED")) {
-                activities.add(new DashboardActivityDto(
-                        "leave-" + leave.getId(),
-                        "LEAVE_REJECTED",
-                        "Leave Request Rejected",
-                        "Your leave request was rejected",
-                        leave.getUpdatedAt(),
-                        userId,
-                        leave.getUser().getFirstName() + " " + leave.getUser().getLastName(),
-                        leave.getId(),
-                        "cancel"));
-            }
-        }
-
-        // Get user's performance reviews
-        List<Performance> userPerformance = performanceRepository.findByUserIdOrderByReviewPeriodDesc(userId);
-        for (Performance performance : userPerformance) {
-            if (performance.getStatus().name().equals("COMPLETED") ||
-                    performance.getStatus().name().equals("APPROVED")) {
-                activities.add(new DashboardActivityDto(
-                        "performance-" + performance.getId(),
-                        "PERFORMANCE_REVIEW",
-                        "Performance Review Completed",
-                        "Your performance review was completed",
-                        performance.getUpdatedAt(),
-                        userId,
-                        performance.getUser().getFirstName() + " " + performance.getUser().getLastName(),
-                        performance.getId(),
-                        "assessment"));
-            }
-        }
-
-        // Sort by timestamp and limit
-        return activities.stream()
-                .sorted(Comparator.comparing(DashboardActivityDto::getTimestamp).reversed())
-                .limit(limit)
+    public List<DashboardActivityDto> getUserActivities(Long userId, int limit, LocalDateTime before, Long beforeId) {
+        return activityLogRepository.findRecentByUser(
+                        userId, USER_FEED_TYPES, cursorTime(before), cursorId(before, beforeId), PageRequest.of(0, limit))
+                .stream()
+                .map(activity -> toDto(activity, personalDescription(activity)))
                 .collect(Collectors.toList());
     }
 
     @Override
-    public List<DashboardActivityDto> getDepartmentActivities(String department, int limit) {
-        List<DashboardActivityDto> activities = new ArrayList<>();
+    public List<DashboardActivityDto> getDepartmentActivities(String department, int limit, LocalDateTime before, Long beforeId) {
+        return activityLogRepository.findRecentByDepartment(
+                        User.Department.valueOf(department), DEPARTMENT_FEED_TYPES,
+                        cursorTime(before), cursorId(before, beforeId), PageRequest.of(0, limit))
+                .stream()
+                .map(activity -> toDto(activity, activity.getDescription()))
+                .collect(Collectors.toList());
+    }
 
-        // Get users from the department
-        List<User> departmentUsers = userRepository.findByDepartment(User.Department.valueOf(department));
-        Set<Long> departmentUserIds = departmentUsers.stream()
-                .map(User::getId)
-                .collect(Collectors.toSet());
+    private LocalDateTime cursorTime(LocalDateTime before) {
+        return before != null ? before : FEED_START;
+    }
 
-        // Get leaves for department users
-        List<Leave> departmentLeaves = leaveRepository.findAll().stream()
-                .filter(leave -> departmentUserIds.contains(leave.getUser().getId()))
-                .collect(Collectors.toList());
-        for (Leave leave : departmentLeaves) {
-            if (leave.getStatus().name().equals("APPROVED")) {
-                activities.add(new DashboardActivityDto(
-                        "leave-" + leave.getId(),
-                        "LEAVE_APPROVED",
-                        "Leave Request Approved",
-                        "Leave request approved for " + leave.getUser().getFirstName() + " "
-                                + leave.getUser().getLastName(),
-                        leave.getUpdatedAt(),
-                        leave.getUser().getId(),
-                        leave.getUser().getFirstName() + " " + leave.getUser().getLastName(),
-                        leave.getId(),
-                        "check_circle"));
-            }
+    private Long cursorId(LocalDateTime before, Long beforeId) {
+        if (beforeId != null) {
+            return beforeId;
         }
+        // Without an id, a timestamp cursor means strictly older than that instant
+        return before != null ? 0L : Long.MAX_VALUE;
+    }
 
-        // Get performance reviews for department users
-        List<Performance> departmentPerformance = performanceRepository.findAll().stream()
-                .filter(performance -> departmentUserIds.contains(performance.getUser().getId()))
-                .collect(Collectors.toList());
-        for (Performance performance : departmentPerformance) {
-            if (performance.getStatus().name().equals("COMPLETED") ||
-                    performance.getStatus().name().equals("APPROVED")) {
-                activities.add(new DashboardActivityDto(
-                        "performance-" + performance.getId(),
-                        "PERFORMANCE_REVIEW",
-                        "Performance Review Completed",
-                        "Performance review completed for " + performance.getUser().getFirstName() + " "
-                                + performance.getUser().getLastName(),
-                        performance.getUpdatedAt(),
-                        performance.getUser().getId(),
-                        performance.getUser().getFirstName() + " " + performance.getUser().getLastName(),
-                        performance.getId(),
-                        "assessment"));
-            }
+    private String personalDescription(ActivityLog activity) {
+        switch (activity.getType()) {
+            case ActivityLog.LEAVE_APPROVED:
+                return "Your leave request was approved";
+            case ActivityLog.LEAVE_REJECTED:
+                return "Your leave request was rejected";
+            case ActivityLog.PERFORMANCE_REVIEW:
+                return "Your performance review was completed";
+            default:
+                return activity.getDescription();
         }
+    }
 
-        // Sort by timestamp and limit
-        return activities.stream()
-                .sorted(Comparator.comparing(DashboardActivityDto::getTimestamp).reversed())
-                .limit(limit)
-                .collect(Collectors.toList());
+    /**
+     * ID in the form the dashboard has always keyed activities by: the kind of record and its ID
+     */
+    private String activityId(ActivityLog activity) {
+        switch (activity.getType()) {
+            case ActivityLog.USER_CREATED:
+                return "user-" + activity.getRelatedId();
+            case ActivityLog.LEAVE_APPROVED:
+            case ActivityLog.LEAVE_REJECTED:
+                return "leave-" + activity.getRelatedId();
+            case ActivityLog.PERFORMANCE_REVIEW:
+                return "performance-" + activity.getRelatedId();
+            default:
+                return "activity-" + activity.getId();
+        }
     }
 
-    @Override
-    public Map<String, Object> getDashboardStatistics() {
-        Map<String, Object> statistics = new HashMap<>();
+    private DashboardActivityDto toDto(ActivityLog activity, String description) {
+        DashboardActivityDto dto = new DashboardActivityDto(
+                activityId(activity),
+                activity.getType(),
+                activity.getTitle(),
+                description,
+                activity.getOccurredAt(),
+                activity.getUserId(),
+                activity.getUserName(),
+                activity.getRelatedId(),
+                activity.getIcon());
+        dto.setCursorId(activity.getId());
+        return dto;
+    }
 
+    @Override
+    public DashboardStatistics getDashboardStatistics() {
         // Get current user from security context
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         User currentUser = null;
@@ -246,109 +145,50 @@ public class DashboardServiceImpl implements DashboardService {
             currentUser = (User) authentication.getPrincipal();
         }
 
-        if (currentUser != null && currentUser.getRole() == User.UserRole.MANAGER) {
-            // Manager: Department-specific statistics
-            User.Department department = currentUser.getDepartment();
-
-            // User statistics for department
-            List<User> departmentUsers = userRepository.findByDepartment(department);
-            long totalUsers = departmentUsers.size();
-            long activeUsers = departmentUsers.stream()
-                    .filter(user -> user.getStatus() == User.UserStatus.ACTIVE)
-                    .count();
-
-            // Leave statistics for department
-            List<Leave> departmentLeaves = leaveRepository.findAll().stream()
-                    .filter(leave -> leave.getUser().getDepartment() == department)
-                    .collect(Collectors.toList());
-            long totalLeaves = departmentLeaves.size();
-            long approvedLeaves = departmentLeaves.stream()
-                    .filter(leave -> leave.getStatus() == Leave.LeaveStatus.APPROVED)
-                    .count();
-            long pendingLeaves = departmentLeaves.stream()
-                    .filter(leave -> leave.getStatus() == Leave.LeaveStatus.PENDING)
-                    .count();
-
-            // Performance statistics for department
-            List<Performance> departmentPerformance = performanceRepository.findAll().stream()
-                    .filter(perf -> perf.getUser().getDepartment() == department)
-                    .collect(Collectors.toList());
-            long totalPerformance = departmentPerformance.size();
-            long completedPerformance = departmentPerformance.stream()
-                    .filter(perf -> perf.getStatus() == Performance.PerformanceStatus.COMPLETED)
-                    .count();
-
-            // Attendance statistics for department (today)
-            LocalDate today = LocalDate.now();
-            List<Attendance> departmentAttendance = attendanceRepository.findAll().stream()
-                    .filter(att -> att.getUser().getDepartment() == department && att.getDate().equals(today))
-                    .collect(Collectors.toList());
-            long presentToday = departmentAttendance.stream()
-                    .filter(att -> att.getStatus() == Attendance.AttendanceStatus.PRESENT)
-                    .count();
-            long absentToday = departmentAttendance.stream()
-                    .filter(att -> att.getStatus() == Attendance.AttendanceStatus.ABSENT)
-                    .count();
-            long halfDayToday = departmentAttendance.stream()
-                    .filter(att -> att.getStatus() == Attendance.AttendanceStatus.HALF_DAY)
-                    .count();
-            double attendanceRate = totalUsers > 0 ? (double) presentToday / totalUsers * 100 : 0;
-
-            statistics.put("totalUsers", totalUsers);
-            statistics.put("activeUsers", activeUsers);
-            statistics.put("totalLeaves", totalLeaves);
-            statistics.put("approvedLeaves", approvedLeaves);
-            statistics.put("pendingLeaves", pendingLeaves);
-            statistics.put("totalPerformance", totalPerformance);
-            statistics.put("completedPerformance", completedPerformance);
-            statistics.put("presentToday", presentToday);
-            statistics.put("absentToday", absentToday);
-            statistics.put("halfDayToday", halfDayToday);
-            statistics.put("attendanceRate", attendanceRate);
-
-        } else {
-            // Admin: Company-wide statistics
-            long totalUsers = userRepository.count();
-            long activeUsers = userRepository.countByStatus(User.UserStatus.ACTIVE);
-
-            // Leave statistics
-            long totalLeaves = leaveRepository.count();
-            long approvedLeaves = leaveRepository.countByStatus(Leave.LeaveStatus.APPROVED);
-            long pendingLeaves = leaveRepository.countByStatus(Leave.LeaveStatus.PENDING);
-
-            // Performance statistics
-            long totalPerformance = performanceRepository.count();
-            long completedPerformance = performanceRepository.countByStatus(Performance.PerformanceStatus.COMPLETED);
-
-            // Attendance statistics (today)
-            LocalDate today = LocalDate.now();
-            List<Attendance> todayAttendance = attendanceRepository.findAll().stream()
-                    .filter(att -> att.getDate().equals(today))
-                    .collect(Collectors.toList());
-            long presentToday = todayAttendance.stream()
-                    .filter(att -> att.getStatus() == Attendance.AttendanceStatus.PRESENT)
-                    .count();
-            long absentToday = todayAttendance.stream()
-                    .filter(att -> att.getStatus() == Attendance.AttendanceStatus.ABSENT)
-                    .count();
-            long halfDayToday = todayAttendance.stream()
-                    .filter(att -> att.getStatus() == Attendance.AttendanceStatus.HALF_DAY)
-                    .count();
-            double attendanceRate = totalUsers > 0 ? (double) presentToday / totalUsers * 100 : 0;
-
-            statistics.put("totalUsers", totalUsers);
-            statistics.put("activeUsers", activeUsers);
-            statistics.put("totalLeaves", totalLeaves);
-            statistics.put("approvedLeaves", approvedLeaves);
-            statistics.put("pendingLeaves", pendingLeaves);
-            statistics.put("totalPerformance", totalPerformance);
-            statistics.put("completedPerformance", completedPerformance);
-            statistics.put("presentToday", presentToday);
-            statistics.put("absentToday", absentToday);
-            statistics.put("halfDayToday", halfDayToday);
-            statistics.put("attendanceRate", attendanceRate);
-        }
+        // Managers see their department, everyone else sees company-wide figures
+        User.Department department = currentUser != null && currentUser.getRole() == User.UserRole.MANAGER
+                ? currentUser.getDepartment()
+                : null;
+
+        // User statistics
+        Map<User.UserStatus, Long> userCounts = new EnumMap<>(User.UserStatus.class);
+        userRepository.countGroupedByStatus(department)
+                .forEach(row -> userCounts.put(row.getStatus(), row.getTotal()));
+        long totalUsers = sum(userCounts);
+        long activeUsers = userCounts.getOrDefault(User.UserStatus.ACTIVE, 0L);
+
+        // Leave statistics
+        Map<Leave.LeaveStatus, Long> leaveCounts = new EnumMap<>(Leave.LeaveStatus.class);
+        leaveRepository.countGroupedByStatus(department)
+                .forEach(row -> leaveCounts.put(row.getStatus(), row.getTotal()));
+
+        // Performance statistics
+        Map<Performance.PerformanceStatus, Long> performanceCounts = new EnumMap<>(Performance.PerformanceStatus.class);
+        performanceRepository.countGroupedByStatus(department)
+                .forEach(row -> performanceCounts.put(row.getStatus(), row.getTotal()));
+
+        // Attendance statistics (today)
+        Map<Attendance.AttendanceStatus, Long> attendanceCounts = new EnumMap<>(Attendance.AttendanceStatus.class);
+        attendanceRepository.countByDateGroupedByStatus(LocalDate.now(), department)
+                .forEach(row -> attendanceCounts.put(row.getStatus(), row.getTotal()));
+        long presentToday = attendanceCounts.getOrDefault(Attendance.AttendanceStatus.PRESENT, 0L);
+        double attendanceRate = totalUsers > 0 ? (double) presentToday / totalUsers * 100 : 0;
+
+        return new DashboardStatistics(
+                totalUsers,
+                activeUsers,
+                sum(leaveCounts),
+                leaveCounts.getOrDefault(Leave.LeaveStatus.APPROVED, 0L),
+                leaveCounts.getOrDefault(Leave.LeaveStatus.PENDING, 0L),
+                sum(performanceCounts),
+                performanceCounts.getOrDefault(Performance.PerformanceStatus.COMPLETED, 0L),
+                presentToday,
+                attendanceCounts.getOrDefault(Attendance.AttendanceStatus.ABSENT, 0L),
+                attendanceCounts.getOrDefault(Attendance.AttendanceStatus.HALF_DAY, 0L),
+                attendanceRate);
+    }
 
-        return statistics;
+    private long sum(Map<?, Long> counts) {
+        return counts.values().stream().mapToLong(Long::longValue).sum();
     }
 }
\ No newline at end of file
@@ -0,0 +1,207 @@
+package com.hrm.system.service.impl;
+
+import com.hrm.system.entity.Leave;
+import com.hrm.system.entity.LeaveBalance;
+import com.hrm.system.repository.LeaveBalanceRepository;
+import com.hrm.system.repository.LeaveRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Keeps the LeaveBalance ledger in step with leave requests.
+ * Writers pass the leave before and after the change; pending and used days move between
+ * balance rows in the same transaction. A leave counts against the year it starts in.
+ */
+@Component
+public class LeaveBalanceLedger {
+
+    private static final Logger logger = LoggerFactory.getLogger(LeaveBalanceLedger.class);
+
+    /**
+     * The fields of a leave that feed the ledger
+     */
+    public record Entry(Long userId, Leave.LeaveType leaveType, int year, Leave.LeaveStatus status, int days) {
+
+        public static Entry of(Leave leave) {
+            return new Entry(leave.getUser().getId(), leave.getLeaveType(), leave.getStartDate().getYear(),
+                    leave.getStatus(), leave.getNumberOfDays());
+        }
+    }
+
+    private record Key(Long userId, Leave.LeaveType leaveType, int year) {
+    }
+
+    private final LeaveBalanceRepository balanceRepository;
+
+    private final LeaveRepository leaveRepository;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final Map<Leave.LeaveType, Integer> entitlements = new EnumMap<>(Leave.LeaveType.class);
+
+    public LeaveBalanceLedger(LeaveBalanceRepository balanceRepository,
+                              LeaveRepository leaveRepository,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${app.leave.default-annual-leaves:21}") int annualLeaves,
+                              @Value("${app.leave.default-sick-leaves:10}") int sickLeaves,
+                              @Value("${app.leave.default-personal-leaves:5}") int personalLeaves) {
+        this.balanceRepository = balanceRepository;
+        this.leaveRepository = leaveRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        entitlements.put(Leave.LeaveType.ANNUAL, annualLeaves);
+        entitlements.put(Leave.LeaveType.SICK, sickLeaves);
+        entitlements.put(Leave.LeaveType.PERSONAL, personalLeaves);
+    }
+
+    /**
+     * Apply the change of one leave to the ledger. Pass null for a leave that was created or deleted.
+     * Must run inside the transaction writing the leave; fails when a request would exceed its entitlement.
+     */
+    public void apply(Entry before, Entry after) {
+        applyAll(before != null ? List.of(before) : List.of(), after != null ? List.of(after) : List.of());
+    }
+
+    /**
+     * Apply the change of several leaves at once, reading and writing each affected balance row once
+     */
+    public void applyAll(Collection<Entry> before, Collection<Entry> after) {
+        Map<Key, int[]> deltas = new LinkedHashMap<>();
+        before.forEach(entry -> add(deltas, entry, -1));
+        after.forEach(entry -> add(deltas, entry, 1));
+        deltas.values().removeIf(delta -> delta[0] == 0 && delta[1] == 0);
+        if (deltas.isEmpty()) {
+            return;
+        }
+
+        Map<Key, LeaveBalance> balances = load(deltas.keySet());
+        deltas.forEach((key, delta) -> move(key, balances.get(key), delta[0], delta[1]));
+        try {
+            balanceRepository.saveAllAndFlush(balances.values());
+        } catch (OptimisticLockingFailureException | DataIntegrityViolationException e) {
+            // A concurrent update bumped the version, or a concurrent first request inserted the same new row
+            throw new RuntimeException("Leave balance was changed by another request, please retry", e);
+        }
+    }
+
+    private static void add(Map<Key, int[]> deltas, Entry entry, int sign) {
+        int[] delta = deltas.computeIfAbsent(new Key(entry.userId(), entry.leaveType(), entry.year()), key -> new int[2]);
+        if (entry.status() == Leave.LeaveStatus.PENDING) {
+            delta[0] += sign * entry.days();
+        } else if (entry.status() == Leave.LeaveStatus.APPROVED) {
+            delta[1] += sign * entry.days();
+        }
+    }
+
+    /**
+     * Balance rows for the given keys: a keyed read for one, a single query for several
+     */
+    private Map<Key, LeaveBalance> load(Set<Key> keys) {
+        Map<Key, LeaveBalance> balances = new LinkedHashMap<>();
+        if (keys.size() == 1) {
+            Key key = keys.iterator().next();
+            balanceRepository.findByUserIdAndLeaveTypeAndYear(key.userId(), key.leaveType(), key.year())
+                    .ifPresent(balance -> balances.put(key, balance));
+        } else {
+            Set<Long> userIds = new HashSet<>();
+            Set<Integer> years = new HashSet<>();
+            keys.forEach(key -> {
+                userIds.add(key.userId());
+                years.add(key.year());
+            });
+            for (LeaveBalance balance : balanceRepository.findByUserIdInAndYearIn(userIds, years)) {
+                Key key = new Key(balance.getUserId(), balance.getLeaveType(), balance.getYear());
+                if (keys.contains(key)) {
+                    balances.put(key, balance);
+                }
+            }
+        }
+        keys.forEach(key -> balances.computeIfAbsent(key, this::newBalance));
+        return balances;
+    }
+
+    private static void move(Key key, LeaveBalance balance, int pendingDelta, int usedDelta) {
+        balance.setPendingDays(balance.getPendingDays() + pendingDelta);
+        balance.setUsedDays(balance.getUsedDays() + usedDelta);
+
+        // Moving days from pending to used never needs more balance
+        Integer remaining = balance.getRemainingDays();
+        if (pendingDelta + usedDelta > 0 && remaining != null && remaining < 0) {
+            throw new RuntimeException("Insufficient " + key.leaveType() + " leave balance for " + key.year() + ": "
+                    + (pendingDelta + usedDelta) + " days requested, " + (remaining + pendingDelta + usedDelta) + " available");
+        }
+    }
+
+    private LeaveBalance newBalance(Key key) {
+        LeaveBalance balance = new LeaveBalance();
+        balance.setUserId(key.userId());
+        balance.setLeaveType(key.leaveType());
+        balance.setYear(key.year());
+        balance.setEntitledDays(entitlements.get(key.leaveType()));
+        return balance;
+    }
+
+    /**
+     * A user's balances for a year, including capped leave types that have not been used yet
+     */
+    public List<LeaveBalance> balances(Long userId, int year) {
+        Map<Leave.LeaveType, LeaveBalance> byType = new EnumMap<>(Leave.LeaveType.class);
+        for (LeaveBalance balance : balanceRepository.findByUserIdAndYearOrderByLeaveType(userId, year)) {
+            byType.put(balance.getLeaveType(), balance);
+        }
+        for (Leave.LeaveType leaveType : entitlements.keySet()) {
+            byType.computeIfAbsent(leaveType, type -> newBalance(new Key(userId, type, year)));
+        }
+        return new ArrayList<>(byType.values());
+    }
+
+    /**
+     * A user's balance for one leave type and year
+     */
+    public LeaveBalance balance(Long userId, Leave.LeaveType leaveType, int year) {
+        return balanceRepository.findByUserIdAndLeaveTypeAndYear(userId, leaveType, year)
+                .orElseGet(() -> newBalance(new Key(userId, leaveType, year)));
+    }
+
+    /**
+     * Build the ledger from pending and approved leaves when it has never been populated
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillIfEmpty() {
+        if (balanceRepository.count() > 0) {
+            return;
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            Map<Key, LeaveBalance> balances = new LinkedHashMap<>();
+            for (Leave leave : leaveRepository.findWithUserByStatusIn(List.of(Leave.LeaveStatus.PENDING, Leave.LeaveStatus.APPROVED))) {
+                Entry entry = Entry.of(leave);
+                LeaveBalance balance = balances.computeIfAbsent(new Key(entry.userId(), entry.leaveType(), entry.year()), this::newBalance);
+                if (entry.status() == Leave.LeaveStatus.PENDING) {
+                    balance.setPendingDays(balance.getPendingDays() + entry.days());
+                } else {
+                    balance.setUsedDays(balance.getUsedDays() + entry.days());
+                }
+            }
+            balanceRepository.saveAll(balances.values());
+            if (!balances.isEmpty()) {
+                logger.info("Leave balance ledger backfilled with {} balances", balances.size());
+            }
+        });
+    }
+}
@@ -0,0 +1,298 @@
+package com.hrm.system.service.impl;
+
+import com.hrm.system.entity.Leave;
+import com.hrm.system.entity.User;
+import com.hrm.system.repository.LeaveRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * In-memory interval index of pending and approved leaves per department.
+ * Each department holds an immutable interval tree that is rebuilt and swapped in when one of its leaves changes,
+ * so readers never lock. Changes are applied once the writing transaction commits.
+ */
+@Component
+public class LeaveCalendarIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(LeaveCalendarIndex.class);
+
+    private static final List<Leave.LeaveStatus> INDEXED_STATUSES = List.of(Leave.LeaveStatus.PENDING, Leave.LeaveStatus.APPROVED);
+
+    public record LeaveInterval(Long leaveId, Long userId, String employeeName, User.Department department,
+                                Leave.LeaveType leaveType, Leave.LeaveStatus status, LocalDate startDate, LocalDate endDate) {
+
+        static LeaveInterval of(Leave leave) {
+            User user = leave.getUser();
+            return new LeaveInterval(leave.getId(), user.getId(), user.getFullName(), user.getDepartment(),
+                    leave.getLeaveType(), leave.getStatus(), leave.getStartDate(), leave.getEndDate());
+        }
+    }
+
+    /**
+     * Leaves on one day of a calendar window
+     */
+    public record DayCount(LocalDate date, int approved, int pending) {
+    }
+
+    @Autowired
+    private LeaveRepository leaveRepository;
+
+    /** Latest interval of every indexed leave, guarded by this */
+    private final Map<Long, LeaveInterval> intervals = new HashMap<>();
+
+    private volatile Map<User.Department, IntervalTree> trees = new HashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void warm() {
+        intervals.clear();
+        for (Leave leave : leaveRepository.findWithUserByStatusIn(INDEXED_STATUSES)) {
+            intervals.put(leave.getId(), LeaveInterval.of(leave));
+        }
+        Map<User.Department, List<LeaveInterval>> byDepartment = new HashMap<>();
+        for (LeaveInterval interval : intervals.values()) {
+            byDepartment.computeIfAbsent(interval.department(), department -> new ArrayList<>()).add(interval);
+        }
+        Map<User.Department, IntervalTree> rebuilt = new HashMap<>();
+        byDepartment.forEach((department, values) -> rebuilt.put(department, new IntervalTree(values)));
+        trees = rebuilt;
+        logger.info("Leave calendar index warmed with {} pending and approved leaves", intervals.size());
+    }
+
+    /**
+     * Pending and approved leaves overlapping a date window, for one department or all when null
+     */
+    public List<LeaveInterval> overlapping(User.Department department, LocalDate from, LocalDate to) {
+        List<LeaveInterval> result = new ArrayList<>();
+        forEachOverlapping(department, from, to, result::add);
+        result.sort(Comparator.comparing(LeaveInterval::startDate).thenComparing(LeaveInterval::leaveId));
+        return result;
+    }
+
+    /**
+     * Approved and pending leave counts for every day of a window, for one department or all when null
+     */
+    public List<DayCount> dayCounts(User.Department department, LocalDate from, LocalDate to) {
+        int days = (int) ChronoUnit.DAYS.between(from, to) + 1;
+        int[] approved = new int[days + 1];
+        int[] pending = new int[days + 1];
+
+        // Difference arrays: +1 on the first covered day, -1 on the day after the last
+        forEachOverlapping(department, from, to, interval -> {
+            int first = (int) ChronoUnit.DAYS.between(from, interval.startDate().isBefore(from) ? from : interval.startDate());
+            int last = (int) ChronoUnit.DAYS.between(from, interval.endDate().isAfter(to) ? to : interval.endDate());
+            int[] counts = interval.status() == Leave.LeaveStatus.APPROVED ? approved : pending;
+            counts[first]++;
+            counts[last + 1]--;
+        });
+
+        List<DayCount> result = new ArrayList<>(days);
+        int runningApproved = 0;
+        int runningPending = 0;
+        for (int day = 0; day < days; day++) {
+            runningApproved += approved[day];
+            runningPending += pending[day];
+            result.add(new DayCount(from.plusDays(day), runningApproved, runningPending));
+        }
+        return result;
+    }
+
+    private void forEachOverlapping(User.Department department, LocalDate from, LocalDate to, Consumer<LeaveInterval> consumer) {
+        if (department != null) {
+            IntervalTree tree = trees.get(department);
+            if (tree != null) {
+                tree.collect(from, to, consumer);
+            }
+            return;
+        }
+        for (IntervalTree tree : trees.values()) {
+            tree.collect(from, to, consumer);
+        }
+    }
+
+    /**
+     * Reflect a created or changed leave once its transaction commits
+     */
+    public void record(Leave leave) {
+        recordAll(List.of(leave));
+    }
+
+    /**
+     * Reflect several changed leaves once their transaction commits, rebuilding each affected department once
+     */
+    public void recordAll(Collection<Leave> leaves) {
+        Map<Long, LeaveInterval> changes = new HashMap<>();
+        for (Leave leave : leaves) {
+            LeaveInterval interval = LeaveInterval.of(leave);
+            changes.put(interval.leaveId(), INDEXED_STATUSES.contains(interval.status()) ? interval : null);
+        }
+        afterCommit(() -> apply(changes));
+    }
+
+    /**
+     * Forget a deleted leave once its transaction commits
+     */
+    public void remove(Long leaveId) {
+        Map<Long, LeaveInterval> changes = new HashMap<>();
+        changes.put(leaveId, null);
+        afterCommit(() -> apply(changes));
+    }
+
+    /**
+     * Carry a user's name and department change over to their leaves once the transaction commits
+     */
+    public void userChanged(User user) {
+        Long userId = user.getId();
+        String employeeName = user.getFullName();
+        User.Department department = user.getDepartment();
+        afterCommit(() -> {
+            synchronized (this) {
+                Set<User.Department> touched = new HashSet<>();
+                intervals.replaceAll((leaveId, interval) -> {
+                    if (!interval.userId().equals(userId)) {
+                        return interval;
+                    }
+                    touched.add(interval.department());
+                    touched.add(department);
+                    return new LeaveInterval(leaveId, userId, employeeName, department, interval.leaveType(),
+                            interval.status(), interval.startDate(), interval.endDate());
+                });
+                rebuild(touched);
+            }
+        });
+    }
+
+    /**
+     * Put or, for a null interval, remove each leave and rebuild the departments involved
+     */
+    private synchronized void apply(Map<Long, LeaveInterval> changes) {
+        Set<User.Department> touched = new HashSet<>();
+        changes.forEach((leaveId, interval) -> {
+            LeaveInterval previous = interval != null ? intervals.put(leaveId, interval) : intervals.remove(leaveId);
+            if (previous != null) {
+                touched.add(previous.department());
+            }
+            if (interval != null) {
+                touched.add(interval.department());
+            }
+        });
+        rebuild(touched);
+    }
+
+    /**
+     * Rebuild the trees of the given departments and publish them together. Caller holds the lock.
+     */
+    private void rebuild(Set<User.Department> departments) {
+        if (departments.isEmpty()) {
+            return;
+        }
+        Map<User.Department, IntervalTree> next = new HashMap<>(trees);
+        for (User.Department department : departments) {
+            List<LeaveInterval> values = intervals.values().stream()
+                    .filter(interval -> Objects.equals(interval.department(), department))
+                    .toList();
+            if (values.isEmpty()) {
+                next.remove(department);
+            } else {
+                next.put(department, new IntervalTree(values));
+            }
+        }
+        trees = next;
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    /**
+     * Intervals sorted by start date, laid out as an implicit balanced tree where every node
+     * also records the latest end date in its subtree. A query only descends into subtrees
+     * that can still hold an overlapping interval.
+     */
+    private static final class IntervalTree {
+
+        private final LeaveInterval[] nodes;
+
+        private final LocalDate[] maxEnd;
+
+        IntervalTree(Collection<LeaveInterval> values) {
+            nodes = values.toArray(new LeaveInterval[0]);
+            Arrays.sort(nodes, Comparator.comparing(LeaveInterval::startDate).thenComparing(LeaveInterval::leaveId));
+            maxEnd = new LocalDate[nodes.length];
+            if (nodes.length > 0) {
+                build(0, nodes.length - 1);
+            }
+        }
+
+        private LocalDate build(int low, int high) {
+            int mid = (low + high) >>> 1;
+            LocalDate max = nodes[mid].endDate();
+            if (low < mid) {
+                LocalDate left = build(low, mid - 1);
+                max = left.isAfter(max) ? left : max;
+            }
+            if (mid < high) {
+                LocalDate right = build(mid + 1, high);
+                max = right.isAfter(max) ? right : max;
+            }
+            maxEnd[mid] = max;
+            return max;
+        }
+
+        void collect(LocalDate from, LocalDate to, Consumer<LeaveInterval> consumer) {
+            if (nodes.length > 0) {
+                collect(0, nodes.length - 1, from, to, consumer);
+            }
+        }
+
+        private void collect(int low, int high, LocalDate from, LocalDate to, Consumer<LeaveInterval> consumer) {
+            int mid = (low + high) >>> 1;
+            // Nothing in this subtree is still running on the first day of the window
+            if (maxEnd[mid].isBefore(from)) {
+                return;
+            }
+            if (low < mid) {
+                collect(low, mid - 1, from, to, consumer);
+            }
+            LeaveInterval node = nodes[mid];
+            // This node and everything to its right start after the window
+            if (node.startDate().isAfter(to)) {
+                return;
+            }
+            if (!node.endDate().isBefore(from)) {
+                consumer.accept(node);
+            }
+            if (mid < high) {
+                collect(mid + 1, high, from, to, consumer);
+            }
+        }
+    }
+}
@@ -1,22 +1,36 @@
 package com.hrm.system.service.impl;
 
+import com.hrm.system.dto.CursorPage;
 import com.hrm.system.dto.LeaveDto;
 import com.hrm.system.entity.Leave;
 import com.hrm.system.entity.User;
+import com.hrm.system.repository.KeysetCursor;
 import com.hrm.system.repository.LeaveRepository;
+import com.hrm.system.repository.LeaveSpecifications;
+import com.hrm.system.repository.ProjectionQueries;
 import com.hrm.system.repository.UserRepository;
+import com.hrm.system.service.ActivityLogService;
 import com.hrm.system.service.LeaveService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -25,12 +39,32 @@ import org.springframework.security.core.context.SecurityContextHolder;
 @Transactional
 public class LeaveServiceImpl implements LeaveService {
     
+    private static final Logger logger = LoggerFactory.getLogger(LeaveServiceImpl.class);
+    
+    private static final Set<String> SCROLL_SORT_FIELDS = Set.of("startDate", "endDate", "id");
+    
+    private static final int MAX_CALENDAR_DAYS = 366;
+    
+    private static final int MAX_BATCH_SIZE = 500;
+    
     @Autowired
     private LeaveRepository leaveRepository;
     
     @Autowired
     private UserRepository userRepository;
     
+    @Autowired
+    private ActivityLogService activityLogService;
+    
+    @Autowired
+    private ProjectionQueries projectionQueries;
+    
+    @Autowired
+    private LeaveCalendarIndex calendarIndex;
+    
+    @Autowired
+    private LeaveBalanceLedger balanceLedger;
+    
     @Override
     public LeaveDto createLeave(LeaveDto leaveDto) {
         // Validate user exists
@@ -38,6 +72,7 @@ public class LeaveServiceImpl implements LeaveService {
         if (user.isEmpty()) {
             throw new RuntimeException("User not found with ID: " + leaveDto.getUserId());
         }
+        rejectOverlap(user.get(), leaveDto.getStartDate(), leaveDto.getEndDate(), null);
         
         Leave leave = new Leave();
         leave.setUser(user.get());
@@ -50,125 +85,80 @@ public class LeaveServiceImpl implements LeaveService {
         // Number of days will be calculated automatically by getNumberOfDays() method
         
         Leave savedLeave = leaveRepository.save(leave);
+        balanceLedger.apply(null, LeaveBalanceLedger.Entry.of(savedLeave));
+        calendarIndex.record(savedLeave);
         return new LeaveDto(savedLeave);
     }
     
     @Override
+    @Transactional(readOnly = true)
     public Page<LeaveDto> getAllLeaves(Pageable pageable) {
-        return leaveRepository.findAll(pageable).map(LeaveDto::new);
+        return projectionQueries.findPage(ProjectionQueries.LEAVE, null, pageable);
     }
     
     @Override
+    @Transactional(readOnly = true)
     public Page<LeaveDto> getAllLeavesWithFilters(Pageable pageable, Long userId, Leave.LeaveType leaveType, Leave.LeaveStatus status, String startDate, String endDate, String query) {
-        // Get current user for role-based filtering
+        Specification<Leave> filter = buildFilter(userId, leaveType, status, startDate, endDate, query);
+        return projectionQueries.findPage(ProjectionQueries.LEAVE, filter, pageable);
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<LeaveDto> scrollLeavesWithFilters(String cursor, String sortBy, Sort.Direction direction, int size, Long userId, Leave.LeaveType leaveType, Leave.LeaveStatus status, String startDate, String endDate, String query) {
+        KeysetCursor position = KeysetCursor.decode(cursor, sortBy, direction, SCROLL_SORT_FIELDS);
+        Specification<Leave> filter = buildFilter(userId, leaveType, status, startDate, endDate, query);
+        List<LeaveDto> rows = projectionQueries.findAll(ProjectionQueries.LEAVE, filter.and(position.remaining()), position.sort(), size + 1);
+        return CursorPage.of(rows, size, position, row -> row);
+    }
+    
+    /**
+     * Compose the predicates for the filters that are present.
+     * Managers are always scoped to their own department.
+     */
+    private Specification<Leave> buildFilter(Long userId, Leave.LeaveType leaveType, Leave.LeaveStatus status, String startDate, String endDate, String query) {
         Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-        User current = null;
-        if (auth != null && auth.getPrincipal() instanceof User) {
-            current = (User) auth.getPrincipal();
+        User.Department department = null;
+        if (auth != null && auth.getPrincipal() instanceof User current && current.getRole() == User.UserRole.MANAGER) {
+            department = current.getDepartment();
         }
-
-        // Debug logging
-        System.out.println("=== DEBUG: getAllLeavesWithFilters ===");
-        System.out.println("Current user: " + (current != null ? current.getFullName() : "null"));
-        System.out.println("Current user role: " + (current != null ? current.getRole() : "null"));
-        System.out.println("Current user department: " + (current != null ? current.getDepartment() : "null"));
-        System.out.println("Filters - userId: " + userId + ", leaveType: " + leaveType + ", status: " + status + ", query: " + query);
-
-        // Manager department scoping - apply to all manager queries
-        if (current != null && current.getRole() == User.UserRole.MANAGER) {
-            User.Department managerDept = current.getDepartment();
-            System.out.println("Manager department filtering applied: " + managerDept);
-            
-            // If manager has specific filters, apply them with department scope
-            if (userId != null && leaveType != null && status != null && startDate != null && endDate != null && query != null) {
-                // All filters provided with department scope
-                LocalDate start = LocalDate.parse(startDate);
-                LocalDate end = LocalDate.parse(endDate);
-                return leaveRepository.findByUser_DepartmentAndUserIdAndLeaveTypeAndStatusAndStartDateBetweenAndReasonContainingIgnoreCase(
-                    managerDept, userId, leaveType, status, start, end, query, pageable).map(LeaveDto::new);
-            } else if (userId != null && leaveType != null && status != null) {
-                // User, type, and status filters with department scope
-                return leaveRepository.findByUser_DepartmentAndUserIdAndLeaveTypeAndStatus(managerDept, userId, leaveType, status, pageable)
-                        .map(LeaveDto::new);
-            } else if (userId != null && leaveType != null) {
-                // User and type filters with department scope
-                return leaveRepository.findByUser_DepartmentAndUserIdAndLeaveType(managerDept, userId, leaveType, pageable)
-                        .map(LeaveDto::new);
-            } else if (userId != null && status != null) {
-                // User and status filters with department scope
-                return leaveRepository.findByUser_DepartmentAndUserIdAndStatus(managerDept, userId, status, pageable)
-                        .map(LeaveDto::new);
-            } else if (leaveType != null && status != null) {
-                // Type and status filters with department scope
-                return leaveRepository.findByUser_DepartmentAndLeaveTypeAndStatus(managerDept, leaveType, status, pageable)
-                        .map(LeaveDto::new);
-            } else if (userId != null) {
-                // User filter only with department scope
-                return leaveRepository.findByUser_DepartmentAndUserId(managerDept, userId, pageable)
-                        .map(LeaveDto::new);
-            } else if (leaveType != null) {
-                // Type filter only with department scope
-                return leaveRepository.findByUser_DepartmentAndLeaveType(managerDept, leaveType, pageable)
-                        .map(LeaveDto::new);
-            } else if (status != null) {
-                // Status filter only with department scope
-                return leaveRepository.findByUser_DepartmentAndStatus(managerDept, status, pageable)
-                        .map(LeaveDto::new);
-            } else if (query != null) {
-                // Search query only with department scope
-                return leaveRepository.findByUser_DepartmentAndReasonContainingIgnoreCase(managerDept, query, pageable)
-                        .map(LeaveDto::new);
-            } else {
-                // No filters, return all leaves from manager's department
-                System.out.println("No filters provided, returning all leaves for department: " + managerDept);
-                return leaveRepository.findByUser_Department(managerDept, pageable).map(LeaveDto::new);
-            }
+        
+        LocalDate from = parseDate(startDate);
+        LocalDate to = parseDate(endDate);
+        String text = query != null && !query.isBlank() ? query.trim() : null;
+        
+        List<Specification<Leave>> predicates = new ArrayList<>();
+        if (department != null) {
+            predicates.add(LeaveSpecifications.inDepartment(department));
         }
-
-        System.out.println("Admin or no role - applying filters without department restriction");
-        // Admin or no role - apply filters without department restriction
-        if (userId != null && leaveType != null && status != null && startDate != null && endDate != null && query != null) {
-            // All filters provided
-            LocalDate start = LocalDate.parse(startDate);
-            LocalDate end = LocalDate.parse(endDate);
-            return leaveRepository.findByUserIdAndLeaveTypeAndStatusAndStartDateBetweenAndReasonContainingIgnoreCase(userId, leaveType, status, start, end, query, pageable)
-                    .map(LeaveDto::new);
-        } else if (userId != null && leaveType != null && status != null) {
-            // User, type, and status filters
-            return leaveRepository.findByUserIdAndLeaveTypeAndStatus(userId, leaveType, status, pageable)
-                    .map(LeaveDto::new);
-        } else if (userId != null && leaveType != null) {
-            // User and type filters
-            return leaveRepository.findByUserIdAndLeaveType(userId, leaveType, pageable)
-                    .map(LeaveDto::new);
-        } else if (userId != null && status != null) {
-            // User and status filters
-            return leaveRepository.findByUserIdAndStatus(userId, status, pageable)
-                    .map(LeaveDto::new);
-        } else if (leaveType != null && status != null) {
-            // Type and status filters
-            return leaveRepository.findByLeaveTypeAndStatus(leaveType, status, pageable)
-                    .map(LeaveDto::new);
-        } else if (userId != null) {
-            // User filter only
-            return leaveRepository.findByUserId(userId, pageable)
-                    .map(LeaveDto::new);
-        } else if (leaveType != null) {
-            // Type filter only
-            return leaveRepository.findByLeaveType(leaveType, pageable)
-                    .map(LeaveDto::new);
-        } else if (status != null) {
-            // Status filter only
-            return leaveRepository.findByStatus(status, pageable)
-                    .map(LeaveDto::new);
-        } else if (query != null) {
-            // Search query only
-            return leaveRepository.findByReasonContainingIgnoreCase(query, pageable)
-                    .map(LeaveDto::new);
-        } else {
-            // No filters, return all (admin)
-            return leaveRepository.findAll(pageable).map(LeaveDto::new);
+        if (userId != null) {
+            predicates.add(LeaveSpecifications.forUser(userId));
+        }
+        if (leaveType != null) {
+            predicates.add(LeaveSpecifications.hasLeaveType(leaveType));
+        }
+        if (status != null) {
+            predicates.add(LeaveSpecifications.hasStatus(status));
+        }
+        // A date range matches any leave overlapping it
+        if (from != null) {
+            predicates.add(LeaveSpecifications.endsOnOrAfter(from));
         }
+        if (to != null) {
+            predicates.add(LeaveSpecifications.startsOnOrBefore(to));
+        }
+        if (text != null) {
+            predicates.add(LeaveSpecifications.reasonContains(text));
+        }
+        
+        logger.debug("Leave filter department={} userId={} leaveType={} status={} from={} to={} query={}",
+                department, userId, leaveType, status, from, to, text);
+        
+        return Specification.allOf(predicates);
+    }
+    
+    private static LocalDate parseDate(String value) {
+        return value != null && !value.isBlank() ? LocalDate.parse(value.trim()) : null;
     }
     
     @Override
@@ -184,6 +174,10 @@ public class LeaveServiceImpl implements LeaveService {
         }
         
         Leave leave = existingLeave.get();
+        if (leave.getStatus() == Leave.LeaveStatus.PENDING || leave.getStatus() == Leave.LeaveStatus.APPROVED) {
+            rejectOverlap(leave.getUser(), leaveDto.getStartDate(), leaveDto.getEndDate(), id);
+        }
+        LeaveBalanceLedger.Entry before = LeaveBalanceLedger.Entry.of(leave);
         leave.setLeaveType(leaveDto.getLeaveType());
         leave.setStartDate(leaveDto.getStartDate());
         leave.setEndDate(leaveDto.getEndDate());
@@ -192,15 +186,34 @@ public class LeaveServiceImpl implements LeaveService {
         // Number of days will be calculated automatically by getNumberOfDays() method
         
         Leave updatedLeave = leaveRepository.save(leave);
+        balanceLedger.apply(before, LeaveBalanceLedger.Entry.of(updatedLeave));
+        calendarIndex.record(updatedLeave);
         return new LeaveDto(updatedLeave);
     }
     
+    /**
+     * Refuse a leave that overlaps another pending or approved leave of the same user.
+     * The user row is locked first so two concurrent requests of one user cannot both pass the check.
+     */
+    private void rejectOverlap(User user, LocalDate startDate, LocalDate endDate, Long excludingLeaveId) {
+        if (startDate == null || endDate == null) {
+            return;
+        }
+        userRepository.findByIdForUpdate(user.getId());
+        if (leaveRepository.existsOverlapping(user.getId(), startDate, endDate, excludingLeaveId)) {
+            throw new RuntimeException("Leave overlaps an existing pending or approved leave from " + startDate + " to " + endDate);
+        }
+    }
+    
     @Override
     public void deleteLeave(Long id) {
-        if (!leaveRepository.existsById(id)) {
+        Optional<Leave> leave = leaveRepository.findById(id);
+        if (leave.isEmpty()) {
             throw new RuntimeException("Leave not found with ID: " + id);
         }
-        leaveRepository.deleteById(id);
+        balanceLedger.apply(LeaveBalanceLedger.Entry.of(leave.get()), null);
+        leaveRepository.delete(leave.get());
+        calendarIndex.remove(id);
     }
     
     @Override
@@ -242,12 +255,57 @@ public class LeaveServiceImpl implements LeaveService {
     
     @Override
     public List<LeaveDto> getLeavesByDateRange(LocalDate startDate, LocalDate endDate) {
-        return leaveRepository.findByDateRange(startDate.atStartOfDay(), endDate.atTime(23, 59, 59))
+        return leaveRepository.findByDateRange(startDate, endDate)
                 .stream()
                 .map(LeaveDto::new)
                 .collect(Collectors.toList());
     }
     
+    @Override
+    @Transactional(readOnly = true)
+    public List<LeaveCalendarDay> getLeaveCalendar(String department, LocalDate startDate, LocalDate endDate) {
+        User.Department scope = calendarScope(department, startDate, endDate);
+        return calendarIndex.dayCounts(scope, startDate, endDate)
+                .stream()
+                .map(day -> new LeaveCalendarDay(day.date(), day.approved(), day.pending()))
+                .collect(Collectors.toList());
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public List<LeaveOff> getLeavesOff(String department, LocalDate startDate, LocalDate endDate) {
+        User.Department scope = calendarScope(department, startDate, endDate);
+        return calendarIndex.overlapping(scope, startDate, endDate)
+                .stream()
+                .map(off -> new LeaveOff(off.leaveId(), off.userId(), off.employeeName(), off.department(),
+                        off.leaveType(), off.status(), off.startDate(), off.endDate()))
+                .collect(Collectors.toList());
+    }
+    
+    /**
+     * Department a calendar query covers: admins may pick one or see all, everyone else sees their own
+     */
+    private User.Department calendarScope(String department, LocalDate startDate, LocalDate endDate) {
+        if (endDate.isBefore(startDate)) {
+            throw new RuntimeException("End date must not be before start date");
+        }
+        if (ChronoUnit.DAYS.between(startDate, endDate) >= MAX_CALENDAR_DAYS) {
+            throw new RuntimeException("Calendar range must not exceed " + MAX_CALENDAR_DAYS + " days");
+        }
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth != null && auth.getPrincipal() instanceof User current && current.getRole() != User.UserRole.ADMIN) {
+            return current.getDepartment();
+        }
+        if (department == null || department.isBlank()) {
+            return null;
+        }
+        try {
+            return User.Department.valueOf(department.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new RuntimeException("Invalid department: " + department);
+        }
+    }
+    
     @Override
     public LeaveDto approveLeave(Long id) {
         Optional<Leave> leave = leaveRepository.findById(id);
@@ -256,37 +314,8 @@ public class LeaveServiceImpl implements LeaveService {
         }
         Leave existingLeave = leave.get();
 
-        // Authorization:
-        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-        if (auth == null || !(auth.getPrincipal() instanceof User)) {
-            throw new RuntimeException("Unauthorized: User not authenticated.");
-        }
-        User currentUser = (User) auth.getPrincipal();
-        User leaveRequester = existingLeave.getUser();
-
-        // Debugging
-        System.out.println("DEBUG: Approving Leave - Current User: " + currentUser.getFullName() + " (" + currentUser.getRole() + ", Dept: " + currentUser.getDepartment() + ")");
-        System.out.println("DEBUG: Approving Leave - Leave Requester: " + leaveRequester.getFullName() + " (" + leaveRequester.getRole() + ", Dept: " + leaveRequester.getDepartment() + ")");
-
-        boolean authorized = false;
-        if (leaveRequester.getRole() == User.UserRole.MANAGER) {
-            // If leave is from a Manager, only an Admin can approve
-            if (currentUser.getRole() == User.UserRole.ADMIN) {
-                authorized = true;
-            }
-        } else if (leaveRequester.getRole() == User.UserRole.ADMIN) {
-            // If leave is from an Admin, only another Admin can approve (not self)
-            if (currentUser.getRole() == User.UserRole.ADMIN && !currentUser.getId().equals(leaveRequester.getId())) {
-                authorized = true;
-            }
-        } else { // Employee role
-            // If leave is from an Employee, only Manager of same department can approve
-            if (currentUser.getRole() == User.UserRole.MANAGER && currentUser.getDepartment() == leaveRequester.getDepartment()) {
-                authorized = true;
-            }
-        }
-
-        if (!authorized) {
+        User currentUser = currentUser();
+        if (!canDecide(currentUser, existingLeave.getUser())) {
             throw new SecurityException("You are not authorized to approve this leave request.");
         }
 
@@ -294,11 +323,15 @@ public class LeaveServiceImpl implements LeaveService {
             throw new RuntimeException("Leave request is not in PENDING status and cannot be approved.");
         }
 
+        LeaveBalanceLedger.Entry before = LeaveBalanceLedger.Entry.of(existingLeave);
         existingLeave.setStatus(Leave.LeaveStatus.APPROVED);
         existingLeave.setApprovedBy(currentUser);
         existingLeave.setApprovedAt(LocalDateTime.now());
         existingLeave.setApprovalComments("Approved");
         Leave updatedLeave = leaveRepository.save(existingLeave);
+        balanceLedger.apply(before, LeaveBalanceLedger.Entry.of(updatedLeave));
+        calendarIndex.record(updatedLeave);
+        activityLogService.logLeaveDecision(updatedLeave);
         return new LeaveDto(updatedLeave);
     }
 
@@ -310,37 +343,8 @@ public class LeaveServiceImpl implements LeaveService {
         }
         Leave existingLeave = leave.get();
 
-        // Authorization:
-        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-        if (auth == null || !(auth.getPrincipal() instanceof User)) {
-            throw new RuntimeException("Unauthorized: User not authenticated.");
-        }
-        User currentUser = (User) auth.getPrincipal();
-        User leaveRequester = existingLeave.getUser();
-
-        // Debugging
-        System.out.println("DEBUG: Rejecting Leave - Current User: " + currentUser.getFullName() + " (" + currentUser.getRole() + ", Dept: " + currentUser.getDepartment() + ")");
-        System.out.println("DEBUG: Rejecting Leave - Leave Requester: " + leaveRequester.getFullName() + " (" + leaveRequester.getRole() + ", Dept: " + leaveRequester.getDepartment() + ")");
-
-        boolean authorized = false;
-        if (leaveRequester.getRole() == User.UserRole.MANAGER) {
-            // If leave is from a Manager, only an Admin can reject
-            if (currentUser.getRole() == User.UserRole.ADMIN) {
-                authorized = true;
-            }
-        } else if (leaveRequester.getRole() == User.UserRole.ADMIN) {
-            // If leave is from an Admin, only another Admin can reject (not self)
-            if (currentUser.getRole() == User.UserRole.ADMIN && !currentUser.getId().equals(leaveRequester.getId())) {
-                authorized = true;
-            }
-        } else { // Employee role
-            // If leave is from an Employee, only Manager of same department can reject
-            if (currentUser.getRole() == User.UserRole.MANAGER && currentUser.getDepartment() == leaveRequester.getDepartment()) {
-                authorized = true;
-            }
-        }
-
-        if (!authorized) {
+        User currentUser = currentUser();
+        if (!canDecide(currentUser, existingLeave.getUser())) {
             throw new SecurityException("You are not authorized to reject this leave request.");
         }
 
@@ -348,14 +352,95 @@ public class LeaveServiceImpl implements LeaveService {
             throw new RuntimeException("Leave request is not in PENDING status and cannot be rejected.");
         }
 
+        LeaveBalanceLedger.Entry before = LeaveBalanceLedger.Entry.of(existingLeave);
         existingLeave.setStatus(Leave.LeaveStatus.REJECTED);
         existingLeave.setApprovedBy(currentUser);
         existingLeave.setApprovedAt(LocalDateTime.now());
         existingLeave.setApprovalComments(reason);
         Leave updatedLeave = leaveRepository.save(existingLeave);
+        balanceLedger.apply(before, LeaveBalanceLedger.Entry.of(updatedLeave));
+        calendarIndex.record(updatedLeave);
+        activityLogService.logLeaveDecision(updatedLeave);
         return new LeaveDto(updatedLeave);
     }
     
+    @Override
+    public LeaveBatchResult approveLeaves(BatchApprovalRequest request) {
+        List<Long> ids = request.ids() != null ? request.ids() : List.of();
+        if (ids.size() > MAX_BATCH_SIZE) {
+            throw new RuntimeException("At most " + MAX_BATCH_SIZE + " leaves can be approved at once");
+        }
+        User currentUser = currentUser();
+        String comments = request.comments() != null && !request.comments().isBlank() ? request.comments() : "Approved";
+        
+        // One query loads every leave with its requester; the rules are then checked in memory
+        Map<Long, Leave> found = new HashMap<>();
+        for (Leave leave : leaveRepository.findWithUserByIdIn(ids)) {
+            found.put(leave.getId(), leave);
+        }
+        
+        LocalDateTime now = LocalDateTime.now();
+        List<LeaveDecisionResult> results = new ArrayList<>();
+        List<LeaveBalanceLedger.Entry> before = new ArrayList<>();
+        List<Leave> approved = new ArrayList<>();
+        for (Long id : new LinkedHashSet<>(ids)) {
+            Leave leave = found.get(id);
+            if (leave == null) {
+                results.add(new LeaveDecisionResult(id, DecisionOutcome.NOT_FOUND, "Leave not found with ID: " + id, null));
+            } else if (!canDecide(currentUser, leave.getUser())) {
+                results.add(new LeaveDecisionResult(id, DecisionOutcome.FORBIDDEN, "You are not authorized to approve this leave request.", null));
+            } else if (leave.getStatus() != Leave.LeaveStatus.PENDING) {
+                results.add(new LeaveDecisionResult(id, DecisionOutcome.NOT_PENDING, "Leave request is not in PENDING status and cannot be approved.", null));
+            } else {
+                before.add(LeaveBalanceLedger.Entry.of(leave));
+                leave.setStatus(Leave.LeaveStatus.APPROVED);
+                leave.setApprovedBy(currentUser);
+                leave.setApprovedAt(now);
+                leave.setApprovalComments(comments);
+                approved.add(leave);
+                results.add(new LeaveDecisionResult(id, DecisionOutcome.APPROVED, null, new LeaveDto(leave)));
+            }
+        }
+        if (approved.isEmpty()) {
+            return new LeaveBatchResult(results.size(), 0, results);
+        }
+        
+        // The managed rows are flushed together as one JDBC batch of updates
+        leaveRepository.saveAll(approved);
+        balanceLedger.applyAll(before, approved.stream().map(LeaveBalanceLedger.Entry::of).toList());
+        activityLogService.logLeaveDecisions(approved);
+        calendarIndex.recordAll(approved);
+        logger.debug("{} approved {} of {} leaves in one batch", currentUser.getEmail(), approved.size(), results.size());
+        return new LeaveBatchResult(results.size(), approved.size(), results);
+    }
+    
+    /**
+     * The authenticated user making a leave decision
+     */
+    private static User currentUser() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth == null || !(auth.getPrincipal() instanceof User)) {
+            throw new RuntimeException("Unauthorized: User not authenticated.");
+        }
+        return (User) auth.getPrincipal();
+    }
+    
+    /**
+     * Whether a user may approve or reject a leave: a manager's leave needs an admin,
+     * an admin's leave needs another admin, and an employee's leave needs a manager of the same department
+     */
+    private static boolean canDecide(User approver, User requester) {
+        boolean authorized = switch (requester.getRole()) {
+            case MANAGER -> approver.getRole() == User.UserRole.ADMIN;
+            case ADMIN -> approver.getRole() == User.UserRole.ADMIN && !approver.getId().equals(requester.getId());
+            default -> approver.getRole() == User.UserRole.MANAGER && approver.getDepartment() == requester.getDepartment();
+        };
+        logger.debug("Leave decision by {} ({}, {}) for {} ({}, {}): {}", approver.getFullName(), approver.getRole(),
+                approver.getDepartment(), requester.getFullName(), requester.getRole(), requester.getDepartment(),
+                authorized ? "allowed" : "denied");
+        return authorized;
+    }
+    
     @Override
     public LeaveDto cancelLeave(Long id) {
         Optional<Leave> leave = leaveRepository.findById(id);
@@ -369,9 +454,12 @@ public class LeaveServiceImpl implements LeaveService {
             throw new RuntimeException("Only pending or approved leaves can be cancelled");
         }
         
+        LeaveBalanceLedger.Entry before = LeaveBalanceLedger.Entry.of(existingLeave);
         existingLeave.setStatus(Leave.LeaveStatus.CANCELLED);
         
         Leave cancelledLeave = leaveRepository.save(existingLeave);
+        balanceLedger.apply(before, LeaveBalanceLedger.Entry.of(cancelledLeave));
+        calendarIndex.record(cancelledLeave);
         return new LeaveDto(cancelledLeave);
     }
     
@@ -403,9 +491,9 @@ public class LeaveServiceImpl implements LeaveService {
         long rejectedLeaves = leaveRepository.countByUserIdAndStatus(userId, Leave.LeaveStatus.REJECTED);
         long cancelledLeaves = leaveRepository.countByUserIdAndStatus(userId, Leave.LeaveStatus.CANCELLED);
         
-        // Calculate remaining leaves (assuming 20 days per year)
-        long usedLeaves = approvedLeaves;
-        long remainingLeaves = Math.max(0, 20 - usedLeaves);
+        // Remaining annual leave for the current year comes from the balance ledger
+        Integer annualRemaining = balanceLedger.balance(userId, Leave.LeaveType.ANNUAL, LocalDate.now().getYear()).getRemainingDays();
+        long remainingLeaves = annualRemaining != null ? Math.max(0, annualRemaining) : 0;
         
         double approvalRate = totalLeaves > 0 ? (double) approvedLeaves / totalLeaves * 100 : 0;
         
@@ -420,6 +508,16 @@ public class LeaveServiceImpl implements LeaveService {
         );
     }
     
+    @Override
+    @Transactional(readOnly = true)
+    public List<LeaveBalanceSummary> getLeaveBalances(Long userId, int year) {
+        return balanceLedger.balances(userId, year)
+                .stream()
+                .map(balance -> new LeaveBalanceSummary(userId, balance.getLeaveType(), year, balance.getEntitledDays(),
+                        balance.getUsedDays(), balance.getPendingDays(), balance.getRemainingDays()))
+                .collect(Collectors.toList());
+    }
+    
     @Override
     public long getPendingLeavesCount() {
         return leaveRepository.countByStatus(Leave.LeaveStatus.PENDING);
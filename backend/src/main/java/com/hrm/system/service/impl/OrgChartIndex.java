@@ -0,0 +1,293 @@
+package com.hrm.system.service.impl;
+
+import com.hrm.system.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.TreeSet;
+
+/**
+ * In-memory reporting hierarchy built from the manager of every user.
+ * The manager links are kept up to date one change at a time; after each change the tree is laid out
+ * again in pre-order and swapped in, so everyone under a manager is one contiguous slice and readers never lock.
+ * Changes are applied once the writing transaction commits.
+ */
+@Component
+public class OrgChartIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrgChartIndex.class);
+
+    /**
+     * A user's place in the hierarchy; level 0 is the top of the organisation
+     */
+    public record Node(Long userId, Long managerId, int level, int directReports, int totalReports) {
+    }
+
+    /**
+     * One page of the reports under a manager and the number of reports in total
+     */
+    public record Subtree(List<Node> reports, int total) {
+    }
+
+    @Autowired
+    private UserRepository userRepository;
+
+    /** Manager of every indexed user, null at the top, guarded by this */
+    private final Map<Long, Long> managerByUser = new HashMap<>();
+
+    /** Direct reports of every manager in ascending ID order, guarded by this */
+    private final Map<Long, TreeSet<Long>> reportsByManager = new HashMap<>();
+
+    private volatile Layout layout = Layout.EMPTY;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void warm() {
+        managerByUser.clear();
+        reportsByManager.clear();
+        for (UserRepository.ManagerLink link : userRepository.findManagerLinks()) {
+            link(link.getId(), link.getManagerId());
+        }
+        publish();
+        logger.info("Org chart index warmed with {} users", managerByUser.size());
+    }
+
+    /**
+     * The user's position, or empty when the user is not indexed
+     */
+    public Optional<Node> node(Long userId) {
+        Layout current = layout;
+        Integer position = current.positions().get(userId);
+        return position != null ? Optional.of(current.node(position)) : Optional.empty();
+    }
+
+    /**
+     * The user's managers from the direct manager up to the top of the organisation
+     */
+    public List<Long> managerChain(Long userId) {
+        Layout current = layout;
+        Integer position = current.positions().get(userId);
+        List<Long> chain = new ArrayList<>();
+        for (int i = position != null ? current.parents()[position] : -1; i >= 0; i = current.parents()[i]) {
+            chain.add(current.userIds()[i]);
+        }
+        return chain;
+    }
+
+    /**
+     * Whether the user reports to the manager directly or through others
+     */
+    public boolean isUnder(Long userId, Long managerId) {
+        Layout current = layout;
+        Integer position = current.positions().get(userId);
+        Integer managerPosition = current.positions().get(managerId);
+        return position != null && managerPosition != null && position > managerPosition
+                && position < managerPosition + current.sizes()[managerPosition];
+    }
+
+    /**
+     * One page of the reports under a manager in org-chart order, each followed by their own reports.
+     * A maximum depth of 1 returns direct reports only; null returns the whole subtree.
+     */
+    public Subtree subtree(Long managerId, Integer maxDepth, int offset, int limit) {
+        Layout current = layout;
+        Integer position = current.positions().get(managerId);
+        if (position == null) {
+            return new Subtree(List.of(), 0);
+        }
+        int from = position + 1;
+        int to = position + current.sizes()[position];
+        if (maxDepth == null) {
+            List<Node> reports = new ArrayList<>();
+            for (int i = from + offset; i < to && reports.size() < limit; i++) {
+                reports.add(current.node(i));
+            }
+            return new Subtree(reports, to - from);
+        }
+
+        // Step over the subtree below every node at the maximum depth, so only nodes within depth are visited
+        int maxLevel = current.levels()[position] + Math.max(maxDepth, 1);
+        List<Node> reports = new ArrayList<>();
+        int total = 0;
+        for (int i = from; i < to; ) {
+            if (total >= offset && reports.size() < limit) {
+                reports.add(current.node(i));
+            }
+            total++;
+            i += current.levels()[i] == maxLevel ? current.sizes()[i] : 1;
+        }
+        return new Subtree(reports, total);
+    }
+
+    /**
+     * Record a user's manager, or null for none, once the transaction commits
+     */
+    public void put(Long userId, Long managerId) {
+        afterCommit(() -> {
+            synchronized (this) {
+                if (managerByUser.containsKey(userId) && Objects.equals(managerByUser.get(userId), managerId)) {
+                    return;
+                }
+                unlink(userId);
+                link(userId, managerId);
+                publish();
+            }
+        });
+    }
+
+    /**
+     * Drop a deleted user once the transaction commits; any reports left behind move to the top
+     */
+    public void remove(Long userId) {
+        afterCommit(() -> {
+            synchronized (this) {
+                unlink(userId);
+                managerByUser.remove(userId);
+                TreeSet<Long> reports = reportsByManager.remove(userId);
+                if (reports != null) {
+                    reports.forEach(report -> managerByUser.put(report, null));
+                }
+                publish();
+            }
+        });
+    }
+
+    private void link(Long userId, Long managerId) {
+        managerByUser.put(userId, managerId);
+        if (managerId != null) {
+            reportsByManager.computeIfAbsent(managerId, key -> new TreeSet<>()).add(userId);
+        }
+    }
+
+    private void unlink(Long userId) {
+        Long managerId = managerByUser.get(userId);
+        TreeSet<Long> siblings = managerId != null ? reportsByManager.get(managerId) : null;
+        if (siblings != null) {
+            siblings.remove(userId);
+            if (siblings.isEmpty()) {
+                reportsByManager.remove(managerId);
+            }
+        }
+    }
+
+    /**
+     * Lay the hierarchy out in pre-order from every user at the top. Users caught in a manager cycle
+     * are not reachable from the top, so each cycle is entered at its lowest ID and cut there.
+     */
+    private void publish() {
+        int count = managerByUser.size();
+        Long[] userIds = new Long[count];
+        int[] parents = new int[count];
+        int[] levels = new int[count];
+        int[] sizes = new int[count];
+        int[] directCounts = new int[count];
+        Map<Long, Integer> positions = new HashMap<>(count * 2);
+
+        List<Long> starts = new ArrayList<>();
+        managerByUser.forEach((userId, managerId) -> {
+            if (managerId == null || !managerByUser.containsKey(managerId)) {
+                starts.add(userId);
+            }
+        });
+        starts.sort(null);
+        starts.addAll(new TreeSet<>(managerByUser.keySet()));
+
+        int next = 0;
+        Deque<Frame> open = new ArrayDeque<>();
+        for (Long root : starts) {
+            if (next == count) {
+                break;
+            }
+            if (positions.containsKey(root)) {
+                continue;
+            }
+            positions.put(root, next);
+            userIds[next] = root;
+            parents[next] = -1;
+            open.push(new Frame(next++, reportsOf(root)));
+            while (!open.isEmpty()) {
+                Frame frame = open.peek();
+                if (frame.next == frame.reports.length) {
+                    open.pop();
+                    directCounts[frame.position] = frame.reports.length;
+                    sizes[frame.position] = next - frame.position;
+                    continue;
+                }
+                Long report = frame.reports[frame.next++];
+                if (positions.containsKey(report)) {
+                    continue;
+                }
+                positions.put(report, next);
+                userIds[next] = report;
+                parents[next] = frame.position;
+                levels[next] = levels[frame.position] + 1;
+                open.push(new Frame(next++, reportsOf(report)));
+            }
+        }
+        layout = new Layout(userIds, positions, parents, levels, sizes, directCounts);
+    }
+
+    private Long[] reportsOf(Long managerId) {
+        TreeSet<Long> reports = reportsByManager.get(managerId);
+        return reports != null ? reports.toArray(new Long[0]) : new Long[0];
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    /**
+     * A user on the depth-first walk and the next of their reports to visit
+     */
+    private static final class Frame {
+
+        private final int position;
+
+        private final Long[] reports;
+
+        private int next;
+
+        Frame(int position, Long[] reports) {
+            this.position = position;
+            this.reports = reports;
+        }
+    }
+
+    /**
+     * The hierarchy in pre-order: the reports under the user at a position fill the positions
+     * right after it, as many as its subtree size less one
+     */
+    private record Layout(Long[] userIds, Map<Long, Integer> positions, int[] parents, int[] levels,
+                          int[] sizes, int[] directCounts) {
+
+        static final Layout EMPTY = new Layout(new Long[0], Map.of(), new int[0], new int[0], new int[0], new int[0]);
+
+        Node node(int position) {
+            int parent = parents[position];
+            return new Node(userIds[position], parent >= 0 ? userIds[parent] : null, levels[position],
+                    directCounts[position], sizes[position] - 1);
+        }
+    }
+}
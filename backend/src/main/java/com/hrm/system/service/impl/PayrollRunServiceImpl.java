@@ -0,0 +1,272 @@
+package com.hrm.system.service.impl;
+
+import com.hrm.system.dto.PayrollRunDto;
+import com.hrm.system.entity.Payroll;
+import com.hrm.system.entity.PayrollRun;
+import com.hrm.system.entity.User;
+import com.hrm.system.repository.PayrollRepository;
+import com.hrm.system.repository.PayrollRunRepository;
+import com.hrm.system.repository.UserRepository;
+import com.hrm.system.service.PayrollRunService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * Generates payroll in fixed-size chunks, committing each chunk separately
+ * so that a failed run can be resumed from its last committed user.
+ * A run is owned by the node executing it, and each committed chunk renews the owner's lease; a run whose
+ * owner restarts or stops committing chunks for the lease period is failed so it can be resumed elsewhere.
+ */
+@Service
+public class PayrollRunServiceImpl implements PayrollRunService {
+    
+    private static final Logger logger = LoggerFactory.getLogger(PayrollRunServiceImpl.class);
+    
+    private static final BigDecimal DEFAULT_BASIC_SALARY = BigDecimal.valueOf(5000);
+    
+    private static final List<PayrollRun.RunStatus> ACTIVE_STATUSES =
+            List.of(PayrollRun.RunStatus.PENDING, PayrollRun.RunStatus.RUNNING);
+    
+    @Autowired
+    private PayrollRunRepository payrollRunRepository;
+    
+    @Autowired
+    private PayrollRepository payrollRepository;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @Autowired
+    @Qualifier("applicationTaskExecutor")
+    private TaskExecutor taskExecutor;
+    
+    @Value("${app.payroll.run.chunk-size:500}")
+    private int chunkSize;
+    
+    @Value("${app.payroll.run.lease-minutes:15}")
+    private long leaseMinutes;
+    
+    @Value("${app.node-id:${HOSTNAME:local}}")
+    private String nodeId;
+    
+    @Override
+    public PayrollRunDto startRun(int month, int year) {
+        YearMonth payPeriod = YearMonth.of(year, month);
+        
+        PayrollRun run = new TransactionTemplate(transactionManager).execute(status -> {
+            if (payrollRunRepository.existsByPayPeriodAndStatusIn(payPeriod, ACTIVE_STATUSES)) {
+                throw new RuntimeException("A payroll run is already in progress for " + payPeriod);
+            }
+            PayrollRun newRun = new PayrollRun();
+            newRun.setPayPeriod(payPeriod);
+            newRun.setChunkSize(chunkSize);
+            newRun.setStartedBy(getCurrentUserId());
+            newRun.setOwnerNode(nodeId);
+            return payrollRunRepository.save(newRun);
+        });
+        
+        taskExecutor.execute(() -> executeRun(run.getId()));
+        return new PayrollRunDto(run);
+    }
+    
+    @Override
+    public PayrollRunDto resumeRun(Long runId) {
+        PayrollRun run = new TransactionTemplate(transactionManager).execute(status -> {
+            PayrollRun existingRun = payrollRunRepository.findById(runId)
+                    .orElseThrow(() -> new RuntimeException("Payroll run not found with ID: " + runId));
+            if (existingRun.getStatus() != PayrollRun.RunStatus.FAILED) {
+                throw new RuntimeException("Only failed payroll runs can be resumed");
+            }
+            existingRun.setStatus(PayrollRun.RunStatus.PENDING);
+            existingRun.setErrorMessage(null);
+            existingRun.setOwnerNode(nodeId);
+            return payrollRunRepository.save(existingRun);
+        });
+        
+        taskExecutor.execute(() -> executeRun(run.getId()));
+        return new PayrollRunDto(run);
+    }
+    
+    @Override
+    public Optional<PayrollRunDto> getRun(Long runId) {
+        return payrollRunRepository.findById(runId).map(PayrollRunDto::new);
+    }
+    
+    @Override
+    public List<PayrollRunDto> getRecentRuns() {
+        return payrollRunRepository.findTop20ByOrderByIdDesc()
+                .stream()
+                .map(PayrollRunDto::new)
+                .collect(Collectors.toList());
+    }
+    
+    /**
+     * Mark runs this node was executing when it shut down as failed so they can be resumed
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void failInterruptedRuns() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                payrollRunRepository.findByStatusIn(ACTIVE_STATUSES).forEach(run -> {
+                    if (nodeId.equals(run.getOwnerNode())) {
+                        run.setStatus(PayrollRun.RunStatus.FAILED);
+                        run.setErrorMessage("Interrupted by application restart");
+                    }
+                }));
+    }
+    
+    /**
+     * Mark runs whose owner has not committed a chunk within the lease as failed, covering nodes that never came back
+     */
+    @Scheduled(fixedDelayString = "${app.payroll.run.lease-check-interval-ms:60000}")
+    public void failAbandonedRuns() {
+        LocalDateTime leaseExpiry = LocalDateTime.now().minusMinutes(leaseMinutes);
+        try {
+            new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                    payrollRunRepository.findByStatusIn(ACTIVE_STATUSES).forEach(run -> {
+                        if (run.getUpdatedAt() != null && run.getUpdatedAt().isBefore(leaseExpiry)) {
+                            logger.warn("Payroll run {} owned by {} made no progress for {} minutes, marking it failed",
+                                    run.getId(), run.getOwnerNode(), leaseMinutes);
+                            run.setStatus(PayrollRun.RunStatus.FAILED);
+                            run.setErrorMessage("No progress from node " + run.getOwnerNode() + " within the lease");
+                        }
+                    }));
+        } catch (OptimisticLockingFailureException ex) {
+            // The owner committed a chunk meanwhile, so the run is alive
+            logger.debug("Payroll run lease check raced with a chunk commit", ex);
+        }
+    }
+    
+    /**
+     * Process a run chunk by chunk, each chunk in its own transaction
+     */
+    private void executeRun(Long runId) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        try {
+            Boolean owned = transactionTemplate.execute(status -> {
+                PayrollRun run = payrollRunRepository.findById(runId).orElseThrow();
+                if (!ownsActiveRun(run)) {
+                    return false;
+                }
+                long remaining = userRepository.countByStatusWithoutPayroll(User.UserStatus.ACTIVE, run.getPayPeriod());
+                run.setStatus(PayrollRun.RunStatus.RUNNING);
+                run.setTotalEmployees(run.getProcessedEmployees() + remaining);
+                if (run.getStartedAt() == null) {
+                    run.setStartedAt(LocalDateTime.now());
+                }
+                return true;
+            });
+            if (!Boolean.TRUE.equals(owned)) {
+                logger.warn("Payroll run {} is no longer owned by node {}, not executing it", runId, nodeId);
+                return;
+            }
+            
+            Integer processed;
+            do {
+                processed = transactionTemplate.execute(status -> processChunk(runId));
+            } while (processed != null && processed > 0);
+            
+            transactionTemplate.executeWithoutResult(status -> {
+                PayrollRun run = payrollRunRepository.findById(runId).orElseThrow();
+                if (!ownsActiveRun(run)) {
+                    logger.warn("Payroll run {} was taken away from node {} before completing", runId, nodeId);
+                    return;
+                }
+                run.setStatus(PayrollRun.RunStatus.COMPLETED);
+                run.setCompletedAt(LocalDateTime.now());
+                logger.info("Payroll run {} for {} completed: {} employees in {} chunks",
+                        runId, run.getPayPeriod(), run.getProcessedEmployees(), run.getCompletedChunks());
+            });
+        } catch (Exception ex) {
+            logger.error("Payroll run {} failed", runId, ex);
+            transactionTemplate.executeWithoutResult(status -> payrollRunRepository.findById(runId)
+                    .filter(this::ownsActiveRun)
+                    .ifPresent(run -> {
+                        run.setStatus(PayrollRun.RunStatus.FAILED);
+                        String message = ex.getMessage() != null ? ex.getMessage() : ex.getClass().getSimpleName();
+                        run.setErrorMessage(message.length() > 255 ? message.substring(0, 255) : message);
+                    }));
+        }
+    }
+    
+    /**
+     * Create payroll for the next chunk of employees and advance the run cursor
+     */
+    private int processChunk(Long runId) {
+        PayrollRun run = payrollRunRepository.findById(runId).orElseThrow();
+        if (!ownsActiveRun(run)) {
+            return 0;
+        }
+        Long afterId = run.getLastProcessedUserId() != null ? run.getLastProcessedUserId() : 0L;
+        
+        List<User> employees = userRepository.findByStatusWithoutPayrollAfterId(
+                User.UserStatus.ACTIVE, run.getPayPeriod(), afterId, PageRequest.of(0, run.getChunkSize()));
+        if (employees.isEmpty()) {
+            return 0;
+        }
+        
+        List<Payroll> payrolls = new ArrayList<>(employees.size());
+        for (User employee : employees) {
+            payrolls.add(newPayroll(employee, run.getPayPeriod()));
+        }
+        payrollRepository.saveAll(payrolls);
+        
+        run.setLastProcessedUserId(employees.get(employees.size() - 1).getId());
+        run.setProcessedEmployees(run.getProcessedEmployees() + employees.size());
+        run.setCompletedChunks(run.getCompletedChunks() + 1);
+        return employees.size();
+    }
+    
+    /**
+     * Whether this node may still advance the run; a run failed by the lease check or resumed elsewhere is left alone
+     */
+    private boolean ownsActiveRun(PayrollRun run) {
+        return nodeId.equals(run.getOwnerNode()) && ACTIVE_STATUSES.contains(run.getStatus());
+    }
+    
+    private Payroll newPayroll(User employee, YearMonth payPeriod) {
+        Payroll payroll = new Payroll();
+        payroll.setUser(employee);
+        payroll.setPayPeriod(payPeriod);
+        payroll.setBasicSalary(DEFAULT_BASIC_SALARY);
+        payroll.setPaymentStatus(Payroll.PaymentStatus.PENDING);
+        
+        // Calculate gross salary, total deductions, and net salary
+        payroll.setGrossSalary(payroll.calculateGrossSalary());
+        payroll.setTotalDeductions(payroll.calculateTotalDeductions());
+        payroll.setNetSalary(payroll.calculateNetSalary());
+        return payroll;
+    }
+    
+    private Long getCurrentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof User) {
+            return ((User) authentication.getPrincipal()).getId();
+        }
+        return null;
+    }
+}
@@ -1,34 +1,70 @@
 package com.hrm.system.service.impl;
 
+import com.hrm.system.dto.CursorPage;
 import com.hrm.system.dto.PayrollDto;
 import com.hrm.system.entity.Payroll;
 import com.hrm.system.entity.User;
+import com.hrm.system.repository.KeysetCursor;
 import com.hrm.system.repository.PayrollRepository;
+import com.hrm.system.repository.ProjectionQueries;
 import com.hrm.system.repository.UserRepository;
 import com.hrm.system.service.PayrollService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.time.YearMonth;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
 
 @Service
 @Transactional
 public class PayrollServiceImpl implements PayrollService {
     
+    private static final String PAYSLIP_TEMPLATE = "PAYSLIP\n" +
+            "========\n" +
+            "Employee: %s\n" +
+            "Employee ID: %s\n" +
+            "Pay Period: %s\n" +
+            "Basic Salary: $%s\n" +
+            "Gross Salary: $%s\n" +
+            "Total Deductions: $%s\n" +
+            "Net Salary: $%s\n" +
+            "Status: %s\n";
+    
+    private static final Set<String> SCROLL_SORT_FIELDS = Set.of("payPeriod", "id");
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
     @Autowired
     private PayrollRepository payrollRepository;
     
     @Autowired
     private UserRepository userRepository;
     
+    @Autowired
+    private ProjectionQueries projectionQueries;
+    
     @Override
     public PayrollDto createPayroll(PayrollDto payrollDto) {
         // Validate user exists
@@ -36,6 +72,9 @@ public class PayrollServiceImpl implements PayrollService {
         if (user.isEmpty()) {
             throw new RuntimeException("User not found with ID: " + payrollDto.getUserId());
         }
+        if (!payrollRepository.findByUserIdAndPayPeriod(payrollDto.getUserId(), payrollDto.getPayPeriod()).isEmpty()) {
+            throw new RuntimeException("Payroll already exists for user " + payrollDto.getUserId() + " and " + payrollDto.getPayPeriod());
+        }
         
         Payroll payroll = new Payroll();
         payroll.setUser(user.get());
@@ -68,8 +107,19 @@ public class PayrollServiceImpl implements PayrollService {
     }
     
     @Override
+    @Transactional(readOnly = true)
     public Page<PayrollDto> getAllPayroll(Pageable pageable) {
-        return payrollRepository.findAll(pageable).map(PayrollDto::new);
+        return projectionQueries.findPage(ProjectionQueries.PAYROLL, null, pageable);
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<PayrollDto> scrollPayroll(String cursor, String sortBy, Sort.Direction direction, int size, Long userId) {
+        KeysetCursor position = KeysetCursor.decode(cursor, sortBy, direction, SCROLL_SORT_FIELDS);
+        Specification<Payroll> filter = userId != null ? (root, query, cb) -> cb.equal(root.get("user").get("id"), userId) : null;
+        List<PayrollDto> rows = projectionQueries.findAll(ProjectionQueries.PAYROLL,
+                Specification.where(filter).and(position.remaining()), position.sort(), size + 1);
+        return CursorPage.of(rows, size, position, row -> row);
     }
     
     @Override
@@ -166,41 +216,31 @@ public class PayrollServiceImpl implements PayrollService {
     }
     
     @Override
-    public List<PayrollDto> generatePayroll(int month, int year) {
-        YearMonth payPeriod = YearMonth.of(year, month);
-        
-        // Get all active employees
-        List<User> activeEmployees = userRepository.findByStatus(User.UserStatus.ACTIVE);
-        
-        return activeEmployees.stream()
-                .map(employee -> {
-                    PayrollDto payrollDto = new PayrollDto();
-                    payrollDto.setUserId(employee.getId());
-                    payrollDto.setEmployeeName(employee.getFullName());
-                    payrollDto.setEmployeeId(employee.getEmployeeId());
-                    payrollDto.setPayPeriod(payPeriod);
-                    payrollDto.setBasicSalary(BigDecimal.valueOf(5000)); // Default salary
-                    payrollDto.setPaymentStatus(Payroll.PaymentStatus.PENDING);
-                    
-                    return createPayroll(payrollDto);
-                })
-                .collect(Collectors.toList());
-    }
-    
-    @Override
-    public PayrollStatistics getPayrollStatistics() {
-        long totalPayroll = payrollRepository.count();
-        long pendingPayroll = payrollRepository.countByPaymentStatus(Payroll.PaymentStatus.PENDING);
-        long processedPayroll = payrollRepository.countByPaymentStatus(Payroll.PaymentStatus.PROCESSING);
-        long paidPayroll = payrollRepository.countByPaymentStatus(Payroll.PaymentStatus.PAID);
+    public PayrollStatistics getPayrollStatistics(YearMonth payPeriod, User.Department department) {
+        long totalPayroll = 0;
+        long pendingPayroll = 0;
+        long processedPayroll = 0;
+        long paidPayroll = 0;
+        BigDecimal totalAmount = BigDecimal.ZERO;
         
-        // Calculate total amount and average salary
-        BigDecimal totalAmount = payrollRepository.findAll().stream()
-                .map(Payroll::getNetSalary)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        // Count and net salary per status, aggregated in the database
+        for (PayrollRepository.StatusTotals row : payrollRepository.sumNetSalaryGroupedByStatus(payPeriod, department)) {
+            long count = row.getTotal();
+            totalPayroll += count;
+            if (row.getNetSalary() != null) {
+                totalAmount = totalAmount.add(row.getNetSalary());
+            }
+            if (row.getStatus() == Payroll.PaymentStatus.PENDING) {
+                pendingPayroll = count;
+            } else if (row.getStatus() == Payroll.PaymentStatus.PROCESSING) {
+                processedPayroll = count;
+            } else if (row.getStatus() == Payroll.PaymentStatus.PAID) {
+                paidPayroll = count;
+            }
+        }
         
         double averageSalary = totalPayroll > 0 ? 
-                totalAmount.divide(BigDecimal.valueOf(totalPayroll), 2, BigDecimal.ROUND_HALF_UP).doubleValue() : 0;
+                totalAmount.divide(BigDecimal.valueOf(totalPayroll), 2, RoundingMode.HALF_UP).doubleValue() : 0;
         
         return new PayrollStatistics(
             totalPayroll,
@@ -256,6 +296,35 @@ public class PayrollServiceImpl implements PayrollService {
         return payslipContent.getBytes();
     }
     
+    @Override
+    @Transactional(readOnly = true)
+    public int exportPayslips(YearMonth payPeriod, OutputStream outputStream) throws IOException {
+        int count = 0;
+        Set<String> entryNames = new HashSet<>();
+        ZipOutputStream zip = new ZipOutputStream(outputStream);
+        try (Stream<Payroll> payrolls = payrollRepository.streamByPayPeriod(payPeriod)) {
+            Iterator<Payroll> iterator = payrolls.iterator();
+            while (iterator.hasNext()) {
+                Payroll payroll = iterator.next();
+                // A repeated name would abort the archive half-way, so a second payslip of an employee gets its ID
+                String name = "payslip-" + payroll.getUser().getEmployeeId() + "-" + payPeriod;
+                if (!entryNames.add(name)) {
+                    name = name + "-" + payroll.getId();
+                }
+                zip.putNextEntry(new ZipEntry(name + ".txt"));
+                zip.write(generatePayslipText(payroll).getBytes(StandardCharsets.UTF_8));
+                zip.closeEntry();
+                count++;
+                
+                // Keep the persistence context empty so memory stays flat
+                entityManager.detach(payroll);
+                entityManager.detach(payroll.getUser());
+            }
+        }
+        zip.finish();
+        return count;
+    }
+    
     @Override
     public long getPendingPayrollCount() {
         return payrollRepository.countByPaymentStatus(Payroll.PaymentStatus.PENDING);
@@ -277,17 +346,14 @@ public class PayrollServiceImpl implements PayrollService {
     }
     
     private String generatePayslipText(Payroll payroll) {
-        StringBuilder payslip = new StringBuilder();
-        payslip.append("PAYSLIP\n");
-        payslip.append("========\n");
-        payslip.append("Employee: ").append(payroll.getUser().getFullName()).append("\n");
-        payslip.append("Employee ID: ").append(payroll.getUser().getEmployeeId()).append("\n");
-        payslip.append("Pay Period: ").append(payroll.getPayPeriod()).append("\n");
-        payslip.append("Basic Salary: $").append(payroll.getBasicSalary()).append("\n");
-        payslip.append("Gross Salary: $").append(payroll.getGrossSalary()).append("\n");
-        payslip.append("Total Deductions: $").append(payroll.getTotalDeductions()).append("\n");
-        payslip.append("Net Salary: $").append(payroll.getNetSalary()).append("\n");
-        payslip.append("Status: ").append(payroll.getPaymentStatus()).append("\n");
-        return payslip.toString();
+        return String.format(PAYSLIP_TEMPLATE,
+                payroll.getUser().getFullName(),
+                payroll.getUser().getEmployeeId(),
+                payroll.getPayPeriod(),
+                payroll.getBasicSalary(),
+                payroll.getGrossSalary(),
+                payroll.getTotalDeductions(),
+                payroll.getNetSalary(),
+                payroll.getPaymentStatus());
     }
 } 
\ No newline at end of file
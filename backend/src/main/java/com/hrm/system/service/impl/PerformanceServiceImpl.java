@@ -5,6 +5,7 @@ import com.hrm.system.entity.Performance;
 import com.hrm.system.entity.User;
 import com.hrm.system.repository.PerformanceRepository;
 import com.hrm.system.repository.UserRepository;
+import com.hrm.system.service.ActivityLogService;
 import com.hrm.system.service.PerformanceService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
@@ -27,6 +28,9 @@ public class PerformanceServiceImpl implements PerformanceService {
     @Autowired
     private UserRepository userRepository;
     
+    @Autowired
+    private ActivityLogService activityLogService;
+    
     @Override
     public PerformanceDto createPerformance(PerformanceDto performanceDto) {
         // Validate user exists
@@ -146,6 +150,7 @@ public class PerformanceServiceImpl implements PerformanceService {
         existingPerformance.setReviewDate(LocalDateTime.now());
         
         Performance reviewedPerformance = performanceRepository.save(existingPerformance);
+        activityLogService.logPerformanceReview(reviewedPerformance);
         return new PerformanceDto(reviewedPerformance);
     }
     
@@ -160,6 +165,7 @@ public class PerformanceServiceImpl implements PerformanceService {
         existingPerformance.setStatus(Performance.PerformanceStatus.APPROVED);
         
         Performance approvedPerformance = performanceRepository.save(existingPerformance);
+        activityLogService.logPerformanceReview(approvedPerformance);
         return new PerformanceDto(approvedPerformance);
     }
     
@@ -0,0 +1,423 @@
+package com.hrm.system.service.impl;
+
+import com.hrm.system.dto.AttendanceDto;
+import com.hrm.system.entity.Attendance;
+import com.hrm.system.entity.PunchDeadLetter;
+import com.hrm.system.entity.User;
+import com.hrm.system.repository.AttendanceRepository;
+import com.hrm.system.repository.PunchDeadLetterRepository;
+import com.hrm.system.repository.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Buffered punch ingestion for shift-boundary bursts.
+ * Punches are claimed in the punch state index, acknowledged with a provisional record and queued;
+ * a single writer thread group-commits whatever has accumulated in one transaction, so a burst
+ * holds one pooled connection instead of one per request. A full queue rejects new punches.
+ * A punch that cannot be written even on its own is kept as a dead letter and retried, and
+ * {@link #statusOf} lets a client see whether its acknowledged punch is queued, written or failed.
+ * Punches still queued when the process dies are lost; a graceful shutdown drains the queue first.
+ */
+@Component
+@ConditionalOnProperty(name = "app.attendance.punch-ingestion.enabled", havingValue = "true")
+public class PunchIngestionQueue {
+
+    private static final Logger logger = LoggerFactory.getLogger(PunchIngestionQueue.class);
+
+    private static final String PUNCH_OUT_SQL = "UPDATE attendance SET punch_out_time = ?, punch_out_location = ?, " +
+            "punch_out_latitude = ?, punch_out_longitude = ?, status = ?, working_minutes = ?, updated_at = ? " +
+            "WHERE user_id = ? AND date = ? AND punch_out_time IS NULL";
+
+    private record PunchEvent(boolean punchIn, Long userId, LocalDate date, LocalTime time, String location,
+                              Double latitude, Double longitude, PunchStateIndex.Claim claim, Long deadLetterId) {
+    }
+
+    /**
+     * Punch state of a user on a date: the phase is PUNCHING_IN or PUNCHING_OUT while a punch is queued,
+     * and null with an unresolved failure when an acknowledged punch-in was not written
+     */
+    public record PunchStatus(LocalDate date, PunchStateIndex.Phase phase, LocalTime punchInTime, List<FailedPunch> failures) {
+    }
+
+    public record FailedPunch(String punch, LocalTime time, int attempts, String error, LocalDateTime failedAt,
+                              LocalDateTime resolvedAt) {
+    }
+
+    private record RollupChange(AttendanceSummaryRollup.Snapshot before, AttendanceSummaryRollup.Snapshot after) {
+    }
+
+    private final BlockingQueue<PunchEvent> queue;
+
+    private final PunchStateIndex punchStateIndex;
+
+    private final AttendanceRepository attendanceRepository;
+
+    private final UserRepository userRepository;
+
+    private final PunchDeadLetterRepository deadLetterRepository;
+
+    private final AttendanceSummaryRollup attendanceSummaryRollup;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final int batchSize;
+
+    private final long lingerMs;
+
+    private final int maxAttempts;
+
+    private final Timer commitTimer;
+
+    private final Counter rejectedCounter;
+
+    private final Counter failedCounter;
+
+    private volatile boolean running = true;
+
+    private Thread writer;
+
+    public PunchIngestionQueue(PunchStateIndex punchStateIndex,
+                               AttendanceRepository attendanceRepository,
+                               UserRepository userRepository,
+                               PunchDeadLetterRepository deadLetterRepository,
+                               AttendanceSummaryRollup attendanceSummaryRollup,
+                               JdbcTemplate jdbcTemplate,
+                               PlatformTransactionManager transactionManager,
+                               MeterRegistry meterRegistry,
+                               @Value("${app.attendance.punch-ingestion.queue-capacity:10000}") int queueCapacity,
+                               @Value("${app.attendance.punch-ingestion.batch-size:200}") int batchSize,
+                               @Value("${app.attendance.punch-ingestion.linger-ms:5}") long lingerMs,
+                               @Value("${app.attendance.punch-ingestion.max-attempts:5}") int maxAttempts) {
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.punchStateIndex = punchStateIndex;
+        this.attendanceRepository = attendanceRepository;
+        this.userRepository = userRepository;
+        this.deadLetterRepository = deadLetterRepository;
+        this.attendanceSummaryRollup = attendanceSummaryRollup;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.lingerMs = lingerMs;
+        this.maxAttempts = maxAttempts;
+        this.commitTimer = Timer.builder("hrm.punch.commit")
+                .description("Time taken to group-commit a batch of queued punches")
+                .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("hrm.punch.rejected")
+                .description("Punches rejected because the ingestion queue was full")
+                .register(meterRegistry);
+        this.failedCounter = Counter.builder("hrm.punch.failed")
+                .description("Queued punches that could not be written and were kept as dead letters")
+                .register(meterRegistry);
+        Gauge.builder("hrm.punch.queue.depth", queue, BlockingQueue::size)
+                .description("Punches waiting to be written")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        writer = new Thread(this::drain, "punch-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        writer.interrupt();
+        writer.join(TimeUnit.SECONDS.toMillis(10));
+    }
+
+    /**
+     * Queue a punch-in and return its provisional record
+     */
+    public AttendanceDto submitPunchIn(User user, String location, Double latitude, Double longitude) {
+        LocalDate today = LocalDate.now();
+        LocalTime currentTime = LocalTime.now().truncatedTo(ChronoUnit.SECONDS);
+
+        PunchStateIndex.Claim claim = punchStateIndex.tryBeginPunchIn(user.getId(), today, currentTime);
+        if (claim == null) {
+            throw new RuntimeException("User has already punched in today");
+        }
+        enqueue(new PunchEvent(true, user.getId(), today, currentTime, location, latitude, longitude, claim, null));
+
+        AttendanceDto provisional = provisionalRecord(user, today, Attendance.AttendanceStatus.PRESENT);
+        provisional.setPunchInTime(currentTime);
+        provisional.setPunchInLocation(location);
+        return provisional;
+    }
+
+    /**
+     * Queue a punch-out and return its provisional record
+     */
+    public AttendanceDto submitPunchOut(User user, String location, Double latitude, Double longitude) {
+        LocalDate today = LocalDate.now();
+        LocalTime currentTime = LocalTime.now().truncatedTo(ChronoUnit.SECONDS);
+
+        PunchStateIndex.Claim claim = punchStateIndex.tryBeginPunchOut(user.getId(), today);
+        if (claim == null) {
+            PunchStateIndex.PunchState state = punchStateIndex.stateOf(user.getId(), today);
+            if (state != null && state.punchedOut()) {
+                throw new RuntimeException("User has already punched out today");
+            }
+            throw new RuntimeException("No punch-in record found for today");
+        }
+        enqueue(new PunchEvent(false, user.getId(), today, currentTime, location, latitude, longitude, claim, null));
+
+        AttendanceDto provisional = provisionalRecord(user, today,
+                AttendanceServiceImpl.statusForWorkingTime(claim.punchInTime(), currentTime));
+        provisional.setPunchInTime(claim.punchInTime());
+        provisional.setPunchOutTime(currentTime);
+        provisional.setPunchOutLocation(location);
+        return provisional;
+    }
+
+    private void enqueue(PunchEvent event) {
+        if (!running || !queue.offer(event)) {
+            event.claim().complete(false);
+            rejectedCounter.increment();
+            throw new RejectedExecutionException("Punch queue is full");
+        }
+    }
+
+    /**
+     * Whether a user's acknowledged punches on a date are queued, written or failed
+     */
+    public PunchStatus statusOf(Long userId, LocalDate date) {
+        PunchStateIndex.PunchState state = punchStateIndex.covers(date) ? punchStateIndex.stateOf(userId, date) : null;
+        List<FailedPunch> failures = deadLetterRepository.findByUserIdAndPunchDateOrderById(userId, date).stream()
+                .map(deadLetter -> new FailedPunch(deadLetter.isPunchIn() ? "IN" : "OUT", deadLetter.getPunchTime(),
+                        deadLetter.getAttempts(), deadLetter.getLastError(), deadLetter.getFailedAt(), deadLetter.getResolvedAt()))
+                .collect(Collectors.toList());
+        return new PunchStatus(date, state != null ? state.phase() : null, state != null ? state.punchInTime() : null, failures);
+    }
+
+    /**
+     * Queue today's unresolved dead letters again. One whose transition can no longer be claimed,
+     * because the user punched again meanwhile, is resolved as superseded.
+     */
+    @Scheduled(fixedDelayString = "${app.attendance.punch-ingestion.retry-interval-ms:60000}")
+    public void retryDeadLetters() {
+        LocalDate today = LocalDate.now();
+        List<Long> superseded = new ArrayList<>();
+        for (PunchDeadLetter deadLetter : deadLetterRepository.findRetryable(today, maxAttempts)) {
+            PunchStateIndex.Claim claim = deadLetter.isPunchIn()
+                    ? punchStateIndex.tryBeginPunchIn(deadLetter.getUserId(), today, deadLetter.getPunchTime())
+                    : punchStateIndex.tryBeginPunchOut(deadLetter.getUserId(), today);
+            if (claim == null) {
+                PunchStateIndex.PunchState state = punchStateIndex.stateOf(deadLetter.getUserId(), today);
+                // A punch-out waits while the punch-in before it is being written
+                if (state == null || state.phase() != PunchStateIndex.Phase.PUNCHING_IN) {
+                    superseded.add(deadLetter.getId());
+                }
+                continue;
+            }
+            PunchEvent event = new PunchEvent(deadLetter.isPunchIn(), deadLetter.getUserId(), today, deadLetter.getPunchTime(),
+                    deadLetter.getLocation(), deadLetter.getLatitude(), deadLetter.getLongitude(), claim, deadLetter.getId());
+            if (!running || !queue.offer(event)) {
+                claim.complete(false);
+                break;
+            }
+        }
+        if (!superseded.isEmpty()) {
+            transactionTemplate.executeWithoutResult(status ->
+                    deadLetterRepository.markResolved(superseded, LocalDateTime.now()));
+        }
+    }
+
+    private static AttendanceDto provisionalRecord(User user, LocalDate date, Attendance.AttendanceStatus status) {
+        AttendanceDto provisional = new AttendanceDto();
+        provisional.setUserId(user.getId());
+        provisional.setEmployeeName(user.getFullName());
+        provisional.setEmployeeId(user.getEmployeeId());
+        provisional.setDate(date);
+        provisional.setStatus(status);
+        return provisional;
+    }
+
+    private void drain() {
+        List<PunchEvent> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                PunchEvent first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                // Give a burst a moment to accumulate so it commits together
+                if (running && lingerMs > 0 && queue.size() < batchSize - 1) {
+                    Thread.sleep(lingerMs);
+                }
+            } catch (InterruptedException e) {
+                // Shutdown requested; keep draining what is already queued
+            }
+            queue.drainTo(batch, batchSize - batch.size());
+            if (!batch.isEmpty()) {
+                commit(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    private void commit(List<PunchEvent> batch) {
+        Timer.Sample sample = Timer.start();
+        try {
+            transactionTemplate.executeWithoutResult(status -> write(batch));
+            batch.forEach(event -> event.claim().complete(true));
+        } catch (RuntimeException e) {
+            // Retry one by one so a single bad punch does not fail the rest of the batch
+            logger.warn("Punch batch of {} failed, retrying individually: {}", batch.size(), e.getMessage());
+            for (PunchEvent event : batch) {
+                try {
+                    transactionTemplate.executeWithoutResult(status -> write(List.of(event)));
+                    event.claim().complete(true);
+                } catch (RuntimeException ex) {
+                    event.claim().complete(false);
+                    deadLetter(event, ex);
+                }
+            }
+        } finally {
+            sample.stop(commitTimer);
+        }
+    }
+
+    /**
+     * Keep a punch that could not be written, or count another failed attempt of a retried one
+     */
+    private void deadLetter(PunchEvent event, RuntimeException failure) {
+        logger.warn("Could not write punch {} for user {}: {}", event.punchIn() ? "in" : "out", event.userId(), failure.getMessage());
+        failedCounter.increment();
+        String message = failure.getMessage() != null ? failure.getMessage() : failure.getClass().getSimpleName();
+        String error = message.length() > 255 ? message.substring(0, 255) : message;
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                PunchDeadLetter deadLetter = event.deadLetterId() != null
+                        ? deadLetterRepository.findById(event.deadLetterId()).orElseGet(PunchDeadLetter::new)
+                        : new PunchDeadLetter();
+                deadLetter.setUserId(event.userId());
+                deadLetter.setPunchDate(event.date());
+                deadLetter.setPunchIn(event.punchIn());
+                deadLetter.setPunchTime(event.time());
+                deadLetter.setLocation(event.location());
+                deadLetter.setLatitude(event.latitude());
+                deadLetter.setLongitude(event.longitude());
+                deadLetter.setAttempts(deadLetter.getAttempts() + 1);
+                deadLetter.setLastError(error);
+                deadLetter.setFailedAt(LocalDateTime.now());
+                deadLetterRepository.save(deadLetter);
+            });
+        } catch (RuntimeException ex) {
+            logger.error("Lost punch {} for user {} at {} {}: dead letter could not be saved", event.punchIn() ? "in" : "out",
+                    event.userId(), event.date(), event.time(), ex);
+        }
+    }
+
+    private void write(List<PunchEvent> events) {
+        List<Attendance> punchIns = new ArrayList<>();
+        List<Object[]> punchOuts = new ArrayList<>();
+        List<RollupChange> rollupChanges = new ArrayList<>();
+        Map<String, Attendance> open = openRecords(events);
+        LocalDateTime now = LocalDateTime.now();
+        for (PunchEvent event : events) {
+            if (event.punchIn()) {
+                Attendance attendance = new Attendance();
+                attendance.setUser(userRepository.getReferenceById(event.userId()));
+                attendance.setDate(event.date());
+                attendance.setPunchInTime(event.time());
+                attendance.setPunchInLocation(event.location());
+                attendance.setPunchInLatitude(event.latitude());
+                attendance.setPunchInLongitude(event.longitude());
+                attendance.setStatus(Attendance.AttendanceStatus.PRESENT);
+                punchIns.add(attendance);
+                rollupChanges.add(new RollupChange(null, new AttendanceSummaryRollup.Snapshot(
+                        event.userId(), event.date(), Attendance.AttendanceStatus.PRESENT, event.time(), null)));
+            } else {
+                Attendance.AttendanceStatus status = AttendanceServiceImpl.statusForWorkingTime(
+                        event.claim().punchInTime(), event.time());
+                punchOuts.add(new Object[] {Time.valueOf(event.time()), event.location(), event.latitude(),
+                        event.longitude(), status.name(), Attendance.minutesBetween(event.claim().punchInTime(), event.time()),
+                        Timestamp.valueOf(now), event.userId(), event.date()});
+                Attendance before = open.get(event.userId() + "@" + event.date());
+                if (before != null) {
+                    rollupChanges.add(new RollupChange(AttendanceSummaryRollup.Snapshot.of(before),
+                            new AttendanceSummaryRollup.Snapshot(event.userId(), event.date(), status,
+                                    before.getPunchInTime(), event.time())));
+                }
+            }
+        }
+
+        // Inserts go out as one JDBC batch and are flushed before the updates that may depend on them
+        if (!punchIns.isEmpty()) {
+            attendanceRepository.saveAllAndFlush(punchIns);
+        }
+        if (!punchOuts.isEmpty()) {
+            int[] updated = jdbcTemplate.batchUpdate(PUNCH_OUT_SQL, punchOuts);
+            for (int count : updated) {
+                if (count == 0) {
+                    throw new IllegalStateException("No open punch-in record to punch out");
+                }
+            }
+        }
+        // Rollup rows are locked in user order, as a rebuild locks them, so the two cannot deadlock
+        rollupChanges.sort(Comparator.comparing(change -> change.after().userId()));
+        for (RollupChange change : rollupChanges) {
+            attendanceSummaryRollup.apply(change.before(), change.after());
+        }
+        List<Long> retried = events.stream()
+                .map(PunchEvent::deadLetterId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+        if (!retried.isEmpty()) {
+            deadLetterRepository.markResolved(retried, now);
+        }
+    }
+
+    /**
+     * Current records behind the punch-outs of a batch, keyed by user and date, read with one query per date
+     */
+    private Map<String, Attendance> openRecords(List<PunchEvent> events) {
+        Map<LocalDate, List<Long>> usersByDate = events.stream()
+                .filter(event -> !event.punchIn())
+                .collect(Collectors.groupingBy(PunchEvent::date, Collectors.mapping(PunchEvent::userId, Collectors.toList())));
+        Map<String, Attendance> records = new HashMap<>();
+        usersByDate.forEach((date, userIds) -> {
+            for (Attendance attendance : attendanceRepository.findByDateAndUserIdIn(date, userIds)) {
+                records.put(attendance.getUser().getId() + "@" + date, attendance);
+            }
+        });
+        return records;
+    }
+}
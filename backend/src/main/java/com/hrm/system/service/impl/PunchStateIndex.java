@@ -0,0 +1,200 @@
+package com.hrm.system.service.impl;
+
+import com.hrm.system.entity.Attendance;
+import com.hrm.system.repository.AttendanceRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory punch state for the current day, keyed by user ID.
+ * Punch-in and punch-out claim a transition with a compare-and-set before touching the database,
+ * so duplicate checks need no query and concurrent double-clicks cannot both get through.
+ * A claim becomes final when its write commits and is rolled back otherwise.
+ * The unique (user_id, date) constraint on attendance remains the backstop across instances.
+ */
+@Component
+public class PunchStateIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(PunchStateIndex.class);
+
+    public enum Phase {
+        PUNCHING_IN, PUNCHED_IN, PUNCHING_OUT, PUNCHED_OUT
+    }
+
+    public record PunchState(Phase phase, LocalTime punchInTime) {
+
+        public boolean punchedOut() {
+            return phase == Phase.PUNCHING_OUT || phase == Phase.PUNCHED_OUT;
+        }
+    }
+
+    private record Day(LocalDate date, ConcurrentHashMap<Long, PunchState> states) {
+    }
+
+    @Autowired
+    private AttendanceRepository attendanceRepository;
+
+    private volatile Day day = new Day(LocalDate.MIN, new ConcurrentHashMap<>());
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warm() {
+        current(LocalDate.now());
+    }
+
+    /**
+     * Whether punch state for the date is answered from memory
+     */
+    public boolean covers(LocalDate date) {
+        return date.equals(LocalDate.now());
+    }
+
+    /**
+     * Punch state of a user on the indexed day, or null when the user has no record
+     */
+    public PunchState stateOf(Long userId, LocalDate date) {
+        return current(date).states().get(userId);
+    }
+
+    /**
+     * A claimed transition that must be completed once the write has committed or failed
+     */
+    public interface Claim {
+
+        LocalTime punchInTime();
+
+        void complete(boolean committed);
+    }
+
+    /**
+     * Claim the punch-in for a user. Returns null when the user already has a record or a punch-in in flight.
+     */
+    public Claim tryBeginPunchIn(Long userId, LocalDate date, LocalTime punchInTime) {
+        ConcurrentHashMap<Long, PunchState> states = current(date).states();
+        PunchState claim = new PunchState(Phase.PUNCHING_IN, punchInTime);
+        if (states.putIfAbsent(userId, claim) != null) {
+            return null;
+        }
+        return new Claim() {
+            @Override
+            public LocalTime punchInTime() {
+                return punchInTime;
+            }
+
+            @Override
+            public void complete(boolean committed) {
+                if (committed) {
+                    states.replace(userId, claim, new PunchState(Phase.PUNCHED_IN, punchInTime));
+                } else {
+                    states.remove(userId, claim);
+                }
+            }
+        };
+    }
+
+    /**
+     * Claim the punch-out for a user. Returns null when the user is not currently punched in.
+     */
+    public Claim tryBeginPunchOut(Long userId, LocalDate date) {
+        ConcurrentHashMap<Long, PunchState> states = current(date).states();
+        PunchState punchedIn = states.get(userId);
+        if (punchedIn == null || punchedIn.phase() != Phase.PUNCHED_IN) {
+            return null;
+        }
+        PunchState claim = new PunchState(Phase.PUNCHING_OUT, punchedIn.punchInTime());
+        if (!states.replace(userId, punchedIn, claim)) {
+            return null;
+        }
+        return new Claim() {
+            @Override
+            public LocalTime punchInTime() {
+                return punchedIn.punchInTime();
+            }
+
+            @Override
+            public void complete(boolean committed) {
+                states.replace(userId, claim,
+                        committed ? new PunchState(Phase.PUNCHED_OUT, punchedIn.punchInTime()) : punchedIn);
+            }
+        };
+    }
+
+    /**
+     * Complete a claim when the current transaction finishes
+     */
+    public void completeWithTransaction(Claim claim) {
+        onCompletion(claim::complete);
+    }
+
+    /**
+     * Reflect an attendance row written outside the punch flow once its transaction commits
+     */
+    public void record(Attendance attendance) {
+        Long userId = attendance.getUser().getId();
+        LocalDate date = attendance.getDate();
+        PunchState state = new PunchState(attendance.getPunchOutTime() != null ? Phase.PUNCHED_OUT : Phase.PUNCHED_IN,
+                attendance.getPunchInTime());
+        onCompletion(committed -> {
+            if (committed && covers(date)) {
+                current(date).states().put(userId, state);
+            }
+        });
+    }
+
+    /**
+     * Forget a user's state for a date once the deleting transaction commits
+     */
+    public void remove(Long userId, LocalDate date) {
+        onCompletion(committed -> {
+            if (committed && covers(date)) {
+                current(date).states().remove(userId);
+            }
+        });
+    }
+
+    private Day current(LocalDate date) {
+        Day snapshot = day;
+        if (snapshot.date().equals(date)) {
+            return snapshot;
+        }
+        synchronized (this) {
+            if (!day.date().equals(date)) {
+                ConcurrentHashMap<Long, PunchState> states = new ConcurrentHashMap<>();
+                for (AttendanceRepository.PunchRow row : attendanceRepository.findPunchRowsByDate(date)) {
+                    Phase phase = row.getPunchOutTime() != null ? Phase.PUNCHED_OUT : Phase.PUNCHED_IN;
+                    states.put(row.getUserId(), new PunchState(phase, row.getPunchInTime()));
+                }
+                day = new Day(date, states);
+                logger.info("Punch state index warmed for {} with {} records", date, states.size());
+            }
+            return day;
+        }
+    }
+
+    private static void onCompletion(CompletionCallback callback) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            callback.completed(true);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                callback.completed(status == STATUS_COMMITTED);
+            }
+        });
+    }
+
+    @FunctionalInterface
+    private interface CompletionCallback {
+        void completed(boolean committed);
+    }
+}
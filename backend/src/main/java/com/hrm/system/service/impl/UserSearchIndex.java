@@ -0,0 +1,492 @@
+package com.hrm.system.service.impl;
+
+import com.hrm.system.entity.User;
+import com.hrm.system.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory trigram index over employee name, email, employee ID and phone number.
+ * Every token is indexed by its trigrams, padded at the front so one and two character
+ * queries match token prefixes. A query intersects the posting lists of its trigrams,
+ * verifies the candidates and ranks exact and prefix matches above infix ones.
+ * One to three character terms, which match too many users to score per query, are also
+ * indexed with the score they earn, so a single short term reads its page straight off.
+ * Changes are applied once the writing transaction commits.
+ */
+@Component
+public class UserSearchIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserSearchIndex.class);
+
+    private static final String PADDING = "\u0001\u0001";
+
+    private static final int MAX_TERMS = 5;
+
+    private static final int EXACT_NAME = 100;
+
+    private static final int EXACT_OTHER = 90;
+
+    private static final int PREFIX_NAME = 60;
+
+    private static final int PREFIX_OTHER = 40;
+
+    private static final int INFIX = 10;
+
+    /** Scores a single term can earn, best first, indexing the buckets of a short term */
+    private static final int[] RANKS = {EXACT_NAME, EXACT_OTHER, PREFIX_NAME, PREFIX_OTHER, INFIX};
+
+    private static final int SHORT_TERM = 3;
+
+    /**
+     * One page of ranked user IDs and the number of users matching in total
+     */
+    public record Result(List<Long> userIds, int total) {
+    }
+
+    /**
+     * Tokens are kept space-delimited in two strings, with a space at either end,
+     * so matching a user reads two contiguous strings instead of one object per token
+     */
+    private record Entry(Long userId, String names, String others) {
+    }
+
+    /**
+     * A query term with the delimited forms used to spot exact and prefix token matches
+     */
+    private record Term(String text, String prefix, String exact) {
+
+        static Term of(String text) {
+            return new Term(text, " " + text, " " + text + " ");
+        }
+    }
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /** Indexed users by slot; a slot is cleared when its user changes and a new slot is taken */
+    private final List<Entry> slots = new ArrayList<>();
+
+    private final Map<Long, Integer> slotByUser = new HashMap<>();
+
+    /** Ascending slots per trigram, since slots are only ever appended */
+    private final Map<String, IntList> postings = new HashMap<>();
+
+    /** Ascending slots per one to three character term, one bucket per score in {@link #RANKS} */
+    private final Map<String, IntList[]> shortTerms = new HashMap<>();
+
+    private int clearedSlots;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warm() {
+        List<User> users = userRepository.findAll();
+        lock.writeLock().lock();
+        try {
+            slots.clear();
+            slotByUser.clear();
+            postings.clear();
+            shortTerms.clear();
+            clearedSlots = 0;
+            users.forEach(user -> add(entry(user)));
+        } finally {
+            lock.writeLock().unlock();
+        }
+        logger.info("User search index warmed with {} users", users.size());
+    }
+
+    /**
+     * Rank the users matching every term of the query and return one page of their IDs
+     */
+    public Result search(String query, int offset, int limit) {
+        Term[] terms = terms(query);
+        if (terms.length == 0) {
+            return new Result(List.of(), 0);
+        }
+
+        lock.readLock().lock();
+        try {
+            if (terms.length == 1 && terms[0].text().length() <= SHORT_TERM) {
+                return shortTermPage(terms[0].text(), offset, limit);
+            }
+            int[] candidates = candidates(terms);
+            int[] scores = new int[candidates.length];
+            int[] hitsPerScore = new int[terms.length * EXACT_NAME + 1];
+            int total = 0;
+            for (int i = 0; i < candidates.length; i++) {
+                Entry entry = slots.get(candidates[i]);
+                scores[i] = entry != null ? score(entry, terms) : 0;
+                if (scores[i] > 0) {
+                    hitsPerScore[scores[i]]++;
+                    total++;
+                }
+            }
+            return new Result(page(candidates, scores, hitsPerScore, offset, limit), total);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Read one page of a short term off its score buckets, best first and in index order within a bucket.
+     * The work follows the offset and page size rather than the thousands of users the term matches.
+     */
+    private Result shortTermPage(String term, int offset, int limit) {
+        IntList[] buckets = shortTerms.get(term);
+        if (buckets == null) {
+            return new Result(List.of(), 0);
+        }
+        List<Long> userIds = new ArrayList<>();
+        int total = 0;
+        int skipped = 0;
+        for (IntList bucket : buckets) {
+            if (bucket == null) {
+                continue;
+            }
+            int live = bucket.size - bucket.cleared;
+            total += live;
+            if (skipped + live <= offset) {
+                skipped += live;
+                continue;
+            }
+            for (int i = 0; i < bucket.size && userIds.size() < limit; i++) {
+                Entry entry = slots.get(bucket.values[i]);
+                if (entry == null) {
+                    continue;
+                }
+                if (skipped < offset) {
+                    skipped++;
+                } else {
+                    userIds.add(entry.userId());
+                }
+            }
+        }
+        return new Result(userIds, total);
+    }
+
+    private int[] candidates(Term[] terms) {
+        List<IntList> lists = new ArrayList<>();
+        for (Term term : terms) {
+            for (String gram : queryGrams(term.text())) {
+                IntList list = postings.get(gram);
+                if (list == null) {
+                    return new int[0];
+                }
+                lists.add(list);
+            }
+        }
+        // Intersect from the shortest list so every step can only shrink the candidates
+        lists.sort(Comparator.comparingInt(list -> list.size));
+        int[] result = Arrays.copyOf(lists.get(0).values, lists.get(0).size);
+        int size = result.length;
+        for (int i = 1; i < lists.size() && size > 0; i++) {
+            size = intersect(result, size, lists.get(i));
+        }
+        return Arrays.copyOf(result, size);
+    }
+
+    private static int intersect(int[] result, int size, IntList other) {
+        int kept = 0;
+        int j = 0;
+        for (int i = 0; i < size && j < other.size; i++) {
+            int slot = result[i];
+            j = other.seek(slot, j);
+            if (j < other.size && other.values[j] == slot) {
+                result[kept++] = slot;
+            }
+        }
+        return kept;
+    }
+
+    /**
+     * Sum of each term's best match, or 0 when a term does not really match (a trigram false positive)
+     */
+    private static int score(Entry entry, Term[] terms) {
+        int total = 0;
+        for (Term term : terms) {
+            int best = Math.max(score(entry.names(), term, EXACT_NAME, PREFIX_NAME),
+                    score(entry.others(), term, EXACT_OTHER, PREFIX_OTHER));
+            if (best == 0) {
+                return 0;
+            }
+            total += best;
+        }
+        return total;
+    }
+
+    private static int score(String tokens, Term term, int exact, int prefix) {
+        if (!tokens.contains(term.prefix())) {
+            return term.text().length() >= 3 && tokens.contains(term.text()) ? INFIX : 0;
+        }
+        return tokens.contains(term.exact()) ? exact : prefix;
+    }
+
+    /**
+     * Walk the hits from the best score down, taking ties in index order, until the page is filled.
+     * Score buckets that lie wholly before the offset are skipped without scanning them.
+     */
+    private List<Long> page(int[] candidates, int[] scores, int[] hitsPerScore, int offset, int limit) {
+        List<Long> userIds = new ArrayList<>();
+        int skipped = 0;
+        for (int score = hitsPerScore.length - 1; score > 0 && userIds.size() < limit; score--) {
+            if (hitsPerScore[score] == 0) {
+                continue;
+            }
+            if (skipped + hitsPerScore[score] <= offset) {
+                skipped += hitsPerScore[score];
+                continue;
+            }
+            for (int i = 0; i < candidates.length; i++) {
+                if (scores[i] != score) {
+                    continue;
+                }
+                if (skipped < offset) {
+                    skipped++;
+                } else if (userIds.size() < limit) {
+                    userIds.add(slots.get(candidates[i]).userId());
+                } else {
+                    return userIds;
+                }
+            }
+        }
+        return userIds;
+    }
+
+    /**
+     * Index a created or changed user once its transaction commits
+     */
+    public void put(User user) {
+        Entry entry = entry(user);
+        afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                clear(entry.userId());
+                add(entry);
+                compactIfSparse();
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    /**
+     * Drop a deleted user once its transaction commits
+     */
+    public void remove(Long userId) {
+        afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                clear(userId);
+                compactIfSparse();
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    private void add(Entry entry) {
+        int slot = slots.size();
+        slots.add(entry);
+        slotByUser.put(entry.userId(), slot);
+        Set<String> grams = new HashSet<>();
+        for (String token : tokens(entry)) {
+            tokenGrams(token, grams);
+        }
+        for (String gram : grams) {
+            postings.computeIfAbsent(gram, key -> new IntList()).add(slot);
+        }
+        for (String term : shortTerms(entry)) {
+            int rank = rank(entry, term);
+            IntList[] buckets = shortTerms.computeIfAbsent(term, key -> new IntList[RANKS.length]);
+            if (buckets[rank] == null) {
+                buckets[rank] = new IntList();
+            }
+            buckets[rank].add(slot);
+        }
+    }
+
+    private void clear(Long userId) {
+        Integer slot = slotByUser.remove(userId);
+        if (slot != null) {
+            Entry entry = slots.set(slot, null);
+            clearedSlots++;
+            // Keep the short term totals exact until compaction drops the slot
+            for (String term : shortTerms(entry)) {
+                shortTerms.get(term)[rank(entry, term)].cleared++;
+            }
+        }
+    }
+
+    /**
+     * Bucket of a short term the entry falls in, from the same scoring a full search applies
+     */
+    private static int rank(Entry entry, String term) {
+        int score = score(entry, new Term[]{Term.of(term)});
+        for (int rank = 0; rank < RANKS.length; rank++) {
+            if (RANKS[rank] == score) {
+                return rank;
+            }
+        }
+        throw new IllegalStateException("Short term " + term + " does not match the entry it came from");
+    }
+
+    /**
+     * Rebuild once cleared slots outnumber live ones, so postings do not fill up with stale entries
+     */
+    private void compactIfSparse() {
+        if (clearedSlots < 1024 || clearedSlots < slots.size() / 2) {
+            return;
+        }
+        List<Entry> live = slots.stream().filter(entry -> entry != null).toList();
+        slots.clear();
+        slotByUser.clear();
+        postings.clear();
+        shortTerms.clear();
+        clearedSlots = 0;
+        live.forEach(this::add);
+    }
+
+    private static Entry entry(User user) {
+        List<String> names = new ArrayList<>();
+        split(user.getFirstName(), "\\s+", names);
+        split(user.getLastName(), "\\s+", names);
+        List<String> others = new ArrayList<>();
+        String email = normalize(user.getEmail());
+        if (!email.isEmpty()) {
+            others.add(email);
+            split(email, "[@._+-]+", others);
+        }
+        split(user.getEmployeeId(), "\\s+", others);
+        String phone = user.getPhoneNumber() != null ? user.getPhoneNumber().replaceAll("\\D", "") : "";
+        if (!phone.isEmpty()) {
+            others.add(phone);
+        }
+        return new Entry(user.getId(), " " + String.join(" ", names) + " ", " " + String.join(" ", others) + " ");
+    }
+
+    private static void split(String value, String separator, List<String> tokens) {
+        for (String token : normalize(value).split(separator)) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+    }
+
+    private static String normalize(String value) {
+        return value != null ? value.trim().toLowerCase(Locale.ROOT) : "";
+    }
+
+    private static Term[] terms(String query) {
+        return Arrays.stream(normalize(query).split("\\s+"))
+                .filter(term -> !term.isEmpty())
+                .distinct()
+                .limit(MAX_TERMS)
+                .map(Term::of)
+                .toArray(Term[]::new);
+    }
+
+    private static String[] tokens(Entry entry) {
+        return (entry.names() + entry.others()).trim().split(" +");
+    }
+
+    /**
+     * Every one to three character term that matches the entry: the short prefixes of its tokens
+     * and every three character run inside them
+     */
+    private static Set<String> shortTerms(Entry entry) {
+        Set<String> terms = new HashSet<>();
+        for (String token : tokens(entry)) {
+            for (int length = 1; length < SHORT_TERM && length <= token.length(); length++) {
+                terms.add(token.substring(0, length));
+            }
+            for (int i = 0; i + SHORT_TERM <= token.length(); i++) {
+                terms.add(token.substring(i, i + SHORT_TERM));
+            }
+        }
+        return terms;
+    }
+
+    private static void tokenGrams(String token, Set<String> grams) {
+        String padded = PADDING + token;
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            grams.add(padded.substring(i, i + 3));
+        }
+    }
+
+    /**
+     * Trigrams a token must contain to match the term: every trigram of a longer term,
+     * the padded prefix trigram of a one or two character term
+     */
+    private static List<String> queryGrams(String term) {
+        if (term.length() < 3) {
+            String padded = PADDING + term;
+            return List.of(padded.substring(padded.length() - 3));
+        }
+        List<String> grams = new ArrayList<>();
+        for (int i = 0; i + 3 <= term.length(); i++) {
+            String gram = term.substring(i, i + 3);
+            if (!grams.contains(gram)) {
+                grams.add(gram);
+            }
+        }
+        return grams;
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    /**
+     * Growable ascending int array, counting the values whose slot has since been cleared
+     */
+    private static final class IntList {
+
+        private int[] values = new int[4];
+
+        private int size;
+
+        private int cleared;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        /**
+         * Index of the first value not below the target, searching from the given index
+         */
+        int seek(int target, int from) {
+            int index = Arrays.binarySearch(values, from, size, target);
+            return index >= 0 ? index : -index - 1;
+        }
+    }
+}
@@ -1,36 +1,79 @@
 package com.hrm.system.service.impl;
 
+import com.hrm.system.dto.CursorPage;
 import com.hrm.system.dto.UserDto;
 import com.hrm.system.entity.User;
+import com.hrm.system.repository.KeysetCursor;
+import com.hrm.system.repository.ProjectionQueries;
 import com.hrm.system.repository.UserRepository;
+import com.hrm.system.security.AuthenticatedPrincipalCache;
+import com.hrm.system.service.ActivityLogService;
 import com.hrm.system.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
 @Transactional
 public class UserServiceImpl implements UserService {
     
+    private static final Set<String> SCROLL_SORT_FIELDS = Set.of("id", "employeeId", "email", "firstName", "lastName");
+    
     @Autowired
     private UserRepository userRepository;
     
     @Autowired
     private PasswordEncoder passwordEncoder;
     
+    @Autowired
+    private AuthenticatedPrincipalCache principalCache;
+    
+    @Autowired
+    private ActivityLogService activityLogService;
+    
+    @Autowired
+    private LeaveCalendarIndex leaveCalendarIndex;
+    
+    @Autowired
+    private UserSearchIndex searchIndex;
+    
+    @Autowired
+    private OrgChartIndex orgChartIndex;
+    
+    @Autowired
+    private ProjectionQueries projectionQueries;
+    
     @Override
     public UserDto createUser(UserDto userDto) {
         return createUserInternal(userDto);
     }
     
+    @Override
+    public User registerUser(User user) {
+        User savedUser = userRepository.save(user);
+        principalCache.evictCached(savedUser.getId());
+        activityLogService.logUserCreated(savedUser);
+        searchIndex.put(savedUser);
+        orgChartIndex.put(savedUser.getId(), null);
+        return savedUser;
+    }
+    
     private UserDto createUserInternal(UserDto userDto) {
         try {
             // Validate input
@@ -100,6 +143,10 @@ public class UserServiceImpl implements UserService {
             }
             
             User savedUser = userRepository.save(user);
+            principalCache.evictCached(savedUser.getId());
+            activityLogService.logUserCreated(savedUser);
+            searchIndex.put(savedUser);
+            orgChartIndex.put(savedUser.getId(), userDto.getManagerId());
             return new UserDto(savedUser);
         } catch (Exception e) {
             throw new RuntimeException("Failed to create user: " + e.getMessage(), e);
@@ -144,6 +191,9 @@ public class UserServiceImpl implements UserService {
         
         // Update manager if provided
         if (userDto.getManagerId() != null) {
+            if (userDto.getManagerId().equals(id) || orgChartIndex.isUnder(userDto.getManagerId(), id)) {
+                throw new RuntimeException("User " + id + " cannot report to themselves or to one of their own reports");
+            }
             Optional<User> manager = userRepository.findById(userDto.getManagerId());
             if (manager.isPresent()) {
                 user.setManager(manager.get());
@@ -153,6 +203,10 @@ public class UserServiceImpl implements UserService {
         }
         
         User updatedUser = userRepository.save(user);
+        principalCache.invalidate(id);
+        leaveCalendarIndex.userChanged(updatedUser);
+        searchIndex.put(updatedUser);
+        orgChartIndex.put(id, updatedUser.getManager() != null ? updatedUser.getManager().getId() : null);
         return new UserDto(updatedUser);
     }
     
@@ -172,8 +226,21 @@ public class UserServiceImpl implements UserService {
     }
     
     @Override
+    @Transactional(readOnly = true)
     public Page<UserDto> getAllUsers(Pageable pageable) {
-        return userRepository.findAll(pageable).map(UserDto::new);
+        return projectionQueries.findPage(ProjectionQueries.USER, null, pageable);
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<UserDto> scrollUsers(String cursor, String sortBy, Sort.Direction direction, int size,
+                                           User.Department department, User.UserStatus status) {
+        KeysetCursor position = KeysetCursor.decode(cursor, sortBy, direction, SCROLL_SORT_FIELDS);
+        Specification<User> filter = (root, query, cb) -> cb.and(
+                department != null ? cb.equal(root.get("department"), department) : cb.conjunction(),
+                status != null ? cb.equal(root.get("status"), status) : cb.conjunction());
+        List<UserDto> rows = projectionQueries.findAll(ProjectionQueries.USER, filter.and(position.remaining()), position.sort(), size + 1);
+        return CursorPage.of(rows, size, position, row -> row);
     }
     
     @Override
@@ -209,11 +276,55 @@ public class UserServiceImpl implements UserService {
     }
     
     @Override
-    public List<UserDto> searchUsers(String query) {
-        return userRepository.searchUsers(query)
-                .stream()
-                .map(UserDto::new)
+    public OrgChart getOrgChart(Long userId, Integer depth, Pageable pageable) {
+        OrgChartIndex.Node node = orgChartIndex.node(userId)
+                .orElseThrow(() -> new RuntimeException("User not found with ID: " + userId));
+        if (depth != null && depth < 1) {
+            throw new RuntimeException("Depth must be at least 1");
+        }
+        OrgChartIndex.Subtree subtree = orgChartIndex.subtree(userId, depth, (int) pageable.getOffset(), pageable.getPageSize());
+        List<Long> managerChain = orgChartIndex.managerChain(userId);
+        
+        // One query for the user, their managers and every report on the page
+        List<Long> userIds = new ArrayList<>();
+        userIds.add(userId);
+        userIds.addAll(managerChain);
+        subtree.reports().forEach(report -> userIds.add(report.userId()));
+        Map<Long, UserDto> users = new HashMap<>();
+        loadInOrder(userIds).forEach(user -> users.put(user.getId(), user));
+        
+        List<OrgChartNode> reports = subtree.reports().stream()
+                .filter(report -> users.containsKey(report.userId()))
+                .map(report -> toOrgChartNode(report, users))
                 .collect(Collectors.toList());
+        return new OrgChart(toOrgChartNode(node, users),
+                managerChain.stream().map(users::get).filter(Objects::nonNull).collect(Collectors.toList()),
+                new PageImpl<>(reports, pageable, subtree.total()));
+    }
+    
+    private static OrgChartNode toOrgChartNode(OrgChartIndex.Node node, Map<Long, UserDto> users) {
+        return new OrgChartNode(users.get(node.userId()), node.level(), node.directReports(), node.totalReports());
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public List<UserDto> searchUsers(String query) {
+        UserSearchIndex.Result result = searchIndex.search(query, 0, Integer.MAX_VALUE);
+        return loadInOrder(result.userIds());
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public Page<UserDto> searchUsers(String query, Pageable pageable) {
+        UserSearchIndex.Result result = searchIndex.search(query, (int) pageable.getOffset(), pageable.getPageSize());
+        return new PageImpl<>(loadInOrder(result.userIds()), pageable, result.total());
+    }
+    
+    /**
+     * Load users by ID in one query, keeping the ranked order
+     */
+    private List<UserDto> loadInOrder(List<Long> userIds) {
+        return projectionQueries.findAllById(ProjectionQueries.USER, userIds);
     }
     
     @Override
@@ -222,6 +333,9 @@ public class UserServiceImpl implements UserService {
             throw new RuntimeException("User not found with ID: " + id);
         }
         userRepository.deleteById(id);
+        principalCache.invalidate(id);
+        searchIndex.remove(id);
+        orgChartIndex.remove(id);
     }
     
     @Override
@@ -234,6 +348,7 @@ public class UserServiceImpl implements UserService {
         User existingUser = user.get();
         existingUser.setStatus(status);
         User updatedUser = userRepository.save(existingUser);
+        principalCache.invalidate(id);
         return new UserDto(updatedUser);
     }
     
@@ -247,6 +362,7 @@ public class UserServiceImpl implements UserService {
         User existingUser = user.get();
         existingUser.setProfileImage(imageUrl);
         User updatedUser = userRepository.save(existingUser);
+        principalCache.invalidate(id);
         return new UserDto(updatedUser);
     }
     
@@ -271,11 +387,11 @@ public class UserServiceImpl implements UserService {
     }
     
     @Override
-    public void updateLastLogin(Long userId) {
-        userRepository.findById(userId).ifPresent(user -> {
-            user.setLastLoginAt(LocalDateTime.now());
-            userRepository.save(user);
-        });
+    public User updateLastLogin(User user) {
+        user.setLastLoginAt(LocalDateTime.now());
+        User savedUser = userRepository.save(user);
+        principalCache.evictCached(savedUser.getId());
+        return savedUser;
     }
     
     @Override
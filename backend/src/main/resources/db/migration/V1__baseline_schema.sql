@@ -0,0 +1,39 @@
+-- Schema as created by Hibernate before migrations were introduced
+create sequence attendance_seq start with 1 increment by 50;
+create sequence leaves_seq start with 1 increment by 50;
+create sequence payroll_seq start with 1 increment by 50;
+create sequence performance_seq start with 1 increment by 50;
+create sequence users_seq start with 1 increment by 50;
+create table ai_suggestions (ai_score float(53), created_at timestamp(6) not null, dismissed_at timestamp(6), id bigint generated by default as identity, implemented_at timestamp(6), user_id bigint not null, category varchar(255) not null check (category in ('PRODUCTIVITY','CAREER_GROWTH','SKILLS','LEADERSHIP','TEAMWORK','COMMUNICATION')), description TEXT, implementation_notes TEXT, priority varchar(255) not null check (priority in ('HIGH','MEDIUM','LOW')), status varchar(255) not null check (status in ('ACTIVE','IMPLEMENTED','DISMISSED','EXPIRED')), title varchar(255) not null, type varchar(255) not null check (type in ('IMPROVEMENT','OPPORTUNITY','URGENT','RECOMMENDATION')), primary key (id));
+create table appraisals (rating float(53) not null, appraisal_date timestamp(6) not null, created_at timestamp(6) not null, employee_id bigint not null, id bigint generated by default as identity, manager_id bigint not null, updated_at timestamp(6), achievements TEXT, employee_comments TEXT, goals TEXT, improvements TEXT, manager_comments TEXT, period varchar(255) not null, status varchar(255) not null check (status in ('DRAFT','SUBMITTED','APPROVED','REJECTED','COMPLETED')), primary key (id));
+create table attendance (date date, punch_in_latitude float(53), punch_in_longitude float(53), punch_in_time TIME, punch_out_latitude float(53), punch_out_longitude float(53), punch_out_time TIME, created_at TIMESTAMP, id bigint not null, updated_at TIMESTAMP, user_id bigint not null, notes varchar(255), punch_in_location varchar(255), punch_out_location varchar(255), status varchar(255) check (status in ('PRESENT','ABSENT','HALF_DAY','LEAVE','HOLIDAY','WEEKEND')), primary key (id));
+create table documents (expiry_date timestamp(6), file_size bigint, id bigint generated by default as identity, upload_date timestamp(6) not null, user_id bigint not null, description varchar(255) not null, file_path varchar(255), name varchar(255) not null, type varchar(255) not null, primary key (id));
+create table feedback (is_anonymous boolean, rating integer not null, created_at timestamp(6) not null, id bigint generated by default as identity, recipient_id bigint not null, reviewer_id bigint not null, updated_at timestamp(6), comment TEXT, review_period varchar(255), status varchar(255) not null check (status in ('PENDING','SUBMITTED','APPROVED','REJECTED')), type varchar(255) not null check (type in ('SELF','PEER','MANAGER','SUBORDINATE')), primary key (id));
+create table feedback_requests (created_at timestamp(6) not null, id bigint generated by default as identity, recipient_id bigint not null, requester_id bigint not null, updated_at timestamp(6), feedback_type varchar(255) not null check (feedback_type in ('SELF','PEER','MANAGER','SUBORDINATE')), message varchar(255), review_period varchar(255), status varchar(255) not null check (status in ('PENDING','ACCEPTED','DECLINED','COMPLETED','EXPIRED')), primary key (id));
+create table leaves (end_date date, is_half_day boolean not null, start_date date, approved_at timestamp(6), approved_by bigint, created_at timestamp(6), id bigint not null, updated_at timestamp(6), user_id bigint not null, approval_comments varchar(255), leave_type varchar(255) check (leave_type in ('ANNUAL','SICK','PERSONAL','MATERNITY','PATERNITY','BEREAVEMENT','UNPAID')), reason varchar(255), status varchar(255) check (status in ('PENDING','APPROVED','REJECTED','CANCELLED')), primary key (id));
+create table payroll (basic_salary numeric(38,2), bonus numeric(38,2), conveyance_allowance numeric(38,2), dearness_allowance numeric(38,2), gross_salary numeric(38,2), house_rent_allowance numeric(38,2), incentives numeric(38,2), income_tax numeric(38,2), medical_allowance numeric(38,2), net_salary numeric(38,2), other_deductions numeric(38,2), overtime numeric(38,2), payment_date date, professional_tax numeric(38,2), provident_fund numeric(38,2), special_allowance numeric(38,2), total_deductions numeric(38,2), created_at timestamp(6), id bigint not null, updated_at timestamp(6), user_id bigint not null, bank_account_number varchar(255), pay_period varbinary(255), payment_method varchar(255), payment_status varchar(255) check (payment_status in ('PENDING','PROCESSING','PAID','FAILED','CANCELLED')), remarks varchar(255), transaction_id varchar(255), primary key (id));
+create table performance (overall_rating integer, review_period date, created_at timestamp(6), id bigint not null, next_review_date timestamp(6), review_date timestamp(6), reviewer_id bigint, updated_at timestamp(6), user_id bigint not null, achievements varchar(255), areas_of_improvement varchar(255), challenges varchar(255), comments varchar(255), goals varchar(255), recommendations varchar(255), review_type varchar(255) check (review_type in ('ANNUAL','QUARTERLY','MONTHLY','PROJECT_BASED','PROBATION')), status varchar(255) check (status in ('DRAFT','IN_PROGRESS','COMPLETED','APPROVED','REJECTED')), strengths varchar(255), primary key (id));
+create table performance_goals (progress integer not null, assigned_by bigint, created_at timestamp(6) not null, due_date timestamp(6), id bigint generated by default as identity, updated_at timestamp(6), user_id bigint not null, current varchar(255) not null, description TEXT, status varchar(255) not null check (status in ('ON_TRACK','AT_RISK','COMPLETED','OVERDUE')), target varchar(255) not null, title varchar(255) not null, type varchar(255) not null check (type in ('QUARTERLY','ANNUAL','PROJECT_BASED','SKILL_DEVELOPMENT')), primary key (id));
+create table projects (budget float(53), end_date date, start_date date not null, assigned_date timestamp(6) not null, created_at timestamp(6) not null, employee_id bigint not null, id bigint generated by default as identity, updated_at timestamp(6), description TEXT, name varchar(255) not null, priority varchar(255), role varchar(255) not null, status varchar(255) not null, primary key (id));
+create table reviews (rating integer not null, created_at timestamp(6), employee_id bigint not null, id bigint generated by default as identity, review_date timestamp(6) not null, reviewer_id bigint not null, updated_at timestamp(6), goals TEXT, improvements TEXT, strengths TEXT, summary TEXT not null, title varchar(255) not null, primary key (id));
+create table users (date_of_birth date, created_at timestamp(6), date_of_joining timestamp(6), id bigint not null, last_login_at timestamp(6), manager_id bigint, updated_at timestamp(6), address varchar(255), department varchar(255) check (department in ('HR','IT','FINANCE','MARKETING','SALES','OPERATIONS','ENGINEERING','SUPPORT')), email varchar(255) not null unique, emergency_contact varchar(255), employee_id varchar(255) not null unique, first_name varchar(255), last_name varchar(255), password varchar(255), phone_number varchar(255), profile_image varchar(255), role varchar(255) check (role in ('ADMIN','MANAGER','EMPLOYEE','IT_SUPPORT')), status varchar(255) check (status in ('ACTIVE','INACTIVE','LOCKED','TERMINATED')), primary key (id));
+alter table if exists ai_suggestions add constraint FK4lf0xwmt3u91h5iktf8iuvvqu foreign key (user_id) references users;
+alter table if exists appraisals add constraint FKa3v0ihe980xskmbrkmo0ik40l foreign key (employee_id) references users;
+alter table if exists appraisals add constraint FKl9xrj5moa2vyia8xk9ver3xwi foreign key (manager_id) references users;
+alter table if exists attendance add constraint FKjcaqd29v2qy723owsdah2t8vx foreign key (user_id) references users;
+alter table if exists documents add constraint FKkxttj4tp5le2uth212lu49vny foreign key (user_id) references users;
+alter table if exists feedback add constraint FK7qaa466wix9rgj2tv38abl11u foreign key (recipient_id) references users;
+alter table if exists feedback add constraint FKkvb01go0eka307w63sd85kv4w foreign key (reviewer_id) references users;
+alter table if exists feedback_requests add constraint FK42qu8djkcacsb70uapcai8c4a foreign key (recipient_id) references users;
+alter table if exists feedback_requests add constraint FKf8jl28m4vp4aokkgptowdo2i4 foreign key (requester_id) references users;
+alter table if exists leaves add constraint FKoipkl8s87p1284kd65ha2rimq foreign key (approved_by) references users;
+alter table if exists leaves add constraint FKa3vfaevh5a44ccfq2wodxoxig foreign key (user_id) references users;
+alter table if exists payroll add constraint FKmlesr2hfrhtmj68jqpe8rj4qx foreign key (user_id) references users;
+alter table if exists performance add constraint FKag5a17s1ofb9bjukbn6hxrer0 foreign key (reviewer_id) references users;
+alter table if exists performance add constraint FKgnrih50e9vd2u791msuqhg73a foreign key (user_id) references users;
+alter table if exists performance_goals add constraint FKoqpvwqyudwapuguxtyam64jt6 foreign key (assigned_by) references users;
+alter table if exists performance_goals add constraint FKak7wd4q7lqsd6mimy7ycdhvpk foreign key (user_id) references users;
+alter table if exists projects add constraint FK26e65oxr7r4xrd718e76e5bko foreign key (employee_id) references users;
+alter table if exists reviews add constraint FKcphdqjou3dgb7p2kss4bqd7pj foreign key (employee_id) references users;
+alter table if exists reviews add constraint FKd1isgfajhtdl8mgg29up6mofi foreign key (reviewer_id) references users;
+alter table if exists users add constraint FK5p1ci5btqfwvtaqx5n2wxi182 foreign key (manager_id) references users;
@@ -0,0 +1,32 @@
+-- Activity feed, chunked payroll runs, attendance and leave rollups, and the keys and indexes their queries rely on.
+-- Statements are guarded so a database that Hibernate already updated before baselining migrates cleanly.
+
+create sequence if not exists activity_log_seq start with 1 increment by 50;
+create sequence if not exists attendance_summary_seq start with 1 increment by 50;
+create sequence if not exists leave_balances_seq start with 1 increment by 50;
+create sequence if not exists payroll_runs_seq start with 1 increment by 50;
+
+create table if not exists activity_log (id bigint not null, occurred_at timestamp(6) not null, related_id bigint, user_id bigint, department varchar(255) check (department in ('HR','IT','FINANCE','MARKETING','SALES','OPERATIONS','ENGINEERING','SUPPORT')), description varchar(255), icon varchar(255), title varchar(255), type varchar(255) not null, user_name varchar(255), primary key (id));
+create table if not exists attendance_summary (period_month integer not null, period_year integer not null, absent_days bigint not null, early_departures bigint not null, half_days bigint not null, id bigint not null, late_arrivals bigint not null, leave_days bigint not null, present_days bigint not null, total_minutes bigint not null, updated_at TIMESTAMP, user_id bigint not null, primary key (id), constraint uk_attendance_summary_user_period unique (user_id, period_year, period_month));
+create table if not exists leave_balances (balance_year integer not null, entitled_days integer, pending_days integer not null, used_days integer not null, id bigint not null, updated_at TIMESTAMP, user_id bigint not null, version bigint, leave_type varchar(255) not null check (leave_type in ('ANNUAL','SICK','PERSONAL','MATERNITY','PATERNITY','BEREAVEMENT','UNPAID')), primary key (id), constraint uk_leave_balances_user_type_year unique (user_id, leave_type, balance_year));
+create table if not exists payroll_runs (chunk_size integer not null, completed_chunks integer not null, completed_at timestamp(6), created_at timestamp(6), id bigint not null, last_processed_user_id bigint, processed_employees bigint not null, started_at timestamp(6), started_by bigint, total_employees bigint not null, updated_at timestamp(6), version bigint, error_message varchar(255), owner_node varchar(255), pay_period varbinary(255), status varchar(255) check (status in ('PENDING','RUNNING','COMPLETED','FAILED')), primary key (id));
+
+-- Filled in for existing rows by AttendanceServiceImpl.backfillWorkingMinutes on startup
+alter table attendance add column if not exists working_minutes integer;
+
+-- Fails if duplicate rows exist; remove them before migrating
+alter table attendance add constraint if not exists uk_attendance_user_date unique (user_id, date);
+alter table payroll add constraint if not exists uk_payroll_user_period unique (user_id, pay_period);
+
+create index if not exists idx_activity_log_occurred on activity_log (occurred_at, id);
+create index if not exists idx_activity_log_user_occurred on activity_log (user_id, occurred_at, id);
+create index if not exists idx_activity_log_department_occurred on activity_log (department, occurred_at, id);
+create index if not exists idx_attendance_date_status on attendance (date, status);
+create index if not exists idx_attendance_status_date on attendance (status, date);
+create index if not exists idx_attendance_date_minutes on attendance (date, working_minutes);
+create index if not exists idx_attendance_summary_period on attendance_summary (period_year, period_month);
+create index if not exists idx_leaves_user_status_start on leaves (user_id, status, start_date);
+create index if not exists idx_leaves_status_start on leaves (status, start_date);
+create index if not exists idx_leaves_type_status on leaves (leave_type, status);
+create index if not exists idx_leaves_start_end on leaves (start_date, end_date);
+create index if not exists idx_users_department on users (department);
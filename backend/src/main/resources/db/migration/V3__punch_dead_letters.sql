@@ -0,0 +1,8 @@
+-- Queued punches that were acknowledged but could not be written, kept for retry and for the punch status endpoint
+
+create sequence if not exists punch_dead_letters_seq start with 1 increment by 50;
+
+create table if not exists punch_dead_letters (punch_date date not null, punch_time TIME, latitude float(53), longitude float(53), attempts integer not null, punch_in boolean not null, failed_at timestamp(6), id bigint not null, resolved_at timestamp(6), user_id bigint not null, last_error varchar(255), location varchar(255), primary key (id));
+
+create index if not exists idx_punch_dead_letters_user_date on punch_dead_letters (user_id, punch_date);
+create index if not exists idx_punch_dead_letters_open on punch_dead_letters (resolved_at, punch_date);
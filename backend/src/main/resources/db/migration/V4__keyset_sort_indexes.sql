@@ -0,0 +1,10 @@
+-- (sort key, id) indexes for the fields the scroll endpoints page by, so each page is one index range scan
+
+create index if not exists idx_users_employee_id_id on users (employee_id, id);
+create index if not exists idx_users_email_id on users (email, id);
+create index if not exists idx_users_first_name_id on users (first_name, id);
+create index if not exists idx_users_last_name_id on users (last_name, id);
+create index if not exists idx_attendance_date_id on attendance (date, id);
+create index if not exists idx_payroll_period_id on payroll (pay_period, id);
+create index if not exists idx_leaves_start_id on leaves (start_date, id);
+create index if not exists idx_leaves_end_id on leaves (end_date, id);
@@ -1,7 +1,6 @@
 package com.hrm.system;
 
 import org.junit.jupiter.api.Test;
-import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
@@ -12,7 +11,6 @@ import static org.junit.jupiter.api.Assertions.*;
 /**
  * Test class to verify SQLite database connection and basic operations
  */
-@SpringBootTest
 @DataJpaTest
 @ActiveProfiles("test")
 public class DatabaseConnectionTest {
@@ -0,0 +1,79 @@
+package com.hrm.system.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * The statement budget runs in fail-on-exceed mode in the test profile; a budget of 3 makes the
+ * dashboard statistics request (4 statements) fail while single-lookup requests pass.
+ */
+@SpringBootTest(properties = "app.diagnostics.statement-budget.max-per-request=3")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@WithMockUser(roles = "ADMIN")
+class SqlStatementMetricsTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void requestOverBudgetFails() throws Exception {
+        mockMvc.perform(get("/api/dashboard/statistics"))
+                .andExpect(status().isInternalServerError());
+
+        DistributionSummary statements = summary("DashboardController.getDashboardStatistics");
+        assertEquals(4.0, statements.max(), "counting stops at the statement that broke the budget");
+    }
+
+    @Test
+    void requestWithinBudgetIsRecorded() throws Exception {
+        mockMvc.perform(get("/api/users/1"))
+                .andExpect(status().isOk());
+
+        DistributionSummary statements = summary("UserController.getUserById");
+        assertTrue(statements.count() >= 1);
+        assertTrue(statements.max() <= 3);
+    }
+
+    @Test
+    void streamedResponseIsCountedOnItsOwnRequest() throws Exception {
+        MvcResult export = mockMvc.perform(get("/api/attendance/export")
+                        .param("startDate", "2026-01-01")
+                        .param("endDate", "2026-01-31"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // The worker thread is free again: a request handled on it starts from zero
+        mockMvc.perform(get("/api/users/1"))
+                .andExpect(status().isOk());
+        assertTrue(summary("UserController.getUserById").max() <= 3);
+
+        mockMvc.perform(asyncDispatch(export))
+                .andExpect(status().isOk());
+        DistributionSummary statements = summary("AttendanceController.exportAttendance");
+        assertEquals(1, statements.count());
+        assertTrue(statements.totalAmount() >= 1, "the export query runs while the body is streamed");
+    }
+
+    private DistributionSummary summary(String handler) {
+        return meterRegistry.get("hrm.sql.statements").tag("handler", handler).summary();
+    }
+}
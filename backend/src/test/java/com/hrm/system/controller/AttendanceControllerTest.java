@@ -0,0 +1,248 @@
+package com.hrm.system.controller;
+
+import com.hrm.system.service.AttendanceService;
+import com.jayway.jsonpath.JsonPath;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.Mockito.doThrow;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Endpoints added to the attendance API, run against the seeded test database.
+ * Each test works in its own dates so tests sharing the context do not see each other's rows.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@WithMockUser(roles = "ADMIN")
+class AttendanceControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @SpyBean
+    private AttendanceService attendanceService;
+
+    @Test
+    void statusRecomputeDryRunReportsCounts() throws Exception {
+        mockMvc.perform(post("/api/attendance/update-status-for-date/2030-01-07").param("dryRun", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.date").value("2030-01-07"))
+                .andExpect(jsonPath("$.dryRun").value(true))
+                .andExpect(jsonPath("$.totalRecords").value(0))
+                .andExpect(jsonPath("$.changedRecords").value(0));
+    }
+
+    @Test
+    void failedStatusRecomputeExplainsWhy() throws Exception {
+        doThrow(new RuntimeException("lock timeout")).when(attendanceService)
+                .updateAllAttendanceStatusForDate(any(LocalDate.class), anyBoolean());
+
+        mockMvc.perform(post("/api/attendance/update-status-for-date/2030-01-08"))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string("Failed to update attendance status: lock timeout"));
+    }
+
+    @Test
+    void punchStatusIsNotServedWithoutTheQueue() throws Exception {
+        mockMvc.perform(get("/api/attendance/punch-status/3"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void attendanceWritesShowInTheMonthlySummary() throws Exception {
+        createAttendance(3L, "2030-04-01", "09:30", "17:00");
+        createAttendance(3L, "2030-04-02", "09:00", "16:30");
+
+        mockMvc.perform(get("/api/attendance/summary/user/3").param("year", "2030").param("month", "4"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.presentDays").value(2))
+                .andExpect(jsonPath("$.totalWorkingMinutes").value(450 + 450))
+                .andExpect(jsonPath("$.lateArrivals").value(1))
+                .andExpect(jsonPath("$.earlyDepartures").value(1));
+        mockMvc.perform(get("/api/attendance/summary").param("year", "2030").param("month", "4"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].userId").value(3));
+        mockMvc.perform(post("/api/attendance/summary/rebuild").param("year", "2030").param("month", "4").param("dryRun", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.checkedUsers").value(1))
+                .andExpect(jsonPath("$.mismatchedUsers").value(0));
+    }
+
+    @Test
+    void summaryOfAMonthWithoutRecordsIsEmpty() throws Exception {
+        mockMvc.perform(get("/api/attendance/summary/user/3").param("year", "2030").param("month", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.presentDays").value(0));
+        mockMvc.perform(post("/api/attendance/summary/rebuild").param("year", "2030").param("month", "13"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void exportStreamsTheDepartmentAsCsv() throws Exception {
+        createAttendance(3L, "2030-06-03", "09:00", "17:00");
+        createAttendance(5L, "2030-06-03", "09:00", "17:00");
+
+        MvcResult export = mockMvc.perform(get("/api/attendance/export")
+                        .param("department", "it")
+                        .param("startDate", "2030-06-01")
+                        .param("endDate", "2030-06-30"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String csv = mockMvc.perform(asyncDispatch(export))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Disposition", "attachment; filename=attendance-it-2030-06-01-2030-06-30.csv"))
+                .andReturn().getResponse().getContentAsString();
+
+        String[] lines = csv.split("\n");
+        assertEquals(2, lines.length, csv);
+        assertTrue(lines[0].startsWith("id,employee_id,employee_name,department,date"));
+        assertTrue(lines[1].contains(",EMP003,") && lines[1].contains(",IT,2030-06-03,09:00,17:00,480,PRESENT,"), lines[1]);
+    }
+
+    @Test
+    void exportRejectsBadWindowsBeforeStreaming() throws Exception {
+        mockMvc.perform(get("/api/attendance/export")
+                        .param("department", "nowhere")
+                        .param("startDate", "2030-06-01")
+                        .param("endDate", "2030-06-30"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/attendance/export")
+                        .param("startDate", "2030-06-30")
+                        .param("endDate", "2030-06-01"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void reportsPickOutShortAndOvertimeDays() throws Exception {
+        createAttendance(3L, "2030-07-01", "09:30", "13:00");
+        createAttendance(4L, "2030-07-01", "07:00", "20:00");
+        createAttendance(5L, "2030-07-01", "09:00", "17:00");
+
+        mockMvc.perform(get("/api/attendance/reports/short-hours/2030-07-01"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].userId").value(3));
+        mockMvc.perform(get("/api/attendance/reports/overtime/2030-07-01"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].userId").value(4));
+        mockMvc.perform(get("/api/attendance/reports/department-daily")
+                        .param("department", "IT")
+                        .param("startDate", "2030-07-01")
+                        .param("endDate", "2030-07-31"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].date").value("2030-07-01"))
+                .andExpect(jsonPath("$[0].records").value(2))
+                .andExpect(jsonPath("$[0].lateArrivals").value(1))
+                .andExpect(jsonPath("$[0].shortDays").value(1))
+                .andExpect(jsonPath("$[0].overtimeDays").value(1))
+                .andExpect(jsonPath("$[0].overtimeMinutes").value(60));
+    }
+
+    @Test
+    void departmentReportRejectsAnUnknownDepartment() throws Exception {
+        mockMvc.perform(get("/api/attendance/reports/department-daily").param("department", "nowhere"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void scrollPagesAttendanceByDate() throws Exception {
+        createAttendance(6L, "2030-08-01", "09:00", "17:00");
+        createAttendance(6L, "2030-08-03", "09:00", "17:00");
+        createAttendance(6L, "2030-08-02", "09:00", "17:00");
+
+        String first = mockMvc.perform(get("/api/attendance/scroll").param("userId", "6").param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].date").value("2030-08-03"))
+                .andExpect(jsonPath("$.content[1].date").value("2030-08-02"))
+                .andExpect(jsonPath("$.hasNext").value(true))
+                .andReturn().getResponse().getContentAsString();
+        mockMvc.perform(get("/api/attendance/scroll")
+                        .param("userId", "6").param("cursor", JsonPath.<String>read(first, "$.nextCursor")).param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(1))
+                .andExpect(jsonPath("$.content[0].date").value("2030-08-01"))
+                .andExpect(jsonPath("$.hasNext").value(false));
+        mockMvc.perform(get("/api/attendance/scroll").param("sortBy", "notes"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void statisticsGroupAWindowByStatus() throws Exception {
+        createAttendance(3L, "2030-09-02", "09:00", "17:30", "PRESENT");
+        createAttendance(3L, "2030-09-03", "09:00", "17:00", "PRESENT");
+        createAttendance(3L, "2030-09-04", "09:00", "12:45", "HALF_DAY");
+        createAttendance(3L, "2030-09-05", null, null, "LEAVE");
+        createAttendance(3L, "2030-09-09", "09:00", "17:00", "PRESENT");
+        createAttendance(4L, "2030-09-04", null, null, "ABSENT");
+        createAttendance(5L, "2030-09-03", "09:00", "17:00", "PRESENT");
+
+        // 8.5 + 8 + 3.75 hours are summed before rounding down, not rounded per day
+        mockMvc.perform(get("/api/attendance/statistics/user/3").param("startDate", "2030-09-02").param("endDate", "2030-09-06"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalDays").value(4))
+                .andExpect(jsonPath("$.presentDays").value(2))
+                .andExpect(jsonPath("$.halfDays").value(1))
+                .andExpect(jsonPath("$.leaveDays").value(1))
+                .andExpect(jsonPath("$.absentDays").value(0))
+                .andExpect(jsonPath("$.attendanceRate").value(50.0))
+                .andExpect(jsonPath("$.totalWorkingHours").value(20));
+        mockMvc.perform(get("/api/attendance/statistics").param("startDate", "2030-09-03").param("endDate", "2030-09-04"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalPresent").value(2))
+                .andExpect(jsonPath("$.totalHalfDay").value(1))
+                .andExpect(jsonPath("$.totalAbsent").value(1))
+                .andExpect(jsonPath("$.totalLeave").value(0))
+                .andExpect(jsonPath("$.attendanceRate").value(50.0));
+        mockMvc.perform(get("/api/attendance/statistics/department/it").param("startDate", "2030-09-02").param("endDate", "2030-09-09"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalEmployees").value(6))
+                .andExpect(jsonPath("$.presentEmployees").value(3))
+                .andExpect(jsonPath("$.absentEmployees").value(1))
+                .andExpect(jsonPath("$.attendanceRate").value(50.0));
+        mockMvc.perform(get("/api/attendance/statistics/department/finance").param("startDate", "2030-09-02").param("endDate", "2030-09-09"))
+                .andExpect(jsonPath("$.totalEmployees").value(1))
+                .andExpect(jsonPath("$.presentEmployees").value(1));
+    }
+
+    private void createAttendance(Long userId, String date, String punchIn, String punchOut) throws Exception {
+        createAttendance(userId, date, punchIn, punchOut, "PRESENT");
+    }
+
+    private void createAttendance(Long userId, String date, String punchIn, String punchOut, String status) throws Exception {
+        mockMvc.perform(post("/api/attendance")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"userId\": " + userId + ", \"date\": \"" + date + "\", \"punchInTime\": " + time(punchIn)
+                                + ", \"punchOutTime\": " + time(punchOut) + ", \"status\": \"" + status + "\"}"))
+                .andExpect(status().isCreated());
+    }
+
+    private static String time(String value) {
+        return value != null ? "\"" + value + ":00\"" : "null";
+    }
+}
@@ -0,0 +1,193 @@
+package com.hrm.system.controller;
+
+import com.hrm.system.entity.User;
+import com.hrm.system.repository.UserRepository;
+import com.jayway.jsonpath.JsonPath;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import static org.hamcrest.Matchers.startsWith;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Endpoints added to the leave API, run against the seeded test database.
+ * Each test works in its own year so tests sharing the context do not see each other's leaves.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@WithMockUser(roles = "ADMIN")
+class LeaveControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void calendarCountsLeavesPerDay() throws Exception {
+        createLeave(3L, "ANNUAL", "2031-03-02", "2031-03-04").andExpect(status().isCreated());
+        createLeave(5L, "SICK", "2031-03-03", "2031-03-03").andExpect(status().isCreated());
+
+        mockMvc.perform(get("/api/leaves/calendar").param("startDate", "2031-03-01").param("endDate", "2031-03-05"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(5))
+                .andExpect(jsonPath("$[0].pending").value(0))
+                .andExpect(jsonPath("$[1].pending").value(1))
+                .andExpect(jsonPath("$[2].date").value("2031-03-03"))
+                .andExpect(jsonPath("$[2].pending").value(2))
+                .andExpect(jsonPath("$[2].approved").value(0))
+                .andExpect(jsonPath("$[4].pending").value(0));
+        mockMvc.perform(get("/api/leaves/calendar")
+                        .param("startDate", "2031-03-03").param("endDate", "2031-03-03").param("department", "it"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].pending").value(1));
+    }
+
+    @Test
+    void offListsLeavesInTheCallersOwnDepartment() throws Exception {
+        createLeave(3L, "ANNUAL", "2032-05-04", "2032-05-08").andExpect(status().isCreated());
+        createLeave(5L, "PERSONAL", "2032-05-06", "2032-05-06").andExpect(status().isCreated());
+        User financeEmployee = userRepository.findByEmployeeId("EMP005").orElseThrow();
+
+        mockMvc.perform(get("/api/leaves/off").param("startDate", "2032-05-06"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].userId").value(3))
+                .andExpect(jsonPath("$[0].department").value("IT"));
+        mockMvc.perform(get("/api/leaves/off").param("startDate", "2032-05-01").param("endDate", "2032-05-31")
+                        .param("department", "IT").with(user(financeEmployee)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].userId").value(financeEmployee.getId()))
+                .andExpect(jsonPath("$[0].leaveType").value("PERSONAL"));
+    }
+
+    @Test
+    void calendarRejectsBadWindows() throws Exception {
+        mockMvc.perform(get("/api/leaves/calendar").param("startDate", "2031-03-05").param("endDate", "2031-03-01"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/leaves/calendar").param("startDate", "2031-01-01").param("endDate", "2032-12-31"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/leaves/off").param("startDate", "2031-03-01").param("department", "nowhere"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void overlappingLeaveIsRefused() throws Exception {
+        createLeave(4L, "ANNUAL", "2033-02-10", "2033-02-12").andExpect(status().isCreated());
+
+        createLeave(4L, "SICK", "2033-02-12", "2033-02-13")
+                .andExpect(status().isInternalServerError())
+                .andExpect(jsonPath("$.message").value(startsWith("Leave overlaps an existing pending or approved leave")));
+        createLeave(4L, "SICK", "2033-02-13", "2033-02-13").andExpect(status().isCreated());
+    }
+
+    @Test
+    void balanceFollowsRequestsAndApprovals() throws Exception {
+        User manager = userRepository.findByEmployeeId("EMP002").orElseThrow();
+        long leaveId = idOf(createLeave(3L, "ANNUAL", "2034-01-02", "2034-01-04").andExpect(status().isCreated()));
+
+        mockMvc.perform(get("/api/leaves/balance/user/3").param("year", "2034"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].leaveType").value("ANNUAL"))
+                .andExpect(jsonPath("$[0].totalLeaves").value(21))
+                .andExpect(jsonPath("$[0].pendingLeaves").value(3))
+                .andExpect(jsonPath("$[0].remainingLeaves").value(18));
+
+        mockMvc.perform(patch("/api/leaves/{id}/approve", leaveId).with(user(manager)))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/leaves/balance/user/3").param("year", "2034"))
+                .andExpect(jsonPath("$[0].pendingLeaves").value(0))
+                .andExpect(jsonPath("$[0].usedLeaves").value(3))
+                .andExpect(jsonPath("$[0].remainingLeaves").value(18));
+    }
+
+    @Test
+    void requestOverTheBalanceIsRefused() throws Exception {
+        createLeave(6L, "ANNUAL", "2035-02-01", "2035-03-30")
+                .andExpect(status().isInternalServerError())
+                .andExpect(jsonPath("$.message").value(startsWith("Insufficient ANNUAL leave balance for 2035")));
+
+        mockMvc.perform(get("/api/leaves/balance/user/6").param("year", "2035"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].pendingLeaves").value(0));
+    }
+
+    @Test
+    void batchApprovalReportsAnOutcomePerLeave() throws Exception {
+        User manager = userRepository.findByEmployeeId("EMP002").orElseThrow();
+        long itEmployee = idOf(createLeave(3L, "ANNUAL", "2036-01-07", "2036-01-08").andExpect(status().isCreated()));
+        long itSupport = idOf(createLeave(4L, "SICK", "2036-01-09", "2036-01-09").andExpect(status().isCreated()));
+        long finance = idOf(createLeave(5L, "ANNUAL", "2036-01-07", "2036-01-07").andExpect(status().isCreated()));
+
+        mockMvc.perform(post("/api/leaves/approve-batch").with(user(manager))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"ids\": [" + itEmployee + ", " + itSupport + ", " + finance + ", 999999, " + itEmployee
+                                + "], \"comments\": \"Enjoy\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.requested").value(4))
+                .andExpect(jsonPath("$.approved").value(2))
+                .andExpect(jsonPath("$.results[0].outcome").value("APPROVED"))
+                .andExpect(jsonPath("$.results[0].leave.status").value("APPROVED"))
+                .andExpect(jsonPath("$.results[1].outcome").value("APPROVED"))
+                .andExpect(jsonPath("$.results[2].outcome").value("FORBIDDEN"))
+                .andExpect(jsonPath("$.results[3].outcome").value("NOT_FOUND"));
+
+        mockMvc.perform(post("/api/leaves/approve-batch").with(user(manager))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"ids\": [" + itEmployee + "]}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.approved").value(0))
+                .andExpect(jsonPath("$.results[0].outcome").value("NOT_PENDING"));
+        mockMvc.perform(get("/api/leaves/balance/user/3").param("year", "2036"))
+                .andExpect(jsonPath("$[0].usedLeaves").value(2));
+    }
+
+    @Test
+    void scrollPagesLeavesByStartDate() throws Exception {
+        createLeave(6L, "SICK", "2037-03-02", "2037-03-02").andExpect(status().isCreated());
+        createLeave(6L, "SICK", "2037-01-05", "2037-01-05").andExpect(status().isCreated());
+        createLeave(6L, "SICK", "2037-02-02", "2037-02-03").andExpect(status().isCreated());
+
+        String first = mockMvc.perform(get("/api/leaves/scroll")
+                        .param("userId", "6").param("sortBy", "startDate").param("sortDir", "ASC").param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].startDate").value("2037-01-05"))
+                .andExpect(jsonPath("$.content[1].startDate").value("2037-02-02"))
+                .andExpect(jsonPath("$.hasNext").value(true))
+                .andReturn().getResponse().getContentAsString();
+        mockMvc.perform(get("/api/leaves/scroll")
+                        .param("userId", "6").param("cursor", JsonPath.<String>read(first, "$.nextCursor")).param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(1))
+                .andExpect(jsonPath("$.content[0].startDate").value("2037-03-02"))
+                .andExpect(jsonPath("$.hasNext").value(false));
+        mockMvc.perform(get("/api/leaves/scroll").param("sortBy", "reason"))
+                .andExpect(status().isBadRequest());
+    }
+
+    private ResultActions createLeave(Long userId, String leaveType, String startDate, String endDate) throws Exception {
+        return mockMvc.perform(post("/api/leaves")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"userId\": " + userId + ", \"leaveType\": \"" + leaveType + "\", \"startDate\": \"" + startDate
+                        + "\", \"endDate\": \"" + endDate + "\", \"reason\": \"Test\"}"));
+    }
+
+    private long idOf(ResultActions created) throws Exception {
+        return ((Number) JsonPath.read(created.andReturn().getResponse().getContentAsString(), "$.id")).longValue();
+    }
+}
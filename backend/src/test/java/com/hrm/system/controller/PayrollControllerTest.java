@@ -0,0 +1,161 @@
+package com.hrm.system.controller;
+
+import com.hrm.system.entity.PayrollRun;
+import com.hrm.system.repository.PayrollRunRepository;
+import com.jayway.jsonpath.JsonPath;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.io.ByteArrayInputStream;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Endpoints added to the payroll API, run against the seeded test database.
+ * Each test works in its own pay period so tests sharing the context do not see each other's rows.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@WithMockUser(roles = "ADMIN")
+class PayrollControllerTest {
+
+    private static final long WAIT_MS = 10000;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private PayrollRunRepository payrollRunRepository;
+
+    @Test
+    void generateStartsARunThatCanBeFollowed() throws Exception {
+        long runId = generate(1, 2030);
+
+        PayrollRun run = awaitRun(runId, PayrollRun.RunStatus.COMPLETED);
+        assertEquals(run.getTotalEmployees(), run.getProcessedEmployees());
+
+        mockMvc.perform(get("/api/payroll/runs/{runId}", runId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("COMPLETED"))
+                .andExpect(jsonPath("$.progress").value(100.0));
+        mockMvc.perform(get("/api/payroll/runs"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[?(@.id == " + runId + ")]").exists());
+    }
+
+    @Test
+    void failedRunIsResumed() throws Exception {
+        PayrollRun failed = new PayrollRun();
+        failed.setPayPeriod(YearMonth.of(2030, 2));
+        failed.setStatus(PayrollRun.RunStatus.FAILED);
+        failed.setChunkSize(2);
+        failed.setErrorMessage("database went away");
+        failed = payrollRunRepository.save(failed);
+
+        mockMvc.perform(post("/api/payroll/runs/{runId}/resume", failed.getId()))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.errorMessage").doesNotExist());
+
+        awaitRun(failed.getId(), PayrollRun.RunStatus.COMPLETED);
+    }
+
+    @Test
+    void payslipsAreExportedOnePerEntry() throws Exception {
+        PayrollRun run = awaitRun(generate(3, 2030), PayrollRun.RunStatus.COMPLETED);
+
+        MvcResult export = mockMvc.perform(get("/api/payroll/payslips/export").param("month", "3").param("year", "2030"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        byte[] archive = mockMvc.perform(asyncDispatch(export))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Disposition", "attachment; filename=payslips-2030-03.zip"))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        List<String> entries = new ArrayList<>();
+        try (ZipInputStream zip = new ZipInputStream(new ByteArrayInputStream(archive))) {
+            for (ZipEntry entry = zip.getNextEntry(); entry != null; entry = zip.getNextEntry()) {
+                entries.add(entry.getName());
+            }
+        }
+        assertEquals(run.getProcessedEmployees(), entries.size());
+        assertTrue(entries.stream().allMatch(name -> name.startsWith("payslip-") && name.endsWith("-2030-03.txt")), entries.toString());
+    }
+
+    @Test
+    void payslipExportRejectsAnInvalidPeriod() throws Exception {
+        mockMvc.perform(get("/api/payroll/payslips/export").param("month", "13").param("year", "2030"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void scrollPagesPayrollByPeriod() throws Exception {
+        awaitRun(generate(5, 2030), PayrollRun.RunStatus.COMPLETED);
+        awaitRun(generate(6, 2030), PayrollRun.RunStatus.COMPLETED);
+
+        List<String> periods = new ArrayList<>();
+        String cursor = null;
+        do {
+            String page = mockMvc.perform(get("/api/payroll/scroll").param("userId", "3").param("sortBy", "payPeriod")
+                            .param("size", "1").param("cursor", cursor))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString();
+            periods.addAll(JsonPath.<List<String>>read(page, "$.content[*].payPeriod"));
+            cursor = JsonPath.read(page, "$.nextCursor");
+        } while (cursor != null);
+
+        List<String> expected = new ArrayList<>(periods);
+        expected.sort(Comparator.reverseOrder());
+        assertEquals(expected, periods);
+        assertEquals(periods.size(), new HashSet<>(periods).size(), periods.toString());
+        assertTrue(periods.containsAll(List.of("2030-05", "2030-06")), periods.toString());
+        mockMvc.perform(get("/api/payroll/scroll").param("sortBy", "netSalary"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void unknownRunIsNotFound() throws Exception {
+        mockMvc.perform(get("/api/payroll/runs/{runId}", Long.MAX_VALUE))
+                .andExpect(status().isNotFound());
+    }
+
+    private long generate(int month, int year) throws Exception {
+        String body = mockMvc.perform(post("/api/payroll/generate").param("month", String.valueOf(month)).param("year", String.valueOf(year)))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.payPeriod").value(YearMonth.of(year, month).toString()))
+                .andReturn().getResponse().getContentAsString();
+        return ((Number) JsonPath.read(body, "$.id")).longValue();
+    }
+
+    private PayrollRun awaitRun(long runId, PayrollRun.RunStatus expected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + WAIT_MS;
+        PayrollRun run = payrollRunRepository.findById(runId).orElseThrow();
+        while (run.getStatus() != expected && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+            run = payrollRunRepository.findById(runId).orElseThrow();
+        }
+        assertEquals(expected, run.getStatus(), run.getErrorMessage());
+        return run;
+    }
+}
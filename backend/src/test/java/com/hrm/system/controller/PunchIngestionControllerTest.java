@@ -0,0 +1,82 @@
+package com.hrm.system.controller;
+
+import com.hrm.system.entity.User;
+import com.hrm.system.repository.UserRepository;
+import com.jayway.jsonpath.JsonPath;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Punch endpoints with buffered ingestion switched on: punches are accepted before they are written
+ * and their progress is read back from the punch status endpoint.
+ */
+@SpringBootTest(properties = "app.attendance.punch-ingestion.enabled=true")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class PunchIngestionControllerTest {
+
+    private static final long WAIT_MS = 5000;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void acceptedPunchInIsReportedOnceWritten() throws Exception {
+        User employee = userRepository.findByEmployeeId("EMP003").orElseThrow();
+
+        mockMvc.perform(post("/api/attendance/punch-in/{userId}", employee.getId()).with(user(employee)))
+                .andExpect(status().isAccepted());
+        mockMvc.perform(post("/api/attendance/punch-in/{userId}", employee.getId()).with(user(employee)))
+                .andExpect(status().isBadRequest());
+
+        assertEquals("PUNCHED_IN", awaitPhase(employee, "PUNCHED_IN"));
+        mockMvc.perform(get("/api/attendance/punch-status/{userId}", employee.getId()).with(user(employee)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.date").value(LocalDate.now().toString()))
+                .andExpect(jsonPath("$.punchInTime").exists())
+                .andExpect(jsonPath("$.failures").isEmpty());
+    }
+
+    @Test
+    void punchStatusOfSomeoneElseIsForbidden() throws Exception {
+        User employee = userRepository.findByEmployeeId("EMP005").orElseThrow();
+        User other = userRepository.findByEmployeeId("EMP003").orElseThrow();
+
+        mockMvc.perform(get("/api/attendance/punch-status/{userId}", other.getId()).with(user(employee)))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(get("/api/attendance/punch-status/{userId}", employee.getId()).with(user(employee)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.phase").doesNotExist());
+    }
+
+    private String awaitPhase(User employee, String expected) throws Exception {
+        long deadline = System.currentTimeMillis() + WAIT_MS;
+        String phase = null;
+        while (!expected.equals(phase) && System.currentTimeMillis() < deadline) {
+            String body = mockMvc.perform(get("/api/attendance/punch-status/{userId}", employee.getId()).with(user(employee)))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString();
+            phase = JsonPath.read(body, "$.phase");
+            if (!expected.equals(phase)) {
+                Thread.sleep(20);
+            }
+        }
+        return phase;
+    }
+}
@@ -0,0 +1,176 @@
+package com.hrm.system.controller;
+
+import com.hrm.system.entity.User;
+import com.hrm.system.repository.UserRepository;
+import com.hrm.system.security.AuthenticatedPrincipalCache;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jayway.jsonpath.JsonPath;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * User API endpoints backed by the in-memory indexes, run against the seeded users:
+ * John Manager (EMP002) manages Jane Employee (EMP003) and Mike Support (EMP004).
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@WithMockUser(roles = "ADMIN")
+class UserControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AuthenticatedPrincipalCache principalCache;
+
+    @Test
+    void searchRanksExactNamesFirst() throws Exception {
+        mockMvc.perform(get("/api/users/search").param("query", "john"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].employeeId").value("EMP002"))
+                .andExpect(jsonPath("$[1].employeeId").value("EMP005"));
+        mockMvc.perform(get("/api/users/search").param("query", "emp004"))
+                .andExpect(jsonPath("$[0].email").value("support@hrm.com"));
+    }
+
+    @Test
+    void listWithAQueryPagesTheRanking() throws Exception {
+        mockMvc.perform(get("/api/users").param("query", "son").param("page", "0").param("size", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalElements").value(2))
+                .andExpect(jsonPath("$.content[0].lastName").value("Johnson"));
+        mockMvc.perform(get("/api/users").param("query", "son").param("page", "1").param("size", "1"))
+                .andExpect(jsonPath("$.content[0].lastName").value("Wilson"));
+    }
+
+    @Test
+    void orgChartShowsReportsAndManagers() throws Exception {
+        mockMvc.perform(get("/api/users/2/org-chart"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.root.user.employeeId").value("EMP002"))
+                .andExpect(jsonPath("$.root.level").value(0))
+                .andExpect(jsonPath("$.root.directReports").value(2))
+                .andExpect(jsonPath("$.managerChain").isEmpty())
+                .andExpect(jsonPath("$.reports.totalElements").value(2))
+                .andExpect(jsonPath("$.reports.content[0].user.employeeId").value("EMP003"))
+                .andExpect(jsonPath("$.reports.content[1].user.employeeId").value("EMP004"));
+        mockMvc.perform(get("/api/users/3/org-chart"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.root.level").value(1))
+                .andExpect(jsonPath("$.managerChain[0].employeeId").value("EMP002"))
+                .andExpect(jsonPath("$.reports.totalElements").value(0));
+    }
+
+    @Test
+    void orgChartReportsArePaged() throws Exception {
+        mockMvc.perform(get("/api/users/2/org-chart").param("depth", "1").param("page", "1").param("size", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.reports.totalElements").value(2))
+                .andExpect(jsonPath("$.reports.content.length()").value(1))
+                .andExpect(jsonPath("$.reports.content[0].user.employeeId").value("EMP004"));
+    }
+
+    @Test
+    void scrollFollowsTheCursorToTheEnd() throws Exception {
+        String first = mockMvc.perform(get("/api/users/scroll").param("sortBy", "lastName").param("size", "4"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(4))
+                .andExpect(jsonPath("$.content[0].lastName").value("Employee"))
+                .andExpect(jsonPath("$.content[3].lastName").value("Support"))
+                .andExpect(jsonPath("$.hasNext").value(true))
+                .andReturn().getResponse().getContentAsString();
+
+        mockMvc.perform(get("/api/users/scroll").param("cursor", JsonPath.<String>read(first, "$.nextCursor")).param("size", "4"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(2))
+                .andExpect(jsonPath("$.content[0].lastName").value("User"))
+                .andExpect(jsonPath("$.content[1].lastName").value("Wilson"))
+                .andExpect(jsonPath("$.hasNext").value(false))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+    }
+
+    @Test
+    void scrollRejectsUnknownSortFieldsAndBadCursors() throws Exception {
+        mockMvc.perform(get("/api/users/scroll").param("sortBy", "password"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/users/scroll").param("cursor", "not-a-cursor"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/users/scroll").param("sortDir", "sideways"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void userWritesEvictTheCachedPrincipal() throws Exception {
+        User david = userRepository.findByEmployeeId("EMP006").orElseThrow();
+        principalCache.put(david);
+        assertSame(david, principalCache.get("david@hrm.com"));
+
+        mockMvc.perform(patch("/api/users/{id}/status", david.getId()).param("status", "LOCKED"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("LOCKED"));
+        assertNull(principalCache.get("david@hrm.com"));
+
+        principalCache.put(david);
+        mockMvc.perform(put("/api/users/{id}", david.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(profile(david, User.UserRole.MANAGER)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.role").value("MANAGER"));
+        assertNull(principalCache.get("david@hrm.com"));
+
+        principalCache.put(david);
+        mockMvc.perform(patch("/api/users/{id}/profile-image", david.getId()).param("imageUrl", "/img/david.png"))
+                .andExpect(status().isOk());
+        assertNull(principalCache.get("david@hrm.com"));
+
+        // Put David back the way the seed data has him for the other tests
+        mockMvc.perform(put("/api/users/{id}", david.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(profile(david, User.UserRole.EMPLOYEE)))
+                .andExpect(status().isOk());
+        mockMvc.perform(patch("/api/users/{id}/status", david.getId()).param("status", "ACTIVE"))
+                .andExpect(status().isOk());
+    }
+
+    /**
+     * Update body carrying every field the update copies, so only the role changes
+     */
+    private static String profile(User user, User.UserRole role) throws Exception {
+        Map<String, Object> body = new HashMap<>();
+        body.put("firstName", user.getFirstName());
+        body.put("lastName", user.getLastName());
+        body.put("email", user.getEmail());
+        body.put("phoneNumber", user.getPhoneNumber());
+        body.put("role", role.name());
+        body.put("department", user.getDepartment().name());
+        body.put("profileImage", user.getProfileImage());
+        body.put("dateOfBirth", user.getDateOfBirth() != null ? user.getDateOfBirth().toString() : null);
+        body.put("dateOfJoining", user.getDateOfJoining() != null ? user.getDateOfJoining().toString() : null);
+        body.put("address", user.getAddress());
+        body.put("emergencyContact", user.getEmergencyContact());
+        body.put("managerId", user.getManager() != null ? user.getManager().getId() : null);
+        return new ObjectMapper().writeValueAsString(body);
+    }
+}
@@ -0,0 +1,162 @@
+package com.hrm.system.repository;
+
+import com.hrm.system.entity.Attendance;
+import com.hrm.system.entity.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Hours-based status recompute, which must only touch rows whose status comes from the punch times,
+ * and the month and year lookups, which query a date range and must keep the edge days
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+class AttendanceRepositoryTest {
+
+    private static final LocalDate DATE = LocalDate.of(2026, 3, 2);
+
+    @Autowired
+    private AttendanceRepository attendanceRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private int employees;
+
+    @BeforeEach
+    void setUp() {
+        employees = 0;
+    }
+
+    @Test
+    void recomputeLeavesNonWorkRowsAndOpenPunchInsAlone() {
+        Attendance leave = record(Attendance.AttendanceStatus.LEAVE, null, null);
+        Attendance holiday = record(Attendance.AttendanceStatus.HOLIDAY, null, null);
+        Attendance weekend = record(Attendance.AttendanceStatus.WEEKEND, null, null);
+        Attendance openPunchIn = record(Attendance.AttendanceStatus.PRESENT, "09:00", null);
+        Attendance shortDay = record(Attendance.AttendanceStatus.PRESENT, "09:00", "11:00");
+        Attendance noShow = record(Attendance.AttendanceStatus.PRESENT, null, null);
+
+        assertEquals(2, attendanceRepository.countStatusChangesForDate(DATE));
+        assertEquals(2, attendanceRepository.recomputeStatusForDate(DATE, LocalDateTime.now()));
+        entityManager.clear();
+
+        assertEquals(Attendance.AttendanceStatus.LEAVE, stored(leave));
+        assertEquals(Attendance.AttendanceStatus.HOLIDAY, stored(holiday));
+        assertEquals(Attendance.AttendanceStatus.WEEKEND, stored(weekend));
+        assertEquals(Attendance.AttendanceStatus.PRESENT, stored(openPunchIn));
+        assertEquals(Attendance.AttendanceStatus.HALF_DAY, stored(shortDay));
+        assertEquals(Attendance.AttendanceStatus.ABSENT, stored(noShow));
+        assertEquals(0, attendanceRepository.countStatusChangesForDate(DATE));
+    }
+
+    @Test
+    void computedStatusCountsOnlyCoverRecomputableRows() {
+        record(Attendance.AttendanceStatus.LEAVE, null, null);
+        record(Attendance.AttendanceStatus.PRESENT, "09:00", null);
+        record(Attendance.AttendanceStatus.ABSENT, "09:00", "17:30");
+        record(Attendance.AttendanceStatus.PRESENT, "09:00", "17:00");
+        record(null, "09:00", "12:00");
+
+        Map<Attendance.AttendanceStatus, Long> computed = new EnumMap<>(Attendance.AttendanceStatus.class);
+        attendanceRepository.countByDateGroupedByComputedStatus(DATE)
+                .forEach(row -> computed.put(row.getStatus(), row.getTotal()));
+
+        assertEquals(Map.of(Attendance.AttendanceStatus.PRESENT, 2L, Attendance.AttendanceStatus.HALF_DAY, 1L), computed);
+        assertEquals(2, attendanceRepository.countStatusChangesForDate(DATE));
+    }
+
+    @Test
+    void monthLookupKeepsFirstAndLastDays() {
+        User user = user();
+        User other = user();
+        for (String date : List.of("2025-12-31", "2026-01-01", "2026-01-31", "2026-02-01", "2026-02-28", "2026-03-01")) {
+            attendance(user, date);
+        }
+        attendance(other, "2026-02-14");
+        entityManager.flush();
+
+        assertEquals(List.of("2026-01-01", "2026-01-31"), dates(attendanceRepository.findByUserIdAndMonthAndYear(user.getId(), 1, 2026)));
+        assertEquals(List.of("2026-02-01", "2026-02-28"), dates(attendanceRepository.findByUserIdAndMonthAndYear(user.getId(), 2, 2026)));
+        assertEquals(List.of("2025-12-31"), dates(attendanceRepository.findByUserIdAndMonthAndYear(user.getId(), 12, 2025)));
+        assertEquals(List.of("2026-02-01", "2026-02-14", "2026-02-28"), dates(attendanceRepository.findByMonthAndYear(2, 2026)));
+    }
+
+    @Test
+    void leapDayBelongsToFebruary() {
+        User user = user();
+        attendance(user, "2028-02-29");
+        attendance(user, "2028-03-01");
+        entityManager.flush();
+
+        assertEquals(List.of("2028-02-29"), dates(attendanceRepository.findByUserIdAndMonthAndYear(user.getId(), 2, 2028)));
+        assertEquals(List.of("2028-03-01"), dates(attendanceRepository.findByMonthAndYear(3, 2028)));
+    }
+
+    @Test
+    void yearLookupKeepsNewYearsDayAndEve() {
+        User user = user();
+        for (String date : List.of("2025-12-31", "2026-01-01", "2026-07-15", "2026-12-31", "2027-01-01")) {
+            attendance(user, date);
+        }
+        entityManager.flush();
+
+        assertEquals(List.of("2026-01-01", "2026-07-15", "2026-12-31"), dates(attendanceRepository.findByUserIdAndYear(user.getId(), 2026)));
+    }
+
+    private static List<String> dates(List<Attendance> records) {
+        return records.stream().map(record -> record.getDate().toString()).sorted().collect(Collectors.toList());
+    }
+
+    private void attendance(User user, String date) {
+        Attendance attendance = new Attendance();
+        attendance.setUser(user);
+        attendance.setDate(LocalDate.parse(date));
+        attendance.setPunchInTime(LocalTime.of(9, 0));
+        attendance.setPunchOutTime(LocalTime.of(17, 0));
+        entityManager.persist(attendance);
+    }
+
+    private Attendance record(Attendance.AttendanceStatus status, String punchIn, String punchOut) {
+        Attendance attendance = new Attendance();
+        attendance.setUser(user());
+        attendance.setDate(DATE);
+        attendance.setStatus(status);
+        attendance.setPunchInTime(punchIn == null ? null : LocalTime.parse(punchIn));
+        attendance.setPunchOutTime(punchOut == null ? null : LocalTime.parse(punchOut));
+        return entityManager.persistAndFlush(attendance);
+    }
+
+    private User user() {
+        int n = ++employees;
+        User user = new User();
+        user.setEmployeeId("ATT" + n);
+        user.setFirstName("Status");
+        user.setLastName("Recompute");
+        user.setEmail("att" + n + "@test.com");
+        user.setPassword("password123");
+        user.setPhoneNumber("555100" + n);
+        user.setRole(User.UserRole.EMPLOYEE);
+        user.setDepartment(User.Department.IT);
+        user.setStatus(User.UserStatus.ACTIVE);
+        return entityManager.persist(user);
+    }
+
+    private Attendance.AttendanceStatus stored(Attendance attendance) {
+        return attendanceRepository.findById(attendance.getId()).orElseThrow().getStatus();
+    }
+}
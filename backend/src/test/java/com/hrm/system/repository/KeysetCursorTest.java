@@ -0,0 +1,141 @@
+package com.hrm.system.repository;
+
+import com.hrm.system.entity.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Pages through users with repeated sort keys, so every page boundary has to break ties on ID
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+class KeysetCursorTest {
+
+    private static final Set<String> SORTABLE = Set.of("id", "lastName", "dateOfBirth");
+
+    private static final String[] LAST_NAMES = {"Ng", "Lee", "Park", "Lee", "Ng", "Adams", "Ng", "Lee", "Park", "Ng", "Lee"};
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private List<User> users;
+
+    @BeforeEach
+    void setUp() {
+        userRepository.deleteAll();
+        List<User> created = new ArrayList<>();
+        for (int i = 0; i < LAST_NAMES.length; i++) {
+            User user = new User();
+            user.setEmployeeId("KEY" + i);
+            user.setFirstName("Page");
+            user.setLastName(LAST_NAMES[i]);
+            user.setEmail("key" + i + "@test.com");
+            user.setPassword("password123");
+            user.setPhoneNumber("555000" + i);
+            user.setRole(User.UserRole.EMPLOYEE);
+            user.setDepartment(User.Department.IT);
+            user.setStatus(User.UserStatus.ACTIVE);
+            user.setDateOfBirth(LocalDate.of(1990, 1 + i % 3, 1));
+            created.add(user);
+        }
+        users = userRepository.saveAllAndFlush(created);
+    }
+
+    @Test
+    void tokenRoundTrips() {
+        KeysetCursor cursor = new KeysetCursor("lastName", Sort.Direction.DESC, 42L, "O'Neil\nJr");
+
+        assertEquals(cursor, KeysetCursor.decode(cursor.encode(), "id", Sort.Direction.ASC, SORTABLE));
+    }
+
+    @Test
+    void missingTokenStartsFromTheTop() {
+        KeysetCursor cursor = KeysetCursor.decode(" ", "lastName", Sort.Direction.ASC, SORTABLE);
+
+        assertEquals(new KeysetCursor("lastName", Sort.Direction.ASC, null, null), cursor);
+        assertEquals(Sort.by(Sort.Direction.ASC, "lastName", "id"), cursor.sort());
+        assertEquals(Sort.by(Sort.Direction.DESC, "id"), new KeysetCursor("id", Sort.Direction.DESC, null, null).sort());
+    }
+
+    @Test
+    void malformedTokenIsRejected() {
+        String truncated = Base64.getUrlEncoder().encodeToString("lastName\nASC".getBytes());
+
+        assertEquals("Invalid cursor", assertThrows(RuntimeException.class,
+                () -> KeysetCursor.decode("not a cursor!", "id", Sort.Direction.ASC, SORTABLE)).getMessage());
+        assertEquals("Invalid cursor", assertThrows(RuntimeException.class,
+                () -> KeysetCursor.decode(truncated, "id", Sort.Direction.ASC, SORTABLE)).getMessage());
+    }
+
+    @Test
+    void sortFieldOutsideTheAllowedSetIsRejected() {
+        String forged = new KeysetCursor("password", Sort.Direction.ASC, 1L, "x").encode();
+
+        RuntimeException rejected = assertThrows(RuntimeException.class,
+                () -> KeysetCursor.decode(forged, "id", Sort.Direction.ASC, SORTABLE));
+        assertTrue(rejected.getMessage().startsWith("Cannot page by password"));
+        assertThrows(RuntimeException.class, () -> KeysetCursor.decode(null, "email", Sort.Direction.ASC, SORTABLE));
+    }
+
+    @Test
+    void afterReadsTheRowKeyAndId() {
+        User user = users.get(2);
+
+        KeysetCursor next = new KeysetCursor("dateOfBirth", Sort.Direction.ASC, null, null).after(user);
+
+        assertEquals(new KeysetCursor("dateOfBirth", Sort.Direction.ASC, user.getId(), user.getDateOfBirth().toString()), next);
+    }
+
+    @Test
+    void pagesCoverEveryRowOnceInOrder() {
+        Comparator<User> byLastName = Comparator.comparing(User::getLastName).thenComparing(User::getId);
+        Comparator<User> byBirth = Comparator.comparing(User::getDateOfBirth).thenComparing(User::getId);
+
+        assertEquals(ids(users, Comparator.comparing(User::getId)), scroll("id", Sort.Direction.ASC, 3));
+        assertEquals(ids(users, Comparator.comparing(User::getId).reversed()), scroll("id", Sort.Direction.DESC, 4));
+        assertEquals(ids(users, byLastName), scroll("lastName", Sort.Direction.ASC, 2));
+        assertEquals(ids(users, byLastName.reversed()), scroll("lastName", Sort.Direction.DESC, 3));
+        assertEquals(ids(users, byBirth), scroll("dateOfBirth", Sort.Direction.ASC, 4));
+        assertEquals(ids(users, byBirth.reversed()), scroll("dateOfBirth", Sort.Direction.DESC, 2));
+    }
+
+    /**
+     * Follow the cursor page by page the way the scroll endpoints do, decoding the token handed back each time
+     */
+    private List<Long> scroll(String sortBy, Sort.Direction direction, int size) {
+        List<Long> seen = new ArrayList<>();
+        String token = null;
+        while (true) {
+            KeysetCursor cursor = KeysetCursor.decode(token, sortBy, direction, SORTABLE);
+            Specification<User> remaining = cursor.remaining();
+            List<User> page = userRepository.findAll(remaining, PageRequest.of(0, size, cursor.sort())).getContent();
+            page.forEach(user -> seen.add(user.getId()));
+            if (page.size() < size) {
+                return seen;
+            }
+            token = cursor.after(page.get(page.size() - 1)).encode();
+        }
+    }
+
+    private static List<Long> ids(List<User> users, Comparator<User> order) {
+        return users.stream().sorted(order).map(User::getId).collect(Collectors.toList());
+    }
+}
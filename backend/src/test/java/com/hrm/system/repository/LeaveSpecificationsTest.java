@@ -0,0 +1,128 @@
+package com.hrm.system.repository;
+
+import com.hrm.system.entity.Leave;
+import com.hrm.system.entity.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Leave filters composed the way the leave list builds them, each only added when present
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+class LeaveSpecificationsTest {
+
+    @Autowired
+    private LeaveRepository leaveRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private User it;
+
+    private User finance;
+
+    private Leave itAnnualMarch;
+
+    private Leave itSickApril;
+
+    private Leave financeAnnualMarch;
+
+    private Leave financePersonalMay;
+
+    @BeforeEach
+    void setUp() {
+        it = user("SPC1", User.Department.IT);
+        finance = user("SPC2", User.Department.FINANCE);
+        itAnnualMarch = leave(it, Leave.LeaveType.ANNUAL, Leave.LeaveStatus.APPROVED, "2026-03-02", "2026-03-06", "Family trip");
+        itSickApril = leave(it, Leave.LeaveType.SICK, Leave.LeaveStatus.PENDING, "2026-04-01", "2026-04-01", "Flu");
+        financeAnnualMarch = leave(finance, Leave.LeaveType.ANNUAL, Leave.LeaveStatus.PENDING, "2026-03-05", "2026-03-10", "Trip abroad");
+        financePersonalMay = leave(finance, Leave.LeaveType.PERSONAL, Leave.LeaveStatus.REJECTED, "2026-05-04", "2026-05-04", null);
+        entityManager.flush();
+    }
+
+    @Test
+    void noFiltersMatchEverything() {
+        assertEquals(List.of(itAnnualMarch, itSickApril, financeAnnualMarch, financePersonalMay), find());
+    }
+
+    @Test
+    void singleFilters() {
+        assertEquals(List.of(itAnnualMarch, itSickApril), find(LeaveSpecifications.forUser(it.getId())));
+        assertEquals(List.of(financeAnnualMarch, financePersonalMay), find(LeaveSpecifications.inDepartment(User.Department.FINANCE)));
+        assertEquals(List.of(itAnnualMarch, financeAnnualMarch), find(LeaveSpecifications.hasLeaveType(Leave.LeaveType.ANNUAL)));
+        assertEquals(List.of(itSickApril, financeAnnualMarch), find(LeaveSpecifications.hasStatus(Leave.LeaveStatus.PENDING)));
+        assertEquals(List.of(itAnnualMarch, financeAnnualMarch), find(LeaveSpecifications.reasonContains("TRIP")));
+    }
+
+    @Test
+    void dateRangeMatchesLeavesOverlappingIt() {
+        // Both March leaves overlap the 6th; the IT one ends on it
+        assertEquals(List.of(itAnnualMarch, financeAnnualMarch),
+                find(LeaveSpecifications.endsOnOrAfter(LocalDate.of(2026, 3, 6)), LeaveSpecifications.startsOnOrBefore(LocalDate.of(2026, 3, 6))));
+        assertEquals(List.of(financeAnnualMarch),
+                find(LeaveSpecifications.endsOnOrAfter(LocalDate.of(2026, 3, 7)), LeaveSpecifications.startsOnOrBefore(LocalDate.of(2026, 3, 31))));
+        assertEquals(List.of(itSickApril, financePersonalMay),
+                find(LeaveSpecifications.endsOnOrAfter(LocalDate.of(2026, 4, 1))));
+        assertEquals(List.of(itAnnualMarch),
+                find(LeaveSpecifications.startsOnOrBefore(LocalDate.of(2026, 3, 4))));
+    }
+
+    @Test
+    void combinedFiltersMustAllHold() {
+        assertEquals(List.of(financeAnnualMarch), find(
+                LeaveSpecifications.inDepartment(User.Department.FINANCE),
+                LeaveSpecifications.hasLeaveType(Leave.LeaveType.ANNUAL),
+                LeaveSpecifications.hasStatus(Leave.LeaveStatus.PENDING),
+                LeaveSpecifications.endsOnOrAfter(LocalDate.of(2026, 3, 1)),
+                LeaveSpecifications.reasonContains("abroad")));
+        assertEquals(List.of(), find(
+                LeaveSpecifications.forUser(it.getId()),
+                LeaveSpecifications.inDepartment(User.Department.FINANCE)));
+        assertEquals(List.of(itSickApril), find(
+                LeaveSpecifications.forUser(it.getId()),
+                LeaveSpecifications.hasStatus(Leave.LeaveStatus.PENDING),
+                LeaveSpecifications.startsOnOrBefore(LocalDate.of(2026, 12, 31))));
+    }
+
+    @SafeVarargs
+    private List<Leave> find(Specification<Leave>... predicates) {
+        return leaveRepository.findAll(Specification.allOf(predicates), Sort.by("id"));
+    }
+
+    private User user(String employeeId, User.Department department) {
+        User user = new User();
+        user.setEmployeeId(employeeId);
+        user.setFirstName("Spec");
+        user.setLastName("Filter");
+        user.setEmail(employeeId.toLowerCase() + "@test.com");
+        user.setPassword("password123");
+        user.setPhoneNumber("5554000" + employeeId.charAt(employeeId.length() - 1));
+        user.setRole(User.UserRole.EMPLOYEE);
+        user.setDepartment(department);
+        user.setStatus(User.UserStatus.ACTIVE);
+        return entityManager.persist(user);
+    }
+
+    private Leave leave(User user, Leave.LeaveType type, Leave.LeaveStatus status, String start, String end, String reason) {
+        Leave leave = new Leave();
+        leave.setUser(user);
+        leave.setLeaveType(type);
+        leave.setStatus(status);
+        leave.setStartDate(LocalDate.parse(start));
+        leave.setEndDate(LocalDate.parse(end));
+        leave.setReason(reason);
+        return entityManager.persist(leave);
+    }
+}
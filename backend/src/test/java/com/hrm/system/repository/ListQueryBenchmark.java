@@ -0,0 +1,176 @@
+package com.hrm.system.repository;
+
+import com.hrm.system.EmployeeManagementSystemApplication;
+import com.hrm.system.entity.Attendance;
+import com.hrm.system.entity.Leave;
+import com.hrm.system.entity.Payroll;
+import com.hrm.system.entity.User;
+import com.hrm.system.service.AttendanceService;
+import com.hrm.system.service.LeaveService;
+import com.hrm.system.service.PayrollService;
+import com.hrm.system.service.UserService;
+import com.hrm.system.service.impl.UserSearchIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * List and search endpoints' service calls over 1000 users, 20k attendance rows, 3k leaves and 6k payroll rows,
+ * pages of 50 at rotating offsets. Run with {@code mvn test-compile} and then this class's main method on the
+ * test classpath; the GC profiler reports the allocation per call as gc.alloc.rate.norm.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ListQueryBenchmark {
+
+    @Param({"usersPage", "usersSearch", "attendancePage", "attendanceFiltered", "attendanceScroll", "leavesPage", "payrollPage"})
+    private String scenario;
+
+    private ConfigurableApplicationContext context;
+
+    private UserService userService;
+
+    private AttendanceService attendanceService;
+
+    private LeaveService leaveService;
+
+    private PayrollService payrollService;
+
+    private int call;
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = SpringApplication.run(EmployeeManagementSystemApplication.class,
+                "--server.port=0", "--spring.datasource.url=jdbc:h2:mem:listbench;DB_CLOSE_DELAY=-1",
+                "--spring.jpa.show-sql=false", "--logging.file.name=", "--logging.level.root=WARN",
+                "--logging.level.com.hrm.system=WARN", "--logging.level.org.springframework.security=WARN",
+                "--logging.level.org.hibernate.SQL=WARN", "--logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN");
+        new TransactionTemplate(context.getBean(PlatformTransactionManager.class)).executeWithoutResult(status -> seed());
+        context.getBean(UserSearchIndex.class).warm();
+        userService = context.getBean(UserService.class);
+        attendanceService = context.getBean(AttendanceService.class);
+        leaveService = context.getBean(LeaveService.class);
+        payrollService = context.getBean(PayrollService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    private void seed() {
+        User.Department[] departments = User.Department.values();
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            User user = new User();
+            user.setEmployeeId(String.format("B%05d", i));
+            user.setFirstName("First" + i);
+            user.setLastName("Last" + i);
+            user.setEmail("b" + i + "@bench.com");
+            user.setPassword("xxxxxxxx");
+            user.setPhoneNumber("555" + i);
+            user.setRole(User.UserRole.EMPLOYEE);
+            user.setDepartment(departments[i % departments.length]);
+            user.setStatus(User.UserStatus.ACTIVE);
+            users.add(user);
+        }
+        context.getBean(UserRepository.class).saveAll(users);
+
+        List<Attendance> attendance = new ArrayList<>();
+        List<Leave> leaves = new ArrayList<>();
+        List<Payroll> payroll = new ArrayList<>();
+        for (User user : users) {
+            for (int day = 0; day < 20; day++) {
+                Attendance record = new Attendance();
+                record.setUser(user);
+                record.setDate(LocalDate.of(2026, 9, 1).plusDays(day));
+                record.setPunchInTime(LocalTime.of(9, 0));
+                record.setPunchOutTime(LocalTime.of(17, 0));
+                record.setStatus(Attendance.AttendanceStatus.PRESENT);
+                attendance.add(record);
+            }
+            for (int month = 1; month <= 3; month++) {
+                Leave leave = new Leave();
+                leave.setUser(user);
+                leave.setLeaveType(Leave.LeaveType.SICK);
+                leave.setStartDate(LocalDate.of(2026, month, 5));
+                leave.setEndDate(LocalDate.of(2026, month, 7));
+                leave.setReason("Benchmark");
+                leave.setStatus(month == 1 ? Leave.LeaveStatus.APPROVED : Leave.LeaveStatus.PENDING);
+                if (month == 1) {
+                    leave.setApprovedBy(users.get(0));
+                }
+                leaves.add(leave);
+            }
+            for (int month = 1; month <= 6; month++) {
+                Payroll record = new Payroll();
+                record.setUser(user);
+                record.setPayPeriod(YearMonth.of(2026, month));
+                record.setBasicSalary(new BigDecimal("5000"));
+                record.setNetSalary(new BigDecimal("4000"));
+                record.setPaymentStatus(Payroll.PaymentStatus.PAID);
+                payroll.add(record);
+            }
+        }
+        context.getBean(AttendanceRepository.class).saveAll(attendance);
+        context.getBean(LeaveRepository.class).saveAll(leaves);
+        context.getBean(PayrollRepository.class).saveAll(payroll);
+    }
+
+    @Benchmark
+    public Object list() {
+        int page = call++;
+        return switch (scenario) {
+            case "usersPage" -> userService.getAllUsers(PageRequest.of(page % 20, 50, Sort.by("id")));
+            case "usersSearch" -> userService.searchUsers("first1", PageRequest.of(page % 5, 50));
+            case "attendancePage" -> attendanceService.getAllAttendance(
+                    PageRequest.of(page % 400, 50, Sort.by(Sort.Direction.DESC, "date")));
+            case "attendanceFiltered" -> attendanceService.getAllAttendanceWithFilters(
+                    PageRequest.of(page % 400, 50, Sort.by(Sort.Direction.DESC, "date")), null, Attendance.AttendanceStatus.PRESENT, null);
+            case "attendanceScroll" -> attendanceService.scrollAttendance(null, "date", Sort.Direction.DESC, 50, null, null, null);
+            case "leavesPage" -> leaveService.getAllLeavesWithFilters(
+                    PageRequest.of(page % 60, 50, Sort.by(Sort.Direction.DESC, "id")), null, null, null, null, null, null);
+            case "payrollPage" -> payrollService.getAllPayroll(PageRequest.of(page % 120, 50, Sort.by(Sort.Direction.DESC, "id")));
+            default -> throw new IllegalArgumentException("Unknown scenario " + scenario);
+        };
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ListQueryBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
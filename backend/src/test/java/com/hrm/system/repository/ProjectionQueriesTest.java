@@ -0,0 +1,206 @@
+package com.hrm.system.repository;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hrm.system.dto.AttendanceDto;
+import com.hrm.system.dto.LeaveDto;
+import com.hrm.system.dto.PayrollDto;
+import com.hrm.system.dto.UserDto;
+import com.hrm.system.entity.Attendance;
+import com.hrm.system.entity.Leave;
+import com.hrm.system.entity.Payroll;
+import com.hrm.system.entity.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * The DTOs built by the projection queries must carry the same values as the DTOs built from the loaded entities,
+ * compared through their JSON so a field added to one constructor and not the other shows up here
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@Import(ProjectionQueries.class)
+class ProjectionQueriesTest {
+
+    private static final ObjectMapper JSON = new ObjectMapper().findAndRegisterModules();
+
+    @Autowired
+    private ProjectionQueries projectionQueries;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AttendanceRepository attendanceRepository;
+
+    @Autowired
+    private LeaveRepository leaveRepository;
+
+    @Autowired
+    private PayrollRepository payrollRepository;
+
+    private User manager;
+    private User employee;
+
+    @BeforeEach
+    void setUp() {
+        manager = user("PRJ1", "Paula", "Lead", null);
+        employee = user("PRJ2", "Omar", "Field", manager);
+        employee.setProfileImage("/img/omar.png");
+        employee.setDateOfBirth(LocalDate.of(1990, 4, 12));
+        employee.setDateOfJoining(LocalDateTime.of(2020, 1, 6, 9, 0));
+        employee.setAddress("1 Main Street");
+        employee.setEmergencyContact("555 0199");
+        employee.setLastLoginAt(LocalDateTime.of(2026, 3, 2, 8, 55));
+    }
+
+    @Test
+    void userProjectionMatchesTheEntityDto() {
+        flushAndClear();
+
+        List<User> users = userRepository.findAll(Sort.by("id"));
+        assertSameValues(users.stream().map(UserDto::new).collect(Collectors.toList()),
+                projectionQueries.findAll(ProjectionQueries.USER, null, Sort.by("id"), 100));
+        Page<UserDto> page = projectionQueries.findPage(ProjectionQueries.USER,
+                (root, query, cb) -> cb.equal(root.get("id"), employee.getId()), PageRequest.of(0, 10));
+        assertSameValues(List.of(new UserDto(userRepository.findById(employee.getId()).orElseThrow())), page.getContent());
+    }
+
+    @Test
+    void attendanceProjectionMatchesTheEntityDto() {
+        Attendance closed = attendance(LocalDate.of(2026, 3, 2), LocalTime.of(9, 0), LocalTime.of(17, 30));
+        closed.setPunchInLocation("Office");
+        closed.setPunchOutLocation("Home");
+        closed.setNotes("Left early for the train");
+        attendance(LocalDate.of(2026, 3, 3), LocalTime.of(9, 15), null);
+        attendance(LocalDate.of(2026, 3, 4), null, null).setStatus(Attendance.AttendanceStatus.LEAVE);
+        flushAndClear();
+
+        assertSameValues(entityDtos(attendanceRepository.findAll(Sort.by("id")), AttendanceDto::new),
+                projectionQueries.findPage(ProjectionQueries.ATTENDANCE, null, PageRequest.of(0, 10, Sort.by("id"))).getContent());
+    }
+
+    @Test
+    void leaveProjectionMatchesTheEntityDto() {
+        Leave approved = leave(LocalDate.of(2026, 3, 6), LocalDate.of(2026, 3, 10), Leave.LeaveStatus.APPROVED);
+        approved.setApprovedBy(manager);
+        approved.setApprovedAt(LocalDateTime.of(2026, 3, 1, 14, 0));
+        approved.setApprovalComments("Enjoy");
+        leave(LocalDate.of(2026, 4, 1), LocalDate.of(2026, 4, 1), Leave.LeaveStatus.PENDING).setApprovalComments("Not shown yet");
+        Leave halfDay = leave(LocalDate.of(2026, 5, 4), LocalDate.of(2026, 5, 5), Leave.LeaveStatus.REJECTED);
+        halfDay.setHalfDay(true);
+        halfDay.setApprovedBy(manager);
+        halfDay.setApprovalComments("Release week");
+        flushAndClear();
+
+        List<Leave> leaves = leaveRepository.findAll(Sort.by("id"));
+        assertSameValues(entityDtos(leaves, LeaveDto::new),
+                projectionQueries.findPage(ProjectionQueries.LEAVE, null, PageRequest.of(0, 10, Sort.by("id"))).getContent());
+        assertSameValues(entityDtos(List.of(leaves.get(2), leaves.get(0)), LeaveDto::new),
+                projectionQueries.findAllById(ProjectionQueries.LEAVE, List.of(leaves.get(2).getId(), Long.MAX_VALUE, leaves.get(0).getId())));
+    }
+
+    @Test
+    void payrollProjectionMatchesTheEntityDto() {
+        Payroll payroll = new Payroll();
+        payroll.setUser(employee);
+        payroll.setPayPeriod(YearMonth.of(2026, 2));
+        payroll.setBasicSalary(new BigDecimal("5000.00"));
+        payroll.setHouseRentAllowance(new BigDecimal("1000.00"));
+        payroll.setDearnessAllowance(new BigDecimal("250.50"));
+        payroll.setConveyanceAllowance(new BigDecimal("100.00"));
+        payroll.setMedicalAllowance(new BigDecimal("75.25"));
+        payroll.setSpecialAllowance(new BigDecimal("300.00"));
+        payroll.setOvertime(new BigDecimal("120.00"));
+        payroll.setBonus(new BigDecimal("500.00"));
+        payroll.setIncentives(new BigDecimal("80.00"));
+        payroll.setProvidentFund(new BigDecimal("600.00"));
+        payroll.setIncomeTax(new BigDecimal("700.00"));
+        payroll.setProfessionalTax(new BigDecimal("20.00"));
+        payroll.setOtherDeductions(new BigDecimal("15.00"));
+        payroll.setNetSalary(new BigDecimal("6090.75"));
+        payroll.setPaymentStatus(Payroll.PaymentStatus.PAID);
+        payroll.setPaymentDate(LocalDate.of(2026, 2, 28));
+        payroll.setPaymentMethod("BANK_TRANSFER");
+        payroll.setBankAccountNumber("GB00 0000 1234");
+        payroll.setTransactionId("TX-42");
+        payroll.setRemarks("February run");
+        entityManager.persist(payroll);
+        flushAndClear();
+
+        assertSameValues(entityDtos(payrollRepository.findAll(Sort.by("id")), PayrollDto::new),
+                projectionQueries.findAll(ProjectionQueries.PAYROLL, null, Sort.by("id"), 10));
+    }
+
+    private static <E, D> List<D> entityDtos(List<E> entities, Function<E, D> dto) {
+        return entities.stream().map(dto).collect(Collectors.toList());
+    }
+
+    private static void assertSameValues(List<?> fromEntities, List<?> fromProjection) {
+        JsonNode expected = JSON.valueToTree(fromEntities);
+        JsonNode actual = JSON.valueToTree(fromProjection);
+        assertEquals(expected, actual, () -> "entity " + expected + "\nprojection " + actual);
+    }
+
+    private void flushAndClear() {
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    private Attendance attendance(LocalDate date, LocalTime punchIn, LocalTime punchOut) {
+        Attendance attendance = new Attendance();
+        attendance.setUser(employee);
+        attendance.setDate(date);
+        attendance.setPunchInTime(punchIn);
+        attendance.setPunchOutTime(punchOut);
+        return entityManager.persist(attendance);
+    }
+
+    private Leave leave(LocalDate startDate, LocalDate endDate, Leave.LeaveStatus status) {
+        Leave leave = new Leave();
+        leave.setUser(employee);
+        leave.setLeaveType(Leave.LeaveType.ANNUAL);
+        leave.setStartDate(startDate);
+        leave.setEndDate(endDate);
+        leave.setReason("Projection");
+        leave.setStatus(status);
+        return entityManager.persist(leave);
+    }
+
+    private User user(String employeeId, String firstName, String lastName, User manager) {
+        User user = new User();
+        user.setEmployeeId(employeeId);
+        user.setFirstName(firstName);
+        user.setLastName(lastName);
+        user.setEmail(employeeId.toLowerCase() + "@test.com");
+        user.setPassword("password123");
+        user.setPhoneNumber("555200" + employeeId.substring(3));
+        user.setRole(manager == null ? User.UserRole.MANAGER : User.UserRole.EMPLOYEE);
+        user.setDepartment(User.Department.FINANCE);
+        user.setStatus(User.UserStatus.ACTIVE);
+        user.setManager(manager);
+        return entityManager.persist(user);
+    }
+}
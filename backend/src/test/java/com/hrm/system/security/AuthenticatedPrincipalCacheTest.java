@@ -0,0 +1,113 @@
+package com.hrm.system.security;
+
+import com.hrm.system.entity.User;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * Eviction around user writes, with transaction synchronization driven by hand
+ */
+class AuthenticatedPrincipalCacheTest {
+
+    private AuthenticatedPrincipalCache cache;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        cache = new AuthenticatedPrincipalCache();
+        ReflectionTestUtils.setField(cache, "ttlMs", 60_000L);
+        ReflectionTestUtils.setField(cache, "maxSize", 100);
+        ReflectionTestUtils.setField(cache, "claimsOnly", true);
+        ReflectionTestUtils.setField(cache, "jwtExpirationMs", 3_600_000L);
+        user = new User();
+        user.setId(7L);
+        user.setEmail("jane@hrm.com");
+        user.setRole(User.UserRole.EMPLOYEE);
+        user.setDepartment(User.Department.IT);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void cachedPrincipalIsServedUntilInvalidated() {
+        cache.put(user);
+        assertSame(user, cache.get("jane@hrm.com"));
+
+        cache.invalidate(7L);
+
+        assertNull(cache.get("jane@hrm.com"));
+    }
+
+    @Test
+    void principalReloadedMidTransactionIsEvictedOnCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        cache.put(user);
+
+        cache.invalidate(7L);
+        assertNull(cache.get("jane@hrm.com"));
+        // A request racing the write reloads the row before it commits
+        cache.put(user);
+        assertSame(user, cache.get("jane@hrm.com"));
+
+        commit();
+
+        assertNull(cache.get("jane@hrm.com"));
+    }
+
+    @Test
+    void invalidatedUserFallsBackFromClaimsUntilANewTokenIsIssued() throws InterruptedException {
+        JwtTokenProvider.ParsedToken before = token(new Date(System.currentTimeMillis() - 1_000));
+        assertNotNull(cache.fromClaims(before));
+
+        cache.invalidate(7L);
+        Thread.sleep(5);
+
+        assertNull(cache.fromClaims(before));
+        User fromClaims = cache.fromClaims(token(new Date()));
+        assertEquals(User.UserRole.MANAGER, fromClaims.getRole());
+        assertEquals("Jane", fromClaims.getFirstName());
+    }
+
+    @Test
+    void evictCachedLeavesIssuedTokensOnTheClaimsPath() {
+        TransactionSynchronizationManager.initSynchronization();
+        JwtTokenProvider.ParsedToken token = token(new Date(System.currentTimeMillis() - 1_000));
+        cache.put(user);
+
+        cache.evictCached(7L);
+        cache.put(user);
+        commit();
+
+        assertNull(cache.get("jane@hrm.com"));
+        assertNotNull(cache.fromClaims(token));
+    }
+
+    private JwtTokenProvider.ParsedToken token(Date issuedAt) {
+        return new JwtTokenProvider.ParsedToken("jane@hrm.com", 7L, "EMP007", "Jane Doe", "MANAGER", "IT",
+                List.of("ROLE_MANAGER"), issuedAt, new Date(issuedAt.getTime() + 3_600_000L));
+    }
+
+    private static void commit() {
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        synchronizations.forEach(TransactionSynchronization::afterCommit);
+    }
+}
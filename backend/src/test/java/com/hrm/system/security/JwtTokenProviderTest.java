@@ -0,0 +1,116 @@
+package com.hrm.system.security;
+
+import com.hrm.system.entity.User;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.security.SignatureException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The verified-token cache must never accept a token the signature check or expiry would reject
+ */
+class JwtTokenProviderTest {
+
+    private static final String SECRET = "test-secret-key-that-is-long-enough-for-hmac-sha-256-signing";
+
+    private JwtTokenProvider provider;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        provider = provider(60_000, 16);
+        user = new User();
+        user.setId(7L);
+        user.setEmail("jane@hrm.com");
+        user.setEmployeeId("EMP007");
+        user.setFirstName("Jane");
+        user.setLastName("Doe");
+        user.setRole(User.UserRole.EMPLOYEE);
+        user.setDepartment(User.Department.IT);
+    }
+
+    @Test
+    void verifiedTokenIsServedFromTheCache() {
+        String token = provider.generateToken(user);
+
+        JwtTokenProvider.ParsedToken first = provider.parseToken(token);
+
+        assertSame(first, provider.parseToken(token));
+        assertEquals("jane@hrm.com", first.subject());
+        assertEquals(7L, first.userId());
+        assertEquals("ROLE_EMPLOYEE", first.authorities().get(0));
+    }
+
+    @Test
+    void tokenIsRejectedOnceItExpiresEvenWhileCached() throws InterruptedException {
+        JwtTokenProvider shortLived = provider(1_000, 16);
+        String token = shortLived.generateToken(user);
+        assertTrue(shortLived.validateToken(token));
+
+        // Expiry is stored in whole seconds, so wait past the next second boundary
+        Thread.sleep(2_100);
+
+        assertThrows(ExpiredJwtException.class, () -> shortLived.parseToken(token));
+        assertFalse(shortLived.validateToken(token));
+        assertTrue(shortLived.isTokenExpired(token));
+    }
+
+    @Test
+    void tamperedPayloadIsRejectedWhileTheOriginalIsCached() {
+        String token = provider.generateToken(user);
+        assertTrue(provider.validateToken(token));
+
+        String[] parts = token.split("\\.");
+        String payload = new String(Base64.getUrlDecoder().decode(parts[1]), StandardCharsets.UTF_8)
+                .replace("ROLE_EMPLOYEE", "ROLE_ADMIN");
+        String forged = parts[0] + "." + Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(payload.getBytes(StandardCharsets.UTF_8)) + "." + parts[2];
+
+        assertThrows(SignatureException.class, () -> provider.parseToken(forged));
+        assertFalse(provider.validateToken(forged));
+        assertEquals("ROLE_EMPLOYEE", provider.parseToken(token).authorities().get(0));
+    }
+
+    @Test
+    void tamperedSignatureIsRejectedWhileTheOriginalIsCached() {
+        String token = provider.generateToken(user);
+        provider.parseToken(token);
+
+        char last = token.charAt(token.length() - 2);
+        String forged = token.substring(0, token.length() - 2) + (last == 'A' ? 'B' : 'A') + token.charAt(token.length() - 1);
+
+        assertFalse(provider.validateToken(forged));
+        assertTrue(provider.validateToken(token));
+    }
+
+    @Test
+    void fullCacheStillVerifiesNewTokens() {
+        JwtTokenProvider small = provider(60_000, 2);
+        for (long id = 1; id <= 5; id++) {
+            user.setId(id);
+            String token = small.generateToken(user);
+            assertEquals(id, small.parseToken(token).userId());
+        }
+    }
+
+    private static JwtTokenProvider provider(long expirationMs, int cacheSize) {
+        JwtTokenProvider provider = new JwtTokenProvider();
+        ReflectionTestUtils.setField(provider, "jwtSecret", SECRET);
+        ReflectionTestUtils.setField(provider, "jwtExpirationMs", expirationMs);
+        ReflectionTestUtils.setField(provider, "refreshExpirationMs", expirationMs);
+        ReflectionTestUtils.setField(provider, "tokenCacheMaxSize", cacheSize);
+        provider.init();
+        return provider;
+    }
+}
@@ -0,0 +1,103 @@
+package com.hrm.system.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class LastSeenTrackerTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Captor
+    private ArgumentCaptor<List<Object[]>> batch;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private LastSeenTracker tracker;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        tracker = new LastSeenTracker(jdbcTemplate, meterRegistry);
+    }
+
+    @Test
+    void repeatedTouchesMergeIntoOneRowPerUser() throws InterruptedException {
+        tracker.touch(1L);
+        tracker.touch(2L);
+        Thread.sleep(5);
+        tracker.touch(1L);
+        tracker.touch(null);
+        assertEquals(2.0, bufferSize());
+
+        tracker.flush();
+
+        verify(jdbcTemplate).batchUpdate(anyString(), batch.capture());
+        Map<Long, Timestamp> rows = rows(batch.getValue());
+        assertEquals(2, rows.size());
+        assertTrue(rows.get(1L).after(rows.get(2L)), rows.toString());
+        assertEquals(0.0, bufferSize());
+        assertEquals(1, meterRegistry.get("hrm.last_seen.flush").timer().count());
+    }
+
+    @Test
+    void emptyBufferDoesNotTouchTheDatabase() {
+        tracker.flush();
+
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), anyList());
+    }
+
+    @Test
+    void failedFlushKeepsTheNewerTimestamp() {
+        tracker.touch(1L);
+        tracker.touch(2L);
+        doAnswer(invocation -> {
+            // User 1 is seen again while the failing batch is in flight
+            Thread.sleep(5);
+            tracker.touch(1L);
+            throw new QueryTimeoutException("lock timeout");
+        }).doReturn(new int[]{1, 1}).when(jdbcTemplate).batchUpdate(anyString(), anyList());
+
+        tracker.flush();
+        assertEquals(2.0, bufferSize());
+        tracker.flush();
+
+        verify(jdbcTemplate, times(2)).batchUpdate(anyString(), batch.capture());
+        Map<Long, Timestamp> failed = rows(batch.getAllValues().get(0));
+        Map<Long, Timestamp> retried = rows(batch.getAllValues().get(1));
+        assertTrue(retried.get(1L).after(failed.get(1L)), retried + " " + failed);
+        assertEquals(failed.get(2L), retried.get(2L));
+        assertEquals(0.0, bufferSize());
+    }
+
+    private double bufferSize() {
+        return meterRegistry.get("hrm.last_seen.buffer.size").gauge().value();
+    }
+
+    private static Map<Long, Timestamp> rows(List<Object[]> batch) {
+        return batch.stream().collect(Collectors.toMap(row -> (Long) row[1], row -> (Timestamp) row[0]));
+    }
+}
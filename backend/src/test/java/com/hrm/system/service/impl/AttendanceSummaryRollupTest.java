@@ -0,0 +1,167 @@
+package com.hrm.system.service.impl;
+
+import com.hrm.system.entity.Attendance;
+import com.hrm.system.entity.AttendanceSummary;
+import com.hrm.system.entity.User;
+import com.hrm.system.repository.AttendanceSummaryRepository;
+import com.hrm.system.service.AttendanceService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.YearMonth;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Rollup deltas and rebuilds against the schema, with the late threshold at 09:15 and early departure at 16:45
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@Import({AttendanceSummaryRollup.class, AttendanceSummaryRollupTest.Metrics.class})
+class AttendanceSummaryRollupTest {
+
+    @TestConfiguration
+    static class Metrics {
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    private static final LocalDate MARCH_2 = LocalDate.of(2026, 3, 2);
+
+    private static final YearMonth MARCH = YearMonth.of(2026, 3);
+
+    @Autowired
+    private AttendanceSummaryRollup rollup;
+
+    @Autowired
+    private AttendanceSummaryRepository summaryRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = new User();
+        user.setEmployeeId("EMP900");
+        user.setFirstName("Roll");
+        user.setLastName("Up");
+        user.setEmail("rollup@test.com");
+        user.setPassword("password123");
+        user.setPhoneNumber("5550001111");
+        user.setRole(User.UserRole.EMPLOYEE);
+        user.setDepartment(User.Department.IT);
+        user.setStatus(User.UserStatus.ACTIVE);
+        user = entityManager.persistAndFlush(user);
+    }
+
+    @Test
+    void firstWriteOfTheMonthCreatesTheRollup() {
+        rollup.apply(null, snapshot(MARCH_2, Attendance.AttendanceStatus.PRESENT, "09:30", "17:00"));
+
+        AttendanceSummary summary = stored(MARCH);
+        assertEquals(1, summary.getPresentDays());
+        assertEquals(450, summary.getTotalMinutes());
+        assertEquals(1, summary.getLateArrivals());
+        assertEquals(0, summary.getEarlyDepartures());
+    }
+
+    @Test
+    void changeAddsOnlyTheDifference() {
+        AttendanceSummaryRollup.Snapshot punchedIn = snapshot(MARCH_2, Attendance.AttendanceStatus.PRESENT, "09:00", null);
+        rollup.apply(null, punchedIn);
+        rollup.apply(null, snapshot(MARCH_2.plusDays(1), Attendance.AttendanceStatus.PRESENT, "09:00", "17:00"));
+
+        rollup.apply(punchedIn, snapshot(MARCH_2, Attendance.AttendanceStatus.HALF_DAY, "09:00", "13:00"));
+
+        AttendanceSummary summary = stored(MARCH);
+        assertEquals(1, summary.getPresentDays());
+        assertEquals(1, summary.getHalfDays());
+        assertEquals(480 + 240, summary.getTotalMinutes());
+        assertEquals(0, summary.getLateArrivals());
+        assertEquals(1, summary.getEarlyDepartures());
+    }
+
+    @Test
+    void moveToAnotherMonthShiftsTheRow() {
+        AttendanceSummaryRollup.Snapshot march = snapshot(MARCH_2, Attendance.AttendanceStatus.PRESENT, "09:00", "17:00");
+        rollup.apply(null, march);
+
+        rollup.apply(march, snapshot(LocalDate.of(2026, 4, 1), Attendance.AttendanceStatus.PRESENT, "09:00", "17:00"));
+
+        assertEquals(0, stored(MARCH).getPresentDays());
+        assertEquals(0, stored(MARCH).getTotalMinutes());
+        assertEquals(1, stored(YearMonth.of(2026, 4)).getPresentDays());
+    }
+
+    @Test
+    void deleteSubtractsTheRow() {
+        AttendanceSummaryRollup.Snapshot absent = snapshot(MARCH_2, Attendance.AttendanceStatus.ABSENT, null, null);
+        rollup.apply(null, absent);
+        rollup.apply(absent, null);
+
+        assertEquals(0, stored(MARCH).getAbsentDays());
+    }
+
+    @Test
+    void rebuildCorrectsDriftFromRawRows() {
+        attendance(MARCH_2, Attendance.AttendanceStatus.PRESENT, "09:20", "17:00");
+        attendance(MARCH_2.plusDays(1), Attendance.AttendanceStatus.ABSENT, null, null);
+        entityManager.flush();
+
+        AttendanceService.SummaryRebuildResult dryRun = rollup.rebuild(MARCH, true);
+        assertEquals(1, dryRun.getMismatchedUsers());
+        assertTrue(summaryRepository.findByUserIdAndYearAndMonth(user.getId(), 2026, 3).isEmpty());
+
+        AttendanceService.SummaryRebuildResult rebuilt = rollup.rebuild(MARCH, false);
+        assertEquals(1, rebuilt.getMismatchedUsers());
+        entityManager.flush();
+        AttendanceSummary summary = stored(MARCH);
+        assertEquals(1, summary.getPresentDays());
+        assertEquals(1, summary.getAbsentDays());
+        assertEquals(460, summary.getTotalMinutes());
+        assertEquals(1, summary.getLateArrivals());
+
+        assertEquals(0, rollup.rebuild(MARCH, true).getMismatchedUsers());
+    }
+
+    private AttendanceSummaryRollup.Snapshot snapshot(LocalDate date, Attendance.AttendanceStatus status, String in, String out) {
+        return new AttendanceSummaryRollup.Snapshot(user.getId(), date, status,
+                in != null ? LocalTime.parse(in) : null, out != null ? LocalTime.parse(out) : null);
+    }
+
+    private void attendance(LocalDate date, Attendance.AttendanceStatus status, String in, String out) {
+        Attendance attendance = new Attendance();
+        attendance.setUser(user);
+        attendance.setDate(date);
+        attendance.setStatus(status);
+        attendance.setPunchInTime(in != null ? LocalTime.parse(in) : null);
+        attendance.setPunchOutTime(out != null ? LocalTime.parse(out) : null);
+        entityManager.persist(attendance);
+    }
+
+    /**
+     * Bulk updates bypass the persistence context, so read the row afresh
+     */
+    private AttendanceSummary stored(YearMonth period) {
+        entityManager.clear();
+        return summaryRepository.findByUserIdAndYearAndMonth(user.getId(), period.getYear(), period.getMonthValue())
+                .orElseThrow();
+    }
+}
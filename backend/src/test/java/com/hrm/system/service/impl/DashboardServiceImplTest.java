@@ -0,0 +1,247 @@
+package com.hrm.system.service.impl;
+
+import com.hrm.system.dto.DashboardActivityDto;
+import com.hrm.system.entity.ActivityLog;
+import com.hrm.system.entity.Attendance;
+import com.hrm.system.entity.Leave;
+import com.hrm.system.entity.Performance;
+import com.hrm.system.entity.User;
+import com.hrm.system.service.DashboardService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Dashboard counts from the grouped queries, company-wide for admins and the caller's department for managers,
+ * and the activity feeds paged by occurrence time with the log ID breaking ties
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@Import(DashboardServiceImpl.class)
+class DashboardServiceImplTest {
+
+    @Autowired
+    private DashboardServiceImpl dashboardService;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private User itManager;
+
+    private User admin;
+
+    private int employees;
+
+    @BeforeEach
+    void setUp() {
+        employees = 0;
+        admin = user(User.UserRole.ADMIN, User.Department.HR, User.UserStatus.ACTIVE);
+        itManager = user(User.UserRole.MANAGER, User.Department.IT, User.UserStatus.ACTIVE);
+        User itEmployee = user(User.UserRole.EMPLOYEE, User.Department.IT, User.UserStatus.ACTIVE);
+        User itLeaver = user(User.UserRole.EMPLOYEE, User.Department.IT, User.UserStatus.INACTIVE);
+        User financeEmployee = user(User.UserRole.EMPLOYEE, User.Department.FINANCE, User.UserStatus.ACTIVE);
+
+        leave(itEmployee, Leave.LeaveStatus.APPROVED);
+        leave(itEmployee, Leave.LeaveStatus.PENDING);
+        leave(financeEmployee, Leave.LeaveStatus.PENDING);
+        leave(financeEmployee, Leave.LeaveStatus.REJECTED);
+
+        performance(itEmployee, Performance.PerformanceStatus.COMPLETED);
+        performance(financeEmployee, Performance.PerformanceStatus.COMPLETED);
+        performance(financeEmployee, Performance.PerformanceStatus.DRAFT);
+
+        attendance(itManager, Attendance.AttendanceStatus.PRESENT);
+        attendance(itEmployee, Attendance.AttendanceStatus.HALF_DAY);
+        attendance(financeEmployee, Attendance.AttendanceStatus.PRESENT);
+        attendance(admin, Attendance.AttendanceStatus.ABSENT);
+        entityManager.flush();
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void adminSeesCompanyWideCounts() {
+        signIn(admin);
+
+        DashboardService.DashboardStatistics statistics = dashboardService.getDashboardStatistics();
+
+        assertEquals(5, statistics.totalUsers());
+        assertEquals(4, statistics.activeUsers());
+        assertEquals(4, statistics.totalLeaves());
+        assertEquals(1, statistics.approvedLeaves());
+        assertEquals(2, statistics.pendingLeaves());
+        assertEquals(3, statistics.totalPerformance());
+        assertEquals(2, statistics.completedPerformance());
+        assertEquals(2, statistics.presentToday());
+        assertEquals(1, statistics.absentToday());
+        assertEquals(1, statistics.halfDayToday());
+        assertEquals(40.0, statistics.attendanceRate(), 0.001);
+    }
+
+    @Test
+    void managerSeesOnlyTheirDepartment() {
+        signIn(itManager);
+
+        DashboardService.DashboardStatistics statistics = dashboardService.getDashboardStatistics();
+
+        assertEquals(3, statistics.totalUsers());
+        assertEquals(2, statistics.activeUsers());
+        assertEquals(2, statistics.totalLeaves());
+        assertEquals(1, statistics.approvedLeaves());
+        assertEquals(1, statistics.pendingLeaves());
+        assertEquals(1, statistics.totalPerformance());
+        assertEquals(1, statistics.completedPerformance());
+        assertEquals(1, statistics.presentToday());
+        assertEquals(0, statistics.absentToday());
+        assertEquals(1, statistics.halfDayToday());
+        assertEquals(100.0 / 3, statistics.attendanceRate(), 0.001);
+    }
+
+    @Test
+    void anonymousCallerSeesCompanyWideCounts() {
+        assertEquals(5, dashboardService.getDashboardStatistics().totalUsers());
+    }
+
+    @Test
+    void feedPagesNewestFirstAcrossTiedTimestamps() {
+        LocalDateTime nine = LocalDateTime.of(2026, 3, 2, 9, 0);
+        List<ActivityLog> logged = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            // Three entries share each of the first two timestamps
+            logged.add(activity(ActivityLog.LEAVE_APPROVED, 100L + i, User.Department.IT, nine.plusMinutes(i / 3)));
+        }
+        entityManager.flush();
+
+        List<DashboardActivityDto> seen = new ArrayList<>();
+        List<DashboardActivityDto> page = dashboardService.getRecentActivities(3, null, null);
+        while (!page.isEmpty()) {
+            seen.addAll(page);
+            DashboardActivityDto last = page.get(page.size() - 1);
+            page = dashboardService.getRecentActivities(3, last.getTimestamp(), last.getCursorId());
+        }
+
+        List<Long> expected = logged.stream()
+                .sorted((a, b) -> b.getOccurredAt().equals(a.getOccurredAt())
+                        ? b.getId().compareTo(a.getId()) : b.getOccurredAt().compareTo(a.getOccurredAt()))
+                .map(ActivityLog::getId)
+                .collect(Collectors.toList());
+        assertEquals(expected, seen.stream().map(DashboardActivityDto::getCursorId).collect(Collectors.toList()));
+        assertEquals("leave-106", seen.get(0).getId());
+    }
+
+    @Test
+    void timestampCursorWithoutIdSkipsTheWholeInstant() {
+        LocalDateTime nine = LocalDateTime.of(2026, 3, 2, 9, 0);
+        activity(ActivityLog.LEAVE_APPROVED, 1L, User.Department.IT, nine);
+        activity(ActivityLog.LEAVE_APPROVED, 2L, User.Department.IT, nine.plusMinutes(1));
+        activity(ActivityLog.LEAVE_APPROVED, 3L, User.Department.IT, nine.plusMinutes(1));
+        entityManager.flush();
+
+        List<DashboardActivityDto> older = dashboardService.getRecentActivities(10, nine.plusMinutes(1), null);
+
+        assertEquals(List.of("leave-1"), older.stream().map(DashboardActivityDto::getId).collect(Collectors.toList()));
+    }
+
+    @Test
+    void userAndDepartmentFeedsKeepTheirTypes() {
+        LocalDateTime nine = LocalDateTime.of(2026, 3, 2, 9, 0);
+        Long userId = itManager.getId();
+        activity(ActivityLog.USER_CREATED, userId, User.Department.IT, nine);
+        activity(ActivityLog.LEAVE_REJECTED, 11L, User.Department.IT, nine.plusMinutes(1));
+        activity(ActivityLog.PERFORMANCE_REVIEW, 12L, User.Department.IT, nine.plusMinutes(2));
+        activity(ActivityLog.LEAVE_APPROVED, 13L, User.Department.FINANCE, nine.plusMinutes(3));
+        entityManager.flush();
+
+        List<DashboardActivityDto> mine = dashboardService.getUserActivities(userId, 10, null, null);
+        assertEquals(List.of("performance-12", "leave-11"),
+                mine.stream().map(DashboardActivityDto::getId).collect(Collectors.toList()));
+        assertEquals("Your leave request was rejected", mine.get(1).getDescription());
+
+        List<DashboardActivityDto> department = dashboardService.getDepartmentActivities("IT", 10, null, null);
+        assertEquals(List.of("performance-12"),
+                department.stream().map(DashboardActivityDto::getId).collect(Collectors.toList()));
+        assertTrue(dashboardService.getRecentActivities(10, null, null).stream()
+                .anyMatch(activity -> activity.getId().equals("user-" + userId)));
+    }
+
+    private ActivityLog activity(String type, Long relatedId, User.Department department, LocalDateTime occurredAt) {
+        ActivityLog activity = new ActivityLog();
+        activity.setType(type);
+        activity.setTitle(type);
+        activity.setDescription(type + " " + relatedId);
+        activity.setUserId(department == User.Department.IT ? itManager.getId() : admin.getId());
+        activity.setUserName("Dash Board");
+        activity.setDepartment(department);
+        activity.setRelatedId(relatedId);
+        activity.setOccurredAt(occurredAt);
+        return entityManager.persist(activity);
+    }
+
+    private void signIn(User user) {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities()));
+    }
+
+    private User user(User.UserRole role, User.Department department, User.UserStatus status) {
+        int n = ++employees;
+        User user = new User();
+        user.setEmployeeId("DSH" + n);
+        user.setFirstName("Dash");
+        user.setLastName("Board");
+        user.setEmail("dash" + n + "@test.com");
+        user.setPassword("password123");
+        user.setPhoneNumber("555200" + n);
+        user.setRole(role);
+        user.setDepartment(department);
+        user.setStatus(status);
+        return entityManager.persist(user);
+    }
+
+    private void leave(User user, Leave.LeaveStatus status) {
+        Leave leave = new Leave();
+        leave.setUser(user);
+        leave.setLeaveType(Leave.LeaveType.ANNUAL);
+        leave.setStartDate(LocalDate.of(2026, 5, 4));
+        leave.setEndDate(LocalDate.of(2026, 5, 5));
+        leave.setStatus(status);
+        entityManager.persist(leave);
+    }
+
+    private void performance(User user, Performance.PerformanceStatus status) {
+        Performance performance = new Performance();
+        performance.setUser(user);
+        performance.setReviewPeriod(LocalDate.of(2026, 3, 31));
+        performance.setReviewType(Performance.ReviewType.QUARTERLY);
+        performance.setStatus(status);
+        entityManager.persist(performance);
+    }
+
+    private void attendance(User user, Attendance.AttendanceStatus status) {
+        Attendance attendance = new Attendance();
+        attendance.setUser(user);
+        attendance.setDate(LocalDate.now());
+        attendance.setPunchInTime(LocalTime.of(9, 0));
+        attendance.setStatus(status);
+        entityManager.persist(attendance);
+    }
+}
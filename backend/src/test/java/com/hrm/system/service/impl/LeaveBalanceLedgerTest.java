@@ -0,0 +1,193 @@
+package com.hrm.system.service.impl;
+
+import com.hrm.system.entity.Leave;
+import com.hrm.system.entity.LeaveBalance;
+import com.hrm.system.repository.LeaveBalanceRepository;
+import com.hrm.system.repository.LeaveRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class LeaveBalanceLedgerTest {
+
+    @Mock
+    private LeaveBalanceRepository balanceRepository;
+
+    @Mock
+    private LeaveRepository leaveRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private LeaveBalanceLedger ledger;
+
+    @BeforeEach
+    void setUp() {
+        ledger = new LeaveBalanceLedger(balanceRepository, leaveRepository, transactionManager, 21, 10, 5);
+    }
+
+    @Test
+    void firstRequestCreatesTheBalanceWithItsEntitlement() {
+        ledger.apply(null, entry(Leave.LeaveType.ANNUAL, Leave.LeaveStatus.PENDING, 3));
+
+        LeaveBalance balance = savedBalances().get(0);
+        assertEquals(Leave.LeaveType.ANNUAL, balance.getLeaveType());
+        assertEquals(2026, balance.getYear());
+        assertEquals(21, balance.getEntitledDays());
+        assertEquals(3, balance.getPendingDays());
+        assertEquals(0, balance.getUsedDays());
+        assertEquals(18, balance.getRemainingDays());
+    }
+
+    @Test
+    void approvalMovesDaysFromPendingToUsed() {
+        LeaveBalance stored = balance(Leave.LeaveType.ANNUAL, 21, 3, 0);
+        when(balanceRepository.findByUserIdAndLeaveTypeAndYear(1L, Leave.LeaveType.ANNUAL, 2026)).thenReturn(Optional.of(stored));
+
+        ledger.apply(entry(Leave.LeaveType.ANNUAL, Leave.LeaveStatus.PENDING, 3),
+                entry(Leave.LeaveType.ANNUAL, Leave.LeaveStatus.APPROVED, 3));
+
+        assertEquals(0, stored.getPendingDays());
+        assertEquals(3, stored.getUsedDays());
+    }
+
+    @Test
+    void requestOverTheEntitlementIsRefused() {
+        when(balanceRepository.findByUserIdAndLeaveTypeAndYear(1L, Leave.LeaveType.SICK, 2026))
+                .thenReturn(Optional.of(balance(Leave.LeaveType.SICK, 10, 2, 6)));
+
+        RuntimeException refused = assertThrows(RuntimeException.class,
+                () -> ledger.apply(null, entry(Leave.LeaveType.SICK, Leave.LeaveStatus.PENDING, 3)));
+
+        assertTrue(refused.getMessage().startsWith("Insufficient SICK leave balance for 2026"));
+        verify(balanceRepository, never()).saveAllAndFlush(anyCollection());
+    }
+
+    @Test
+    void approvalIsAllowedWhenTheBalanceIsAlreadyOverdrawn() {
+        LeaveBalance stored = balance(Leave.LeaveType.PERSONAL, 5, 4, 3);
+        when(balanceRepository.findByUserIdAndLeaveTypeAndYear(1L, Leave.LeaveType.PERSONAL, 2026)).thenReturn(Optional.of(stored));
+
+        ledger.apply(entry(Leave.LeaveType.PERSONAL, Leave.LeaveStatus.PENDING, 4),
+                entry(Leave.LeaveType.PERSONAL, Leave.LeaveStatus.APPROVED, 4));
+
+        assertEquals(7, stored.getUsedDays());
+    }
+
+    @Test
+    void uncappedLeaveTypeHasNoLimit() {
+        ledger.apply(null, entry(Leave.LeaveType.UNPAID, Leave.LeaveStatus.PENDING, 60));
+
+        LeaveBalance balance = savedBalances().get(0);
+        assertNull(balance.getEntitledDays());
+        assertNull(balance.getRemainingDays());
+        assertEquals(60, balance.getPendingDays());
+    }
+
+    @Test
+    void changeThatDoesNotMoveDaysTouchesNothing() {
+        ledger.apply(entry(Leave.LeaveType.ANNUAL, Leave.LeaveStatus.REJECTED, 3),
+                entry(Leave.LeaveType.ANNUAL, Leave.LeaveStatus.CANCELLED, 3));
+
+        verifyNoInteractions(balanceRepository);
+    }
+
+    @Test
+    void batchReadsAllBalancesInOneQuery() {
+        LeaveBalance annual = balance(Leave.LeaveType.ANNUAL, 21, 2, 0);
+        LeaveBalance sick = balance(Leave.LeaveType.SICK, 10, 1, 0);
+        when(balanceRepository.findByUserIdInAndYearIn(anyCollection(), anyCollection())).thenReturn(List.of(annual, sick));
+
+        ledger.applyAll(
+                List.of(entry(Leave.LeaveType.ANNUAL, Leave.LeaveStatus.PENDING, 2), entry(Leave.LeaveType.SICK, Leave.LeaveStatus.PENDING, 1)),
+                List.of(entry(Leave.LeaveType.ANNUAL, Leave.LeaveStatus.APPROVED, 2), entry(Leave.LeaveType.SICK, Leave.LeaveStatus.REJECTED, 1)));
+
+        Map<Leave.LeaveType, LeaveBalance> saved = savedBalances().stream()
+                .collect(Collectors.toMap(LeaveBalance::getLeaveType, Function.identity()));
+        assertEquals(2, saved.get(Leave.LeaveType.ANNUAL).getUsedDays());
+        assertEquals(0, saved.get(Leave.LeaveType.ANNUAL).getPendingDays());
+        assertEquals(0, saved.get(Leave.LeaveType.SICK).getPendingDays());
+        assertEquals(0, saved.get(Leave.LeaveType.SICK).getUsedDays());
+    }
+
+    @Test
+    void concurrentVersionChangeAsksForARetry() {
+        when(balanceRepository.saveAllAndFlush(anyCollection())).thenThrow(new OptimisticLockingFailureException("stale"));
+
+        RuntimeException conflict = assertThrows(RuntimeException.class,
+                () -> ledger.apply(null, entry(Leave.LeaveType.ANNUAL, Leave.LeaveStatus.PENDING, 1)));
+
+        assertTrue(conflict.getMessage().endsWith("please retry"));
+    }
+
+    @Test
+    void concurrentFirstInsertAsksForARetry() {
+        when(balanceRepository.saveAllAndFlush(anyCollection()))
+                .thenThrow(new DataIntegrityViolationException("uk_leave_balances_user_type_year"));
+
+        RuntimeException conflict = assertThrows(RuntimeException.class,
+                () -> ledger.apply(null, entry(Leave.LeaveType.ANNUAL, Leave.LeaveStatus.PENDING, 1)));
+
+        assertTrue(conflict.getMessage().endsWith("please retry"));
+    }
+
+    @Test
+    void balancesIncludeUnusedCappedTypes() {
+        when(balanceRepository.findByUserIdAndYearOrderByLeaveType(1L, 2026))
+                .thenReturn(List.of(balance(Leave.LeaveType.UNPAID, null, 0, 4)));
+
+        List<LeaveBalance> balances = ledger.balances(1L, 2026);
+
+        assertEquals(List.of(Leave.LeaveType.ANNUAL, Leave.LeaveType.SICK, Leave.LeaveType.PERSONAL, Leave.LeaveType.UNPAID),
+                balances.stream().map(LeaveBalance::getLeaveType).collect(Collectors.toList()));
+        assertEquals(21, balances.get(0).getRemainingDays());
+    }
+
+    private static LeaveBalanceLedger.Entry entry(Leave.LeaveType leaveType, Leave.LeaveStatus status, int days) {
+        return new LeaveBalanceLedger.Entry(1L, leaveType, 2026, status, days);
+    }
+
+    private static LeaveBalance balance(Leave.LeaveType leaveType, Integer entitled, int pending, int used) {
+        LeaveBalance balance = new LeaveBalance();
+        balance.setUserId(1L);
+        balance.setLeaveType(leaveType);
+        balance.setYear(2026);
+        balance.setEntitledDays(entitled);
+        balance.setPendingDays(pending);
+        balance.setUsedDays(used);
+        return balance;
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<LeaveBalance> savedBalances() {
+        ArgumentCaptor<Iterable<LeaveBalance>> saved = ArgumentCaptor.forClass(Iterable.class);
+        verify(balanceRepository).saveAllAndFlush(saved.capture());
+        List<LeaveBalance> balances = new ArrayList<>();
+        saved.getValue().forEach(balances::add);
+        return balances;
+    }
+}
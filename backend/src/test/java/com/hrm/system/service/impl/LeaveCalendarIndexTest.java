@@ -0,0 +1,146 @@
+package com.hrm.system.service.impl;
+
+import com.hrm.system.entity.Leave;
+import com.hrm.system.entity.User;
+import com.hrm.system.repository.LeaveRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class LeaveCalendarIndexTest {
+
+    private static final LocalDate JUNE_1 = LocalDate.of(2026, 6, 1);
+
+    @Mock
+    private LeaveRepository leaveRepository;
+
+    @InjectMocks
+    private LeaveCalendarIndex index;
+
+    @Test
+    void overlapIncludesLeavesTouchingTheWindowEdges() {
+        User it = user(1L, User.Department.IT);
+        warm(leave(10L, it, JUNE_1, JUNE_1.plusDays(2), Leave.LeaveStatus.APPROVED),
+                leave(11L, it, JUNE_1.plusDays(5), JUNE_1.plusDays(6), Leave.LeaveStatus.PENDING),
+                leave(12L, it, JUNE_1.plusDays(7), JUNE_1.plusDays(9), Leave.LeaveStatus.PENDING));
+
+        assertEquals(List.of(10L, 11L), ids(index.overlapping(null, JUNE_1.plusDays(2), JUNE_1.plusDays(5))));
+        assertEquals(List.of(), ids(index.overlapping(null, JUNE_1.plusDays(3), JUNE_1.plusDays(4))));
+        assertEquals(List.of(12L), ids(index.overlapping(null, JUNE_1.plusDays(9), JUNE_1.plusDays(30))));
+    }
+
+    @Test
+    void treeAnswersLikeALinearScan() {
+        Random random = new Random(7);
+        User.Department[] departments = User.Department.values();
+        List<Leave> leaves = new ArrayList<>();
+        for (long id = 1; id <= 500; id++) {
+            LocalDate start = JUNE_1.plusDays(random.nextInt(365));
+            User user = user(id % 40, departments[(int) (id % 40) % departments.length]);
+            leaves.add(leave(id, user, start, start.plusDays(random.nextInt(random.nextInt(10) == 0 ? 60 : 5)),
+                    random.nextBoolean() ? Leave.LeaveStatus.APPROVED : Leave.LeaveStatus.PENDING));
+        }
+        warm(leaves.toArray(new Leave[0]));
+
+        for (int query = 0; query < 300; query++) {
+            LocalDate from = JUNE_1.plusDays(random.nextInt(400) - 20);
+            LocalDate to = from.plusDays(random.nextInt(30));
+            User.Department department = query % 3 == 0 ? null : departments[random.nextInt(departments.length)];
+            List<Long> expected = leaves.stream()
+                    .filter(leave -> department == null || leave.getUser().getDepartment() == department)
+                    .filter(leave -> !leave.getStartDate().isAfter(to) && !leave.getEndDate().isBefore(from))
+                    .sorted(Comparator.comparing(Leave::getStartDate).thenComparing(Leave::getId))
+                    .map(Leave::getId)
+                    .collect(Collectors.toList());
+            assertEquals(expected, ids(index.overlapping(department, from, to)), "window " + from + ".." + to + " " + department);
+        }
+    }
+
+    @Test
+    void dayCountsSplitApprovedAndPendingPerDay() {
+        User it = user(1L, User.Department.IT);
+        User hr = user(2L, User.Department.HR);
+        warm(leave(10L, it, JUNE_1.minusDays(3), JUNE_1.plusDays(1), Leave.LeaveStatus.APPROVED),
+                leave(11L, hr, JUNE_1.plusDays(1), JUNE_1.plusDays(5), Leave.LeaveStatus.PENDING),
+                leave(12L, hr, JUNE_1.plusDays(2), JUNE_1.plusDays(2), Leave.LeaveStatus.APPROVED));
+
+        List<LeaveCalendarIndex.DayCount> all = index.dayCounts(null, JUNE_1, JUNE_1.plusDays(3));
+        assertEquals(List.of(
+                new LeaveCalendarIndex.DayCount(JUNE_1, 1, 0),
+                new LeaveCalendarIndex.DayCount(JUNE_1.plusDays(1), 1, 1),
+                new LeaveCalendarIndex.DayCount(JUNE_1.plusDays(2), 1, 1),
+                new LeaveCalendarIndex.DayCount(JUNE_1.plusDays(3), 0, 1)), all);
+
+        List<LeaveCalendarIndex.DayCount> itOnly = index.dayCounts(User.Department.IT, JUNE_1.plusDays(1), JUNE_1.plusDays(2));
+        assertEquals(List.of(
+                new LeaveCalendarIndex.DayCount(JUNE_1.plusDays(1), 1, 0),
+                new LeaveCalendarIndex.DayCount(JUNE_1.plusDays(2), 0, 0)), itOnly);
+    }
+
+    @Test
+    void changesMoveRemoveAndReassignLeaves() {
+        User it = user(1L, User.Department.IT);
+        Leave leave = leave(10L, it, JUNE_1, JUNE_1.plusDays(1), Leave.LeaveStatus.PENDING);
+        warm(leave, leave(11L, it, JUNE_1, JUNE_1, Leave.LeaveStatus.APPROVED));
+
+        leave.setStartDate(JUNE_1.plusDays(10));
+        leave.setEndDate(JUNE_1.plusDays(11));
+        index.record(leave);
+        assertEquals(List.of(11L), ids(index.overlapping(null, JUNE_1, JUNE_1.plusDays(1))));
+        assertEquals(List.of(10L), ids(index.overlapping(null, JUNE_1.plusDays(10), JUNE_1.plusDays(10))));
+
+        it.setDepartment(User.Department.SALES);
+        index.userChanged(it);
+        assertTrue(index.overlapping(User.Department.IT, JUNE_1, JUNE_1.plusDays(30)).isEmpty());
+        assertEquals(List.of(11L, 10L), ids(index.overlapping(User.Department.SALES, JUNE_1, JUNE_1.plusDays(30))));
+
+        leave.setStatus(Leave.LeaveStatus.REJECTED);
+        index.record(leave);
+        index.remove(11L);
+        assertTrue(index.overlapping(null, JUNE_1, JUNE_1.plusDays(30)).isEmpty());
+    }
+
+    private void warm(Leave... leaves) {
+        when(leaveRepository.findWithUserByStatusIn(anyCollection())).thenReturn(List.of(leaves));
+        index.warm();
+    }
+
+    private static List<Long> ids(List<LeaveCalendarIndex.LeaveInterval> intervals) {
+        return intervals.stream().map(LeaveCalendarIndex.LeaveInterval::leaveId).collect(Collectors.toList());
+    }
+
+    private static User user(Long id, User.Department department) {
+        User user = new User();
+        user.setId(id);
+        user.setFirstName("User");
+        user.setLastName(String.valueOf(id));
+        user.setDepartment(department);
+        return user;
+    }
+
+    private static Leave leave(Long id, User user, LocalDate start, LocalDate end, Leave.LeaveStatus status) {
+        Leave leave = new Leave();
+        leave.setId(id);
+        leave.setUser(user);
+        leave.setLeaveType(Leave.LeaveType.ANNUAL);
+        leave.setStartDate(start);
+        leave.setEndDate(end);
+        leave.setStatus(status);
+        return leave;
+    }
+}
@@ -0,0 +1,123 @@
+package com.hrm.system.service.impl;
+
+import com.hrm.system.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Hierarchy used by most tests: 1 at the top, 2 and 3 under 1, 4 and 5 under 2, 6 under 5
+ */
+@ExtendWith(MockitoExtension.class)
+class OrgChartIndexTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @InjectMocks
+    private OrgChartIndex index;
+
+    @Test
+    void subtreeIsLaidOutInPreOrder() {
+        warmSample();
+
+        OrgChartIndex.Subtree all = index.subtree(1L, null, 0, 10);
+        assertEquals(List.of(2L, 4L, 5L, 6L, 3L), ids(all));
+        assertEquals(5, all.total());
+        assertEquals(new OrgChartIndex.Node(2L, 1L, 1, 2, 3), all.reports().get(0));
+        assertEquals(new OrgChartIndex.Node(1L, null, 0, 2, 5), index.node(1L).orElseThrow());
+        assertEquals(List.of(5L, 2L, 1L), index.managerChain(6L));
+    }
+
+    @Test
+    void depthLimitStepsOverDeeperReports() {
+        warmSample();
+
+        OrgChartIndex.Subtree direct = index.subtree(1L, 1, 0, 10);
+        assertEquals(List.of(2L, 3L), ids(direct));
+        assertEquals(2, direct.total());
+
+        OrgChartIndex.Subtree twoLevels = index.subtree(1L, 2, 0, 10);
+        assertEquals(List.of(2L, 4L, 5L, 3L), ids(twoLevels));
+        assertEquals(4, twoLevels.total());
+    }
+
+    @Test
+    void pagesSliceTheSubtree() {
+        warmSample();
+
+        assertEquals(List.of(5L, 6L), ids(index.subtree(1L, null, 2, 2)));
+        assertEquals(List.of(4L, 5L), ids(index.subtree(1L, 2, 1, 2)));
+        assertTrue(index.subtree(1L, null, 5, 2).reports().isEmpty());
+        assertEquals(0, index.subtree(99L, null, 0, 10).total());
+    }
+
+    @Test
+    void isUnderFollowsTheWholeChain() {
+        warmSample();
+
+        assertTrue(index.isUnder(6L, 1L));
+        assertTrue(index.isUnder(6L, 2L));
+        assertFalse(index.isUnder(6L, 3L));
+        assertFalse(index.isUnder(2L, 2L));
+        assertFalse(index.isUnder(1L, 6L));
+    }
+
+    @Test
+    void cycleIsCutAtItsLowestId() {
+        warm(link(1L, null), link(7L, 9L), link(8L, 7L), link(9L, 8L), link(10L, 8L));
+
+        assertEquals(new OrgChartIndex.Node(7L, null, 0, 1, 3), index.node(7L).orElseThrow());
+        assertEquals(List.of(8L, 9L, 10L), ids(index.subtree(7L, null, 0, 10)));
+        assertEquals(List.of(8L, 7L), index.managerChain(9L));
+        assertFalse(index.isUnder(7L, 9L));
+        assertEquals(0, index.node(1L).orElseThrow().totalReports());
+    }
+
+    @Test
+    void changesMoveWholeSubtrees() {
+        warmSample();
+
+        index.put(5L, 3L);
+        assertEquals(List.of(4L), ids(index.subtree(2L, null, 0, 10)));
+        assertEquals(List.of(5L, 6L), ids(index.subtree(3L, null, 0, 10)));
+        assertEquals(List.of(5L, 3L, 1L), index.managerChain(6L));
+
+        index.remove(5L);
+        assertTrue(index.node(5L).isEmpty());
+        assertEquals(new OrgChartIndex.Node(6L, null, 0, 0, 0), index.node(6L).orElseThrow());
+        assertEquals(List.of(2L, 4L, 3L), ids(index.subtree(1L, null, 0, 10)));
+    }
+
+    private void warmSample() {
+        warm(link(1L, null), link(2L, 1L), link(3L, 1L), link(4L, 2L), link(5L, 2L), link(6L, 5L));
+    }
+
+    private void warm(UserRepository.ManagerLink... links) {
+        when(userRepository.findManagerLinks()).thenReturn(new ArrayList<>(List.of(links)));
+        index.warm();
+    }
+
+    private static List<Long> ids(OrgChartIndex.Subtree subtree) {
+        return subtree.reports().stream().map(OrgChartIndex.Node::userId).collect(Collectors.toList());
+    }
+
+    private static UserRepository.ManagerLink link(Long id, Long managerId) {
+        UserRepository.ManagerLink link = mock(UserRepository.ManagerLink.class);
+        when(link.getId()).thenReturn(id);
+        when(link.getManagerId()).thenReturn(managerId);
+        return link;
+    }
+}
@@ -0,0 +1,121 @@
+package com.hrm.system.service.impl;
+
+import com.hrm.system.entity.Payroll;
+import com.hrm.system.entity.User;
+import com.hrm.system.repository.ProjectionQueries;
+import com.hrm.system.service.PayrollService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.YearMonth;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Payroll statistics from the grouped count and net salary sum, by pay period and department
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@Import({PayrollServiceImpl.class, ProjectionQueries.class})
+class PayrollServiceImplTest {
+
+    private static final YearMonth MARCH = YearMonth.of(2026, 3);
+
+    private static final YearMonth APRIL = YearMonth.of(2026, 4);
+
+    @Autowired
+    private PayrollServiceImpl payrollService;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private int employees;
+
+    @BeforeEach
+    void setUp() {
+        employees = 0;
+        User it = user(User.Department.IT);
+        User itSecond = user(User.Department.IT);
+        User finance = user(User.Department.FINANCE);
+
+        payroll(it, MARCH, Payroll.PaymentStatus.PAID, "5000.00");
+        payroll(itSecond, MARCH, Payroll.PaymentStatus.PENDING, "4000.50");
+        payroll(finance, MARCH, Payroll.PaymentStatus.PROCESSING, "6000.00");
+        payroll(user(User.Department.FINANCE), MARCH, Payroll.PaymentStatus.FAILED, "1000.00");
+        payroll(it, APRIL, Payroll.PaymentStatus.PENDING, "5000.00");
+        entityManager.flush();
+    }
+
+    @Test
+    void totalsCoverEveryStatusInThePeriod() {
+        PayrollService.PayrollStatistics statistics = payrollService.getPayrollStatistics(MARCH, null);
+
+        assertEquals(4, statistics.totalPayroll());
+        assertEquals(1, statistics.pendingPayroll());
+        assertEquals(1, statistics.processedPayroll());
+        assertEquals(1, statistics.paidPayroll());
+        assertEquals(16000.50, statistics.totalAmount(), 0.001);
+        assertEquals(4000.13, statistics.averageSalary(), 0.001);
+    }
+
+    @Test
+    void departmentNarrowsTheTotals() {
+        PayrollService.PayrollStatistics statistics = payrollService.getPayrollStatistics(MARCH, User.Department.IT);
+
+        assertEquals(2, statistics.totalPayroll());
+        assertEquals(1, statistics.pendingPayroll());
+        assertEquals(0, statistics.processedPayroll());
+        assertEquals(1, statistics.paidPayroll());
+        assertEquals(9000.50, statistics.totalAmount(), 0.001);
+        assertEquals(4500.25, statistics.averageSalary(), 0.001);
+    }
+
+    @Test
+    void noPeriodCoversEveryPeriod() {
+        PayrollService.PayrollStatistics statistics = payrollService.getPayrollStatistics(null, User.Department.IT);
+
+        assertEquals(3, statistics.totalPayroll());
+        assertEquals(2, statistics.pendingPayroll());
+        assertEquals(14000.50, statistics.totalAmount(), 0.001);
+    }
+
+    @Test
+    void emptyPeriodHasZeroAverage() {
+        PayrollService.PayrollStatistics statistics = payrollService.getPayrollStatistics(YearMonth.of(2026, 5), null);
+
+        assertEquals(0, statistics.totalPayroll());
+        assertEquals(0.0, statistics.totalAmount());
+        assertEquals(0.0, statistics.averageSalary());
+    }
+
+    private User user(User.Department department) {
+        int n = ++employees;
+        User user = new User();
+        user.setEmployeeId("PAY" + n);
+        user.setFirstName("Pay");
+        user.setLastName("Roll");
+        user.setEmail("pay" + n + "@test.com");
+        user.setPassword("password123");
+        user.setPhoneNumber("555300" + n);
+        user.setRole(User.UserRole.EMPLOYEE);
+        user.setDepartment(department);
+        user.setStatus(User.UserStatus.ACTIVE);
+        return entityManager.persist(user);
+    }
+
+    private void payroll(User user, YearMonth payPeriod, Payroll.PaymentStatus status, String netSalary) {
+        Payroll payroll = new Payroll();
+        payroll.setUser(user);
+        payroll.setPayPeriod(payPeriod);
+        payroll.setBasicSalary(new BigDecimal(netSalary));
+        payroll.setNetSalary(new BigDecimal(netSalary));
+        payroll.setPaymentStatus(status);
+        entityManager.persist(payroll);
+    }
+}
@@ -0,0 +1,239 @@
+package com.hrm.system.service.impl;
+
+import com.hrm.system.entity.PunchDeadLetter;
+import com.hrm.system.entity.User;
+import com.hrm.system.repository.AttendanceRepository;
+import com.hrm.system.repository.PunchDeadLetterRepository;
+import com.hrm.system.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Runs the queue with its writer thread against mocked repositories; a mocked transaction manager
+ * leaves no synchronization active, so claims complete as soon as a write returns.
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class PunchIngestionQueueTest {
+
+    private static final long WAIT_MS = 2000;
+
+    @Mock
+    private AttendanceRepository attendanceRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private PunchDeadLetterRepository deadLetterRepository;
+
+    @Mock
+    private AttendanceSummaryRollup attendanceSummaryRollup;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final LocalDate today = LocalDate.now();
+
+    private PunchStateIndex punchStateIndex;
+
+    private PunchIngestionQueue queue;
+
+    @BeforeEach
+    void setUp() {
+        punchStateIndex = new PunchStateIndex();
+        ReflectionTestUtils.setField(punchStateIndex, "attendanceRepository", attendanceRepository);
+        queue = newQueue(100);
+        queue.start();
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        queue.stop();
+    }
+
+    private PunchIngestionQueue newQueue(int capacity) {
+        return new PunchIngestionQueue(punchStateIndex, attendanceRepository, userRepository, deadLetterRepository,
+                attendanceSummaryRollup, jdbcTemplate, transactionManager, meterRegistry, capacity, 200, 0, 5);
+    }
+
+    @Test
+    void queuedPunchInIsWrittenAndConfirmed() {
+        queue.submitPunchIn(user(1L), "Office", null, null);
+
+        verify(attendanceRepository, timeout(WAIT_MS)).saveAllAndFlush(anyList());
+        awaitPhase(1L, PunchStateIndex.Phase.PUNCHED_IN);
+        assertThrows(RuntimeException.class, () -> queue.submitPunchIn(user(1L), "Office", null, null));
+        verify(deadLetterRepository, never()).save(any());
+    }
+
+    @Test
+    void unwritablePunchInIsKeptAsDeadLetterAndReleased() {
+        when(attendanceRepository.saveAllAndFlush(anyList())).thenThrow(new DataIntegrityViolationException("duplicate"));
+
+        queue.submitPunchIn(user(1L), "Office", null, null);
+
+        ArgumentCaptor<PunchDeadLetter> saved = ArgumentCaptor.forClass(PunchDeadLetter.class);
+        verify(deadLetterRepository, timeout(WAIT_MS)).save(saved.capture());
+        PunchDeadLetter deadLetter = saved.getValue();
+        assertEquals(1L, deadLetter.getUserId());
+        assertEquals(today, deadLetter.getPunchDate());
+        assertTrue(deadLetter.isPunchIn());
+        assertEquals(1, deadLetter.getAttempts());
+        assertEquals("duplicate", deadLetter.getLastError());
+        assertNull(punchStateIndex.stateOf(1L, today));
+        assertEquals(1.0, meterRegistry.get("hrm.punch.failed").counter().count());
+    }
+
+    @Test
+    void punchOutWithoutOpenRecordIsKeptAsDeadLetter() {
+        queue.submitPunchIn(user(1L), "Office", null, null);
+        awaitPhase(1L, PunchStateIndex.Phase.PUNCHED_IN);
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenReturn(new int[] {0});
+
+        queue.submitPunchOut(user(1L), "Office", null, null);
+
+        ArgumentCaptor<PunchDeadLetter> saved = ArgumentCaptor.forClass(PunchDeadLetter.class);
+        verify(deadLetterRepository, timeout(WAIT_MS)).save(saved.capture());
+        assertFalse(saved.getValue().isPunchIn());
+        assertEquals(PunchStateIndex.Phase.PUNCHED_IN, punchStateIndex.stateOf(1L, today).phase());
+    }
+
+    @Test
+    void retriedDeadLetterIsResolvedOnceWritten() {
+        when(deadLetterRepository.findRetryable(today, 5)).thenReturn(List.of(deadLetter(7L, 1L, true, 1)));
+
+        queue.retryDeadLetters();
+
+        verify(deadLetterRepository, timeout(WAIT_MS)).markResolved(eq(List.of(7L)), any());
+        awaitPhase(1L, PunchStateIndex.Phase.PUNCHED_IN);
+    }
+
+    @Test
+    void retryThatFailsAgainCountsAnotherAttempt() {
+        PunchDeadLetter deadLetter = deadLetter(7L, 1L, true, 1);
+        when(deadLetterRepository.findRetryable(today, 5)).thenReturn(List.of(deadLetter));
+        when(deadLetterRepository.findById(7L)).thenReturn(Optional.of(deadLetter));
+        when(attendanceRepository.saveAllAndFlush(anyList())).thenThrow(new DataIntegrityViolationException("still failing"));
+
+        queue.retryDeadLetters();
+
+        verify(deadLetterRepository, timeout(WAIT_MS)).save(deadLetter);
+        assertEquals(2, deadLetter.getAttempts());
+        assertEquals("still failing", deadLetter.getLastError());
+        verify(deadLetterRepository, never()).markResolved(anyList(), any());
+    }
+
+    @Test
+    void deadLetterOfAPunchMadeAgainIsSuperseded() {
+        queue.submitPunchIn(user(1L), "Office", null, null);
+        awaitPhase(1L, PunchStateIndex.Phase.PUNCHED_IN);
+        when(deadLetterRepository.findRetryable(today, 5)).thenReturn(List.of(deadLetter(7L, 1L, true, 1)));
+
+        queue.retryDeadLetters();
+
+        verify(deadLetterRepository).markResolved(eq(List.of(7L)), any());
+    }
+
+    @Test
+    void statusReportsPhaseAndFailures() {
+        when(deadLetterRepository.findByUserIdAndPunchDateOrderById(2L, today))
+                .thenReturn(List.of(deadLetter(7L, 2L, true, 3)));
+        queue.submitPunchIn(user(1L), "Office", null, null);
+        awaitPhase(1L, PunchStateIndex.Phase.PUNCHED_IN);
+
+        PunchIngestionQueue.PunchStatus written = queue.statusOf(1L, today);
+        assertEquals(PunchStateIndex.Phase.PUNCHED_IN, written.phase());
+        assertTrue(written.failures().isEmpty());
+
+        PunchIngestionQueue.PunchStatus failed = queue.statusOf(2L, today);
+        assertNull(failed.phase());
+        assertEquals(1, failed.failures().size());
+        assertEquals("IN", failed.failures().get(0).punch());
+        assertEquals(3, failed.failures().get(0).attempts());
+    }
+
+    @Test
+    void fullQueueRejectsAndReleasesTheClaim() throws InterruptedException {
+        queue.stop();
+        queue = newQueue(1);
+
+        queue.submitPunchIn(user(1L), "Office", null, null);
+        assertThrows(RejectedExecutionException.class, () -> queue.submitPunchIn(user(2L), "Office", null, null));
+
+        assertNull(punchStateIndex.stateOf(2L, today));
+        assertEquals(1.0, meterRegistry.get("hrm.punch.rejected").counter().count());
+        queue.start();
+    }
+
+    private void awaitPhase(Long userId, PunchStateIndex.Phase phase) {
+        long deadline = System.currentTimeMillis() + WAIT_MS;
+        while (System.currentTimeMillis() < deadline) {
+            PunchStateIndex.PunchState state = punchStateIndex.stateOf(userId, today);
+            if (state != null && state.phase() == phase) {
+                return;
+            }
+            Thread.onSpinWait();
+        }
+        PunchStateIndex.PunchState state = punchStateIndex.stateOf(userId, today);
+        assertEquals(phase, state != null ? state.phase() : null);
+    }
+
+    private static User user(Long id) {
+        User user = new User();
+        user.setId(id);
+        user.setFirstName("Test");
+        user.setLastName("User" + id);
+        return user;
+    }
+
+    private PunchDeadLetter deadLetter(Long id, Long userId, boolean punchIn, int attempts) {
+        PunchDeadLetter deadLetter = new PunchDeadLetter();
+        deadLetter.setId(id);
+        deadLetter.setUserId(userId);
+        deadLetter.setPunchDate(today);
+        deadLetter.setPunchIn(punchIn);
+        deadLetter.setPunchTime(LocalTime.of(9, 0));
+        deadLetter.setAttempts(attempts);
+        deadLetter.setLastError("failed");
+        return deadLetter;
+    }
+}
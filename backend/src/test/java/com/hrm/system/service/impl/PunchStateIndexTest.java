@@ -0,0 +1,128 @@
+package com.hrm.system.service.impl;
+
+import com.hrm.system.repository.AttendanceRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class PunchStateIndexTest {
+
+    private static final LocalTime NINE = LocalTime.of(9, 0);
+
+    @Mock
+    private AttendanceRepository attendanceRepository;
+
+    @InjectMocks
+    private PunchStateIndex index;
+
+    private final LocalDate today = LocalDate.now();
+
+    @Test
+    void punchInClaimBlocksASecondPunchInUntilRolledBack() {
+        PunchStateIndex.Claim claim = index.tryBeginPunchIn(1L, today, NINE);
+        assertNotNull(claim);
+        assertEquals(PunchStateIndex.Phase.PUNCHING_IN, index.stateOf(1L, today).phase());
+        assertNull(index.tryBeginPunchIn(1L, today, NINE));
+
+        claim.complete(false);
+        assertNull(index.stateOf(1L, today));
+        assertNotNull(index.tryBeginPunchIn(1L, today, NINE));
+    }
+
+    @Test
+    void committedPunchInAllowsOnePunchOut() {
+        index.tryBeginPunchIn(1L, today, NINE).complete(true);
+        assertEquals(new PunchStateIndex.PunchState(PunchStateIndex.Phase.PUNCHED_IN, NINE), index.stateOf(1L, today));
+
+        PunchStateIndex.Claim punchOut = index.tryBeginPunchOut(1L, today);
+        assertNotNull(punchOut);
+        assertEquals(NINE, punchOut.punchInTime());
+        assertNull(index.tryBeginPunchOut(1L, today));
+        assertTrue(index.stateOf(1L, today).punchedOut());
+
+        punchOut.complete(true);
+        assertEquals(PunchStateIndex.Phase.PUNCHED_OUT, index.stateOf(1L, today).phase());
+        assertNull(index.tryBeginPunchOut(1L, today));
+        assertNull(index.tryBeginPunchIn(1L, today, NINE));
+    }
+
+    @Test
+    void rolledBackPunchOutRestoresPunchedIn() {
+        index.tryBeginPunchIn(1L, today, NINE).complete(true);
+        index.tryBeginPunchOut(1L, today).complete(false);
+
+        assertEquals(PunchStateIndex.Phase.PUNCHED_IN, index.stateOf(1L, today).phase());
+        assertNotNull(index.tryBeginPunchOut(1L, today));
+    }
+
+    @Test
+    void punchOutNeedsACommittedPunchIn() {
+        assertNull(index.tryBeginPunchOut(1L, today));
+        index.tryBeginPunchIn(1L, today, NINE);
+        assertNull(index.tryBeginPunchOut(1L, today));
+    }
+
+    @Test
+    void dayIsLoadedFromStoredRecords() {
+        AttendanceRepository.PunchRow punchedIn = row(1L, NINE, null);
+        AttendanceRepository.PunchRow punchedOut = row(2L, NINE, LocalTime.of(17, 0));
+        when(attendanceRepository.findPunchRowsByDate(today)).thenReturn(List.of(punchedIn, punchedOut));
+
+        assertEquals(PunchStateIndex.Phase.PUNCHED_IN, index.stateOf(1L, today).phase());
+        assertEquals(PunchStateIndex.Phase.PUNCHED_OUT, index.stateOf(2L, today).phase());
+        assertNull(index.tryBeginPunchIn(1L, today, NINE));
+        assertNotNull(index.tryBeginPunchOut(1L, today));
+        assertNull(index.tryBeginPunchOut(2L, today));
+    }
+
+    @Test
+    void concurrentPunchInsYieldOneClaim() throws Exception {
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<PunchStateIndex.Claim>> results = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            results.add(executor.submit(() -> {
+                start.await();
+                return index.tryBeginPunchIn(1L, today, NINE);
+            }));
+        }
+        start.countDown();
+        int claims = 0;
+        for (Future<PunchStateIndex.Claim> result : results) {
+            if (result.get(5, TimeUnit.SECONDS) != null) {
+                claims++;
+            }
+        }
+        executor.shutdown();
+        assertEquals(1, claims);
+    }
+
+    private static AttendanceRepository.PunchRow row(Long userId, LocalTime punchIn, LocalTime punchOut) {
+        AttendanceRepository.PunchRow row = mock(AttendanceRepository.PunchRow.class);
+        when(row.getUserId()).thenReturn(userId);
+        when(row.getPunchInTime()).thenReturn(punchIn);
+        when(row.getPunchOutTime()).thenReturn(punchOut);
+        return row;
+    }
+}
@@ -0,0 +1,80 @@
+package com.hrm.system.service.impl;
+
+import com.hrm.system.entity.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * First page of a ranked search over 100k synthetic users. The target is under a millisecond per query.
+ * Selective queries (an employee ID, a phone number, a surname prefix) take 15-25 us and multi-term
+ * queries 100-300 us. A single one to three character term, which matches thousands of users, reads its
+ * page off the short term buckets in about 1 us instead of scoring every hit (1.5-2.8 ms before).
+ * <p>
+ * Run with {@code mvn test-compile} and then this class's main method on the test classpath.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UserSearchIndexBenchmark {
+
+    private static final String[] FIRST_NAMES = {"james", "mary", "john", "patricia", "robert", "jennifer", "michael",
+            "linda", "william", "elizabeth", "david", "barbara", "richard", "susan", "joseph", "jessica", "thomas",
+            "sarah", "charles", "karen"};
+
+    private static final String[] LAST_NAMES = {"smith", "johnson", "williams", "brown", "jones", "garcia", "miller",
+            "davis", "rodriguez", "martinez", "hernandez", "lopez", "gonzalez", "wilson", "anderson", "thomas",
+            "taylor", "moore", "jackson", "martin"};
+
+    @Param("100000")
+    private int users;
+
+    @Param({"emp004217", "5551234", "smithk", "jennifer gar", "sarah.tay", "mar", "ja", "j"})
+    private String query;
+
+    private UserSearchIndex index;
+
+    @Setup(Level.Trial)
+    public void populate() {
+        index = new UserSearchIndex();
+        Random random = new Random(42);
+        for (int i = 1; i <= users; i++) {
+            User user = new User();
+            user.setId((long) i);
+            user.setFirstName(FIRST_NAMES[random.nextInt(FIRST_NAMES.length)]
+                    + (random.nextInt(5) == 0 ? "a" + Integer.toString(random.nextInt(1000), 36) : ""));
+            user.setLastName(LAST_NAMES[random.nextInt(LAST_NAMES.length)] + Integer.toString(random.nextInt(46656), 36));
+            user.setEmail(user.getFirstName() + "." + user.getLastName() + i + "@hrm.com");
+            user.setEmployeeId("EMP" + String.format("%06d", i));
+            user.setPhoneNumber("+1-555-" + String.format("%07d", random.nextInt(10_000_000)));
+            index.put(user);
+        }
+    }
+
+    @Benchmark
+    public UserSearchIndex.Result firstPage() {
+        return index.search(query, 0, 20);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(UserSearchIndexBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,137 @@
+package com.hrm.system.service.impl;
+
+import com.hrm.system.entity.User;
+import com.hrm.system.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class UserSearchIndexTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @InjectMocks
+    private UserSearchIndex index;
+
+    @Test
+    void exactNameRanksAbovePrefixAndInfix() {
+        warm(user(1L, "EMP001", "Marianne", "Lee", "m.lee@test.com"),
+                user(2L, "EMP002", "Omar", "Khan", "o.khan@test.com"),
+                user(3L, "EMP003", "Mar", "Costa", "mc@test.com"),
+                user(4L, "EMP004", "Jane", "Doe", "mark@test.com"));
+
+        UserSearchIndex.Result result = index.search("mar", 0, 10);
+
+        assertEquals(List.of(3L, 1L, 4L, 2L), result.userIds());
+        assertEquals(4, result.total());
+    }
+
+    @Test
+    void everyTermMustMatch() {
+        warm(user(1L, "EMP001", "Jennifer", "Garcia", "jg@test.com"),
+                user(2L, "EMP002", "Jennifer", "Smith", "js@test.com"),
+                user(3L, "EMP003", "Maria", "Garcia", "mg@test.com"));
+
+        assertEquals(List.of(1L), index.search("Jennifer GAR", 0, 10).userIds());
+        assertEquals(List.of(1L, 2L), index.search("j", 0, 10).userIds());
+        assertEquals(0, index.search("jennifer zz", 0, 10).total());
+    }
+
+    @Test
+    void otherFieldsAreSearchable() {
+        warm(user(1L, "EMP004217", "Ann", "Smith", "ann.smith@test.com"),
+                user(2L, "EMP000001", "Bob", "Jones", "bob@test.com"));
+
+        assertEquals(List.of(1L), index.search("emp004217", 0, 10).userIds());
+        assertEquals(List.of(1L), index.search("ann.smith@test.com", 0, 10).userIds());
+        assertEquals(List.of(2L), index.search("5550002", 0, 10).userIds());
+    }
+
+    @Test
+    void trigramFalsePositiveIsDropped() {
+        warm(user(1L, "EMP001", "Abcd", "Bcde", "x@test.com"));
+
+        assertEquals(0, index.search("abcde", 0, 10).total());
+    }
+
+    @Test
+    void pagesWalkTheRankingWithTiesInIndexOrder() {
+        List<User> users = new ArrayList<>();
+        users.add(user(1L, "EMP001", "Sam", "Exact", "s1@test.com"));
+        for (long id = 2; id <= 8; id++) {
+            users.add(user(id, "EMP00" + id, "Samuel", "Prefix", "s" + id + "@test.com"));
+        }
+        warm(users.toArray(new User[0]));
+
+        assertEquals(List.of(1L, 2L, 3L), index.search("sam", 0, 3).userIds());
+        assertEquals(List.of(4L, 5L, 6L), index.search("sam", 3, 3).userIds());
+        UserSearchIndex.Result last = index.search("sam", 6, 3);
+        assertEquals(List.of(7L, 8L), last.userIds());
+        assertEquals(8, last.total());
+        assertTrue(index.search("sam", 9, 3).userIds().isEmpty());
+    }
+
+    @Test
+    void changedUserIsFoundUnderTheNewName() {
+        User user = user(1L, "EMP001", "Alice", "Brown", "ab@test.com");
+        warm(user, user(2L, "EMP002", "Carol", "White", "cw@test.com"));
+
+        user.setLastName("Green");
+        index.put(user);
+        index.remove(2L);
+
+        assertTrue(index.search("brown", 0, 10).userIds().isEmpty());
+        assertEquals(List.of(1L), index.search("green", 0, 10).userIds());
+        assertTrue(index.search("carol", 0, 10).userIds().isEmpty());
+    }
+
+    @Test
+    void shortTermPagesAndTotalsFollowChanges() {
+        User renamed = user(2L, "EMP002", "Jo", "Park", "jp@test.com");
+        warm(user(1L, "EMP001", "Joan", "Lee", "jl@test.com"),
+                renamed,
+                user(3L, "EMP003", "Ann", "Jones", "aj@test.com"),
+                user(4L, "EMP004", "Kim", "Cho", "kc@test.com"));
+
+        assertEquals(List.of(2L, 1L, 3L), index.search("jo", 0, 10).userIds());
+        assertEquals(List.of(3L), index.search("jo", 2, 10).userIds());
+        assertEquals(List.of(4L), index.search("cho", 0, 10).userIds());
+
+        renamed.setFirstName("Paul");
+        index.put(renamed);
+        index.remove(3L);
+
+        UserSearchIndex.Result result = index.search("jo", 0, 1);
+        assertEquals(List.of(1L), result.userIds());
+        assertEquals(1, result.total());
+        assertEquals(List.of(2L), index.search("p", 0, 10).userIds());
+        assertEquals(0, index.search("jo", 1, 10).userIds().size());
+    }
+
+    private void warm(User... users) {
+        when(userRepository.findAll()).thenReturn(List.of(users));
+        index.warm();
+    }
+
+    private static User user(Long id, String employeeId, String firstName, String lastName, String email) {
+        User user = new User();
+        user.setId(id);
+        user.setEmployeeId(employeeId);
+        user.setFirstName(firstName);
+        user.setLastName(lastName);
+        user.setEmail(email);
+        user.setPhoneNumber("555-000-" + id);
+        return user;
+    }
+}
@@ -116,6 +116,16 @@ export interface AttendanceSummary {
   totalEmployees: number;
 }
 
+export interface StatusRecomputeResult {
+  date: string;
+  dryRun: boolean;
+  totalRecords: number;
+  changedRecords: number;
+  presentCount: number;
+  halfDayCount: number;
+  absentCount: number;
+}
+
 // Helper functions
 export function getAttendanceStatusDisplay(status: AttendanceStatus): string {
   switch (status) {
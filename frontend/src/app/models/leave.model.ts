@@ -109,14 +109,45 @@ export interface LeaveNotification {
 
 export interface LeaveBalance {
   userId: number;
-  employeeName: string;
-  totalLeaves: number;
+  employeeName?: string;
+  year: number;
+  totalLeaves: number | null;
   usedLeaves: number;
-  remainingLeaves: number;
+  remainingLeaves: number | null;
   pendingLeaves: number;
   leaveType: LeaveType;
 }
 
+export interface LeaveCalendarDay {
+  date: string;
+  approved: number;
+  pending: number;
+}
+
+export interface LeaveOff {
+  leaveId: number;
+  userId: number;
+  employeeName: string;
+  department: string;
+  leaveType: LeaveType;
+  status: LeaveStatus;
+  startDate: string;
+  endDate: string;
+}
+
+export interface LeaveDecisionResult {
+  leaveId: number;
+  outcome: 'APPROVED' | 'NOT_FOUND' | 'FORBIDDEN' | 'NOT_PENDING';
+  message: string | null;
+  leave: Leave | null;
+}
+
+export interface LeaveBatchResult {
+  requested: number;
+  approved: number;
+  results: LeaveDecisionResult[];
+}
+
 // Helper functions
 export function getLeaveTypeDisplay(type: LeaveType): string {
   switch (type) {
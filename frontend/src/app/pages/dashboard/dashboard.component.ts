@@ -7,7 +7,7 @@ import { AuthService } from '../../services/auth.service';
 import { DashboardService, DashboardActivity } from '../../services/dashboard.service';
 import { User, UserStatistics } from '../../models/user.model';
 import { AttendanceStatistics } from '../../models/attendance.model';
-import { LeaveStatistics } from '../../models/leave.model';
+import { LeaveBalance, LeaveStatistics } from '../../models/leave.model';
 
 @Component({
   selector: 'app-dashboard',
@@ -1026,7 +1026,6 @@ export class DashboardComponent implements OnInit {
   recentActivities: DashboardActivity[] = [];
   todayAttendance: any = null; // Added for today's attendance
   userAttendanceStats: any = null; // Added for user's attendance statistics
-  userLeaves: any[] = []; // Added for user's leave records
   leaveBalance: { [key: string]: number } = {}; // Added for calculated leave balance
   
   constructor(
@@ -1118,57 +1117,21 @@ export class DashboardComponent implements OnInit {
         }
       });
 
-      // Load user's leave records to calculate balance
-      this.leaveService.getCurrentUserLeaves().subscribe({
-        next: (leaves: any[]) => {
-          this.userLeaves = leaves;
-          this.calculateLeaveBalance();
+      // Load user's leave balances for the current year
+      this.leaveService.getLeaveBalances(this.currentUser.id).subscribe({
+        next: (balances: LeaveBalance[]) => {
+          this.leaveBalance = {};
+          balances.forEach(balance => {
+            this.leaveBalance[balance.leaveType] = Math.max(0, balance.remainingLeaves ?? 0);
+          });
         },
         error: (error: any) => {
-          console.error('Error loading user leaves:', error);
+          console.error('Error loading leave balances:', error);
         }
       });
     }
   }
 
-  // Add method to calculate leave balance from actual leave records
-  calculateLeaveBalance(): void {
-    if (!this.userLeaves) return;
-
-    const currentYear = new Date().getFullYear();
-    const approvedLeaves = this.userLeaves.filter(leave => 
-      leave.status === 'APPROVED' && 
-      new Date(leave.startDate).getFullYear() === currentYear
-    );
-
-    // Calculate used days by leave type
-    const usedByType: { [key: string]: number } = {};
-    approvedLeaves.forEach(leave => {
-      const type = leave.leaveType;
-      const days = leave.totalDays || 1;
-      usedByType[type] = (usedByType[type] || 0) + days;
-    });
-
-    // Default leave allowances (can be made configurable)
-    const defaultAllowances = {
-      'ANNUAL': 20,
-      'SICK': 10,
-      'PERSONAL': 5,
-      'MATERNITY': 90,
-      'PATERNITY': 14,
-      'BEREAVEMENT': 5,
-      'UNPAID': 0
-    };
-
-    // Calculate remaining leaves
-    this.leaveBalance = {};
-    Object.keys(defaultAllowances).forEach(type => {
-      const used = usedByType[type] || 0;
-      const allowance = defaultAllowances[type as keyof typeof defaultAllowances];
-      this.leaveBalance[type] = Math.max(0, allowance - used);
-    });
-  }
-
   getLeaveBalance(leaveType: string): number {
     if (!this.leaveBalance) {
       // Return default values if data not loaded yet
@@ -13,7 +13,8 @@ import {
   AttendanceFilters,
   PaginatedAttendanceResponse,
   AttendanceReport,
-  AttendanceSummary
+  AttendanceSummary,
+  StatusRecomputeResult
 } from '../models/attendance.model';
 import { Department } from '../models/user.model';
 
@@ -169,16 +170,27 @@ export class AttendanceService {
   }
 
   // Statistics Operations
-  getAttendanceStatistics(): Observable<AttendanceStatistics> {
-    return this.http.get<AttendanceStatistics>(`${this.apiUrl}/statistics`);
+  getAttendanceStatistics(startDate?: string, endDate?: string): Observable<AttendanceStatistics> {
+    return this.http.get<AttendanceStatistics>(`${this.apiUrl}/statistics`, { params: this.dateWindowParams(startDate, endDate) });
   }
 
-  getUserAttendanceStatistics(userId: number): Observable<UserAttendanceStatistics> {
-    return this.http.get<UserAttendanceStatistics>(`${this.apiUrl}/statistics/user/${userId}`);
+  getUserAttendanceStatistics(userId: number, startDate?: string, endDate?: string): Observable<UserAttendanceStatistics> {
+    return this.http.get<UserAttendanceStatistics>(`${this.apiUrl}/statistics/user/${userId}`, { params: this.dateWindowParams(startDate, endDate) });
   }
 
-  getDepartmentAttendanceStatistics(department: string): Observable<DepartmentAttendanceStatistics> {
-    return this.http.get<DepartmentAttendanceStatistics>(`${this.apiUrl}/statistics/department/${department}`);
+  getDepartmentAttendanceStatistics(department: string, startDate?: string, endDate?: string): Observable<DepartmentAttendanceStatistics> {
+    return this.http.get<DepartmentAttendanceStatistics>(`${this.apiUrl}/statistics/department/${department}`, { params: this.dateWindowParams(startDate, endDate) });
+  }
+
+  private dateWindowParams(startDate?: string, endDate?: string): HttpParams {
+    let params = new HttpParams();
+    if (startDate) {
+      params = params.set('startDate', startDate);
+    }
+    if (endDate) {
+      params = params.set('endDate', endDate);
+    }
+    return params;
   }
 
   // Working Hours Operations
@@ -195,8 +207,9 @@ export class AttendanceService {
   }
 
   // Update attendance status for a specific date
-  updateAttendanceStatusForDate(date: string): Observable<string> {
-    return this.http.post<string>(`${this.apiUrl}/update-status-for-date/${date}`, {});
+  updateAttendanceStatusForDate(date: string, dryRun = false): Observable<StatusRecomputeResult> {
+    const params = new HttpParams().set('dryRun', dryRun.toString());
+    return this.http.post<StatusRecomputeResult>(`${this.apiUrl}/update-status-for-date/${date}`, {}, { params });
   }
 
   // Helper Methods
@@ -14,7 +14,10 @@ import {
   LeaveFilters,
   PaginatedLeaveResponse,
   LeaveNotification,
-  LeaveBalance
+  LeaveBalance,
+  LeaveCalendarDay,
+  LeaveOff,
+  LeaveBatchResult
 } from '../models/leave.model';
 
 @Injectable({
@@ -94,6 +97,10 @@ export class LeaveService {
     return this.http.patch<Leave>(`${this.apiUrl}/${id}/approve`, approval);
   }
 
+  approveLeavesBatch(ids: number[], comments?: string): Observable<LeaveBatchResult> {
+    return this.http.post<LeaveBatchResult>(`${this.apiUrl}/approve-batch`, { ids, comments });
+  }
+
   rejectLeave(id: number, rejection: LeaveRejection): Observable<Leave> {
     const params = new HttpParams().set('reason', rejection.rejectionReason);
     return this.http.patch<Leave>(`${this.apiUrl}/${id}/reject`, {}, { params });
@@ -103,6 +110,28 @@ export class LeaveService {
     return this.http.patch<Leave>(`${this.apiUrl}/${id}/cancel`, {});
   }
 
+  // Calendar Operations
+  getLeaveCalendar(startDate: string, endDate: string, department?: string): Observable<LeaveCalendarDay[]> {
+    let params = new HttpParams()
+      .set('startDate', startDate)
+      .set('endDate', endDate);
+    if (department) {
+      params = params.set('department', department);
+    }
+    return this.http.get<LeaveCalendarDay[]>(`${this.apiUrl}/calendar`, { params });
+  }
+
+  getLeavesOff(startDate: string, endDate?: string, department?: string): Observable<LeaveOff[]> {
+    let params = new HttpParams().set('startDate', startDate);
+    if (endDate) {
+      params = params.set('endDate', endDate);
+    }
+    if (department) {
+      params = params.set('department', department);
+    }
+    return this.http.get<LeaveOff[]>(`${this.apiUrl}/off`, { params });
+  }
+
   // Statistics Operations
   getLeaveStatistics(): Observable<LeaveStatistics> {
     return this.http.get<LeaveStatistics>(`${this.apiUrl}/statistics`);
@@ -112,6 +141,14 @@ export class LeaveService {
     return this.http.get<UserLeaveStatistics>(`${this.apiUrl}/statistics/user/${userId}`);
   }
 
+  getLeaveBalances(userId: number, year?: number): Observable<LeaveBalance[]> {
+    let params = new HttpParams();
+    if (year) {
+      params = params.set('year', year.toString());
+    }
+    return this.http.get<LeaveBalance[]>(`${this.apiUrl}/balance/user/${userId}`, { params });
+  }
+
   getPendingLeavesCount(): Observable<number> {
     return this.http.get<number>(`${this.apiUrl}/count/pending`);
   }
@@ -35,6 +35,28 @@ export interface PayrollStatistics {
   averageSalary: number;
 }
 
+export enum PayrollRunStatus {
+  PENDING = 'PENDING',
+  RUNNING = 'RUNNING',
+  COMPLETED = 'COMPLETED',
+  FAILED = 'FAILED'
+}
+
+export interface PayrollRun {
+  id: number;
+  payPeriod: string;
+  status: PayrollRunStatus;
+  chunkSize: number;
+  totalEmployees: number;
+  processedEmployees: number;
+  completedChunks: number;
+  progress: number;
+  lastProcessedUserId?: number;
+  errorMessage?: string;
+  startedAt?: Date;
+  completedAt?: Date;
+}
+
 export interface CreatePayrollRequest {
   userId: number;
   month: number;
@@ -143,8 +165,15 @@ export class PayrollService {
   }
 
   // Get payroll statistics
-  getPayrollStatistics(): Observable<PayrollStatistics> {
-    return this.http.get<PayrollStatistics>(`${this.apiUrl}/statistics`);
+  getPayrollStatistics(month?: number, year?: number, department?: string): Observable<PayrollStatistics> {
+    let params = new HttpParams();
+    if (month && year) {
+      params = params.set('month', month.toString()).set('year', year.toString());
+    }
+    if (department) {
+      params = params.set('department', department);
+    }
+    return this.http.get<PayrollStatistics>(`${this.apiUrl}/statistics`, { params });
   }
 
   // Get user payroll statistics
@@ -157,6 +186,14 @@ export class PayrollService {
     return this.http.get(`${this.apiUrl}/${id}/payslip`, { responseType: 'blob' });
   }
 
+  // Export all payslips for a pay period as a ZIP archive
+  exportPayslips(month: number, year: number): Observable<Blob> {
+    const params = new HttpParams()
+      .set('month', month.toString())
+      .set('year', year.toString());
+    return this.http.get(`${this.apiUrl}/payslips/export`, { params, responseType: 'blob' });
+  }
+
   // Helper method to format currency
   formatCurrency(amount: number): string {
     return new Intl.NumberFormat('en-US', {
@@ -212,10 +249,23 @@ export class PayrollService {
   }
 
   // Generate payroll for all employees
-  generatePayroll(month: number, year: number): Observable<Payroll[]> {
+  generatePayroll(month: number, year: number): Observable<PayrollRun> {
     const params = new HttpParams()
       .set('month', month.toString())
       .set('year', year.toString());
-    return this.http.post<Payroll[]>(`${this.apiUrl}/generate`, {}, { params });
+    return this.http.post<PayrollRun>(`${this.apiUrl}/generate`, {}, { params });
+  }
+
+  // Payroll runs
+  getPayrollRuns(): Observable<PayrollRun[]> {
+    return this.http.get<PayrollRun[]>(`${this.apiUrl}/runs`);
+  }
+
+  getPayrollRun(runId: number): Observable<PayrollRun> {
+    return this.http.get<PayrollRun>(`${this.apiUrl}/runs/${runId}`);
+  }
+
+  resumePayrollRun(runId: number): Observable<PayrollRun> {
+    return this.http.post<PayrollRun>(`${this.apiUrl}/runs/${runId}/resume`, {});
   }
 } 
\ No newline at end of file